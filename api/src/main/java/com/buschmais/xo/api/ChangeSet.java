@@ -0,0 +1,55 @@
+package com.buschmais.xo.api;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The instances which have been created, updated or deleted by a committed transaction, see
+ * {@link com.buschmais.xo.api.annotation.PostCommit}.
+ * <p>Each instance is reported once: instances created by the transaction are not reported as updated, instances created and deleted
+ * by the same transaction are not reported at all.</p>
+ */
+public interface ChangeSet {
+
+    /**
+     * Return the created instances.
+     *
+     * @return The created instances.
+     */
+    Collection<Change> getCreated();
+
+    /**
+     * Return the updated instances.
+     *
+     * @return The updated instances.
+     */
+    Collection<Change> getUpdated();
+
+    /**
+     * Return the deleted instances.
+     *
+     * @return The deleted instances.
+     */
+    Collection<Change> getDeleted();
+
+    /**
+     * Describes a changed instance.
+     */
+    interface Change {
+
+        /**
+         * Return the id of the instance, see {@link XOManager#getId(Object)}.
+         *
+         * @param <Id> The id type.
+         * @return The id.
+         */
+        <Id> Id getId();
+
+        /**
+         * Return the types of the instance.
+         *
+         * @return The types.
+         */
+        Set<Class<?>> getTypes();
+    }
+}
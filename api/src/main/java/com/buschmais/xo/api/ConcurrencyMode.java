@@ -1,9 +1,35 @@
 package com.buschmais.xo.api;
 
 /**
- * Created by dimahler on 1/14/14.
+ * Defines how concurrent access to a {@link XOManager} and its instances is handled.
  */
 public enum ConcurrencyMode {
+
+    /**
+     * No synchronization, the session must only be used by one thread.
+     */
     SINGLETHREADED,
-    MULTITHREADED;
+
+    /**
+     * All invocations are serialized by one lock per session.
+     */
+    MULTITHREADED,
+
+    /**
+     * Invocations which only read (e.g. getters, iterations over query results and <code>@ResultOf</code> methods declared as read-only)
+     * share a read lock, all other invocations (including the execution of queries) require the exclusive write lock of the session.
+     */
+    READ_WRITE,
+
+    /**
+     * Property accesses on instances are serialized by a lock stripe determined by the id of the instance, all other invocations require
+     * exclusive access to the session.
+     */
+    STRIPED,
+
+    /**
+     * The session is confined to the thread which accesses it first, access by other threads fails immediately. The ownership may be
+     * handed off to another thread using {@link XOManager#release()}.
+     */
+    THREAD_CONFINED;
 }
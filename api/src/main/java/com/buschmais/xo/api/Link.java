@@ -0,0 +1,51 @@
+package com.buschmais.xo.api;
+
+/**
+ * Describes a typed relation to be created between a source and a target instance, see
+ * {@link com.buschmais.xo.api.XOManager#createRelations(Iterable, Class)}.
+ *
+ * @param <S> The type of the source instance.
+ * @param <R> The relation type.
+ * @param <T> The type of the target instance.
+ */
+public final class Link<S, R, T> {
+
+    private final S from;
+    private final T to;
+    private final Example<R> example;
+
+    /**
+     * Constructor.
+     *
+     * @param from The source instance.
+     * @param to   The target instance.
+     */
+    public Link(S from, T to) {
+        this(from, to, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param from    The source instance.
+     * @param to      The target instance.
+     * @param example The example used to initialize the relation, may be <code>null</code>.
+     */
+    public Link(S from, T to, Example<R> example) {
+        this.from = from;
+        this.to = to;
+        this.example = example;
+    }
+
+    public S getFrom() {
+        return from;
+    }
+
+    public T getTo() {
+        return to;
+    }
+
+    public Example<R> getExample() {
+        return example;
+    }
+}
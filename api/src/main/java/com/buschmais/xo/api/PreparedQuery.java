@@ -0,0 +1,38 @@
+package com.buschmais.xo.api;
+
+import java.util.Map;
+
+/**
+ * Defines a prepared query, i.e. the query language, the expression and the decoding of the result have been resolved once and are
+ * reused by all executions.
+ * <p>A prepared query may be executed any number of times within the {@link XOManager} it has been created by.</p>
+ *
+ * @param <T> The return type of the query.
+ */
+public interface PreparedQuery<T> {
+
+    /**
+     * Bind a parameter value to a new execution of the query.
+     *
+     * @param name  The parameter name.
+     * @param value The parameter value.
+     * @return The {@link Query} representing the execution.
+     */
+    Query<T> withParameter(String name, Object value);
+
+    /**
+     * Bind a map of parameter values to a new execution of the query.
+     *
+     * @param parameters The map of parameters consisting of names as keys and their values.
+     * @return The {@link Query} representing the execution.
+     */
+    Query<T> withParameters(Map<String, Object> parameters);
+
+    /**
+     * Execute the query without parameters.
+     *
+     * @return The {@link Query.Result} of the query.
+     */
+    Query.Result<T> execute();
+
+}
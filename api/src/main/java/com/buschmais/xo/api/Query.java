@@ -40,6 +40,8 @@ public interface Query<T> {
 
     /**
      * Defines the result of a query.
+     * <p>The columns of a row are decoded lazily on first access, i.e. they must be read within the transaction the query has been
+     * executed in. Values which are read after the transaction has been completed may not be available anymore.</p>
      *
      * @param <T> The type of the elements contained in the result.
      */
@@ -59,6 +61,7 @@ public interface Query<T> {
 
             /**
              * Return the value of column in row.
+             * <p>The value is decoded on first access which must happen within the transaction the query has been executed in.</p>
              *
              * @param name The column name.
              * @param type The type to be returned.
@@ -1,6 +1,7 @@
 package com.buschmais.xo.api;
 
 import javax.validation.ConstraintViolation;
+import java.util.List;
 import java.util.Set;
 
 import static com.buschmais.xo.api.Query.Result.CompositeRowObject;
@@ -95,6 +96,31 @@ public interface XOManager extends AutoCloseable {
      */
     <T> T create(Example<T> example, Class<T> type);
 
+    /**
+     * Create new property instances using a sequence of examples.
+     * <p>The entities are created by the datastore in batches which is significantly faster than invoking
+     * {@link #create(Example, Class)} for each example.</p>
+     *
+     * @param examples The example instances.
+     * @param type     The interface the property types shall implement.
+     * @param <T>      The expected return type.
+     * @return The created property instances in the order of the examples.
+     */
+    <T> List<T> createAll(Iterable<? extends Example<T>> examples, Class<T> type);
+
+    /**
+     * Create new entities using a sequence of examples without creating property instances for them.
+     * <p>The entities are created by the datastore in batches. As no instances are created neither
+     * {@link com.buschmais.xo.api.annotation.PostCreate} listeners are invoked nor the entities are validated on flush.</p>
+     *
+     * @param examples The example instances.
+     * @param type     The interface the property types shall implement.
+     * @param <T>      The type.
+     * @param <Id>     The id type.
+     * @return The ids of the created entities in the order of the examples, see {@link #getId(Object)}.
+     */
+    <T, Id> List<Id> insertAll(Iterable<? extends Example<T>> examples, Class<T> type);
+
     /**
      * Creates an instance of a typed relation between a source and a target instance.
      *
@@ -122,6 +148,21 @@ public interface XOManager extends AutoCloseable {
      */
     <S, R, T> R create(Example<R> example, S source, Class<R> relationType, T target);
 
+    /**
+     * Creates instances of a typed relation between pairs of source and target instances.
+     * <p>The relation metadata is resolved once per combination of source and target classes and the relations are created by the
+     * datastore in batches, which is significantly faster than invoking {@link #create(Example, Object, Class, Object)} for each
+     * pair.</p>
+     *
+     * @param links        The source and target instances and optional examples of the relations.
+     * @param relationType The relation type.
+     * @param <S>          The type of the source instances.
+     * @param <R>          The relation type.
+     * @param <T>          The type of the target instances.
+     * @return The created relation instances in the order of the links.
+     */
+    <S, R, T> List<R> createRelations(Iterable<? extends Link<S, R, T>> links, Class<R> relationType);
+
     /**
      * Return the id of the given instance.
      */
@@ -229,12 +270,49 @@ public interface XOManager extends AutoCloseable {
      */
     <Q> Query<CompositeRowObject> createQuery(Class<Q> query, Class<?>... types);
 
+    /**
+     * Prepares a {@link Query} for repeated execution.
+     *
+     * @param query The query expression.
+     * @return The {@link PreparedQuery}.
+     */
+    PreparedQuery<CompositeRowObject> prepareQuery(String query);
+
+    /**
+     * Prepares a typed {@link Query} for repeated execution.
+     *
+     * @param <T>   The type to be returned.
+     * @param query The query expression.
+     * @param type  The type to be returned.
+     * @return The {@link PreparedQuery}.
+     */
+    <T> PreparedQuery<T> prepareQuery(String query, Class<T> type);
+
+    /**
+     * Prepares a typed {@link Query} for repeated execution.
+     *
+     * @param <T>   The type to be returned.
+     * @param query The query type.
+     * @return The {@link PreparedQuery}.
+     */
+    <T> PreparedQuery<T> prepareQuery(Class<T> query);
+
     /**
      * Close the {@link com.buschmais.xo.api.XOManager}.
      */
     @Transaction(NOT_SUPPORTED)
     void close();
 
+    /**
+     * Release the ownership of the {@link com.buschmais.xo.api.XOManager} by the current thread if the
+     * {@link com.buschmais.xo.api.ConcurrencyMode#THREAD_CONFINED} is used, the next thread accessing it becomes the new owner.
+     * <p>This allows handing off a session to another thread, it has no effect for other concurrency modes.</p>
+     *
+     * @throws XOException If a transaction is active.
+     */
+    @Transaction(NOT_SUPPORTED)
+    void release();
+
     /**
      * Return the underlying datastore session.
      *
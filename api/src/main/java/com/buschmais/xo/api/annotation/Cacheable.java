@@ -0,0 +1,17 @@
+package com.buschmais.xo.api.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity type whose datastore state (i.e. discriminators and primitive properties) may be held in the second level cache which is
+ * shared by all {@link com.buschmais.xo.api.XOManager}s of an {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>The cached state is invalidated for modifications applied through XO instances. Modifications applied by queries or by direct access
+ * to the datastore are not detected, such entities should not be declared cacheable.</p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cacheable {
+}
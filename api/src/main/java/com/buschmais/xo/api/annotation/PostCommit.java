@@ -0,0 +1,16 @@
+package com.buschmais.xo.api.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of an instance listener which is notified about the changes of a successfully committed transaction.
+ * <p>The method must declare exactly one parameter of type {@link com.buschmais.xo.api.ChangeSet}. It is invoked asynchronously by
+ * a thread of the {@link com.buschmais.xo.api.XOManagerFactory}, i.e. the instances of the committing session must not be accessed.</p>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PostCommit {
+}
@@ -22,6 +22,12 @@ public @interface ResultOf {
      */
     String usingThisAs() default "this";
 
+    /**
+     * @return <code>true</code> if the query only reads from the datastore, such methods may be executed concurrently using
+     * {@link com.buschmais.xo.api.ConcurrencyMode#READ_WRITE}.
+     */
+    boolean readOnly() default false;
+
     /**
      * Specifies the parameter binding for a query.
      */
@@ -23,6 +23,10 @@ import static com.buschmais.xo.api.Transaction.TransactionAttribute;
 
 /**
  * Represents a XO unit, i.e. a configuration for a {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>The read cache of the sessions is configured by the properties <code>xo.cache.read.policy</code> (<code>WEAK</code>,
+ * <code>SOFT</code>, <code>LRU</code> or <code>NONE</code>) and <code>xo.cache.read.size</code>. The policy <code>NONE</code> does not
+ * preserve the identity of instances within a session: reading the same entity or relation again creates a new instance and invokes
+ * {@link com.buschmais.xo.api.annotation.PostLoad} listeners again.</p>
  */
 public class XOUnit {
 
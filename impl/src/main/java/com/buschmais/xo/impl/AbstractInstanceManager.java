@@ -5,7 +5,11 @@ import com.buschmais.xo.impl.cache.TransactionalCache;
 import com.buschmais.xo.impl.instancelistener.InstanceListenerService;
 import com.buschmais.xo.impl.proxy.InstanceInvocationHandler;
 import com.buschmais.xo.impl.proxy.ProxyMethodService;
+import com.buschmais.xo.impl.statistics.CacheStatistics;
 import com.buschmais.xo.spi.datastore.TypeMetadataSet;
+import com.buschmais.xo.spi.metadata.method.AbstractPropertyMethodMetadata;
+
+import java.util.BitSet;
 
 /**
  * Abstract base implementation of an instance manager.
@@ -19,18 +23,24 @@ public abstract class AbstractInstanceManager<DatastoreId, DatastoreType> {
     private final TransactionalCache<DatastoreId> cache;
     private final InstanceListenerService instanceListenerService;
     private final ProxyFactory proxyFactory;
+    private final MetadataProvider<?, ?, ?, ?> metadataProvider;
+    private final CacheStatistics cacheStatistics;
 
 
     /**
      * Constructor.
      *
-     * @param cache        The transactional cache.
-     * @param proxyFactory The proxy factory.
+     * @param cache            The transactional cache.
+     * @param proxyFactory     The proxy factory.
+     * @param metadataProvider The metadata provider.
+     * @param cacheStatistics  The cache statistics.
      */
-    public AbstractInstanceManager(TransactionalCache<DatastoreId> cache, InstanceListenerService instanceListenerService, ProxyFactory proxyFactory) {
+    public AbstractInstanceManager(TransactionalCache<DatastoreId> cache, InstanceListenerService instanceListenerService, ProxyFactory proxyFactory, MetadataProvider<?, ?, ?, ?> metadataProvider, CacheStatistics cacheStatistics) {
         this.cache = cache;
         this.instanceListenerService = instanceListenerService;
         this.proxyFactory = proxyFactory;
+        this.metadataProvider = metadataProvider;
+        this.cacheStatistics = cacheStatistics;
     }
 
     /**
@@ -45,22 +55,85 @@ public abstract class AbstractInstanceManager<DatastoreId, DatastoreType> {
     }
 
     /**
-     * Return the proxy instance which corresponds to the given datastore type for writing.
+     * Return the proxy instance which corresponds to the given datastore type for writing, the instance is marked as dirty as a whole.
      *
      * @param datastoreType The datastore type.
      * @param <T>           The instance type.
      * @return The instance.
      */
     public <T> T createInstance(DatastoreType datastoreType) {
-        return getInstance(datastoreType, TransactionalCache.Mode.WRITE);
+        T instance = getInstance(datastoreType, TransactionalCache.Mode.WRITE);
+        cache.markDirty(getDatastoreId(datastoreType));
+        return instance;
     }
 
+    /**
+     * Return the proxy instance which corresponds to the given datastore type for writing without marking any of its properties as dirty,
+     * e.g. if it is the target of a relation.
+     *
+     * @param datastoreType The datastore type.
+     * @param <T>           The instance type.
+     * @return The instance.
+     */
     public <T> T updateInstance(DatastoreType datastoreType) {
         return getInstance(datastoreType, TransactionalCache.Mode.WRITE);
     }
 
+    /**
+     * Return the proxy instance which corresponds to the given datastore type for writing and mark a property as dirty.
+     *
+     * @param datastoreType The datastore type.
+     * @param metadata      The metadata of the modified property.
+     * @param <T>           The instance type.
+     * @return The instance.
+     */
+    public <T> T updateInstance(DatastoreType datastoreType, AbstractPropertyMethodMetadata<?> metadata) {
+        T instance = getInstance(datastoreType, TransactionalCache.Mode.WRITE);
+        cache.markDirty(getDatastoreId(datastoreType), metadataProvider.getPropertyIndex(metadata));
+        return instance;
+    }
+
+    /**
+     * Mark a datastore type as dirty as a whole, e.g. after migration.
+     *
+     * @param datastoreType The datastore type.
+     */
+    public void markDirty(DatastoreType datastoreType) {
+        cache.markDirty(getDatastoreId(datastoreType));
+    }
+
+    /**
+     * Determine if a datastore type has been modified since it has been flushed.
+     *
+     * @param datastoreType The datastore type.
+     * @return <code>true</code> if the datastore type is dirty.
+     */
+    public boolean isDirty(DatastoreType datastoreType) {
+        return cache.isDirty(getDatastoreId(datastoreType));
+    }
+
+    /**
+     * Return the indices of the dirty properties of a datastore type, see {@link MetadataProvider#getPropertyMetadata(int)}.
+     *
+     * @param datastoreType The datastore type.
+     * @return The indices or <code>null</code> if the datastore type is dirty as a whole.
+     */
+    public BitSet getDirtyProperties(DatastoreType datastoreType) {
+        return cache.getDirtyProperties(getDatastoreId(datastoreType));
+    }
+
+    /**
+     * Mark a datastore type as clean, e.g. after it has been flushed.
+     *
+     * @param datastoreType The datastore type.
+     */
+    public void markClean(DatastoreType datastoreType) {
+        cache.markClean(getDatastoreId(datastoreType));
+    }
+
     /**
      * Return the proxy instance which corresponds to the given datastore type.
+     * <p>The types of the datastore type are only resolved if no instance is cached.</p>
      *
      * @param datastoreType The datastore type.
      * @param <T>           The instance type.
@@ -68,13 +141,22 @@ public abstract class AbstractInstanceManager<DatastoreId, DatastoreType> {
      */
     private <T> T getInstance(DatastoreType datastoreType, TransactionalCache.Mode cacheMode) {
         DatastoreId id = getDatastoreId(datastoreType);
-        TypeMetadataSet<?> types = getTypes(datastoreType);
+        if (TransactionalCache.Mode.WRITE.equals(cacheMode)) {
+            written(id);
+        }
         Object instance = cache.get(id, cacheMode);
-        if (instance == null) {
+        if (instance != null) {
+            cacheStatistics.hit();
+        } else {
+            cacheStatistics.miss();
+            TypeMetadataSet<?> types = getTypes(datastoreType);
             InstanceInvocationHandler invocationHandler = new InstanceInvocationHandler(datastoreType, getProxyMethodService());
             instance = proxyFactory.createInstance(invocationHandler, types.toClasses(), CompositeObject.class);
-            cache.put(id, instance, cacheMode);
-            if (TransactionalCache.Mode.READ.equals(cacheMode)) {
+            Object existingInstance = cache.putIfAbsent(id, instance, cacheMode);
+            if (existingInstance != null) {
+                // Another thread has created an instance in the meantime.
+                instance = existingInstance;
+            } else if (TransactionalCache.Mode.READ.equals(cacheMode)) {
                 instanceListenerService.postLoad(instance);
             }
         }
@@ -90,6 +172,7 @@ public abstract class AbstractInstanceManager<DatastoreId, DatastoreType> {
     public <Instance> void removeInstance(Instance instance) {
         DatastoreType datastoreType = getDatastoreType(instance);
         DatastoreId id = getDatastoreId(datastoreType);
+        written(id);
         cache.remove(id);
     }
 
@@ -164,6 +247,14 @@ public abstract class AbstractInstanceManager<DatastoreId, DatastoreType> {
      */
     protected abstract TypeMetadataSet<?> getTypes(DatastoreType datastoreType);
 
+    /**
+     * Called if a datastore type is accessed for writing or is removed.
+     *
+     * @param id The id of the datastore type.
+     */
+    protected void written(DatastoreId id) {
+    }
+
     /**
      * Return the {@link com.buschmais.xo.impl.proxy.ProxyMethodService} associated with this manager.
      *
@@ -1,5 +1,6 @@
 package com.buschmais.xo.impl;
 
+import com.buschmais.xo.spi.datastore.DatastorePropertyLookup;
 import com.buschmais.xo.spi.datastore.DatastorePropertyManager;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.method.TransientPropertyMethodMetadata;
@@ -14,7 +15,7 @@ public abstract class AbstractPropertyManager<DatastoreType> {
 
     public void setProperty(DatastoreType datastoreType, PrimitivePropertyMethodMetadata metadata, Object value) {
         getDatastorePropertyManager().setProperty(datastoreType, metadata, value);
-        getInstanceManager().updateInstance(datastoreType);
+        getInstanceManager().updateInstance(datastoreType, metadata);
     }
 
     public Object getProperty(DatastoreType datastoreType, PrimitivePropertyMethodMetadata metadata) {
@@ -25,16 +26,33 @@ public abstract class AbstractPropertyManager<DatastoreType> {
         return getDatastorePropertyManager().hasProperty(datastoreType, metadata);
     }
 
+    /**
+     * Get the value of a property if it exists.
+     * <p>The value is read with a single operation if the datastore supports it, see {@link DatastorePropertyLookup}.</p>
+     *
+     * @param datastoreType The datastore type.
+     * @param metadata      The property metadata.
+     * @return The value or {@link DatastorePropertyLookup#ABSENT} if the property does not exist.
+     */
+    public Object getPropertyOrAbsent(DatastoreType datastoreType, PrimitivePropertyMethodMetadata metadata) {
+        DatastorePropertyManager<DatastoreType, ?> datastorePropertyManager = getDatastorePropertyManager();
+        if (datastorePropertyManager instanceof DatastorePropertyLookup) {
+            return ((DatastorePropertyLookup<DatastoreType, ?>) datastorePropertyManager).getPropertyOrAbsent(datastoreType, metadata);
+        }
+        return datastorePropertyManager.hasProperty(datastoreType, metadata) ? datastorePropertyManager.getProperty(datastoreType, metadata)
+                : DatastorePropertyLookup.ABSENT;
+    }
+
     public void removeProperty(DatastoreType datastoreType, PrimitivePropertyMethodMetadata metadata) {
         getDatastorePropertyManager().removeProperty(datastoreType, metadata);
-        getInstanceManager().updateInstance(datastoreType);
+        getInstanceManager().updateInstance(datastoreType, metadata);
     }
 
-    public void setTransientProperty(DatastoreType datastoreType, TransientPropertyMethodMetadata metadata, Object value) {
+    public synchronized void setTransientProperty(DatastoreType datastoreType, TransientPropertyMethodMetadata metadata, Object value) {
         getTransientProperties(datastoreType).put(metadata.getAnnotatedMethod().getName(), value);
     }
 
-    public Object getTransientProperty(DatastoreType datastoreType, TransientPropertyMethodMetadata metadata) {
+    public synchronized Object getTransientProperty(DatastoreType datastoreType, TransientPropertyMethodMetadata metadata) {
         return getTransientProperties(datastoreType).get(metadata.getAnnotatedMethod().getName());
     }
 
@@ -1,7 +1,7 @@
 package com.buschmais.xo.impl;
 
+import com.buschmais.xo.impl.cache.SecondLevelCache;
 import com.buschmais.xo.impl.proxy.ProxyMethodService;
-import com.buschmais.xo.impl.proxy.entity.EntityProxyMethodService;
 import com.buschmais.xo.spi.datastore.TypeMetadataSet;
 
 import java.util.Set;
@@ -12,9 +12,9 @@ public class EntityInstanceManager<EntityId, Entity, EntityDiscriminator> extend
     private final ProxyMethodService<Entity> proxyMethodService;
 
     public EntityInstanceManager(SessionContext<EntityId, Entity, ?, EntityDiscriminator, ?, ?, ?, ?, ?> sessionContext) {
-        super(sessionContext.getEntityCache(), sessionContext.getInstanceListenerService(), sessionContext.getProxyFactory());
+        super(sessionContext.getEntityCache(), sessionContext.getInstanceListenerService(), sessionContext.getProxyFactory(), sessionContext.getMetadataProvider(), sessionContext.getStatistics().getEntityCacheStatistics());
         this.sessionContext = sessionContext;
-        this.proxyMethodService = new EntityProxyMethodService<>(sessionContext);
+        this.proxyMethodService = sessionContext.createEntityProxyMethodService();
     }
 
     @Override
@@ -29,8 +29,47 @@ public class EntityInstanceManager<EntityId, Entity, EntityDiscriminator> extend
 
     @Override
     protected TypeMetadataSet<?> getTypes(Entity entity) {
+        SecondLevelCache.Entry<EntityDiscriminator> entry = getSecondLevelCacheEntry(entity);
+        if (entry != null) {
+            sessionContext.getSecondLevelCache().getCacheStatistics().hit();
+            return sessionContext.getMetadataProvider().getTypes(entry.getDiscriminators());
+        }
+        SecondLevelCache<EntityId, EntityDiscriminator> secondLevelCache = sessionContext.getSecondLevelCache();
+        long generation = secondLevelCache != null ? secondLevelCache.getGeneration() : 0;
         Set<EntityDiscriminator> discriminators = sessionContext.getDatastoreSession().getDatastoreEntityManager().getEntityDiscriminators(entity);
-        return sessionContext.getMetadataProvider().getTypes(discriminators);
+        TypeMetadataSet<?> types = sessionContext.getMetadataProvider().getTypes(discriminators);
+        if (secondLevelCache != null && secondLevelCache.isCacheable(types)) {
+            EntityId id = getDatastoreId(entity);
+            if (!sessionContext.getCacheSynchronizationService().isInvalidatedEntity(id)) {
+                secondLevelCache.getCacheStatistics().miss();
+                secondLevelCache.put(id, discriminators, generation);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Return the state of an entity from the {@link SecondLevelCache}.
+     * <p>Entities which have been modified by the current transaction are not looked up.</p>
+     *
+     * @param entity The entity.
+     * @return The cached state or <code>null</code> if it is not available.
+     */
+    public SecondLevelCache.Entry<EntityDiscriminator> getSecondLevelCacheEntry(Entity entity) {
+        SecondLevelCache<EntityId, EntityDiscriminator> secondLevelCache = sessionContext.getSecondLevelCache();
+        if (secondLevelCache == null) {
+            return null;
+        }
+        EntityId id = getDatastoreId(entity);
+        if (sessionContext.getCacheSynchronizationService().isInvalidatedEntity(id)) {
+            return null;
+        }
+        return secondLevelCache.get(id);
+    }
+
+    @Override
+    protected void written(EntityId id) {
+        sessionContext.getCacheSynchronizationService().invalidateEntity(id);
     }
 
     @Override
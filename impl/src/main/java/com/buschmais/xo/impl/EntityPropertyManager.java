@@ -1,15 +1,15 @@
 package com.buschmais.xo.impl;
 
 import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.cache.SecondLevelCache;
+import com.buschmais.xo.spi.datastore.DatastorePropertyLookup;
 import com.buschmais.xo.spi.datastore.DatastorePropertyManager;
 import com.buschmais.xo.spi.datastore.DatastoreRelationManager;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.metadata.method.*;
 import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
 
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.*;
 
 public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends AbstractPropertyManager<Entity> {
 
@@ -34,10 +34,63 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
         return sessionContext.getEntityInstanceManager();
     }
 
+    @Override
+    public Object getProperty(Entity entity, PrimitivePropertyMethodMetadata metadata) {
+        SecondLevelCache.Entry<?> entry = sessionContext.getEntityInstanceManager().getSecondLevelCacheEntry(entity);
+        if (entry == null) {
+            return super.getProperty(entity, metadata);
+        }
+        Object value = getCachedProperty(entry, entity, metadata);
+        return value != SecondLevelCache.Entry.ABSENT ? value : null;
+    }
+
+    @Override
+    public Object getPropertyOrAbsent(Entity entity, PrimitivePropertyMethodMetadata metadata) {
+        SecondLevelCache.Entry<?> entry = sessionContext.getEntityInstanceManager().getSecondLevelCacheEntry(entity);
+        if (entry == null) {
+            return super.getPropertyOrAbsent(entity, metadata);
+        }
+        Object value = getCachedProperty(entry, entity, metadata);
+        return value != SecondLevelCache.Entry.ABSENT ? value : DatastorePropertyLookup.ABSENT;
+    }
+
+    @Override
+    public boolean hasProperty(Entity entity, PrimitivePropertyMethodMetadata metadata) {
+        SecondLevelCache.Entry<?> entry = sessionContext.getEntityInstanceManager().getSecondLevelCacheEntry(entity);
+        if (entry == null) {
+            return super.hasProperty(entity, metadata);
+        }
+        return getCachedProperty(entry, entity, metadata) != SecondLevelCache.Entry.ABSENT;
+    }
+
+    /**
+     * Return a property value from a {@link SecondLevelCache} entry, the value is read from the datastore if it is not yet cached.
+     *
+     * @param entry    The entry.
+     * @param entity   The entity.
+     * @param metadata The property metadata.
+     * @return The value or {@link SecondLevelCache.Entry#ABSENT} if the property does not exist.
+     */
+    private Object getCachedProperty(SecondLevelCache.Entry<?> entry, Entity entity, PrimitivePropertyMethodMetadata metadata) {
+        Object value = entry.getProperty(metadata);
+        if (value != null) {
+            sessionContext.getSecondLevelCache().getCacheStatistics().hit();
+        } else {
+            sessionContext.getSecondLevelCache().getCacheStatistics().miss();
+            value = super.getPropertyOrAbsent(entity, metadata);
+            if (value == DatastorePropertyLookup.ABSENT || value == null) {
+                value = SecondLevelCache.Entry.ABSENT;
+            }
+            entry.putProperty(metadata, value);
+        }
+        return value;
+    }
+
     public <T> T createEntityReference(Entity sourceEntity, AbstractRelationPropertyMethodMetadata<?> metadata, Object target) {
         AbstractInstanceManager<?, Entity> instanceManager = sessionContext.getEntityInstanceManager();
         Entity targetEntity = target != null ? instanceManager.getDatastoreType(target) : null;
         Relation relation = createRelation(sourceEntity, metadata, targetEntity, null, Collections.emptyMap());
+        instanceManager.updateInstance(sourceEntity, metadata);
         return relation != null ? (T) instanceManager.updateInstance(getReferencedEntity(relation, metadata.getDirection())) : null;
     }
 
@@ -47,12 +100,101 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
         if (target != null) {
             Entity targetEntity = entityInstanceManager.getDatastoreType(target);
             Relation relation = createRelation(sourceEntity, fromProperty, targetEntity, toProperty, example);
-            entityInstanceManager.updateInstance(targetEntity);
+            entityInstanceManager.updateInstance(sourceEntity, fromProperty);
+            if (toProperty != null) {
+                entityInstanceManager.updateInstance(targetEntity, toProperty);
+            } else {
+                entityInstanceManager.updateInstance(targetEntity);
+            }
             return sessionContext.getRelationInstanceManager().createInstance(relation);
         }
         return null;
     }
 
+    /**
+     * Create relations between pairs of source entities and target instances.
+     * <p>If both properties represent collections the relations are created using a single batch operation of the datastore, otherwise
+     * they are created one by one as existing single references must be replaced.</p>
+     *
+     * @param sourceEntities The source entities.
+     * @param fromProperty   The property of the source entities.
+     * @param targets        The target instances.
+     * @param toProperty     The property of the target instances, may be <code>null</code>.
+     * @param examples       The example relations.
+     * @param <T>            The relation instance type.
+     * @return The relation instances.
+     */
+    public <T> List<T> createRelationReferences(List<Entity> sourceEntities, AbstractRelationPropertyMethodMetadata<?> fromProperty, List<?> targets,
+                                                AbstractRelationPropertyMethodMetadata<?> toProperty, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        List<T> instances = new ArrayList<>(sourceEntities.size());
+        if (isCollection(fromProperty, toProperty)) {
+            AbstractInstanceManager<?, Relation> relationInstanceManager = sessionContext.getRelationInstanceManager();
+            for (Relation relation : createReferences(sourceEntities, fromProperty, targets, toProperty, examples)) {
+                instances.add(relationInstanceManager.<T>createInstance(relation));
+            }
+        } else {
+            for (int i = 0; i < sourceEntities.size(); i++) {
+                instances.add(this.<T>createRelationReference(sourceEntities.get(i), fromProperty, targets.get(i), toProperty, examples.get(i)));
+            }
+        }
+        return instances;
+    }
+
+    /**
+     * Add target instances to an entity collection using a single batch operation of the datastore.
+     *
+     * @param sourceEntity The source entity.
+     * @param metadata     The collection property.
+     * @param targets      The target instances.
+     */
+    public void createEntityReferences(Entity sourceEntity, EntityCollectionPropertyMethodMetadata<?> metadata, Collection<?> targets) {
+        int size = targets.size();
+        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example = Collections.emptyMap();
+        createReferences(Collections.nCopies(size, sourceEntity), metadata, new ArrayList<>(targets), null, Collections.nCopies(size, example));
+    }
+
+    /**
+     * Create relations between pairs of source entities and target instances using a batch operation of the datastore and mark the
+     * affected instances as written.
+     */
+    private List<Relation> createReferences(List<Entity> sourceEntities, AbstractRelationPropertyMethodMetadata<?> fromProperty, List<?> targets,
+                                            AbstractRelationPropertyMethodMetadata<?> toProperty, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        AbstractInstanceManager<?, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
+        List<Entity> targetEntities = new ArrayList<>(targets.size());
+        for (Object target : targets) {
+            targetEntities.add(entityInstanceManager.getDatastoreType(target));
+        }
+        DatastoreRelationManager relationManager = sessionContext.getDatastoreSession().getDatastoreRelationManager();
+        List<Relation> relations = relationManager.createRelations(sourceEntities, fromProperty.getRelationshipMetadata(), fromProperty.getDirection(), targetEntities, examples);
+        Entity previousSourceEntity = null;
+        for (int i = 0; i < sourceEntities.size(); i++) {
+            Entity sourceEntity = sourceEntities.get(i);
+            if (sourceEntity != previousSourceEntity) {
+                entityInstanceManager.updateInstance(sourceEntity, fromProperty);
+                previousSourceEntity = sourceEntity;
+            }
+            if (toProperty != null) {
+                entityInstanceManager.updateInstance(targetEntities.get(i), toProperty);
+            } else {
+                entityInstanceManager.updateInstance(targetEntities.get(i));
+            }
+        }
+        return relations;
+    }
+
+    /**
+     * Determine if a relation is represented by collections on both sides, i.e. creating it does not replace an existing relation.
+     *
+     * @param fromProperty The property of the source.
+     * @param toProperty   The property of the target, may be <code>null</code>.
+     * @return <code>true</code> if the relation is represented by collections.
+     */
+    private boolean isCollection(AbstractRelationPropertyMethodMetadata<?> fromProperty, AbstractRelationPropertyMethodMetadata<?> toProperty) {
+        boolean fromCollection = fromProperty instanceof EntityCollectionPropertyMethodMetadata || fromProperty instanceof RelationCollectionPropertyMethodMetadata;
+        boolean toReference = toProperty instanceof EntityReferencePropertyMethodMetadata || toProperty instanceof RelationReferencePropertyMethodMetadata;
+        return fromCollection && !toReference;
+    }
+
     public Object getEntityReference(Entity entity, EntityReferencePropertyMethodMetadata metadata) {
         DatastoreRelationManager<Entity, ?, Relation, ?, ?, ?> relationManager = sessionContext.getDatastoreSession().getDatastoreRelationManager();
         if (relationManager.hasSingleRelation(entity, metadata.getRelationshipMetadata(), metadata.getDirection())) {
@@ -125,7 +267,7 @@ public class EntityPropertyManager<Entity, Relation, PropertyMetadata> extends A
 
     private void removeRelation(Entity source, Relation relation, AbstractRelationPropertyMethodMetadata<?> metadata) {
         AbstractInstanceManager<?, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
-        entityInstanceManager.updateInstance(source);
+        entityInstanceManager.updateInstance(source, metadata);
         entityInstanceManager.updateInstance(getReferencedEntity(relation, metadata.getDirection()));
         sessionContext.getDatastoreSession().getDatastoreRelationManager().deleteRelation(relation);
         AbstractInstanceManager<?, Relation> relationInstanceManager = sessionContext.getRelationInstanceManager();
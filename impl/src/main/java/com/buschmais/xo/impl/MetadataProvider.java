@@ -3,6 +3,7 @@ package com.buschmais.xo.impl;
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.datastore.TypeMetadataSet;
+import com.buschmais.xo.spi.metadata.method.AbstractPropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.method.AbstractRelationPropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
 import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
@@ -71,4 +72,20 @@ public interface MetadataProvider<EntityMetadata extends DatastoreEntityMetadata
     RelationTypeMetadata.Direction getRelationDirection(Set<Class<?>> sourceTypes, RelationTypeMetadata<RelationMetadata> relationMetadata, Set<Class<?>> targetTypes);
 
     <R> AbstractRelationPropertyMethodMetadata<?> getPropertyMetadata(Class<?> entityType, Class<R> relationType, RelationTypeMetadata.Direction direction);
+
+    /**
+     * Return the index of a property, the indices of all properties of the registered types are unique and consecutive starting with 0.
+     *
+     * @param propertyMetadata The property metadata.
+     * @return The index.
+     */
+    int getPropertyIndex(AbstractPropertyMethodMetadata<?> propertyMetadata);
+
+    /**
+     * Return the property metadata for an index.
+     *
+     * @param index The index.
+     * @return The property metadata.
+     */
+    AbstractPropertyMethodMetadata<?> getPropertyMetadata(int index);
 }
@@ -2,6 +2,8 @@ package com.buschmais.xo.impl;
 
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.impl.proxy.InstanceInvocationHandler;
+import com.buschmais.xo.impl.proxy.generated.AbstractGeneratedInstance;
+import com.buschmais.xo.impl.proxy.generated.ProxyClassGenerator;
 import com.buschmais.xo.spi.interceptor.InterceptorFactory;
 
 import java.lang.reflect.InvocationHandler;
@@ -15,16 +17,20 @@ public class ProxyFactory {
 
     private final InterceptorFactory interceptorFactory;
     private final ClassLoader classLoader;
+    private final ProxyClassGenerator proxyClassGenerator;
 
     /**
      * Constructor.
      *
-     * @param interceptorFactory The {@link com.buschmais.xo.spi.interceptor.InterceptorFactory}.
-     * @param classLoader        The class loader.
+     * @param interceptorFactory  The {@link com.buschmais.xo.spi.interceptor.InterceptorFactory}.
+     * @param classLoader         The class loader.
+     * @param proxyClassGenerator The {@link com.buschmais.xo.impl.proxy.generated.ProxyClassGenerator} or <code>null</code> if dynamic
+     *                            proxies shall be used.
      */
-    public ProxyFactory(InterceptorFactory interceptorFactory, ClassLoader classLoader) {
+    public ProxyFactory(InterceptorFactory interceptorFactory, ClassLoader classLoader, ProxyClassGenerator proxyClassGenerator) {
         this.interceptorFactory = interceptorFactory;
         this.classLoader = classLoader;
+        this.proxyClassGenerator = proxyClassGenerator;
     }
 
     /**
@@ -43,6 +49,13 @@ public class ProxyFactory {
         for (Class<?> type : types) {
             effectiveTypes[i++] = type;
         }
+        if (proxyClassGenerator != null && invocationHandler instanceof InstanceInvocationHandler) {
+            // generated instances apply the interceptors on their own
+            Instance instance = proxyClassGenerator.createInstance((InstanceInvocationHandler<?>) invocationHandler, effectiveTypes);
+            if (instance != null) {
+                return instance;
+            }
+        }
         Instance instance = (Instance) Proxy.newProxyInstance(classLoader, effectiveTypes, invocationHandler);
         return interceptorFactory.addInterceptor(instance, effectiveTypes);
     }
@@ -62,6 +75,9 @@ public class ProxyFactory {
         } else {
             effectiveInstance = instance;
         }
+        if (effectiveInstance instanceof AbstractGeneratedInstance) {
+            return (InstanceInvocationHandler<DatastoreType>) AbstractGeneratedInstance.getInvocationHandler((AbstractGeneratedInstance) effectiveInstance);
+        }
         InvocationHandler invocationHandler = Proxy.getInvocationHandler(effectiveInstance);
         if (!(invocationHandler instanceof InstanceInvocationHandler)) {
             throw new XOException("Instance " + instance + " implementing " + Arrays.asList(instance.getClass().getInterfaces()) + " is not a " + InstanceInvocationHandler.class.getName());
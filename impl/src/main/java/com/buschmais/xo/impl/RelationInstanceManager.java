@@ -2,7 +2,6 @@ package com.buschmais.xo.impl;
 
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.impl.proxy.ProxyMethodService;
-import com.buschmais.xo.impl.proxy.relation.RelationProxyMethodService;
 import com.buschmais.xo.spi.datastore.DatastoreSession;
 import com.buschmais.xo.spi.datastore.TypeMetadataSet;
 
@@ -15,9 +14,9 @@ public class RelationInstanceManager<Entity, EntityDiscriminator, RelationId, Re
     private final ProxyMethodService<Relation> proxyMethodService;
 
     public RelationInstanceManager(SessionContext<?, Entity, ?, EntityDiscriminator, RelationId, Relation, ?, RelationDiscriminator, ?> sessionContext) {
-        super(sessionContext.getRelationCache(), sessionContext.getInstanceListenerService(), sessionContext.getProxyFactory());
+        super(sessionContext.getRelationCache(), sessionContext.getInstanceListenerService(), sessionContext.getProxyFactory(), sessionContext.getMetadataProvider(), sessionContext.getStatistics().getRelationCacheStatistics());
         this.sessionContext = sessionContext;
-        this.proxyMethodService = new RelationProxyMethodService<>(sessionContext);
+        this.proxyMethodService = sessionContext.createRelationProxyMethodService();
     }
 
     @Override
@@ -33,12 +32,12 @@ public class RelationInstanceManager<Entity, EntityDiscriminator, RelationId, Re
     @Override
     protected TypeMetadataSet<?> getTypes(Relation relation) {
         DatastoreSession<?, Entity, ?, EntityDiscriminator, RelationId, Relation, ?, RelationDiscriminator, ?> datastoreSession = sessionContext.getDatastoreSession();
-        Entity source = datastoreSession.getDatastoreRelationManager().getFrom(relation);
-        Entity target = datastoreSession.getDatastoreRelationManager().getTo(relation);
         RelationDiscriminator discriminator = datastoreSession.getDatastoreRelationManager().getRelationDiscriminator(relation);
         if (discriminator == null) {
             throw new XOException("Cannot determine type discriminators for relation '" + relation + "'");
         }
+        Entity source = datastoreSession.getDatastoreRelationManager().getFrom(relation);
+        Entity target = datastoreSession.getDatastoreRelationManager().getTo(relation);
         return sessionContext.getMetadataProvider().getRelationTypes(datastoreSession.getDatastoreEntityManager().getEntityDiscriminators(source), discriminator, datastoreSession.getDatastoreEntityManager().getEntityDiscriminators(target));
     }
 
@@ -5,25 +5,37 @@ import com.buschmais.xo.api.ValidationMode;
 import com.buschmais.xo.api.XOTransaction;
 import com.buschmais.xo.impl.cache.CacheSynchronization;
 import com.buschmais.xo.impl.cache.CacheSynchronizationService;
+import com.buschmais.xo.impl.cache.ReadCacheConfiguration;
+import com.buschmais.xo.impl.cache.SecondLevelCache;
 import com.buschmais.xo.impl.cache.TransactionalCache;
+import com.buschmais.xo.impl.instancelistener.ChangeRecorder;
+import com.buschmais.xo.impl.instancelistener.InstanceListenerMethods;
 import com.buschmais.xo.impl.instancelistener.InstanceListenerService;
+import com.buschmais.xo.impl.instancelistener.PostCommitDispatcher;
+import com.buschmais.xo.impl.instancelistener.PostCommitSynchronization;
 import com.buschmais.xo.impl.interceptor.ConcurrencyInterceptor;
+import com.buschmais.xo.impl.interceptor.InvocationMetadataCache;
 import com.buschmais.xo.impl.interceptor.TransactionInterceptor;
 import com.buschmais.xo.impl.plugin.PluginRepositoryManager;
+import com.buschmais.xo.impl.proxy.ProxyMethodService;
+import com.buschmais.xo.impl.proxy.entity.EntityProxyMethodTable;
+import com.buschmais.xo.impl.proxy.generated.ProxyClassGenerator;
+import com.buschmais.xo.impl.proxy.relation.RelationProxyMethodTable;
+import com.buschmais.xo.impl.query.QueryPlanCache;
+import com.buschmais.xo.impl.statistics.XOStatistics;
 import com.buschmais.xo.impl.validation.InstanceValidationService;
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreSession;
 import com.buschmais.xo.spi.datastore.DatastoreTransaction;
 import com.buschmais.xo.spi.interceptor.InterceptorFactory;
+import com.buschmais.xo.spi.interceptor.InvocationPlanCache;
 import com.buschmais.xo.spi.interceptor.XOInterceptor;
 
 import javax.validation.ValidatorFactory;
 import java.util.ArrayList;
 import java.util.List;
 
-import static com.buschmais.xo.api.Transaction.TransactionAttribute;
-
 /**
  * Provides access to all session related services.
  *
@@ -41,9 +53,15 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
 
     private final MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider;
     private final PluginRepositoryManager pluginRepositoryManager;
-    private final AbstractInstanceManager<EntityId, Entity> entityInstanceManager;
+    private final EntityProxyMethodTable<Entity, Relation> entityProxyMethodTable;
+    private final RelationProxyMethodTable<Entity, Relation> relationProxyMethodTable;
+    private final XOStatistics statistics;
+    private final SecondLevelCache<EntityId, EntityDiscriminator> secondLevelCache;
+    private final QueryPlanCache queryPlanCache;
+    private final EntityInstanceManager<EntityId, Entity, EntityDiscriminator> entityInstanceManager;
     private final AbstractInstanceManager<RelationId, Relation> relationInstanceManager;
     private final InstanceListenerService instanceListenerService;
+    private final ChangeRecorder changeRecorder;
     private final TransactionalCache<EntityId> entityCache;
     private final TransactionalCache<RelationId> relationCache;
     private final InstanceValidationService instanceValidationService;
@@ -51,24 +69,33 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
     private final XOTransactionImpl xoTransaction;
     private final EntityPropertyManager<Entity, Relation, PropertyMetadata> entityPropertyManager;
     private final RelationPropertyManager<Entity, Relation> relationPropertyManager;
+    private final ConcurrencyInterceptor concurrencyInterceptor;
     private final InterceptorFactory interceptorFactory;
     private final ProxyFactory proxyFactory;
     private final DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession;
 
-    public SessionContext(MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider, PluginRepositoryManager pluginRepositoryManager, DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession, ValidatorFactory validatorFactory, List<? extends Class<?>> instanceListenerTypes, TransactionAttribute defaultTransactionAttribute, ValidationMode validationMode, ConcurrencyMode concurrencyMode, ClassLoader classLoader) {
+    public SessionContext(MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider, PluginRepositoryManager pluginRepositoryManager, EntityProxyMethodTable<Entity, Relation> entityProxyMethodTable, RelationProxyMethodTable<Entity, Relation> relationProxyMethodTable, ProxyClassGenerator proxyClassGenerator, XOStatistics statistics, ReadCacheConfiguration readCacheConfiguration, SecondLevelCache<EntityId, EntityDiscriminator> secondLevelCache, PostCommitDispatcher postCommitDispatcher, QueryPlanCache queryPlanCache, DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession, ValidatorFactory validatorFactory, InstanceListenerMethods instanceListenerMethods, InvocationMetadataCache invocationMetadataCache, InvocationPlanCache invocationPlanCache, ValidationMode validationMode, ConcurrencyMode concurrencyMode, ClassLoader classLoader) {
         this.metadataProvider = metadataProvider;
         this.pluginRepositoryManager = pluginRepositoryManager;
+        this.entityProxyMethodTable = entityProxyMethodTable;
+        this.relationProxyMethodTable = relationProxyMethodTable;
+        this.statistics = statistics;
+        this.secondLevelCache = secondLevelCache;
+        this.queryPlanCache = queryPlanCache;
         this.datastoreSession = datastoreSession;
-        this.entityCache = new TransactionalCache<>();
-        this.relationCache = new TransactionalCache<>();
+        this.entityCache = TransactionalCache.create(concurrencyMode, readCacheConfiguration, statistics.getEntityCacheStatistics());
+        this.relationCache = TransactionalCache.create(concurrencyMode, readCacheConfiguration, statistics.getRelationCacheStatistics());
         DatastoreTransaction datastoreTransaction = datastoreSession.getDatastoreTransaction();
         this.xoTransaction = datastoreTransaction != null ? new XOTransactionImpl(datastoreTransaction) : null;
         List<XOInterceptor> interceptorChain = new ArrayList<>();
-        interceptorChain.add(new ConcurrencyInterceptor(concurrencyMode));
-        interceptorChain.add(new TransactionInterceptor(xoTransaction, defaultTransactionAttribute));
-        this.interceptorFactory = new InterceptorFactory(interceptorChain);
-        this.proxyFactory = new ProxyFactory(interceptorFactory, classLoader);
-        this.instanceListenerService = new InstanceListenerService(instanceListenerTypes);
+        TransactionInterceptor transactionInterceptor = new TransactionInterceptor(xoTransaction, invocationMetadataCache);
+        this.concurrencyInterceptor = new ConcurrencyInterceptor(concurrencyMode, this, transactionInterceptor, invocationMetadataCache);
+        interceptorChain.add(concurrencyInterceptor);
+        interceptorChain.add(transactionInterceptor);
+        this.interceptorFactory = new InterceptorFactory(interceptorChain, invocationPlanCache);
+        this.proxyFactory = new ProxyFactory(interceptorFactory, classLoader, proxyClassGenerator);
+        this.instanceListenerService = new InstanceListenerService(instanceListenerMethods);
+        this.changeRecorder = new ChangeRecorder(this);
         this.entityPropertyManager = new EntityPropertyManager<>(this);
         this.relationPropertyManager = new RelationPropertyManager<>(this);
         this.relationInstanceManager = new RelationInstanceManager<>(this);
@@ -78,6 +105,7 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
         if (xoTransaction != null) {
             // Register default synchronizations.
             xoTransaction.registerDefaultSynchronization(new CacheSynchronization<>(cacheSynchronizationService, entityCache, relationCache));
+            xoTransaction.registerDefaultSynchronization(new PostCommitSynchronization(changeRecorder, instanceListenerService, postCommitDispatcher));
         }
     }
 
@@ -89,7 +117,42 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
         return pluginRepositoryManager;
     }
 
-    public AbstractInstanceManager<EntityId, Entity> getEntityInstanceManager() {
+    public XOStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Return the {@link SecondLevelCache} shared by all sessions.
+     *
+     * @return The {@link SecondLevelCache} or <code>null</code> if it is disabled.
+     */
+    public SecondLevelCache<EntityId, EntityDiscriminator> getSecondLevelCache() {
+        return secondLevelCache;
+    }
+
+    public QueryPlanCache getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
+    /**
+     * Create the {@link ProxyMethodService} for entities, i.e. bind the shared entity proxy method table to this session.
+     *
+     * @return The {@link ProxyMethodService}.
+     */
+    public ProxyMethodService<Entity> createEntityProxyMethodService() {
+        return entityProxyMethodTable.createProxyMethodService(this);
+    }
+
+    /**
+     * Create the {@link ProxyMethodService} for relations, i.e. bind the shared relation proxy method table to this session.
+     *
+     * @return The {@link ProxyMethodService}.
+     */
+    public ProxyMethodService<Relation> createRelationProxyMethodService() {
+        return relationProxyMethodTable.createProxyMethodService(this);
+    }
+
+    public EntityInstanceManager<EntityId, Entity, EntityDiscriminator> getEntityInstanceManager() {
         return entityInstanceManager;
     }
 
@@ -101,6 +164,10 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
         return instanceListenerService;
     }
 
+    public ChangeRecorder getChangeRecorder() {
+        return changeRecorder;
+    }
+
     public TransactionalCache<EntityId> getEntityCache() {
         return entityCache;
     }
@@ -129,6 +196,10 @@ public class SessionContext<EntityId, Entity, EntityMetadata extends DatastoreEn
         return relationPropertyManager;
     }
 
+    public ConcurrencyInterceptor getConcurrencyInterceptor() {
+        return concurrencyInterceptor;
+    }
+
     public InterceptorFactory getInterceptorFactory() {
         return interceptorFactory;
     }
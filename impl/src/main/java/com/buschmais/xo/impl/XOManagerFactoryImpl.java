@@ -2,14 +2,29 @@ package com.buschmais.xo.impl;
 
 import com.buschmais.xo.api.*;
 import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.impl.cache.ReadCacheConfiguration;
+import com.buschmais.xo.impl.cache.SecondLevelCache;
+import com.buschmais.xo.impl.instancelistener.InstanceListenerMethods;
+import com.buschmais.xo.impl.instancelistener.PostCommitDispatcher;
+import com.buschmais.xo.impl.interceptor.InvocationMetadataCache;
+import com.buschmais.xo.impl.query.QueryPlanCache;
+import com.buschmais.xo.impl.query.QueryWarmup;
 import com.buschmais.xo.impl.metadata.MetadataProviderImpl;
 import com.buschmais.xo.impl.plugin.PluginRepositoryManager;
 import com.buschmais.xo.impl.plugin.QueryLanguagePluginRepository;
+import com.buschmais.xo.impl.proxy.ProxyEngine;
+import com.buschmais.xo.impl.proxy.entity.EntityProxyMethodTable;
+import com.buschmais.xo.impl.proxy.generated.ProxyClassGenerator;
+import com.buschmais.xo.impl.proxy.relation.RelationProxyMethodTable;
+import com.buschmais.xo.impl.statistics.XOStatistics;
 import com.buschmais.xo.spi.bootstrap.XODatastoreProvider;
 import com.buschmais.xo.spi.datastore.Datastore;
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
+import com.buschmais.xo.spi.datastore.DatastorePlanCacheStatistics;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreSession;
+import com.buschmais.xo.spi.interceptor.InvocationPlanCache;
+import com.buschmais.xo.spi.plugin.QueryLanguagePlugin;
 import com.buschmais.xo.spi.reflection.ClassHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,10 +42,21 @@ public class XOManagerFactoryImpl<EntityId, Entity, EntityMetadata extends Datas
     private final ClassLoader classLoader;
     private final Datastore<?, EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> datastore;
     private final PluginRepositoryManager pluginRepositoryManager;
+    private final EntityProxyMethodTable<Entity, Relation> entityProxyMethodTable;
+    private final RelationProxyMethodTable<Entity, Relation> relationProxyMethodTable;
+    private final ProxyClassGenerator proxyClassGenerator;
+    private final XOStatistics statistics;
+    private final ReadCacheConfiguration readCacheConfiguration;
+    private final SecondLevelCache<EntityId, EntityDiscriminator> secondLevelCache;
+    private final PostCommitDispatcher postCommitDispatcher;
+    private final QueryPlanCache queryPlanCache;
     private final ValidatorFactory validatorFactory;
     private final ValidationMode validationMode;
     private final ConcurrencyMode concurrencyMode;
     private final Transaction.TransactionAttribute defaultTransactionAttribute;
+    private final InvocationMetadataCache invocationMetadataCache;
+    private final InvocationPlanCache invocationPlanCache = new InvocationPlanCache();
+    private final InstanceListenerMethods instanceListenerMethods;
 
     public XOManagerFactoryImpl(XOUnit xoUnit) {
         this.xoUnit = xoUnit;
@@ -43,22 +69,51 @@ public class XOManagerFactoryImpl<EntityId, Entity, EntityMetadata extends Datas
         }
         XODatastoreProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> XODatastoreProvider = XODatastoreProvider.class.cast(ClassHelper.newInstance(providerType));
         this.datastore = XODatastoreProvider.createDatastore(xoUnit);
-        this.pluginRepositoryManager = new PluginRepositoryManager(new QueryLanguagePluginRepository(datastore));
-        this.validationMode = xoUnit.getValidationMode();
-        this.concurrencyMode = xoUnit.getConcurrencyMode();
-        this.defaultTransactionAttribute = xoUnit.getDefaultTransactionAttribute();
-        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
-        final ClassLoader parentClassLoader = contextClassLoader != null ? contextClassLoader : xoUnit.getClass().getClassLoader();
-        LOGGER.debug("Using class loader '{}'.", parentClassLoader.toString());
-        classLoader = new ClassLoader() {
-            @Override
-            public Class<?> loadClass(String name) throws ClassNotFoundException {
-                return parentClassLoader.loadClass(name);
+        // release the datastore and the statistics MBean if the initialization fails, e.g. to allow a retry using the same unit name
+        try {
+            this.pluginRepositoryManager = new PluginRepositoryManager(new QueryLanguagePluginRepository(datastore));
+            this.validationMode = xoUnit.getValidationMode();
+            this.concurrencyMode = xoUnit.getConcurrencyMode();
+            this.defaultTransactionAttribute = xoUnit.getDefaultTransactionAttribute();
+            final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            final ClassLoader parentClassLoader = contextClassLoader != null ? contextClassLoader : xoUnit.getClass().getClassLoader();
+            LOGGER.debug("Using class loader '{}'.", parentClassLoader.toString());
+            classLoader = new ClassLoader() {
+                @Override
+                public Class<?> loadClass(String name) throws ClassNotFoundException {
+                    return parentClassLoader.loadClass(name);
+                }
+            };
+            metadataProvider = new MetadataProviderImpl(xoUnit.getTypes(), datastore);
+            this.validatorFactory = getValidatorFactory();
+            datastore.init(metadataProvider.getRegisteredMetadata());
+            this.entityProxyMethodTable = new EntityProxyMethodTable<>(metadataProvider);
+            this.relationProxyMethodTable = new RelationProxyMethodTable<>(metadataProvider);
+            ProxyEngine proxyEngine = ProxyEngine.fromProperties(xoUnit.getProperties());
+            LOGGER.debug("Using proxy engine '{}'.", proxyEngine);
+            this.proxyClassGenerator = ProxyEngine.GENERATED.equals(proxyEngine) ? new ProxyClassGenerator(classLoader) : null;
+            this.statistics = new XOStatistics(xoUnit, datastore instanceof DatastorePlanCacheStatistics ? (DatastorePlanCacheStatistics) datastore : null);
+            this.statistics.register();
+            this.readCacheConfiguration = ReadCacheConfiguration.fromProperties(xoUnit.getProperties());
+            LOGGER.debug("Using read cache configuration '{}'.", readCacheConfiguration);
+            this.secondLevelCache = SecondLevelCache.create(metadataProvider.getRegisteredMetadata(), xoUnit.getProperties(), statistics.getSecondLevelCacheStatistics());
+            LOGGER.debug("Second level cache is {}.", secondLevelCache != null ? "enabled" : "disabled");
+            this.postCommitDispatcher = PostCommitDispatcher.fromProperties(xoUnit.getProperties());
+            this.queryPlanCache = QueryPlanCache.fromProperties(xoUnit.getProperties());
+            this.invocationMetadataCache = new InvocationMetadataCache(metadataProvider.getRegisteredMetadata(), defaultTransactionAttribute);
+            this.instanceListenerMethods = new InstanceListenerMethods(xoUnit.getInstanceListeners());
+            QueryWarmup.Mode queryWarmupMode = QueryWarmup.getMode(xoUnit.getProperties());
+            LOGGER.debug("Using query warm-up mode '{}'.", queryWarmupMode);
+            QueryLanguagePluginRepository queryLanguagePluginRepository = pluginRepositoryManager.getPluginManager(QueryLanguagePlugin.class);
+            new QueryWarmup(queryWarmupMode, datastore, queryLanguagePluginRepository, queryPlanCache).run(metadataProvider.getRegisteredMetadata());
+        } catch (RuntimeException | Error e) {
+            try {
+                close();
+            } catch (RuntimeException closeException) {
+                e.addSuppressed(closeException);
             }
-        };
-        metadataProvider = new MetadataProviderImpl(xoUnit.getTypes(), datastore);
-        this.validatorFactory = getValidatorFactory();
-        datastore.init(metadataProvider.getRegisteredMetadata());
+            throw e;
+        }
     }
 
     /**
@@ -79,14 +134,26 @@ public class XOManagerFactoryImpl<EntityId, Entity, EntityMetadata extends Datas
     @Override
     public XOManager createXOManager() {
         DatastoreSession<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> datastoreSession = datastore.createSession();
-        SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext = new SessionContext<>(metadataProvider, pluginRepositoryManager, datastoreSession, validatorFactory, xoUnit.getInstanceListeners(), defaultTransactionAttribute, validationMode, concurrencyMode, classLoader);
+        SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext = new SessionContext<>(metadataProvider, pluginRepositoryManager, entityProxyMethodTable, relationProxyMethodTable, proxyClassGenerator, statistics, readCacheConfiguration, secondLevelCache, postCommitDispatcher, queryPlanCache, datastoreSession, validatorFactory, instanceListenerMethods, invocationMetadataCache, invocationPlanCache, validationMode, concurrencyMode, classLoader);
         XOManagerImpl<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> xoManager = new XOManagerImpl<>(sessionContext);
         return sessionContext.getInterceptorFactory().addInterceptor(xoManager, XOManager.class);
     }
 
     @Override
     public void close() {
-        datastore.close();
+        try {
+            if (postCommitDispatcher != null) {
+                postCommitDispatcher.close();
+            }
+            if (queryPlanCache != null) {
+                queryPlanCache.clear();
+            }
+            datastore.close();
+        } finally {
+            if (statistics != null) {
+                statistics.unregister();
+            }
+        }
     }
 
     @Override
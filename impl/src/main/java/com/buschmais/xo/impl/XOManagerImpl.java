@@ -3,8 +3,10 @@ package com.buschmais.xo.impl;
 import com.buschmais.xo.api.*;
 import com.buschmais.xo.impl.proxy.InstanceInvocationHandler;
 import com.buschmais.xo.impl.proxy.example.ExampleProxyMethodService;
+import com.buschmais.xo.impl.query.PreparedQueryImpl;
 import com.buschmais.xo.impl.query.XOQueryImpl;
 import com.buschmais.xo.impl.transaction.TransactionalResultIterator;
+import com.buschmais.xo.spi.datastore.DatastoreEntityManager;
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreSession;
@@ -38,6 +40,12 @@ import static java.util.Collections.emptyMap;
 public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEntityMetadata<EntityDiscriminator>, EntityDiscriminator, RelationId, Relation, RelationMetadata extends DatastoreRelationMetadata<RelationDiscriminator>, RelationDiscriminator, PropertyMetadata>
         implements XOManager {
 
+    /**
+     * The maximum number of entities passed to the datastore by one invocation of
+     * {@link DatastoreEntityManager#createEntities(TypeMetadataSet, Set, List)}.
+     */
+    private static final int CREATE_BATCH_SIZE = 1000;
+
     private final SessionContext<EntityId, Entity, EntityMetadata, EntityDiscriminator, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> sessionContext;
 
     /**
@@ -99,14 +107,27 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
      */
     private <T> Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> prepareExample(Example<T> example, Class<?> type, Class<?>... types) {
         Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = new HashMap<>();
+        T instance = createExampleInstance(exampleEntity, type, types);
+        example.prepare(instance);
+        return exampleEntity;
+    }
+
+    /**
+     * Create an example instance which stores the values of its properties in the given map.
+     *
+     * @param exampleEntity The map.
+     * @param type          The type.
+     * @param types         The additional types.
+     * @param <T>           The type.
+     * @return The example instance.
+     */
+    private <T> T createExampleInstance(Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity, Class<?> type, Class<?>... types) {
         InstanceInvocationHandler invocationHandler = new InstanceInvocationHandler(exampleEntity, new ExampleProxyMethodService(type, sessionContext));
         List<Class<?>> effectiveTypes = new ArrayList<>();
         effectiveTypes.add(type);
         effectiveTypes.addAll(Arrays.asList(types));
-        T instance = sessionContext.getProxyFactory().createInstance(invocationHandler, effectiveTypes.toArray(new Class<?>[effectiveTypes.size()]),
+        return sessionContext.getProxyFactory().createInstance(invocationHandler, effectiveTypes.toArray(new Class<?>[effectiveTypes.size()]),
                 CompositeObject.class);
-        example.prepare(instance);
-        return exampleEntity;
     }
 
     /**
@@ -196,10 +217,77 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
         Entity entity = datastoreSession.getDatastoreEntityManager().createEntity(effectiveTypes, entityDiscriminators, exampleEntity);
         AbstractInstanceManager<EntityId, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
         CompositeObject instance = entityInstanceManager.createInstance(entity);
+        sessionContext.getChangeRecorder().created(instance);
         sessionContext.getInstanceListenerService().postCreate(instance);
         return instance;
     }
 
+    @Override
+    public <T> List<T> createAll(Iterable<? extends Example<T>> examples, Class<T> type) {
+        return createByExamples(examples, type, true);
+    }
+
+    @Override
+    public <T, Id> List<Id> insertAll(Iterable<? extends Example<T>> examples, Class<T> type) {
+        return createByExamples(examples, type, false);
+    }
+
+    /**
+     * Create entities using a sequence of examples, the entities are passed in batches to the datastore.
+     * <p>A single example instance is used to prepare all examples.</p>
+     *
+     * @param examples    The examples.
+     * @param type        The type.
+     * @param materialize If <code>true</code> instances are created for the entities, otherwise their ids are returned.
+     * @param <T>         The type.
+     * @param <R>         The result type, i.e. the instance type or the id type.
+     * @return The created instances or ids.
+     */
+    private <T, R> List<R> createByExamples(Iterable<? extends Example<T>> examples, Class<T> type, boolean materialize) {
+        TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> effectiveTypes = getEffectiveTypes(type);
+        Set<EntityDiscriminator> entityDiscriminators = sessionContext.getMetadataProvider().getEntityDiscriminators(effectiveTypes);
+        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity = new HashMap<>();
+        T exampleInstance = createExampleInstance(exampleEntity, type);
+        List<R> result = new ArrayList<>();
+        List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> batch = new ArrayList<>(CREATE_BATCH_SIZE);
+        for (Example<T> example : examples) {
+            example.prepare(exampleInstance);
+            batch.add(new HashMap<>(exampleEntity));
+            exampleEntity.clear();
+            if (batch.size() == CREATE_BATCH_SIZE) {
+                createBatch(effectiveTypes, entityDiscriminators, batch, type, materialize, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            createBatch(effectiveTypes, entityDiscriminators, batch, type, materialize, result);
+        }
+        return result;
+    }
+
+    private <T, R> void createBatch(TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> effectiveTypes, Set<EntityDiscriminator> entityDiscriminators,
+                                    List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> batch, Class<T> type, boolean materialize, List<R> result) {
+        DatastoreEntityManager<EntityId, Entity, EntityMetadata, EntityDiscriminator, PropertyMetadata> datastoreEntityManager = sessionContext.getDatastoreSession()
+                .getDatastoreEntityManager();
+        List<Entity> entities = datastoreEntityManager.createEntities(effectiveTypes, entityDiscriminators, batch);
+        if (materialize) {
+            AbstractInstanceManager<EntityId, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
+            for (Entity entity : entities) {
+                CompositeObject instance = entityInstanceManager.createInstance(entity);
+                sessionContext.getChangeRecorder().created(instance);
+                sessionContext.getInstanceListenerService().postCreate(instance);
+                result.add((R) instance.as(type));
+            }
+        } else {
+            Class<?>[] classes = sessionContext.getMetadataProvider().getTypes(entityDiscriminators).toClasses();
+            for (Entity entity : entities) {
+                EntityId id = datastoreEntityManager.getEntityId(entity);
+                sessionContext.getChangeRecorder().createdEntity(id, classes);
+                result.add((R) id);
+            }
+        }
+    }
+
     @Override
     public <S, R, T> R create(S from, Class<R> relationType, T to) {
         return createByExample(from, relationType, to, Collections.emptyMap());
@@ -211,12 +299,79 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
         return createByExample(from, relationType, to, exampleRelation);
     }
 
+    @Override
+    public <S, R, T> List<R> createRelations(Iterable<? extends Link<S, R, T>> links, Class<R> relationType) {
+        MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider = sessionContext.getMetadataProvider();
+        Map<Class<?>, AbstractRelationPropertyMethodMetadata<?>> fromProperties = new HashMap<>();
+        Map<Class<?>, AbstractRelationPropertyMethodMetadata<?>> toProperties = new HashMap<>();
+        Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleRelation = new HashMap<>();
+        R exampleInstance = createExampleInstance(exampleRelation, relationType);
+        AbstractInstanceManager<EntityId, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
+        AbstractRelationPropertyMethodMetadata<?> batchFromProperty = null;
+        AbstractRelationPropertyMethodMetadata<?> batchToProperty = null;
+        List<Entity> sources = new ArrayList<>(CREATE_BATCH_SIZE);
+        List<T> targets = new ArrayList<>(CREATE_BATCH_SIZE);
+        List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples = new ArrayList<>(CREATE_BATCH_SIZE);
+        List<R> result = new ArrayList<>();
+        for (Link<S, R, T> link : links) {
+            S from = link.getFrom();
+            T to = link.getTo();
+            AbstractRelationPropertyMethodMetadata<?> fromProperty = fromProperties.get(from.getClass());
+            if (fromProperty == null) {
+                fromProperty = metadataProvider.getPropertyMetadata(from.getClass(), relationType, FROM);
+                fromProperties.put(from.getClass(), fromProperty);
+            }
+            AbstractRelationPropertyMethodMetadata<?> toProperty = toProperties.get(to.getClass());
+            if (toProperty == null && !toProperties.containsKey(to.getClass())) {
+                toProperty = metadataProvider.getPropertyMetadata(to.getClass(), relationType, TO);
+                toProperties.put(to.getClass(), toProperty);
+            }
+            if (!sources.isEmpty() && (fromProperty != batchFromProperty || toProperty != batchToProperty || sources.size() == CREATE_BATCH_SIZE)) {
+                createRelationBatch(sources, batchFromProperty, targets, batchToProperty, examples, result);
+            }
+            batchFromProperty = fromProperty;
+            batchToProperty = toProperty;
+            Example<R> example = link.getExample();
+            if (example != null) {
+                example.prepare(exampleInstance);
+                examples.add(new HashMap<>(exampleRelation));
+                exampleRelation.clear();
+            } else {
+                examples.add(Collections.<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>emptyMap());
+            }
+            sources.add(entityInstanceManager.getDatastoreType(from));
+            targets.add(to);
+        }
+        if (!sources.isEmpty()) {
+            createRelationBatch(sources, batchFromProperty, targets, batchToProperty, examples, result);
+        }
+        return result;
+    }
+
+    /**
+     * Create a batch of relations sharing the same properties and clear the given lists afterwards.
+     */
+    private <R, T> void createRelationBatch(List<Entity> sources, AbstractRelationPropertyMethodMetadata<?> fromProperty, List<T> targets,
+                                            AbstractRelationPropertyMethodMetadata<?> toProperty,
+                                            List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples, List<R> result) {
+        List<R> instances = sessionContext.getEntityPropertyManager().createRelationReferences(sources, fromProperty, targets, toProperty, examples);
+        for (R instance : instances) {
+            sessionContext.getChangeRecorder().created(instance);
+            sessionContext.getInstanceListenerService().postCreate(instance);
+            result.add(instance);
+        }
+        sources.clear();
+        targets.clear();
+        examples.clear();
+    }
+
     private <S, R, T> R createByExample(S from, Class<R> relationType, T to, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
         MetadataProvider<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> metadataProvider = sessionContext.getMetadataProvider();
         AbstractRelationPropertyMethodMetadata<?> fromProperty = metadataProvider.getPropertyMetadata(from.getClass(), relationType, FROM);
         AbstractRelationPropertyMethodMetadata<?> toProperty = metadataProvider.getPropertyMetadata(to.getClass(), relationType, TO);
         Entity entity = sessionContext.getEntityInstanceManager().getDatastoreType(from);
         R instance = sessionContext.getEntityPropertyManager().createRelationReference(entity, fromProperty, to, toProperty, example);
+        sessionContext.getChangeRecorder().created(instance);
         sessionContext.getInstanceListenerService().postCreate(instance);
         return instance;
     }
@@ -249,6 +404,7 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
         datastoreSession.getDatastoreEntityManager().migrateEntity(entity, types, entityDiscriminators, effectiveTargetTypes, targetEntityDiscriminators);
         entityInstanceManager.removeInstance(instance);
         CompositeObject migratedInstance = entityInstanceManager.updateInstance(entity);
+        entityInstanceManager.markDirty(entity);
         if (migrationStrategy != null) {
             migrationStrategy.migrate(instance, migratedInstance.as(targetType));
         }
@@ -280,6 +436,7 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
         if (entityInstanceManager.isInstance(instance)) {
             Entity entity = entityInstanceManager.getDatastoreType(instance);
             sessionContext.getInstanceListenerService().preDelete(instance);
+            sessionContext.getChangeRecorder().deleted(instance);
             datastoreSession.getDatastoreEntityManager().deleteEntity(entity);
             entityInstanceManager.removeInstance(instance);
             entityInstanceManager.closeInstance(instance);
@@ -287,6 +444,7 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
         } else if (relationInstanceManager.isInstance(instance)) {
             Relation relation = relationInstanceManager.getDatastoreType(instance);
             sessionContext.getInstanceListenerService().preDelete(instance);
+            sessionContext.getChangeRecorder().deleted(instance);
             datastoreSession.getDatastoreRelationManager().deleteRelation(relation);
             relationInstanceManager.removeInstance(instance);
             relationInstanceManager.closeInstance(instance);
@@ -326,6 +484,24 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
         return sessionContext.getInterceptorFactory().addInterceptor(xoQuery, Query.class);
     }
 
+    @Override
+    public PreparedQuery<CompositeRowObject> prepareQuery(String query) {
+        PreparedQueryImpl<CompositeRowObject, ?, Entity, Relation> preparedQuery = new PreparedQueryImpl<>(sessionContext, query, null);
+        return sessionContext.getInterceptorFactory().addInterceptor(preparedQuery, PreparedQuery.class);
+    }
+
+    @Override
+    public <T> PreparedQuery<T> prepareQuery(String query, Class<T> type) {
+        PreparedQueryImpl<T, ?, Entity, Relation> preparedQuery = new PreparedQueryImpl<>(sessionContext, query, type);
+        return sessionContext.getInterceptorFactory().addInterceptor(preparedQuery, PreparedQuery.class);
+    }
+
+    @Override
+    public <T> PreparedQuery<T> prepareQuery(Class<T> query) {
+        PreparedQueryImpl<T, ?, Entity, Relation> preparedQuery = new PreparedQueryImpl<>(sessionContext, query, query);
+        return sessionContext.getInterceptorFactory().addInterceptor(preparedQuery, PreparedQuery.class);
+    }
+
     @Override
     public void close() {
         sessionContext.getEntityInstanceManager().close();
@@ -340,6 +516,15 @@ public class XOManagerImpl<EntityId, Entity, EntityMetadata extends DatastoreEnt
         return sessionType.cast(datastoreSession);
     }
 
+    @Override
+    public void release() {
+        XOTransaction xoTransaction = sessionContext.getXOTransaction();
+        if (xoTransaction != null && xoTransaction.isActive()) {
+            throw new XOException("Cannot release the session while a transaction is active.");
+        }
+        sessionContext.getConcurrencyInterceptor().release();
+    }
+
     @Override
     public void flush() {
         sessionContext.getCacheSynchronizationService().flush();
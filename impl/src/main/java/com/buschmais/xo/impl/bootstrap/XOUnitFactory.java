@@ -5,6 +5,7 @@ import com.buschmais.xo.api.Transaction;
 import com.buschmais.xo.api.ValidationMode;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.impl.cache.ReadCacheConfiguration;
 import com.buschmais.xo.spi.reflection.ClassHelper;
 import com.buschmais.xo.impl.schema.v1.*;
 import com.buschmais.xo.spi.bootstrap.XODatastoreProvider;
@@ -101,6 +102,13 @@ public class XOUnitFactory {
             ConcurrencyMode concurrencyMode = getConcurrencyMode(xoUnitType.getConcurrencyMode());
             Transaction.TransactionAttribute defaultTransactionAttribute = getTransactionAttribute(xoUnitType.getDefaultTransactionAttribute());
             Properties properties = new Properties();
+            ReadCacheType readCacheType = xoUnitType.getReadCache();
+            if (readCacheType != null) {
+                properties.setProperty(ReadCacheConfiguration.POLICY_PROPERTY, readCacheType.getPolicy().value());
+                if (readCacheType.getSize() != null) {
+                    properties.setProperty(ReadCacheConfiguration.SIZE_PROPERTY, readCacheType.getSize().toString());
+                }
+            }
             PropertiesType propertiesType = xoUnitType.getProperties();
             if (propertiesType != null) {
                 for (PropertyType propertyType : propertiesType.getProperty()) {
@@ -122,6 +130,12 @@ public class XOUnitFactory {
                 return ConcurrencyMode.SINGLETHREADED;
             case MULTITHREADED:
                 return ConcurrencyMode.MULTITHREADED;
+            case READ_WRITE:
+                return ConcurrencyMode.READ_WRITE;
+            case STRIPED:
+                return ConcurrencyMode.STRIPED;
+            case THREAD_CONFINED:
+                return ConcurrencyMode.THREAD_CONFINED;
             default:
                 throw new XOException("Unknown concurrency mode type " + concurrencyModeType);
         }
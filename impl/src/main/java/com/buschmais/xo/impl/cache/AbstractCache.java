@@ -1,5 +1,9 @@
 package com.buschmais.xo.impl.cache;
 
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+
 import java.util.Collection;
 
 /**
@@ -45,4 +49,26 @@ public abstract class AbstractCache<Key, Value> implements Cache<Key, Value> {
     public Collection<Value> values() {
         return cache.asMap().values();
     }
+
+    /**
+     * Removal listener recording evicted entries.
+     *
+     * @param <Key>   The key type.
+     * @param <Value> The value type.
+     */
+    protected static class EvictionListener<Key, Value> implements RemovalListener<Key, Value> {
+
+        private final CacheStatistics cacheStatistics;
+
+        public EvictionListener(CacheStatistics cacheStatistics) {
+            this.cacheStatistics = cacheStatistics;
+        }
+
+        @Override
+        public void onRemoval(RemovalNotification<Key, Value> notification) {
+            if (notification.wasEvicted()) {
+                cacheStatistics.eviction();
+            }
+        }
+    }
 }
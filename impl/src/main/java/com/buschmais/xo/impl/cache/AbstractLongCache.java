@@ -0,0 +1,232 @@
+package com.buschmais.xo.impl.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Abstract cache implementation for primitive <code>long</code> keys.
+ * <p>The entries are stored in an open addressing hash table using linear probing, removed entries are compacted by shifting subsequent
+ * entries backwards. Lookups therefore do not allocate any objects.</p>
+ * <p>Note: The implementation is not thread safe, access is serialized by the session.</p>
+ */
+public abstract class AbstractLongCache implements Cache<Long, Object> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] entries;
+    private int size;
+    private int threshold;
+
+    /**
+     * Constructor.
+     */
+    protected AbstractLongCache() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    @Override
+    public void put(Long key, Object value) {
+        put(key.longValue(), value);
+    }
+
+    @Override
+    public Object get(Long key) {
+        return get(key.longValue());
+    }
+
+    @Override
+    public void remove(Long key) {
+        remove(key.longValue());
+    }
+
+    /**
+     * Put a value into the cache.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    public void put(long key, Object value) {
+        expunge();
+        Object entry = createEntry(key, value);
+        int mask = entries.length - 1;
+        int slot = index(key, mask);
+        while (entries[slot] != null) {
+            if (keys[slot] == key) {
+                entries[slot] = entry;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        entries[slot] = entry;
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Lookup a value.
+     *
+     * @param key The key.
+     * @return The value or <code>null</code> if the cache contains no value for the key.
+     */
+    public Object get(long key) {
+        expunge();
+        int slot = find(key);
+        return slot >= 0 ? getValue(entries[slot]) : null;
+    }
+
+    /**
+     * Remove a value.
+     *
+     * @param key The key.
+     */
+    public void remove(long key) {
+        expunge();
+        int slot = find(key);
+        if (slot >= 0) {
+            removeSlot(slot);
+        }
+    }
+
+    @Override
+    public Collection<Object> values() {
+        expunge();
+        List<Object> values = new ArrayList<>(size);
+        for (Object entry : entries) {
+            if (entry != null) {
+                Object value = getValue(entry);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(entries, null);
+        size = 0;
+        expunge();
+    }
+
+    @Override
+    public void afterCompletion(boolean success) {
+    }
+
+    /**
+     * Return the number of entries, this may include entries for values which have already been garbage collected.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Create the entry to store for a value.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @return The entry.
+     */
+    protected abstract Object createEntry(long key, Object value);
+
+    /**
+     * Return the value of an entry.
+     *
+     * @param entry The entry.
+     * @return The value, may be <code>null</code> if it is not available anymore.
+     */
+    protected abstract Object getValue(Object entry);
+
+    /**
+     * Remove entries whose values are not available anymore.
+     */
+    protected abstract void expunge();
+
+    /**
+     * Remove an entry if it is still stored for the given key.
+     *
+     * @param key   The key.
+     * @param entry The entry.
+     * @return <code>true</code> if the entry has been removed.
+     */
+    protected boolean removeEntry(long key, Object entry) {
+        int slot = find(key);
+        if (slot >= 0 && entries[slot] == entry) {
+            removeSlot(slot);
+            return true;
+        }
+        return false;
+    }
+
+    private int find(long key) {
+        int mask = entries.length - 1;
+        int slot = index(key, mask);
+        while (entries[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeSlot(int slot) {
+        int mask = entries.length - 1;
+        int free = slot;
+        entries[free] = null;
+        size--;
+        int current = free;
+        while (true) {
+            current = (current + 1) & mask;
+            if (entries[current] == null) {
+                return;
+            }
+            int home = index(keys[current], mask);
+            // Move the entry if its home slot is not cyclically located in (free, current]
+            boolean inRange = free <= current ? (free < home && home <= current) : (free < home || home <= current);
+            if (!inRange) {
+                keys[free] = keys[current];
+                entries[free] = entries[current];
+                entries[current] = null;
+                free = current;
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldEntries = entries;
+        allocate(oldEntries.length << 1);
+        int mask = entries.length - 1;
+        for (int i = 0; i < oldEntries.length; i++) {
+            if (oldEntries[i] != null) {
+                int slot = index(oldKeys[i], mask);
+                while (entries[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                entries[slot] = oldEntries[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        entries = new Object[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int index(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,63 @@
+package com.buschmais.xo.impl.cache;
+
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+
+/**
+ * Abstract cache for <code>long</code> keys holding its values by {@link java.lang.ref.Reference}s.
+ * <p>Entries of garbage collected values are removed using a {@link java.lang.ref.ReferenceQueue}.</p>
+ */
+public abstract class AbstractLongReferenceCache extends AbstractLongCache {
+
+    private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
+    private final CacheStatistics cacheStatistics;
+
+    /**
+     * Constructor.
+     *
+     * @param cacheStatistics The statistics recording evictions.
+     */
+    protected AbstractLongReferenceCache(CacheStatistics cacheStatistics) {
+        this.cacheStatistics = cacheStatistics;
+    }
+
+    @Override
+    protected Object createEntry(long key, Object value) {
+        return createReference(key, value, referenceQueue);
+    }
+
+    @Override
+    protected Object getValue(Object entry) {
+        return ((Reference<?>) entry).get();
+    }
+
+    @Override
+    protected void expunge() {
+        Reference<?> reference;
+        while ((reference = referenceQueue.poll()) != null) {
+            if (removeEntry(((KeyedReference) reference).getKey(), reference)) {
+                cacheStatistics.eviction();
+            }
+        }
+    }
+
+    /**
+     * Create a reference to a value.
+     *
+     * @param key            The key.
+     * @param value          The value.
+     * @param referenceQueue The queue the reference must be registered with.
+     * @return The reference, it must implement {@link KeyedReference}.
+     */
+    protected abstract Reference<Object> createReference(long key, Object value, ReferenceQueue<Object> referenceQueue);
+
+    /**
+     * Implemented by references providing the key they are stored for.
+     */
+    protected interface KeyedReference {
+
+        long getKey();
+    }
+}
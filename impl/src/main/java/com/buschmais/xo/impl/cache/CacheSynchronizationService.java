@@ -1,48 +1,134 @@
 package com.buschmais.xo.impl.cache;
 
 import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.impl.AbstractInstanceManager;
+import com.buschmais.xo.impl.MetadataProvider;
 import com.buschmais.xo.impl.SessionContext;
+import com.buschmais.xo.impl.instancelistener.ChangeRecorder;
 import com.buschmais.xo.impl.instancelistener.InstanceListenerService;
+import com.buschmais.xo.impl.statistics.FlushStatistics;
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreSession;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class CacheSynchronizationService<Entity, Relation> {
 
     private final SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext;
     private ValidationMode validationMode;
+    private final Set<Object> invalidatedEntityIds = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
 
     public CacheSynchronizationService(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext, ValidationMode validationMode) {
         this.sessionContext = sessionContext;
         this.validationMode = validationMode;
     }
 
+    /**
+     * Flush all written instances which have been modified since the last flush.
+     * <p>Instances which have only been accessed for writing without any modification (e.g. as target of a relation) are skipped, for
+     * modified instances only the dirty properties are validated unless the instance is dirty as a whole (e.g. after creation).</p>
+     */
     public void flush() {
         DatastoreSession<?, Entity, ? extends DatastoreEntityMetadata<?>, ?, ?, Relation, ? extends DatastoreRelationMetadata<?>, ?, ?> datastoreSession = sessionContext.getDatastoreSession();
         InstanceListenerService instanceListenerService = sessionContext.getInstanceListenerService();
+        ChangeRecorder changeRecorder = sessionContext.getChangeRecorder();
+        FlushStatistics flushStatistics = sessionContext.getStatistics().getFlushStatistics();
+        AbstractInstanceManager<?, Relation> relationInstanceManager = sessionContext.getRelationInstanceManager();
         for (Object instance : sessionContext.getRelationCache().writtenInstances()) {
-            Relation relation = sessionContext.getRelationInstanceManager().getDatastoreType(instance);
-            instanceListenerService.preUpdate(instance);
-            validateInstance(instance);
-            datastoreSession.getDatastoreRelationManager().flushRelation(relation);
-            instanceListenerService.postUpdate(instance);
+            Relation relation = relationInstanceManager.getDatastoreType(instance);
+            if (relationInstanceManager.isDirty(relation)) {
+                instanceListenerService.preUpdate(instance);
+                validateInstance(instance, relationInstanceManager.getDirtyProperties(relation));
+                datastoreSession.getDatastoreRelationManager().flushRelation(relation);
+                relationInstanceManager.markClean(relation);
+                changeRecorder.updated(instance);
+                instanceListenerService.postUpdate(instance);
+                flushStatistics.flushed();
+            } else {
+                flushStatistics.skipped();
+            }
         }
+        AbstractInstanceManager<?, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
         for (Object instance : sessionContext.getEntityCache().writtenInstances()) {
-            Entity entity = sessionContext.getEntityInstanceManager().getDatastoreType(instance);
-            instanceListenerService.preUpdate(instance);
-            validateInstance(instance);
-            datastoreSession.getDatastoreEntityManager().flushEntity(entity);
-            instanceListenerService.postUpdate(instance);
+            Entity entity = entityInstanceManager.getDatastoreType(instance);
+            if (entityInstanceManager.isDirty(entity)) {
+                instanceListenerService.preUpdate(instance);
+                validateInstance(instance, entityInstanceManager.getDirtyProperties(entity));
+                datastoreSession.getDatastoreEntityManager().flushEntity(entity);
+                entityInstanceManager.markClean(entity);
+                changeRecorder.updated(instance);
+                instanceListenerService.postUpdate(instance);
+                flushStatistics.flushed();
+            } else {
+                flushStatistics.skipped();
+            }
+        }
+    }
+
+    /**
+     * Mark an entity as modified by the current transaction, its state in the {@link SecondLevelCache} is invalidated after completion of
+     * the transaction and must not be used by this session until then.
+     *
+     * @param entityId The entity id.
+     */
+    public void invalidateEntity(Object entityId) {
+        SecondLevelCache<?, ?> secondLevelCache = sessionContext.getSecondLevelCache();
+        if (secondLevelCache != null) {
+            if (sessionContext.getXOTransaction() != null) {
+                invalidatedEntityIds.add(entityId);
+            } else {
+                secondLevelCache.invalidate(Collections.singleton(entityId));
+            }
         }
     }
 
-    private void validateInstance(Object instance) {
+    /**
+     * Determine if an entity has been modified by the current transaction.
+     *
+     * @param entityId The entity id.
+     * @return <code>true</code> if the entity has been modified.
+     */
+    public boolean isInvalidatedEntity(Object entityId) {
+        return invalidatedEntityIds.contains(entityId);
+    }
+
+    /**
+     * Invalidate the states of all entities modified by the completed transaction in the {@link SecondLevelCache}.
+     */
+    public void afterCompletion() {
+        if (!invalidatedEntityIds.isEmpty()) {
+            sessionContext.getSecondLevelCache().invalidate(invalidatedEntityIds);
+            invalidatedEntityIds.clear();
+        }
+    }
+
+    /**
+     * Validate an instance.
+     *
+     * @param instance        The instance.
+     * @param dirtyProperties The indices of the properties to validate or <code>null</code> if the instance shall be validated as a whole.
+     */
+    private void validateInstance(Object instance, BitSet dirtyProperties) {
         if (!ValidationMode.NONE.equals(validationMode)) {
-            Set<ConstraintViolation<Object>> constraintViolations = sessionContext.getInstanceValidationService().validate(instance);
+            Set<ConstraintViolation<Object>> constraintViolations;
+            if (dirtyProperties == null) {
+                constraintViolations = sessionContext.getInstanceValidationService().validate(instance);
+            } else {
+                MetadataProvider<?, ?, ?, ?> metadataProvider = sessionContext.getMetadataProvider();
+                List<String> propertyNames = new ArrayList<>(dirtyProperties.cardinality());
+                for (int i = dirtyProperties.nextSetBit(0); i >= 0; i = dirtyProperties.nextSetBit(i + 1)) {
+                    propertyNames.add(metadataProvider.getPropertyMetadata(i).getAnnotatedMethod().getName());
+                }
+                constraintViolations = sessionContext.getInstanceValidationService().validate(instance, propertyNames);
+            }
             if (!constraintViolations.isEmpty()) {
                 throw new ConstraintViolationException(constraintViolations);
             }
@@ -0,0 +1,41 @@
+package com.buschmais.xo.impl.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Cache implementation which does not hold any values.
+ *
+ * @param <Id> The key type.
+ */
+public class DisabledCache<Id> implements Cache<Id, Object> {
+
+    protected DisabledCache() {
+    }
+
+    @Override
+    public void put(Id key, Object value) {
+    }
+
+    @Override
+    public Object get(Id key) {
+        return null;
+    }
+
+    @Override
+    public void remove(Id key) {
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    public void afterCompletion(boolean success) {
+    }
+}
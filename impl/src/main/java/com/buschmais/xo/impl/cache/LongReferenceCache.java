@@ -0,0 +1,24 @@
+package com.buschmais.xo.impl.cache;
+
+/**
+ * Cache for <code>long</code> keys holding strong references to its values.
+ */
+public class LongReferenceCache extends AbstractLongCache {
+
+    protected LongReferenceCache() {
+    }
+
+    @Override
+    protected Object createEntry(long key, Object value) {
+        return value;
+    }
+
+    @Override
+    protected Object getValue(Object entry) {
+        return entry;
+    }
+
+    @Override
+    protected void expunge() {
+    }
+}
@@ -0,0 +1,37 @@
+package com.buschmais.xo.impl.cache;
+
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+
+/**
+ * Cache for <code>long</code> keys holding soft references to its values.
+ */
+public class LongSoftReferenceCache extends AbstractLongReferenceCache {
+
+    protected LongSoftReferenceCache(CacheStatistics cacheStatistics) {
+        super(cacheStatistics);
+    }
+
+    @Override
+    protected Reference<Object> createReference(long key, Object value, ReferenceQueue<Object> referenceQueue) {
+        return new SoftEntry(key, value, referenceQueue);
+    }
+
+    private static final class SoftEntry extends SoftReference<Object> implements KeyedReference {
+
+        private final long key;
+
+        private SoftEntry(long key, Object value, ReferenceQueue<Object> referenceQueue) {
+            super(value, referenceQueue);
+            this.key = key;
+        }
+
+        @Override
+        public long getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.buschmais.xo.impl.cache;
+
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Cache for <code>long</code> keys holding weak references to its values.
+ */
+public class LongWeakReferenceCache extends AbstractLongReferenceCache {
+
+    protected LongWeakReferenceCache(CacheStatistics cacheStatistics) {
+        super(cacheStatistics);
+    }
+
+    @Override
+    protected Reference<Object> createReference(long key, Object value, ReferenceQueue<Object> referenceQueue) {
+        return new WeakEntry(key, value, referenceQueue);
+    }
+
+    private static final class WeakEntry extends WeakReference<Object> implements KeyedReference {
+
+        private final long key;
+
+        private WeakEntry(long key, Object value, ReferenceQueue<Object> referenceQueue) {
+            super(value, referenceQueue);
+            this.key = key;
+        }
+
+        @Override
+        public long getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.buschmais.xo.impl.cache;
+
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache holding strong references to a bounded number of values, the least recently used entry is evicted if the maximum size is exceeded.
+ * <p>Evicted values are demoted to a cache holding weak references: as long as an evicted instance is still referenced by the application
+ * it is resolved from there and promoted again, i.e. the identity of instances within a session is preserved.</p>
+ * <p>Note: The implementation is not thread safe, access is serialized by the session.</p>
+ *
+ * @param <Id> The key type.
+ */
+public class LruCache<Id> implements Cache<Id, Object> {
+
+    private final Map<Id, Object> entries;
+
+    private final Cache<Id, Object> evictedEntries;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize     The maximum number of strongly referenced values.
+     * @param cacheStatistics The statistics recording evictions.
+     * @param evictedEntries  The cache holding weak references to evicted values.
+     */
+    protected LruCache(final int maximumSize, final CacheStatistics cacheStatistics, final Cache<Id, Object> evictedEntries) {
+        this.evictedEntries = evictedEntries;
+        this.entries = new LinkedHashMap<Id, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Id, Object> eldest) {
+                if (size() > maximumSize) {
+                    evictedEntries.put(eldest.getKey(), eldest.getValue());
+                    cacheStatistics.eviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public void put(Id key, Object value) {
+        evictedEntries.remove(key);
+        entries.put(key, value);
+    }
+
+    @Override
+    public Object get(Id key) {
+        Object value = entries.get(key);
+        if (value == null) {
+            value = evictedEntries.get(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void remove(Id key) {
+        entries.remove(key);
+        evictedEntries.remove(key);
+    }
+
+    @Override
+    public Collection<Object> values() {
+        List<Object> values = new ArrayList<>(entries.values());
+        values.addAll(evictedEntries.values());
+        return values;
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        evictedEntries.clear();
+    }
+
+    @Override
+    public void afterCompletion(boolean success) {
+    }
+}
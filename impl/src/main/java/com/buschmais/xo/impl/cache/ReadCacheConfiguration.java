@@ -0,0 +1,96 @@
+package com.buschmais.xo.impl.cache;
+
+import com.buschmais.xo.api.XOException;
+
+import java.util.Properties;
+
+/**
+ * The configuration of the read cache of a session.
+ * <p>The configuration is read from the properties {@link #POLICY_PROPERTY} and {@link #SIZE_PROPERTY} of an
+ * {@link com.buschmais.xo.api.bootstrap.XOUnit}, e.g. <code>xo.cache.read.policy=lru</code> and <code>xo.cache.read.size=5000</code>.</p>
+ */
+public final class ReadCacheConfiguration {
+
+    /**
+     * The name of the property selecting the {@link ReadCachePolicy}.
+     */
+    public static final String POLICY_PROPERTY = "xo.cache.read.policy";
+
+    /**
+     * The name of the property defining the maximum size of the read cache, only used by {@link ReadCachePolicy#LRU}.
+     */
+    public static final String SIZE_PROPERTY = "xo.cache.read.size";
+
+    /**
+     * The default maximum size of the read cache.
+     */
+    public static final int DEFAULT_SIZE = 10000;
+
+    /**
+     * The default configuration.
+     */
+    public static final ReadCacheConfiguration DEFAULT = new ReadCacheConfiguration(ReadCachePolicy.WEAK, DEFAULT_SIZE);
+
+    private final ReadCachePolicy policy;
+    private final int maximumSize;
+
+    /**
+     * Constructor.
+     *
+     * @param policy      The policy.
+     * @param maximumSize The maximum size.
+     */
+    public ReadCacheConfiguration(ReadCachePolicy policy, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new XOException("The maximum size of the read cache must be greater than 0 but is " + maximumSize);
+        }
+        this.policy = policy;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Determine the configuration from the given properties.
+     *
+     * @param properties The properties, may be <code>null</code>.
+     * @return The configuration.
+     */
+    public static ReadCacheConfiguration fromProperties(Properties properties) {
+        if (properties == null) {
+            return DEFAULT;
+        }
+        String policyValue = properties.getProperty(POLICY_PROPERTY);
+        String sizeValue = properties.getProperty(SIZE_PROPERTY);
+        if (policyValue == null && sizeValue == null) {
+            return DEFAULT;
+        }
+        ReadCachePolicy policy;
+        try {
+            policy = policyValue != null ? ReadCachePolicy.valueOf(policyValue.trim().toUpperCase()) : ReadCachePolicy.WEAK;
+        } catch (IllegalArgumentException e) {
+            throw new XOException("Unsupported value '" + policyValue + "' for property '" + POLICY_PROPERTY + "'.", e);
+        }
+        int size;
+        try {
+            size = sizeValue != null ? Integer.parseInt(sizeValue.trim()) : DEFAULT_SIZE;
+        } catch (NumberFormatException e) {
+            throw new XOException("Unsupported value '" + sizeValue + "' for property '" + SIZE_PROPERTY + "'.", e);
+        }
+        return new ReadCacheConfiguration(policy, size);
+    }
+
+    public ReadCachePolicy getPolicy() {
+        return policy;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadCacheConfiguration{" +
+                "policy=" + policy +
+                ", maximumSize=" + maximumSize +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.buschmais.xo.impl.cache;
+
+/**
+ * Defines how instances which have only been read are held by the cache of a session.
+ */
+public enum ReadCachePolicy {
+
+    /**
+     * Instances are held by weak references (default).
+     */
+    WEAK,
+
+    /**
+     * Instances are held by soft references, i.e. they are kept until memory is running low.
+     */
+    SOFT,
+
+    /**
+     * Instances are held by strong references, the least recently used instances are evicted if the maximum size is exceeded.
+     * <p>Evicted instances are still held by weak references, i.e. they are resolved as long as they are referenced by the application.</p>
+     */
+    LRU,
+
+    /**
+     * Read instances are not cached.
+     * <p>Note: The identity of instances within a session is not preserved, i.e. reading the same entity or relation twice results in two
+     * different instances and {@link com.buschmais.xo.api.annotation.PostLoad} listeners are invoked for each of them.</p>
+     */
+    NONE
+}
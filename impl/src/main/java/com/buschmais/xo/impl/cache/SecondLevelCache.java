@@ -0,0 +1,212 @@
+package com.buschmais.xo.impl.cache;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.annotation.Cacheable;
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+import com.buschmais.xo.spi.datastore.TypeMetadataSet;
+import com.buschmais.xo.spi.metadata.type.DatastoreTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Second level cache holding the datastore state of entities, it is shared by all sessions of an
+ * {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>Only entities with at least one type annotated with {@link com.buschmais.xo.api.annotation.Cacheable} are cached. The number of cached
+ * entities is bounded by the property {@link #SIZE_PROPERTY} of the {@link com.buschmais.xo.api.bootstrap.XOUnit}.</p>
+ * <p>Every invalidation increments a generation counter. A state read from the datastore is only put into the cache if no invalidation
+ * happened since the read started, this prevents a concurrent session from caching a state which has already been replaced by a committed
+ * transaction.</p>
+ * <p>Only modifications applied through the instances of XO are tracked. Entities modified by queries (e.g. Cypher <code>SET</code> or
+ * <code>DELETE</code>) or by direct access to the datastore are not invalidated, their cached states remain until they are evicted.</p>
+ *
+ * @param <EntityId>            The entity id type.
+ * @param <EntityDiscriminator> The entity discriminator type.
+ */
+public class SecondLevelCache<EntityId, EntityDiscriminator> {
+
+    /**
+     * The name of the property defining the maximum number of cached entities.
+     */
+    public static final String SIZE_PROPERTY = "xo.cache.secondlevel.size";
+
+    /**
+     * The default maximum number of cached entities.
+     */
+    public static final int DEFAULT_SIZE = 10000;
+
+    private final com.google.common.cache.Cache<EntityId, Entry<EntityDiscriminator>> entries;
+    private final ConcurrentMap<TypeMetadataSet<?>, Boolean> cacheableTypes = new MapMaker().weakKeys().makeMap();
+    private final AtomicLong generation = new AtomicLong();
+    private final CacheStatistics cacheStatistics;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize     The maximum number of cached entities.
+     * @param cacheStatistics The statistics.
+     */
+    public SecondLevelCache(int maximumSize, CacheStatistics cacheStatistics) {
+        this.entries = CacheBuilder.newBuilder().maximumSize(maximumSize).removalListener(new AbstractCache.EvictionListener<EntityId, Entry<EntityDiscriminator>>(cacheStatistics)).<EntityId, Entry<EntityDiscriminator>>build();
+        this.cacheStatistics = cacheStatistics;
+    }
+
+    /**
+     * Create the second level cache for the registered types.
+     *
+     * @param registeredMetadata The metadata of the registered types.
+     * @param properties         The properties of the {@link com.buschmais.xo.api.bootstrap.XOUnit}, may be <code>null</code>.
+     * @param cacheStatistics    The statistics.
+     * @return The cache or <code>null</code> if no entity type is annotated with {@link com.buschmais.xo.api.annotation.Cacheable}.
+     */
+    public static <EntityId, EntityDiscriminator> SecondLevelCache<EntityId, EntityDiscriminator> create(Collection<TypeMetadata> registeredMetadata, Properties properties, CacheStatistics cacheStatistics) {
+        for (TypeMetadata typeMetadata : registeredMetadata) {
+            if (typeMetadata instanceof EntityTypeMetadata && isCacheable((EntityTypeMetadata<?>) typeMetadata)) {
+                String sizeValue = properties != null ? properties.getProperty(SIZE_PROPERTY) : null;
+                int size;
+                try {
+                    size = sizeValue != null ? Integer.parseInt(sizeValue.trim()) : DEFAULT_SIZE;
+                } catch (NumberFormatException e) {
+                    throw new XOException("Unsupported value '" + sizeValue + "' for property '" + SIZE_PROPERTY + "'.", e);
+                }
+                return new SecondLevelCache<>(size, cacheStatistics);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determine if entities of the given types may be cached, i.e. if at least one of the types is annotated with
+     * {@link com.buschmais.xo.api.annotation.Cacheable}.
+     *
+     * @param types The types.
+     * @return <code>true</code> if the entities may be cached.
+     */
+    public boolean isCacheable(TypeMetadataSet<?> types) {
+        Boolean cacheable = cacheableTypes.get(types);
+        if (cacheable == null) {
+            cacheable = Boolean.FALSE;
+            for (DatastoreTypeMetadata<?> typeMetadata : types) {
+                if (isCacheable(typeMetadata)) {
+                    cacheable = Boolean.TRUE;
+                }
+            }
+            if (types.isImmutable()) {
+                cacheableTypes.put(types, cacheable);
+            }
+        }
+        return cacheable.booleanValue();
+    }
+
+    private static boolean isCacheable(DatastoreTypeMetadata<?> typeMetadata) {
+        return typeMetadata.getAnnotatedType().getAnnotation(Cacheable.class) != null;
+    }
+
+    /**
+     * Lookup the cached state of an entity.
+     *
+     * @param id The entity id.
+     * @return The entry or <code>null</code> if no state is cached.
+     */
+    public Entry<EntityDiscriminator> get(EntityId id) {
+        return entries.getIfPresent(id);
+    }
+
+    /**
+     * Return the current generation, it must be determined before the state of an entity is read from the datastore.
+     *
+     * @return The generation.
+     * @see #put(Object, java.util.Set, long)
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Put the state of an entity into the cache.
+     * <p>The state is discarded if an invalidation happened after the given generation has been determined.</p>
+     *
+     * @param id             The entity id.
+     * @param discriminators The discriminators of the entity.
+     * @param generation     The generation determined before the state has been read from the datastore.
+     * @return The entry or <code>null</code> if the state has been discarded.
+     */
+    public Entry<EntityDiscriminator> put(EntityId id, Set<EntityDiscriminator> discriminators, long generation) {
+        if (this.generation.get() != generation) {
+            return null;
+        }
+        Entry<EntityDiscriminator> entry = new Entry<>(Collections.unmodifiableSet(new HashSet<>(discriminators)));
+        entries.put(id, entry);
+        if (this.generation.get() != generation) {
+            // an invalidation might have happened between the check and the put
+            entries.asMap().remove(id, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Invalidate the cached states of entities.
+     *
+     * @param ids The entity ids.
+     */
+    public void invalidate(Iterable<?> ids) {
+        generation.incrementAndGet();
+        entries.invalidateAll(ids);
+    }
+
+    public CacheStatistics getCacheStatistics() {
+        return cacheStatistics;
+    }
+
+    /**
+     * The cached state of an entity.
+     * <p>Property values may be added to an entry after it has been invalidated, they are lost with the entry.</p>
+     *
+     * @param <EntityDiscriminator> The entity discriminator type.
+     */
+    public static class Entry<EntityDiscriminator> {
+
+        /**
+         * Marker for properties which are known not to exist.
+         */
+        public static final Object ABSENT = new Object();
+
+        private final Set<EntityDiscriminator> discriminators;
+        private final ConcurrentMap<Object, Object> properties = new ConcurrentHashMap<>();
+
+        private Entry(Set<EntityDiscriminator> discriminators) {
+            this.discriminators = discriminators;
+        }
+
+        public Set<EntityDiscriminator> getDiscriminators() {
+            return discriminators;
+        }
+
+        /**
+         * Return a cached property value.
+         *
+         * @param key The property key.
+         * @return The value, {@link #ABSENT} if the property does not exist or <code>null</code> if it is not cached.
+         */
+        public Object getProperty(Object key) {
+            return properties.get(key);
+        }
+
+        /**
+         * Cache a property value.
+         *
+         * @param key   The property key.
+         * @param value The value, {@link #ABSENT} if the property does not exist.
+         */
+        public void putProperty(Object key, Object value) {
+            properties.put(key, value);
+        }
+    }
+}
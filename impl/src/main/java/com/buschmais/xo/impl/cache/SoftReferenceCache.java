@@ -0,0 +1,15 @@
+package com.buschmais.xo.impl.cache;
+
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+import com.google.common.cache.CacheBuilder;
+
+public class SoftReferenceCache<Id> extends AbstractCache<Id, Object> {
+
+    protected SoftReferenceCache(CacheStatistics cacheStatistics) {
+        super(CacheBuilder.newBuilder().softValues().removalListener(new EvictionListener<Id, Object>(cacheStatistics)).<Id, Object>build());
+    }
+
+    @Override
+    public void afterCompletion(boolean success) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.buschmais.xo.impl.cache;
+
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * A {@link TransactionalCache} which synchronizes all operations, it is used for sessions which allow concurrent invocations.
+ *
+ * @param <Id> The datastore id type.
+ */
+class SynchronizedTransactionalCache<Id> extends TransactionalCache<Id> {
+
+    SynchronizedTransactionalCache(ReadCacheConfiguration readCacheConfiguration, CacheStatistics cacheStatistics) {
+        super(readCacheConfiguration, cacheStatistics);
+    }
+
+    @Override
+    public synchronized void put(Id id, Object value, Mode mode) {
+        super.put(id, value, mode);
+    }
+
+    @Override
+    public synchronized Object putIfAbsent(Id id, Object value, Mode mode) {
+        return super.putIfAbsent(id, value, mode);
+    }
+
+    @Override
+    public synchronized Object get(Id id, Mode mode) {
+        return super.get(id, mode);
+    }
+
+    @Override
+    public synchronized void remove(Id id) {
+        super.remove(id);
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+    }
+
+    @Override
+    public synchronized void markDirty(Id id) {
+        super.markDirty(id);
+    }
+
+    @Override
+    public synchronized void markDirty(Id id, int propertyIndex) {
+        super.markDirty(id, propertyIndex);
+    }
+
+    @Override
+    public synchronized boolean isDirty(Id id) {
+        return super.isDirty(id);
+    }
+
+    @Override
+    public synchronized BitSet getDirtyProperties(Id id) {
+        return super.getDirtyProperties(id);
+    }
+
+    @Override
+    public synchronized void markClean(Id id) {
+        super.markClean(id);
+    }
+
+    @Override
+    public synchronized Collection<?> readInstances() {
+        return super.readInstances();
+    }
+
+    @Override
+    public synchronized Collection<?> writtenInstances() {
+        return super.writtenInstances();
+    }
+}
@@ -1,32 +1,25 @@
 package com.buschmais.xo.impl.cache;
 
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Transactional cache whcih handles read and write access to instances.
+ * <p>The operations are not synchronized, use {@link #create(ConcurrencyMode, ReadCacheConfiguration, CacheStatistics)} to create a cache
+ * which may be accessed concurrently if required by the {@link ConcurrencyMode} of the session.</p>
  *
  * @param <Id> The datastore id type.
  */
 public class TransactionalCache<Id> {
 
-    private static class CacheKey<Id> {
-        private Id id;
-
-        private CacheKey(Id id) {
-            this.id = id;
-        }
-
-        @Override
-        public int hashCode() {
-            return id.hashCode();
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            return obj != null && id.equals(((CacheKey) obj).id);
-        }
-    }
-
     /**
      * The access mode indicating how an instance has been accessed.
      */
@@ -38,19 +31,96 @@ public class TransactionalCache<Id> {
     /**
      * The read cache.
      */
-    private final WeakReferenceCache<CacheKey> readCache;
+    private Cache<Id, Object> readCache = null;
 
     /**
      * The write cache.
      */
-    private final ReferenceCache<Id> writeCache;
+    private Cache<Id, Object> writeCache = null;
 
     /**
-     * Constructor.
+     * The dirty properties of written instances, {@link #ALL_PROPERTIES} marks an instance as dirty as a whole.
+     */
+    private final Map<Id, BitSet> dirtyProperties = new HashMap<>();
+
+    private static final BitSet ALL_PROPERTIES = new BitSet(0);
+
+    private final ReadCacheConfiguration readCacheConfiguration;
+
+    private final CacheStatistics cacheStatistics;
+
+    /**
+     * Constructor using the default read cache configuration.
      */
     public TransactionalCache() {
-        this.readCache = new WeakReferenceCache<>();
-        this.writeCache = new ReferenceCache<>();
+        this(ReadCacheConfiguration.DEFAULT, new CacheStatistics(false));
+    }
+
+    /**
+     * Constructor.
+     * <p>The underlying caches are created on the first put depending on the type of the id: specialized caches are used for ids of type
+     * {@link java.lang.Long}, generic caches for all other types.</p>
+     *
+     * @param readCacheConfiguration The configuration of the read cache.
+     * @param cacheStatistics        The statistics recording evictions from the read cache.
+     */
+    public TransactionalCache(ReadCacheConfiguration readCacheConfiguration, CacheStatistics cacheStatistics) {
+        this.readCacheConfiguration = readCacheConfiguration;
+        this.cacheStatistics = cacheStatistics;
+    }
+
+    /**
+     * Create a cache for a session.
+     * <p>The operations of the cache are synchronized for the {@link ConcurrencyMode}s which allow concurrent invocations on a session
+     * ({@link ConcurrencyMode#READ_WRITE} and {@link ConcurrencyMode#STRIPED}). All other modes either serialize the invocations or
+     * confine the session to one thread at a time, i.e. no locking is required.</p>
+     *
+     * @param concurrencyMode        The concurrency mode of the session.
+     * @param readCacheConfiguration The configuration of the read cache.
+     * @param cacheStatistics        The statistics recording evictions from the read cache.
+     * @param <Id>                   The datastore id type.
+     * @return The cache.
+     */
+    public static <Id> TransactionalCache<Id> create(ConcurrencyMode concurrencyMode, ReadCacheConfiguration readCacheConfiguration, CacheStatistics cacheStatistics) {
+        switch (concurrencyMode) {
+            case READ_WRITE:
+            case STRIPED:
+                return new SynchronizedTransactionalCache<>(readCacheConfiguration, cacheStatistics);
+            default:
+                return new TransactionalCache<>(readCacheConfiguration, cacheStatistics);
+        }
+    }
+
+    /**
+     * Create the underlying caches if required.
+     *
+     * @param id The id of the first instance to put.
+     */
+    private void initialize(Id id) {
+        if (readCache == null) {
+            boolean longId = id instanceof Long;
+            readCache = createReadCache(longId);
+            writeCache = longId ? (Cache<Id, Object>) (Cache<?, Object>) new LongReferenceCache() : new ReferenceCache<Id>();
+        }
+    }
+
+    private Cache<Id, Object> createReadCache(boolean longId) {
+        ReadCachePolicy policy = readCacheConfiguration.getPolicy();
+        switch (policy) {
+            case WEAK:
+                return longId ? (Cache<Id, Object>) (Cache<?, Object>) new LongWeakReferenceCache(cacheStatistics) : new WeakReferenceCache<Id>(cacheStatistics);
+            case SOFT:
+                return longId ? (Cache<Id, Object>) (Cache<?, Object>) new LongSoftReferenceCache(cacheStatistics) : new SoftReferenceCache<Id>(cacheStatistics);
+            case LRU:
+                // Evicted instances are only held weakly, their garbage collection is not recorded as eviction.
+                CacheStatistics evictedStatistics = new CacheStatistics(false);
+                Cache<Id, Object> evictedCache = longId ? (Cache<Id, Object>) (Cache<?, Object>) new LongWeakReferenceCache(evictedStatistics) : new WeakReferenceCache<Id>(evictedStatistics);
+                return new LruCache<>(readCacheConfiguration.getMaximumSize(), cacheStatistics, evictedCache);
+            case NONE:
+                return new DisabledCache<>();
+            default:
+                throw new XOException("Unsupported read cache policy " + policy);
+        }
     }
 
     /**
@@ -61,10 +131,28 @@ public class TransactionalCache<Id> {
      * @param mode  The mode.
      */
     public void put(Id id, Object value, Mode mode) {
+        initialize(id);
         if (Mode.WRITE.equals(mode)) {
             writeCache.put(id, value);
         }
-        readCache.put(new CacheKey(id), value);
+        readCache.put(id, value);
+    }
+
+    /**
+     * Put an instance into the cache if no instance is cached for the id yet.
+     *
+     * @param id    The id.
+     * @param value The instance.
+     * @param mode  The mode.
+     * @return The instance which is already cached or <code>null</code> if the given instance has been put into the cache.
+     */
+    public Object putIfAbsent(Id id, Object value, Mode mode) {
+        Object existingValue = get(id, mode);
+        if (existingValue != null) {
+            return existingValue;
+        }
+        put(id, value, mode);
+        return null;
     }
 
     /**
@@ -75,9 +163,12 @@ public class TransactionalCache<Id> {
      * @return The corresponding instance or <code>null</code> if no instance is available.
      */
     public Object get(Id id, Mode mode) {
+        if (readCache == null) {
+            return null;
+        }
         Object value = writeCache.get(id);
         if (value == null) {
-            value = readCache.get(new CacheKey(id));
+            value = readCache.get(id);
             if (value != null && Mode.WRITE.equals(mode)) {
                 writeCache.put(id, value);
             }
@@ -91,33 +182,95 @@ public class TransactionalCache<Id> {
      * @param id The id.
      */
     public void remove(Id id) {
-        readCache.remove(new CacheKey(id));
-        writeCache.remove(id);
+        if (readCache != null) {
+            readCache.remove(id);
+            writeCache.remove(id);
+        }
+        dirtyProperties.remove(id);
     }
 
     /**
      * Clear the cache.
-     * <p>Note: Affects only the write.</p>
+     * <p>Note: Affects only the write cache and the dirty state.</p>
      */
     public void clear() {
-        writeCache.clear();
+        if (writeCache != null) {
+            writeCache.clear();
+        }
+        dirtyProperties.clear();
+    }
+
+    /**
+     * Mark an instance as dirty as a whole, e.g. after creation or migration.
+     *
+     * @param id The id.
+     */
+    public void markDirty(Id id) {
+        dirtyProperties.put(id, ALL_PROPERTIES);
+    }
+
+    /**
+     * Mark a property of an instance as dirty.
+     *
+     * @param id            The id.
+     * @param propertyIndex The index of the property.
+     */
+    public void markDirty(Id id, int propertyIndex) {
+        BitSet properties = dirtyProperties.get(id);
+        if (properties == null) {
+            properties = new BitSet();
+            dirtyProperties.put(id, properties);
+        } else if (properties == ALL_PROPERTIES) {
+            return;
+        }
+        properties.set(propertyIndex);
+    }
+
+    /**
+     * Determine if an instance has been modified since it has been put into the cache or has been marked as clean.
+     *
+     * @param id The id.
+     * @return <code>true</code> if the instance is dirty.
+     */
+    public boolean isDirty(Id id) {
+        return dirtyProperties.containsKey(id);
+    }
+
+    /**
+     * Return the indices of the dirty properties of an instance.
+     *
+     * @param id The id.
+     * @return The indices or <code>null</code> if the instance is dirty as a whole or is not dirty at all.
+     */
+    public BitSet getDirtyProperties(Id id) {
+        BitSet properties = dirtyProperties.get(id);
+        return properties != ALL_PROPERTIES ? properties : null;
+    }
+
+    /**
+     * Mark an instance as clean, e.g. after it has been flushed.
+     *
+     * @param id The id.
+     */
+    public void markClean(Id id) {
+        dirtyProperties.remove(id);
     }
 
     /**
-     * Returns the instance which have been read.
+     * Returns a snapshot of the instance which have been read.
      *
      * @return The read instances.
      */
     public Collection<?> readInstances() {
-        return readCache.values();
+        return readCache != null ? new ArrayList<>(readCache.values()) : Collections.emptyList();
     }
 
     /**
-     * Returns the instance which have been written.
+     * Returns a snapshot of the instance which have been written.
      *
      * @return The written instances.
      */
     public Collection<?> writtenInstances() {
-        return writeCache.values();
+        return writeCache != null ? new ArrayList<>(writeCache.values()) : Collections.emptyList();
     }
 }
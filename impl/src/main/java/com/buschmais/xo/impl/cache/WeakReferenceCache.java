@@ -1,11 +1,12 @@
 package com.buschmais.xo.impl.cache;
 
+import com.buschmais.xo.impl.statistics.CacheStatistics;
 import com.google.common.cache.CacheBuilder;
 
 public class WeakReferenceCache<Id> extends AbstractCache<Id, Object> {
 
-    protected WeakReferenceCache() {
-        super(CacheBuilder.newBuilder().weakValues().build());
+    protected WeakReferenceCache(CacheStatistics cacheStatistics) {
+        super(CacheBuilder.newBuilder().weakValues().removalListener(new EvictionListener<Id, Object>(cacheStatistics)).<Id, Object>build());
     }
 
     @Override
@@ -0,0 +1,164 @@
+package com.buschmais.xo.impl.instancelistener;
+
+import com.buschmais.xo.api.ChangeSet;
+import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.impl.AbstractInstanceManager;
+import com.buschmais.xo.impl.SessionContext;
+
+import java.util.*;
+
+/**
+ * Records the instances created, updated and deleted by the current transaction of a session for
+ * {@link com.buschmais.xo.api.annotation.PostCommit} listeners.
+ * <p>Nothing is recorded if no such listener is registered.</p>
+ */
+public class ChangeRecorder {
+
+    private final SessionContext<?, ?, ?, ?, ?, ?, ?, ?, ?> sessionContext;
+    private final Map<Key, ChangeSet.Change> created = new LinkedHashMap<>();
+    private final Map<Key, ChangeSet.Change> updated = new LinkedHashMap<>();
+    private final Map<Key, ChangeSet.Change> deleted = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param sessionContext The session context.
+     */
+    public ChangeRecorder(SessionContext<?, ?, ?, ?, ?, ?, ?, ?, ?> sessionContext) {
+        this.sessionContext = sessionContext;
+    }
+
+    /**
+     * Record a created instance.
+     *
+     * @param instance The instance.
+     */
+    public synchronized void created(Object instance) {
+        if (isEnabled()) {
+            Key key = getKey(instance);
+            created.put(key, new ChangeSetImpl.ChangeImpl(key.id, getTypes(instance)));
+        }
+    }
+
+    /**
+     * Record a created entity for which no instance exists.
+     *
+     * @param id    The id of the entity.
+     * @param types The types of the entity.
+     */
+    public synchronized void createdEntity(Object id, Class<?>[] types) {
+        if (isEnabled()) {
+            created.put(new Key(true, id), new ChangeSetImpl.ChangeImpl(id, getTypes(types)));
+        }
+    }
+
+    /**
+     * Record an updated instance, instances created by the current transaction are ignored.
+     *
+     * @param instance The instance.
+     */
+    public synchronized void updated(Object instance) {
+        if (isEnabled()) {
+            Key key = getKey(instance);
+            if (!created.containsKey(key) && !updated.containsKey(key)) {
+                updated.put(key, new ChangeSetImpl.ChangeImpl(key.id, getTypes(instance)));
+            }
+        }
+    }
+
+    /**
+     * Record an instance which is going to be deleted, instances created by the current transaction are discarded.
+     *
+     * @param instance The instance.
+     */
+    public synchronized void deleted(Object instance) {
+        if (isEnabled()) {
+            Key key = getKey(instance);
+            updated.remove(key);
+            if (created.remove(key) == null) {
+                deleted.put(key, new ChangeSetImpl.ChangeImpl(key.id, getTypes(instance)));
+            }
+        }
+    }
+
+    /**
+     * Return the recorded changes and reset the recorder, e.g. after completion of a transaction.
+     *
+     * @return The {@link ChangeSet} or <code>null</code> if there are no changes.
+     */
+    public synchronized ChangeSet complete() {
+        if (created.isEmpty() && updated.isEmpty() && deleted.isEmpty()) {
+            return null;
+        }
+        ChangeSet changeSet = new ChangeSetImpl(copy(created), copy(updated), copy(deleted));
+        created.clear();
+        updated.clear();
+        deleted.clear();
+        return changeSet;
+    }
+
+    private boolean isEnabled() {
+        return sessionContext.getXOTransaction() != null && sessionContext.getInstanceListenerService().hasPostCommitListeners();
+    }
+
+    private Key getKey(Object instance) {
+        AbstractInstanceManager<?, ?> entityInstanceManager = sessionContext.getEntityInstanceManager();
+        if (entityInstanceManager.isInstance(instance)) {
+            return new Key(true, getId(entityInstanceManager, instance));
+        }
+        return new Key(false, getId(sessionContext.getRelationInstanceManager(), instance));
+    }
+
+    private <DatastoreId, DatastoreType> DatastoreId getId(AbstractInstanceManager<DatastoreId, DatastoreType> instanceManager, Object instance) {
+        return instanceManager.getDatastoreId(instanceManager.getDatastoreType(instance));
+    }
+
+    private Set<Class<?>> getTypes(Object instance) {
+        return getTypes(instance.getClass().getInterfaces());
+    }
+
+    private Set<Class<?>> getTypes(Class<?>[] types) {
+        Set<Class<?>> result = new LinkedHashSet<>();
+        for (Class<?> type : types) {
+            if (!CompositeObject.class.equals(type)) {
+                result.add(type);
+            }
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    private Collection<ChangeSet.Change> copy(Map<Key, ChangeSet.Change> changes) {
+        return Collections.unmodifiableList(new ArrayList<>(changes.values()));
+    }
+
+    /**
+     * The key of a recorded instance, entity and relation ids may overlap.
+     */
+    private static final class Key {
+
+        private final boolean entity;
+        private final Object id;
+
+        private Key(boolean entity, Object id) {
+            this.entity = entity;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return entity == that.entity && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id.hashCode() + (entity ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.buschmais.xo.impl.instancelistener;
+
+import com.buschmais.xo.api.ChangeSet;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Immutable implementation of a {@link ChangeSet}.
+ */
+public class ChangeSetImpl implements ChangeSet {
+
+    private final Collection<Change> created;
+    private final Collection<Change> updated;
+    private final Collection<Change> deleted;
+
+    /**
+     * Constructor.
+     *
+     * @param created The created instances.
+     * @param updated The updated instances.
+     * @param deleted The deleted instances.
+     */
+    public ChangeSetImpl(Collection<Change> created, Collection<Change> updated, Collection<Change> deleted) {
+        this.created = created;
+        this.updated = updated;
+        this.deleted = deleted;
+    }
+
+    @Override
+    public Collection<Change> getCreated() {
+        return created;
+    }
+
+    @Override
+    public Collection<Change> getUpdated() {
+        return updated;
+    }
+
+    @Override
+    public Collection<Change> getDeleted() {
+        return deleted;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeSet{" +
+                "created=" + created +
+                ", updated=" + updated +
+                ", deleted=" + deleted +
+                '}';
+    }
+
+    /**
+     * Immutable implementation of a {@link ChangeSet.Change}.
+     */
+    public static class ChangeImpl implements Change {
+
+        private final Object id;
+        private final Set<Class<?>> types;
+
+        /**
+         * Constructor.
+         *
+         * @param id    The id of the instance.
+         * @param types The types of the instance.
+         */
+        public ChangeImpl(Object id, Set<Class<?>> types) {
+            this.id = id;
+            this.types = types;
+        }
+
+        @Override
+        public <Id> Id getId() {
+            return (Id) id;
+        }
+
+        @Override
+        public Set<Class<?>> getTypes() {
+            return types;
+        }
+
+        @Override
+        public String toString() {
+            return "Change{" +
+                    "id=" + id +
+                    ", types=" + types +
+                    '}';
+        }
+    }
+}
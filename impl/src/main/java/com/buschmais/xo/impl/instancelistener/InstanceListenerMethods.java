@@ -0,0 +1,180 @@
+package com.buschmais.xo.impl.instancelistener;
+
+import com.buschmais.xo.api.ChangeSet;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.annotation.*;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The life cycle methods of a list of instance listener types.
+ * <p>The methods are resolved into method handles which are not bound to listener instances, i.e. the table is shared by all sessions
+ * of an {@link com.buschmais.xo.api.XOManagerFactory} while each session creates its own listener instances. The methods matching the
+ * class of an instance are resolved once per event and class.</p>
+ */
+public class InstanceListenerMethods {
+
+    /**
+     * The life cycle events.
+     */
+    public enum Event {
+        POST_CREATE(PostCreate.class),
+        PRE_UPDATE(PreUpdate.class),
+        POST_UPDATE(PostUpdate.class),
+        PRE_DELETE(PreDelete.class),
+        POST_DELETE(PostDelete.class),
+        POST_LOAD(PostLoad.class),
+        POST_COMMIT(PostCommit.class);
+
+        private final Class<? extends Annotation> annotation;
+
+        Event(Class<? extends Annotation> annotation) {
+            this.annotation = annotation;
+        }
+    }
+
+    private static final MethodType LIFECYCLE_METHOD_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ListenerMethod[] NONE = new ListenerMethod[0];
+
+    private final List<Class<?>> listenerTypes;
+    private final Map<Event, List<ListenerMethod>> listenerMethods = new EnumMap<>(Event.class);
+    private final Map<Event, ConcurrentMap<Class<?>, ListenerMethod[]>> resolvedMethods = new EnumMap<>(Event.class);
+
+    /**
+     * Constructor.
+     *
+     * @param listenerTypes The instance listener types.
+     */
+    public InstanceListenerMethods(List<? extends Class<?>> listenerTypes) {
+        this.listenerTypes = Collections.<Class<?>>unmodifiableList(new ArrayList<>(listenerTypes));
+        for (Event event : Event.values()) {
+            listenerMethods.put(event, new ArrayList<ListenerMethod>());
+            resolvedMethods.put(event, new ConcurrentHashMap<Class<?>, ListenerMethod[]>());
+        }
+        for (int listener = 0; listener < this.listenerTypes.size(); listener++) {
+            for (Method method : this.listenerTypes.get(listener).getMethods()) {
+                if (method.isAnnotationPresent(PostCommit.class) && method.getParameterTypes().length == 1 && !method.getParameterTypes()[0].isAssignableFrom(ChangeSet.class)) {
+                    throw new XOException("Life cycle method '" + method.toGenericString() + "' annotated with '" + PostCommit.class.getName() + "' must declare a parameter of type '" + ChangeSet.class.getName() + "'.");
+                }
+                for (Event event : Event.values()) {
+                    evaluateMethod(listener, event, method);
+                }
+            }
+        }
+    }
+
+    /**
+     * Return the instance listener types, the index of a type identifies the listener instance passed to
+     * {@link #invoke(Event, Object[], Object)}.
+     *
+     * @return The instance listener types.
+     */
+    public List<Class<?>> getListenerTypes() {
+        return listenerTypes;
+    }
+
+    /**
+     * Determine if no life cycle methods are declared for an event.
+     *
+     * @param event The event.
+     * @return <code>true</code> if no life cycle methods are declared.
+     */
+    public boolean isEmpty(Event event) {
+        return listenerMethods.get(event).isEmpty();
+    }
+
+    /**
+     * Invoke all life cycle methods of an event matching the class of the given instance.
+     *
+     * @param event     The event.
+     * @param listeners The listener instances, one per listener type.
+     * @param instance  The instance.
+     */
+    public void invoke(Event event, Object[] listeners, Object instance) {
+        if (isEmpty(event)) {
+            return;
+        }
+        for (ListenerMethod listenerMethod : resolve(event, instance.getClass())) {
+            try {
+                listenerMethod.methodHandle.invokeExact(listeners[listenerMethod.listener], instance);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new XOException("Cannot invoke instance listener method " + listenerMethod.method.toGenericString(), e);
+            }
+        }
+    }
+
+    /**
+     * Evaluates a method if the annotation of an event is present and if true adds it to the life cycle methods.
+     *
+     * @param listener The index of the listener type.
+     * @param event    The event.
+     * @param method   The method to evaluate.
+     */
+    private void evaluateMethod(int listener, Event event, Method method) {
+        if (method.isAnnotationPresent(event.annotation)) {
+            if (method.getParameterTypes().length != 1) {
+                throw new XOException("Life cycle method '" + method.toGenericString() + "' annotated with '" + event.annotation.getName() + "' must declare exactly one parameter but declares " + method.getParameterTypes().length + ".");
+            }
+            MethodHandle methodHandle;
+            try {
+                methodHandle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException e) {
+                throw new XOException("Cannot access instance listener method " + method.toGenericString(), e);
+            }
+            listenerMethods.get(event).add(new ListenerMethod(listener, method, methodHandle.asType(LIFECYCLE_METHOD_TYPE)));
+        }
+    }
+
+    /**
+     * Determine the life cycle methods of an event accepting instances of the given class.
+     *
+     * @param event The event.
+     * @param type  The class.
+     * @return The life cycle methods.
+     */
+    private ListenerMethod[] resolve(Event event, Class<?> type) {
+        ConcurrentMap<Class<?>, ListenerMethod[]> eventMethods = resolvedMethods.get(event);
+        ListenerMethod[] methods = eventMethods.get(type);
+        if (methods == null) {
+            List<ListenerMethod> matchingMethods = new ArrayList<>();
+            for (ListenerMethod listenerMethod : listenerMethods.get(event)) {
+                if (listenerMethod.method.getParameterTypes()[0].isAssignableFrom(type)) {
+                    matchingMethods.add(listenerMethod);
+                }
+            }
+            methods = matchingMethods.isEmpty() ? NONE : matchingMethods.toArray(new ListenerMethod[matchingMethods.size()]);
+            eventMethods.putIfAbsent(type, methods);
+        }
+        return methods;
+    }
+
+    /**
+     * A life cycle method of a listener type.
+     */
+    private static final class ListenerMethod {
+
+        private final int listener;
+        private final Method method;
+        private final MethodHandle methodHandle;
+
+        private ListenerMethod(int listener, Method method, MethodHandle methodHandle) {
+            this.listener = listener;
+            this.method = method;
+            this.methodHandle = methodHandle;
+        }
+    }
+}
@@ -1,41 +1,37 @@
 package com.buschmais.xo.impl.instancelistener;
 
-import com.buschmais.xo.api.XOException;
-import com.buschmais.xo.api.annotation.*;
+import com.buschmais.xo.api.ChangeSet;
 import com.buschmais.xo.spi.reflection.ClassHelper;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.buschmais.xo.impl.instancelistener.InstanceListenerMethods.Event;
 
 /**
  * Provides functionality to invoke life cycle methods on instance listeners.
+ * <p>The life cycle methods of the statically registered listener types are resolved once per
+ * {@link com.buschmais.xo.api.XOManagerFactory} (see {@link InstanceListenerMethods}), the service only creates the listener instances of
+ * its session.</p>
  */
 public class InstanceListenerService {
 
-    private Map<Object, Set<Method>> postCreateMethods;
-    private Map<Object, Set<Method>> preUpdateMethods;
-    private Map<Object, Set<Method>> postUpdateMethods;
-    private Map<Object, Set<Method>> preDeleteMethods;
-    private Map<Object, Set<Method>> postDeleteMethods;
-    private Map<Object, Set<Method>> postLoadMethods;
+    private final InstanceListenerMethods instanceListenerMethods;
+    private final Object[] instanceListeners;
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
 
     /**
      * Constructor.
      *
-     * @param instanceListenerTypes The statically registered instance listener types.
+     * @param instanceListenerMethods The life cycle methods of the statically registered instance listener types.
      */
-    public InstanceListenerService(List<? extends Class<?>> instanceListenerTypes) {
-        postCreateMethods = new IdentityHashMap<>();
-        preUpdateMethods = new IdentityHashMap<>();
-        postUpdateMethods = new IdentityHashMap<>();
-        preDeleteMethods = new IdentityHashMap<>();
-        postDeleteMethods = new IdentityHashMap<>();
-        postLoadMethods = new IdentityHashMap<>();
-        for (Class<?> listenerType : instanceListenerTypes) {
-            Object instanceListener = ClassHelper.newInstance(listenerType);
-            registerInstanceListener(instanceListener);
+    public InstanceListenerService(InstanceListenerMethods instanceListenerMethods) {
+        this.instanceListenerMethods = instanceListenerMethods;
+        List<Class<?>> listenerTypes = instanceListenerMethods.getListenerTypes();
+        this.instanceListeners = new Object[listenerTypes.size()];
+        for (int i = 0; i < instanceListeners.length; i++) {
+            instanceListeners[i] = ClassHelper.newInstance(listenerTypes.get(i));
         }
     }
 
@@ -46,7 +42,7 @@ public class InstanceListenerService {
      * @param <T>      The instance type.
      */
     public <T> void postCreate(T instance) {
-        invoke(postCreateMethods, instance);
+        invoke(Event.POST_CREATE, instance);
     }
 
     /**
@@ -56,7 +52,7 @@ public class InstanceListenerService {
      * @param <T>      The instance type.
      */
     public <T> void preUpdate(T instance) {
-        invoke(preUpdateMethods, instance);
+        invoke(Event.PRE_UPDATE, instance);
     }
 
     /**
@@ -66,7 +62,7 @@ public class InstanceListenerService {
      * @param <T>      The instance type.
      */
     public <T> void postUpdate(T instance) {
-        invoke(postUpdateMethods, instance);
+        invoke(Event.POST_UPDATE, instance);
     }
 
     /**
@@ -76,7 +72,7 @@ public class InstanceListenerService {
      * @param <T>      The instance type.
      */
     public <T> void preDelete(T instance) {
-        invoke(preDeleteMethods, instance);
+        invoke(Event.PRE_DELETE, instance);
     }
 
     /**
@@ -86,7 +82,7 @@ public class InstanceListenerService {
      * @param <T>      The instance type.
      */
     public <T> void postDelete(T instance) {
-        invoke(postDeleteMethods, instance);
+        invoke(Event.POST_DELETE, instance);
     }
 
     /**
@@ -96,72 +92,69 @@ public class InstanceListenerService {
      * @param <T>      The instance type.
      */
     public <T> void postLoad(T instance) {
-        invoke(postLoadMethods, instance);
+        invoke(Event.POST_LOAD, instance);
     }
 
     /**
-     * Add an instance listener instance.
+     * Invoke all post-commit methods for the given change set.
      *
-     * @param instanceListener The instance listener instance.
+     * @param changeSet The change set.
      */
-    public void registerInstanceListener(Object instanceListener) {
-        for (Method method : instanceListener.getClass().getMethods()) {
-            evaluateMethod(instanceListener, PostCreate.class, method, postCreateMethods);
-            evaluateMethod(instanceListener, PreUpdate.class, method, preUpdateMethods);
-            evaluateMethod(instanceListener, PostUpdate.class, method, postUpdateMethods);
-            evaluateMethod(instanceListener, PreDelete.class, method, preDeleteMethods);
-            evaluateMethod(instanceListener, PostDelete.class, method, postDeleteMethods);
-            evaluateMethod(instanceListener, PostLoad.class, method, postLoadMethods);
-        }
+    public void postCommit(ChangeSet changeSet) {
+        invoke(Event.POST_COMMIT, changeSet);
     }
 
     /**
-     * Evaluates a method if an annotation is present and if true adds to the map of life cycle methods.
+     * Determine if post-commit methods are registered.
      *
-     * @param listener   The listener instance.
-     * @param annotation The annotation to check for.
-     * @param method     The method to evaluate.
-     * @param methods    The map of methods.
+     * @return <code>true</code> if post-commit methods are registered.
      */
-    private void evaluateMethod(Object listener, Class<? extends Annotation> annotation, Method method, Map<Object, Set<Method>> methods) {
-        if (method.isAnnotationPresent(annotation)) {
-            if (method.getParameterTypes().length != 1) {
-                throw new XOException("Life cycle method '" + method.toGenericString() + "' annotated with '" + annotation.getName() + "' must declare exactly one parameter but declares " + method.getParameterTypes().length + ".");
-            }
-            Set<Method> listenerMethods = methods.get(listener);
-            if (listenerMethods == null) {
-                listenerMethods = new HashSet<>();
-                methods.put(listener, listenerMethods);
+    public boolean hasPostCommitListeners() {
+        if (!instanceListenerMethods.isEmpty(Event.POST_COMMIT)) {
+            return true;
+        }
+        for (Registration registration : registrations) {
+            if (!registration.instanceListenerMethods.isEmpty(Event.POST_COMMIT)) {
+                return true;
             }
-            listenerMethods.add(method);
         }
+        return false;
+    }
+
+    /**
+     * Add an instance listener instance.
+     *
+     * @param instanceListener The instance listener instance.
+     */
+    public void registerInstanceListener(Object instanceListener) {
+        InstanceListenerMethods listenerMethods = new InstanceListenerMethods(Collections.singletonList(instanceListener.getClass()));
+        registrations.add(new Registration(instanceListener, listenerMethods));
     }
 
     /**
-     * Invokes all registered lifecycle methods on a given instance.
+     * Invoke the life cycle methods of an event on the statically and dynamically registered instance listeners.
      *
-     * @param methods  The registered methods.
+     * @param event    The event.
      * @param instance The instance.
-     * @param <T>      The instance type.
      */
-    private <T> void invoke(Map<Object, Set<Method>> methods, T instance) {
-        for (Map.Entry<Object, Set<Method>> entry : methods.entrySet()) {
-            Object listener = entry.getKey();
-            Set<Method> listenerMethods = entry.getValue();
-            if (listenerMethods != null) {
-                for (Method method : listenerMethods) {
-                    Class<?> parameterType = method.getParameterTypes()[0];
-                    if (parameterType.isAssignableFrom(instance.getClass())) {
-                        try {
-                            method.invoke(listener, instance);
-                        } catch (IllegalAccessException e) {
-                            throw new XOException("Cannot access instance listener method " + method.toGenericString(), e);
-                        } catch (InvocationTargetException e) {
-                            throw new XOException("Cannot invoke instance listener method " + method.toGenericString(), e);
-                        }
-                    }
-                }
-            }
+    private void invoke(Event event, Object instance) {
+        instanceListenerMethods.invoke(event, instanceListeners, instance);
+        for (Registration registration : registrations) {
+            registration.instanceListenerMethods.invoke(event, registration.instanceListeners, instance);
+        }
+    }
+
+    /**
+     * An instance listener registered using {@link #registerInstanceListener(Object)}.
+     */
+    private static final class Registration {
+
+        private final Object[] instanceListeners;
+        private final InstanceListenerMethods instanceListenerMethods;
+
+        private Registration(Object instanceListener, InstanceListenerMethods instanceListenerMethods) {
+            this.instanceListeners = new Object[]{instanceListener};
+            this.instanceListenerMethods = instanceListenerMethods;
         }
     }
 }
@@ -0,0 +1,201 @@
+package com.buschmais.xo.impl.instancelistener;
+
+import com.buschmais.xo.api.ChangeSet;
+import com.buschmais.xo.api.XOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the {@link ChangeSet}s of committed transactions to {@link com.buschmais.xo.api.annotation.PostCommit} listeners using a
+ * thread pool which is shared by all sessions of an {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>The pool is configured by the properties {@link #THREADS_PROPERTY} and {@link #QUEUE_SIZE_PROPERTY} of an
+ * {@link com.buschmais.xo.api.bootstrap.XOUnit} and is started on the first delivery. If the queue is full the committing thread blocks
+ * until a delivery has been taken from the queue, i.e. slow listeners throttle the write path instead of exhausting memory. Change sets of
+ * transactions committed by listeners running on a thread of the pool are delivered by that thread as it would otherwise wait for
+ * itself.</p>
+ */
+public class PostCommitDispatcher {
+
+    /**
+     * The name of the property defining the number of threads delivering change sets.
+     */
+    public static final String THREADS_PROPERTY = "xo.listener.postcommit.threads";
+
+    /**
+     * The name of the property defining the maximum number of pending change sets.
+     */
+    public static final String QUEUE_SIZE_PROPERTY = "xo.listener.postcommit.queue.size";
+
+    /**
+     * The default number of threads.
+     */
+    public static final int DEFAULT_THREADS = 1;
+
+    /**
+     * The default maximum number of pending change sets.
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostCommitDispatcher.class);
+
+    private static final long SHUTDOWN_TIMEOUT = 10;
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final int threads;
+    private final int queueSize;
+    private ThreadPoolExecutor executor;
+    private boolean closed = false;
+
+    /**
+     * Constructor.
+     *
+     * @param threads   The number of threads.
+     * @param queueSize The maximum number of pending change sets.
+     */
+    public PostCommitDispatcher(int threads, int queueSize) {
+        if (threads <= 0) {
+            throw new XOException("The number of post commit listener threads must be greater than 0 but is " + threads);
+        }
+        if (queueSize <= 0) {
+            throw new XOException("The post commit listener queue size must be greater than 0 but is " + queueSize);
+        }
+        this.threads = threads;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Create a dispatcher from the given properties.
+     *
+     * @param properties The properties, may be <code>null</code>.
+     * @return The dispatcher.
+     */
+    public static PostCommitDispatcher fromProperties(Properties properties) {
+        int threads = getIntProperty(properties, THREADS_PROPERTY, DEFAULT_THREADS);
+        int queueSize = getIntProperty(properties, QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE);
+        return new PostCommitDispatcher(threads, queueSize);
+    }
+
+    /**
+     * Deliver a change set asynchronously to the post commit listeners of a session.
+     *
+     * @param instanceListenerService The {@link InstanceListenerService} of the session.
+     * @param changeSet               The change set.
+     */
+    public void dispatch(final InstanceListenerService instanceListenerService, final ChangeSet changeSet) {
+        ThreadPoolExecutor executor = getExecutor();
+        if (executor == null) {
+            LOGGER.warn("Discarding {} as the XO manager factory has been closed.", changeSet);
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    instanceListenerService.postCommit(changeSet);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Cannot deliver " + changeSet + " to post commit listeners.", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Close the dispatcher, pending change sets are delivered before the threads are stopped.
+     */
+    public void close() {
+        ThreadPoolExecutor executor;
+        synchronized (this) {
+            closed = true;
+            executor = this.executor;
+            this.executor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Post commit listeners have not completed within {} seconds.", SHUTDOWN_TIMEOUT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null && !closed) {
+            final AtomicInteger threadNumber = new AtomicInteger();
+            ThreadFactory threadFactory = new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new DispatcherThread(PostCommitDispatcher.this, runnable, "xo-post-commit-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+            executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueSize), threadFactory,
+                    new BlockingPolicy());
+        }
+        return executor;
+    }
+
+    private static int getIntProperty(Properties properties, String name, int defaultValue) {
+        String value = properties != null ? properties.getProperty(name) : null;
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new XOException("Unsupported value '" + value + "' for property '" + name + "'.", e);
+        }
+    }
+
+    /**
+     * A thread of the pool.
+     */
+    private static final class DispatcherThread extends Thread {
+
+        private final PostCommitDispatcher dispatcher;
+
+        private DispatcherThread(PostCommitDispatcher dispatcher, Runnable runnable, String name) {
+            super(runnable, name);
+            this.dispatcher = dispatcher;
+        }
+    }
+
+    /**
+     * Blocks the submitting thread until the queue accepts the task.
+     * <p>Tasks submitted by a thread of the pool are executed by the submitting thread. The executor is checked for shutdown while
+     * waiting and after the task has been queued, a task which cannot be executed anymore is discarded.</p>
+     */
+    private class BlockingPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            Thread currentThread = Thread.currentThread();
+            if (currentThread instanceof DispatcherThread && ((DispatcherThread) currentThread).dispatcher == PostCommitDispatcher.this) {
+                runnable.run();
+                return;
+            }
+            try {
+                while (!executor.isShutdown()) {
+                    if (executor.getQueue().offer(runnable, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (executor.isShutdown() && executor.remove(runnable)) {
+                            break;
+                        }
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new XOException("Interrupted while waiting for post commit listeners.", e);
+            }
+            LOGGER.warn("Discarding post commit notification as the XO manager factory has been closed.");
+        }
+    }
+}
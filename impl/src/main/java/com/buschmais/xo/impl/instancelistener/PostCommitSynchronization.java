@@ -0,0 +1,33 @@
+package com.buschmais.xo.impl.instancelistener;
+
+import com.buschmais.xo.api.ChangeSet;
+import com.buschmais.xo.api.XOTransaction;
+
+/**
+ * Hands the changes of a committed transaction over to the {@link PostCommitDispatcher}, the changes of a rolled back transaction are
+ * discarded.
+ */
+public class PostCommitSynchronization implements XOTransaction.Synchronization {
+
+    private final ChangeRecorder changeRecorder;
+    private final InstanceListenerService instanceListenerService;
+    private final PostCommitDispatcher postCommitDispatcher;
+
+    public PostCommitSynchronization(ChangeRecorder changeRecorder, InstanceListenerService instanceListenerService, PostCommitDispatcher postCommitDispatcher) {
+        this.changeRecorder = changeRecorder;
+        this.instanceListenerService = instanceListenerService;
+        this.postCommitDispatcher = postCommitDispatcher;
+    }
+
+    @Override
+    public void beforeCompletion() {
+    }
+
+    @Override
+    public void afterCompletion(boolean committed) {
+        ChangeSet changeSet = changeRecorder.complete();
+        if (committed && changeSet != null) {
+            postCommitDispatcher.dispatch(instanceListenerService, changeSet);
+        }
+    }
+}
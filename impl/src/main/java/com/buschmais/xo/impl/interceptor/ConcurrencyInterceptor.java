@@ -2,41 +2,249 @@ package com.buschmais.xo.impl.interceptor;
 
 import com.buschmais.xo.api.ConcurrencyMode;
 import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.AbstractInstanceManager;
+import com.buschmais.xo.impl.SessionContext;
+import com.buschmais.xo.impl.statistics.LockStatistics;
 import com.buschmais.xo.spi.interceptor.InvocationContext;
-import com.buschmais.xo.spi.interceptor.XOInterceptor;
+import com.buschmais.xo.spi.interceptor.MethodAwareInterceptor;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-public class ConcurrencyInterceptor implements XOInterceptor {
+/**
+ * Synchronizes concurrent access to a session depending on the {@link ConcurrencyMode}.
+ * <ul>
+ * <li>{@link ConcurrencyMode#MULTITHREADED}: All invocations are serialized by one lock.</li>
+ * <li>{@link ConcurrencyMode#READ_WRITE}: Reading invocations share the read lock of the session, i.e. getters, iterations over query
+ * results, read access to collections and <code>@ResultOf</code> methods declared as read-only. All other invocations acquire the write
+ * lock, this includes the execution of queries as they may modify the datastore.</li>
+ * <li>{@link ConcurrencyMode#STRIPED}: Property accesses on entities and relations share the read lock of the session and are serialized
+ * by a lock stripe determined by the id of the instance. All other invocations acquire the write lock.</li>
+ * <li>{@link ConcurrencyMode#THREAD_CONFINED}: No locks are used, the first thread invoking a method becomes the owner of the session and
+ * invocations by other threads fail until the ownership is released.</li>
+ * </ul>
+ * <p>Invocations which would begin a transaction are always executed exclusively. Shared access cannot be upgraded, i.e. an invocation
+ * requiring exclusive access fails if the current thread is executing a shared invocation (e.g. a modification by a listener which is
+ * notified while reading).</p>
+ */
+public class ConcurrencyInterceptor implements MethodAwareInterceptor {
+
+    private static final int STRIPES = 32;
 
     private final ConcurrencyMode concurrencyMode;
-    private final ReentrantLock lock;
+    private final SessionContext<?, ?, ?, ?, ?, ?, ?, ?, ?> sessionContext;
+    private final TransactionInterceptor transactionInterceptor;
+    private final InvocationMetadataCache invocationMetadataCache;
+    private final LockStatistics lockStatistics;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripes;
+    private final AtomicReference<Thread> owner = new AtomicReference<>();
 
-    public ConcurrencyInterceptor(ConcurrencyMode concurrencyMode) {
+    /**
+     * Constructor.
+     *
+     * @param concurrencyMode        The concurrency mode.
+     * @param sessionContext         The session context.
+     * @param transactionInterceptor  The transaction interceptor, used to determine if an invocation will begin a transaction.
+     * @param invocationMetadataCache The {@link InvocationMetadataCache} shared by all sessions.
+     */
+    public ConcurrencyInterceptor(ConcurrencyMode concurrencyMode, SessionContext<?, ?, ?, ?, ?, ?, ?, ?, ?> sessionContext, TransactionInterceptor transactionInterceptor, InvocationMetadataCache invocationMetadataCache) {
         this.concurrencyMode = concurrencyMode;
-        lock = new ReentrantLock();
+        this.sessionContext = sessionContext;
+        this.transactionInterceptor = transactionInterceptor;
+        this.invocationMetadataCache = invocationMetadataCache;
+        this.lockStatistics = sessionContext.getStatistics().getLockStatistics();
+        if (ConcurrencyMode.STRIPED.equals(concurrencyMode)) {
+            stripes = new ReentrantLock[STRIPES];
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new ReentrantLock();
+            }
+        } else {
+            stripes = null;
+        }
     }
 
     @Override
     public boolean isActive() {
-        return ConcurrencyMode.MULTITHREADED.equals(concurrencyMode);
+        return !ConcurrencyMode.SINGLETHREADED.equals(concurrencyMode);
+    }
+
+    /**
+     * Return the classification of a method as attribute, it is shared by all sessions (see {@link InvocationMetadataCache}).
+     *
+     * @param method The method.
+     * @return The {@link InvocationMetadataCache.InvocationMetadata} or <code>null</code> if invocations need not be intercepted.
+     */
+    @Override
+    public Object getMethodAttribute(Method method) {
+        return isActive() ? invocationMetadataCache.get(method) : null;
     }
 
     @Override
     public Object invoke(InvocationContext invocationContext) throws Throwable {
+        return invoke(invocationContext, invocationMetadataCache.get(invocationContext.getMethod()));
+    }
+
+    @Override
+    public Object invoke(InvocationContext invocationContext, Object methodAttribute) throws Throwable {
+        InvocationMetadataCache.InvocationMetadata invocationMetadata = (InvocationMetadataCache.InvocationMetadata) methodAttribute;
         switch (concurrencyMode) {
             case SINGLETHREADED:
                 return invocationContext.proceed();
             case MULTITHREADED:
-                lock.lock();
-                try {
-                    return invocationContext.proceed();
-                } finally {
-                    lock.unlock();
-                }
+                return invokeLocked(invocationContext);
+            case READ_WRITE:
+                return invocationMetadata.isRead() ? invokeShared(invocationContext, invocationMetadata) : invokeExclusive(invocationContext);
+            case STRIPED:
+                AbstractInstanceManager<?, ?> instanceManager = getInstanceManager(invocationMetadata);
+                return instanceManager != null ? invokeStriped(invocationContext, invocationMetadata, instanceManager) : invokeExclusive(invocationContext);
+            case THREAD_CONFINED:
+                return invokeConfined(invocationContext);
             default:
                 throw new XOException("Unsupported concurrency mode " + concurrencyMode);
         }
     }
-}
 
+    /**
+     * Return the instance manager for invocations of a property method on entities or relations.
+     *
+     * @param invocationMetadata The {@link InvocationMetadataCache.InvocationMetadata} of the method.
+     * @return The instance manager or <code>null</code> if the method is not a property method.
+     */
+    private AbstractInstanceManager<?, ?> getInstanceManager(InvocationMetadataCache.InvocationMetadata invocationMetadata) {
+        InvocationMetadataCache.PropertyOwner propertyOwner = invocationMetadata.getPropertyOwner();
+        if (propertyOwner == null) {
+            return null;
+        }
+        switch (propertyOwner) {
+            case ENTITY:
+                return sessionContext.getEntityInstanceManager();
+            case RELATION:
+                return sessionContext.getRelationInstanceManager();
+            default:
+                throw new XOException("Unsupported property owner " + propertyOwner);
+        }
+    }
+
+    /**
+     * Release the ownership of the session by the current thread ({@link ConcurrencyMode#THREAD_CONFINED}).
+     */
+    public void release() {
+        owner.compareAndSet(Thread.currentThread(), null);
+    }
+
+    /**
+     * Execute an invocation holding the write lock of the session.
+     *
+     * @param invocationContext The invocation context.
+     * @return The result.
+     * @throws Throwable If the invocation fails.
+     */
+    private Object invokeExclusive(InvocationContext invocationContext) throws Throwable {
+        if (readWriteLock.isWriteLockedByCurrentThread()) {
+            return invocationContext.proceed();
+        }
+        if (readWriteLock.getReadHoldCount() > 0) {
+            Method method = invocationContext.getMethod();
+            throw new XOException("Cannot invoke '" + method.getDeclaringClass().getName() + "#" + method.getName()
+                    + "' which requires exclusive access to the session while the current thread is executing a reading invocation.");
+        }
+        ReentrantReadWriteLock.WriteLock writeLock = readWriteLock.writeLock();
+        lockStatistics.lock(writeLock);
+        try {
+            return invocationContext.proceed();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Serializes all invocations ({@link ConcurrencyMode#MULTITHREADED}).
+     */
+    private Object invokeLocked(InvocationContext invocationContext) throws Throwable {
+        lockStatistics.lock(lock);
+        try {
+            return invocationContext.proceed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Executes reading invocations holding the read lock ({@link ConcurrencyMode#READ_WRITE}).
+     */
+    private Object invokeShared(InvocationContext invocationContext, InvocationMetadataCache.InvocationMetadata invocationMetadata) throws Throwable {
+        if (readWriteLock.isWriteLockedByCurrentThread() || readWriteLock.getReadHoldCount() > 0) {
+            return invocationContext.proceed();
+        }
+        if (transactionInterceptor.isDemarcating(invocationMetadata.getTransactionAttribute())) {
+            return invokeExclusive(invocationContext);
+        }
+        ReentrantReadWriteLock.ReadLock readLock = readWriteLock.readLock();
+        lockStatistics.lock(readLock);
+        try {
+            return invocationContext.proceed();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Executes property accesses holding the read lock and the lock stripe of the instance ({@link ConcurrencyMode#STRIPED}).
+     * <p>Nested invocations (e.g. by listeners) are executed using the locks of the outer invocation.</p>
+     */
+    private Object invokeStriped(InvocationContext invocationContext, InvocationMetadataCache.InvocationMetadata invocationMetadata, AbstractInstanceManager<?, ?> instanceManager) throws Throwable {
+        if (readWriteLock.isWriteLockedByCurrentThread() || readWriteLock.getReadHoldCount() > 0) {
+            return invocationContext.proceed();
+        }
+        if (transactionInterceptor.isDemarcating(invocationMetadata.getTransactionAttribute())) {
+            return invokeExclusive(invocationContext);
+        }
+        ReentrantReadWriteLock.ReadLock readLock = readWriteLock.readLock();
+        lockStatistics.lock(readLock);
+        try {
+            ReentrantLock stripe = stripes[getStripe(instanceManager, invocationContext.getInstance())];
+            lockStatistics.lock(stripe);
+            try {
+                return invocationContext.proceed();
+            } finally {
+                stripe.unlock();
+            }
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private int getStripe(AbstractInstanceManager<?, ?> instanceManager, Object instance) {
+        Object id = getDatastoreId(instanceManager, instance);
+        int hash = id.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (STRIPES - 1);
+    }
+
+    private <DatastoreId, DatastoreType> DatastoreId getDatastoreId(AbstractInstanceManager<DatastoreId, DatastoreType> instanceManager, Object instance) {
+        return instanceManager.getDatastoreId(instanceManager.getDatastoreType(instance));
+    }
+
+    /**
+     * Verifies that invocations are only executed by the owning thread ({@link ConcurrencyMode#THREAD_CONFINED}).
+     */
+    private Object invokeConfined(InvocationContext invocationContext) throws Throwable {
+        Thread currentThread = Thread.currentThread();
+        Thread currentOwner = owner.get();
+        if (currentOwner != currentThread && !(currentOwner == null && owner.compareAndSet(null, currentThread))) {
+            if (currentOwner == null) {
+                // another thread has acquired the ownership concurrently
+                currentOwner = owner.get();
+            }
+            Method method = invocationContext.getMethod();
+            String ownerName = currentOwner != null ? currentOwner.getName() : null;
+            throw new XOException("Cannot invoke '" + method.getDeclaringClass().getName() + "#" + method.getName() + "' from thread '"
+                    + currentThread.getName() + "', the session is confined to thread '" + ownerName + "'.");
+        }
+        return invocationContext.proceed();
+    }
+}
@@ -0,0 +1,200 @@
+package com.buschmais.xo.impl.interceptor;
+
+import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.api.PreparedQuery;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.ResultIterable;
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.annotation.ResultOf;
+import com.buschmais.xo.spi.metadata.method.AbstractPropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.method.MethodMetadata;
+import com.buschmais.xo.spi.metadata.method.ResultOfMethodMetadata;
+import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
+import com.buschmais.xo.spi.reflection.GetPropertyMethod;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves the information required by the interceptors for a method once, it is shared by all sessions of an
+ * {@link com.buschmais.xo.api.XOManagerFactory}.
+ */
+public class InvocationMetadataCache {
+
+    /**
+     * The kind of instance declaring a property method.
+     */
+    public enum PropertyOwner {
+        ENTITY, RELATION
+    }
+
+    /**
+     * The information about a method.
+     */
+    public static final class InvocationMetadata {
+
+        private final Transaction.TransactionAttribute transactionAttribute;
+        private final boolean read;
+        private final PropertyOwner propertyOwner;
+
+        private InvocationMetadata(Transaction.TransactionAttribute transactionAttribute, boolean read, PropertyOwner propertyOwner) {
+            this.transactionAttribute = transactionAttribute;
+            this.read = read;
+            this.propertyOwner = propertyOwner;
+        }
+
+        /**
+         * Return the effective transaction attribute, i.e. the value of the {@link Transaction} annotation or the default attribute.
+         *
+         * @return The transaction attribute.
+         */
+        public Transaction.TransactionAttribute getTransactionAttribute() {
+            return transactionAttribute;
+        }
+
+        /**
+         * Determine if the method only reads the state of the session.
+         * <p>The execution of queries is not considered as reading as a query may modify the datastore, except for
+         * <code>@ResultOf</code> methods which are declared as read-only.</p>
+         *
+         * @return <code>true</code> if the method is reading.
+         */
+        public boolean isRead() {
+            return read;
+        }
+
+        /**
+         * Return the kind of instance if the method is a property method of an entity or relation.
+         *
+         * @return The kind of instance or <code>null</code> if the method is not a property method.
+         */
+        public PropertyOwner getPropertyOwner() {
+            return propertyOwner;
+        }
+    }
+
+    private static final Set<String> XO_MANAGER_READ_METHODS = new HashSet<>(Arrays.asList("currentTransaction", "validate", "find", "getId", "createQuery", "prepareQuery"));
+
+    private static final Set<String> COLLECTION_WRITE_METHODS = new HashSet<>(Arrays.asList("add", "addAll", "remove", "removeAll", "retainAll", "clear", "set"));
+
+    private static final Set<Class<?>> READ_TYPES = new HashSet<Class<?>>(Arrays.asList(Object.class, CompositeObject.class, Query.Result.class,
+            Query.Result.CompositeRowObject.class, ResultIterable.class, ResultIterator.class, Iterable.class, AutoCloseable.class, Closeable.class));
+
+    private static final Set<Class<?>> QUERY_TYPES = new HashSet<Class<?>>(Arrays.asList(Query.class, PreparedQuery.class));
+
+    private final Transaction.TransactionAttribute defaultTransactionAttribute;
+    private final Map<Class<?>, TypeMetadata> typeMetadataByType = new HashMap<>();
+    private final ConcurrentMap<Method, InvocationMetadata> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param registeredMetadata          The metadata of all registered types.
+     * @param defaultTransactionAttribute The default transaction attribute.
+     */
+    public InvocationMetadataCache(Collection<TypeMetadata> registeredMetadata, Transaction.TransactionAttribute defaultTransactionAttribute) {
+        this.defaultTransactionAttribute = defaultTransactionAttribute;
+        for (TypeMetadata typeMetadata : registeredMetadata) {
+            typeMetadataByType.put(typeMetadata.getAnnotatedType().getAnnotatedElement(), typeMetadata);
+        }
+    }
+
+    /**
+     * Return the default transaction attribute.
+     *
+     * @return The default transaction attribute.
+     */
+    public Transaction.TransactionAttribute getDefaultTransactionAttribute() {
+        return defaultTransactionAttribute;
+    }
+
+    /**
+     * Return the information about a method, it is resolved on first access.
+     *
+     * @param method The method.
+     * @return The {@link InvocationMetadata}.
+     */
+    public InvocationMetadata get(Method method) {
+        InvocationMetadata invocationMetadata = cache.get(method);
+        if (invocationMetadata == null) {
+            invocationMetadata = new InvocationMetadata(getTransactionAttribute(method), isRead(method), getPropertyOwner(method));
+            InvocationMetadata existing = cache.putIfAbsent(method, invocationMetadata);
+            if (existing != null) {
+                invocationMetadata = existing;
+            }
+        }
+        return invocationMetadata;
+    }
+
+    private Transaction.TransactionAttribute getTransactionAttribute(Method method) {
+        Transaction transaction = method.getAnnotation(Transaction.class);
+        if (transaction != null) {
+            return transaction.value();
+        }
+        return defaultTransactionAttribute;
+    }
+
+    private boolean isRead(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (XOManager.class.equals(declaringClass)) {
+            return XO_MANAGER_READ_METHODS.contains(method.getName());
+        }
+        if (READ_TYPES.contains(declaringClass)) {
+            return true;
+        }
+        if (QUERY_TYPES.contains(declaringClass)) {
+            // A query may modify the datastore, only setting up the query is reading.
+            return !"execute".equals(method.getName());
+        }
+        if (Iterator.class.equals(declaringClass)) {
+            return !"remove".equals(method.getName());
+        }
+        if (Collection.class.isAssignableFrom(declaringClass)) {
+            return !COLLECTION_WRITE_METHODS.contains(method.getName());
+        }
+        MethodMetadata<?, ?> methodMetadata = getMethodMetadata(method);
+        if (methodMetadata instanceof ResultOfMethodMetadata) {
+            ResultOf resultOf = method.getAnnotation(ResultOf.class);
+            return resultOf != null && resultOf.readOnly();
+        }
+        return methodMetadata instanceof AbstractPropertyMethodMetadata && methodMetadata.getAnnotatedMethod() instanceof GetPropertyMethod;
+    }
+
+    private PropertyOwner getPropertyOwner(Method method) {
+        if (!(getMethodMetadata(method) instanceof AbstractPropertyMethodMetadata)) {
+            return null;
+        }
+        TypeMetadata typeMetadata = typeMetadataByType.get(method.getDeclaringClass());
+        if (typeMetadata instanceof EntityTypeMetadata) {
+            return PropertyOwner.ENTITY;
+        } else if (typeMetadata instanceof RelationTypeMetadata) {
+            return PropertyOwner.RELATION;
+        }
+        return null;
+    }
+
+    private MethodMetadata<?, ?> getMethodMetadata(Method method) {
+        TypeMetadata typeMetadata = typeMetadataByType.get(method.getDeclaringClass());
+        if (typeMetadata != null) {
+            for (MethodMetadata<?, ?> methodMetadata : typeMetadata.getProperties()) {
+                if (method.equals(methodMetadata.getAnnotatedMethod().getAnnotatedElement())) {
+                    return methodMetadata;
+                }
+            }
+        }
+        return null;
+    }
+}
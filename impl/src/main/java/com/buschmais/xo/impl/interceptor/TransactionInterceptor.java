@@ -4,35 +4,73 @@ import com.buschmais.xo.api.Transaction;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.api.XOTransaction;
 import com.buschmais.xo.spi.interceptor.InvocationContext;
-import com.buschmais.xo.spi.interceptor.XOInterceptor;
+import com.buschmais.xo.spi.interceptor.MethodAwareInterceptor;
 
 import java.lang.reflect.Method;
 
-public class TransactionInterceptor implements XOInterceptor {
+public class TransactionInterceptor implements MethodAwareInterceptor {
 
     private final XOTransaction xoTransaction;
-    private final Transaction.TransactionAttribute defaultTransactionAttribute;
+    private final InvocationMetadataCache invocationMetadataCache;
 
-    public TransactionInterceptor(XOTransaction xoTransaction, Transaction.TransactionAttribute defaultTransactionAttribute) {
+    /**
+     * Constructor.
+     *
+     * @param xoTransaction           The transaction of the session.
+     * @param invocationMetadataCache The {@link InvocationMetadataCache} providing the transaction attributes of methods.
+     */
+    public TransactionInterceptor(XOTransaction xoTransaction, InvocationMetadataCache invocationMetadataCache) {
         this.xoTransaction = xoTransaction;
-        this.defaultTransactionAttribute = defaultTransactionAttribute;
+        this.invocationMetadataCache = invocationMetadataCache;
     }
 
     @Override
     public boolean isActive() {
-        return !Transaction.TransactionAttribute.NONE.equals(defaultTransactionAttribute);
+        return !Transaction.TransactionAttribute.NONE.equals(invocationMetadataCache.getDefaultTransactionAttribute());
+    }
+
+    @Override
+    public Object getMethodAttribute(Method method) {
+        Transaction.TransactionAttribute transactionAttribute = getTransactionAttribute(method);
+        return Transaction.TransactionAttribute.NOT_SUPPORTED.equals(transactionAttribute) ? null : transactionAttribute;
+    }
+
+    @Override
+    public Object invoke(InvocationContext context, Object methodAttribute) throws Throwable {
+        return invoke(context, (Transaction.TransactionAttribute) methodAttribute);
     }
 
     @Override
     public Object invoke(InvocationContext context) throws Throwable {
+        return invoke(context, getTransactionAttribute(context.getMethod()));
+    }
+
+    /**
+     * Determine if an invocation of the given method would begin a transaction, i.e. modify the transactional state of the session.
+     *
+     * @param method The method.
+     * @return <code>true</code> if a transaction would be started.
+     */
+    public boolean isDemarcating(Method method) {
+        return isDemarcating(getTransactionAttribute(method));
+    }
+
+    /**
+     * Determine if an invocation of a method with the given transaction attribute would begin a transaction.
+     *
+     * @param transactionAttribute The transaction attribute of the method, see {@link InvocationMetadataCache}.
+     * @return <code>true</code> if a transaction would be started.
+     */
+    public boolean isDemarcating(Transaction.TransactionAttribute transactionAttribute) {
+        return isActive() && xoTransaction != null && Transaction.TransactionAttribute.REQUIRES.equals(transactionAttribute) && !xoTransaction.isActive();
+    }
+
+    private Transaction.TransactionAttribute getTransactionAttribute(Method method) {
+        return invocationMetadataCache.get(method).getTransactionAttribute();
+    }
+
+    private Object invoke(InvocationContext context, Transaction.TransactionAttribute transactionAttribute) throws Throwable {
         Method method = context.getMethod();
-        Transaction.TransactionAttribute transactionAttribute;
-        Transaction transaction = method.getAnnotation(Transaction.class);
-        if (transaction != null) {
-            transactionAttribute = transaction.value();
-        } else {
-            transactionAttribute = this.defaultTransactionAttribute;
-        }
         switch (transactionAttribute) {
             case MANDATORY:
                 if (!this.xoTransaction.isActive()) {
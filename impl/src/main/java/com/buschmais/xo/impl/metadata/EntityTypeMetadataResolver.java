@@ -9,6 +9,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Allows resolving types from entity discriminators as provided by the datastores.
@@ -19,8 +21,14 @@ public class EntityTypeMetadataResolver<EntityMetadata extends DatastoreEntityMe
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EntityTypeMetadataResolver.class);
 
+    /**
+     * The maximum number of distinct sets of discriminators for which the resolved types are kept.
+     */
+    private static final int MAX_CACHED_DISCRIMINATORS = 1024;
+
     private final Map<EntityTypeMetadata<EntityMetadata>, Set<Discriminator>> aggregatedDiscriminators = new HashMap<>();
     private final Map<Discriminator, Set<EntityTypeMetadata<EntityMetadata>>> typeMetadataByDiscriminator = new HashMap<>();
+    private final ConcurrentMap<Set<Discriminator>, TypeMetadataSet<EntityTypeMetadata<EntityMetadata>>> typesByDiscriminators = new ConcurrentHashMap<>();
 
     /**
      * Constructor.
@@ -90,11 +98,37 @@ public class EntityTypeMetadataResolver<EntityMetadata extends DatastoreEntityMe
 
     /**
      * Return a {@link com.buschmais.xo.spi.datastore.TypeMetadataSet} containing all types matching to the given entity discriminators.
+     * <p>The result is resolved once per distinct set of discriminators and shared afterwards, it is therefore immutable. The number of
+     * kept results is limited as the datastore may provide arbitrary combinations of discriminators, further combinations are resolved on
+     * each call.</p>
      *
      * @param discriminators The discriminators.
-     * @return The {@link com.buschmais.xo.spi.datastore.TypeMetadataSet}.
+     * @return The immutable {@link com.buschmais.xo.spi.datastore.TypeMetadataSet}.
      */
     public TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> getTypes(Set<Discriminator> discriminators) {
+        TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types = typesByDiscriminators.get(discriminators);
+        if (types == null) {
+            types = resolveTypes(discriminators).toImmutable();
+            if (typesByDiscriminators.size() >= MAX_CACHED_DISCRIMINATORS) {
+                return types;
+            }
+            // Use a copy as key as the given set may be modified by the datastore afterwards.
+            Set<Discriminator> key = Collections.unmodifiableSet(new HashSet<>(discriminators));
+            TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> existingTypes = typesByDiscriminators.putIfAbsent(key, types);
+            if (existingTypes != null) {
+                types = existingTypes;
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Resolve all types matching to the given entity discriminators.
+     *
+     * @param discriminators The discriminators.
+     * @return The {@link com.buschmais.xo.spi.datastore.TypeMetadataSet}.
+     */
+    private TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> resolveTypes(Set<Discriminator> discriminators) {
         // Get all types matching the discriminators
         TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> allEntityTypeMetadatas = new TypeMetadataSet<>();
         for (Discriminator discriminator : discriminators) {
@@ -59,6 +59,8 @@ public class MetadataProviderImpl<EntityMetadata extends DatastoreEntityMetadata
     private final RelationTypeMetadataResolver<EntityMetadata, EntityDiscriminator, RelationMetadata, RelationDiscriminator> relationTypeMetadataResolver;
     private final Map<Class<?>, Collection<AnnotatedMethod>> annotatedMethods;
     private final Map<Class<?>, TypeMetadata> metadataByType = new HashMap<>();
+    private final Map<AbstractPropertyMethodMetadata<?>, Integer> propertyIndices = new IdentityHashMap<>();
+    private final List<AbstractPropertyMethodMetadata<?>> properties = new ArrayList<>();
 
     /**
      * Constructor.
@@ -90,10 +92,33 @@ public class MetadataProviderImpl<EntityMetadata extends DatastoreEntityMetadata
         }
         entityTypeMetadataResolver = new EntityTypeMetadataResolver<>(metadataByType);
         relationTypeMetadataResolver = new RelationTypeMetadataResolver<>(metadataByType);
+        for (TypeMetadata typeMetadata : metadataByType.values()) {
+            for (MethodMetadata<?, ?> methodMetadata : typeMetadata.getProperties()) {
+                if (methodMetadata instanceof AbstractPropertyMethodMetadata && !propertyIndices.containsKey(methodMetadata)) {
+                    AbstractPropertyMethodMetadata<?> propertyMethodMetadata = (AbstractPropertyMethodMetadata<?>) methodMetadata;
+                    propertyIndices.put(propertyMethodMetadata, properties.size());
+                    properties.add(propertyMethodMetadata);
+                }
+            }
+        }
         metadataByType.put(CompositeObject.class, new SimpleTypeMetadata(new AnnotatedType(CompositeObject.class), Collections.<TypeMetadata> emptyList(),
                 Collections.<MethodMetadata<?, ?>> emptyList(), null));
     }
 
+    @Override
+    public int getPropertyIndex(AbstractPropertyMethodMetadata<?> propertyMetadata) {
+        Integer index = propertyIndices.get(propertyMetadata);
+        if (index == null) {
+            throw new XOException("Cannot resolve index of property " + propertyMetadata.getAnnotatedMethod().getName());
+        }
+        return index.intValue();
+    }
+
+    @Override
+    public AbstractPropertyMethodMetadata<?> getPropertyMetadata(int index) {
+        return properties.get(index);
+    }
+
     @Override
     public TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> getTypes(Set<EntityDiscriminator> entityDiscriminators) {
         return entityTypeMetadataResolver.getTypes(entityDiscriminators);
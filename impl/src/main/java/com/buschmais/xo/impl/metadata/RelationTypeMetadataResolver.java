@@ -11,10 +11,9 @@ import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
 import com.buschmais.xo.spi.metadata.type.TypeMetadata;
 import com.buschmais.xo.spi.reflection.AnnotatedType;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.buschmais.xo.spi.metadata.type.RelationTypeMetadata.Direction;
 
@@ -27,6 +26,7 @@ public class RelationTypeMetadataResolver<EntityMetadata extends DatastoreEntity
 
     private final Map<RelationDiscriminator, Set<RelationMapping<EntityDiscriminator, RelationMetadata, RelationDiscriminator>>> relationMappings;
     private final Map<RelationPropertyKey, AbstractRelationPropertyMethodMetadata<RelationMetadata>> relationProperties;
+    private final ConcurrentMap<RelationTypesKey<EntityDiscriminator, RelationDiscriminator>, TypeMetadataSet<RelationTypeMetadata<RelationMetadata>>> relationTypes = new ConcurrentHashMap<>();
 
     /**
      * Constructor.
@@ -68,7 +68,31 @@ public class RelationTypeMetadataResolver<EntityMetadata extends DatastoreEntity
         }
     }
 
+    /**
+     * Return a {@link com.buschmais.xo.spi.datastore.TypeMetadataSet} containing all relation types matching to the given discriminators.
+     * <p>The result is resolved once per distinct combination of discriminators and shared afterwards, it is therefore immutable.</p>
+     *
+     * @param sourceDiscriminators The discriminators of the source entity.
+     * @param discriminator        The discriminator of the relation.
+     * @param targetDiscriminators The discriminators of the target entity.
+     * @return The immutable {@link com.buschmais.xo.spi.datastore.TypeMetadataSet}.
+     */
     public TypeMetadataSet<RelationTypeMetadata<RelationMetadata>> getRelationTypes(Set<EntityDiscriminator> sourceDiscriminators, RelationDiscriminator discriminator, Set<EntityDiscriminator> targetDiscriminators) {
+        RelationTypesKey<EntityDiscriminator, RelationDiscriminator> key = new RelationTypesKey<>(sourceDiscriminators, discriminator, targetDiscriminators);
+        TypeMetadataSet<RelationTypeMetadata<RelationMetadata>> types = relationTypes.get(key);
+        if (types == null) {
+            types = resolveRelationTypes(sourceDiscriminators, discriminator, targetDiscriminators).toImmutable();
+            // Use a copy as key as the given sets may be modified by the datastore afterwards.
+            RelationTypesKey<EntityDiscriminator, RelationDiscriminator> immutableKey = new RelationTypesKey<>(Collections.unmodifiableSet(new HashSet<>(sourceDiscriminators)), discriminator, Collections.unmodifiableSet(new HashSet<>(targetDiscriminators)));
+            TypeMetadataSet<RelationTypeMetadata<RelationMetadata>> existingTypes = relationTypes.putIfAbsent(immutableKey, types);
+            if (existingTypes != null) {
+                types = existingTypes;
+            }
+        }
+        return types;
+    }
+
+    private TypeMetadataSet<RelationTypeMetadata<RelationMetadata>> resolveRelationTypes(Set<EntityDiscriminator> sourceDiscriminators, RelationDiscriminator discriminator, Set<EntityDiscriminator> targetDiscriminators) {
         TypeMetadataSet<RelationTypeMetadata<RelationMetadata>> types = new TypeMetadataSet<>();
         Set<RelationMapping<EntityDiscriminator, RelationMetadata, RelationDiscriminator>> relations = relationMappings.get(discriminator);
         if (relations == null) {
@@ -161,6 +185,41 @@ public class RelationTypeMetadataResolver<EntityMetadata extends DatastoreEntity
         }
     }
 
+    private static class RelationTypesKey<EntityDiscriminator, RelationDiscriminator> {
+        private final Set<EntityDiscriminator> sourceDiscriminators;
+        private final RelationDiscriminator discriminator;
+        private final Set<EntityDiscriminator> targetDiscriminators;
+        private final int hashCode;
+
+        private RelationTypesKey(Set<EntityDiscriminator> sourceDiscriminators, RelationDiscriminator discriminator, Set<EntityDiscriminator> targetDiscriminators) {
+            this.sourceDiscriminators = sourceDiscriminators;
+            this.discriminator = discriminator;
+            this.targetDiscriminators = targetDiscriminators;
+            int result = sourceDiscriminators.hashCode();
+            result = 31 * result + discriminator.hashCode();
+            result = 31 * result + targetDiscriminators.hashCode();
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            RelationTypesKey<?, ?> that = (RelationTypesKey<?, ?>) o;
+            return hashCode == that.hashCode && discriminator.equals(that.discriminator) && sourceDiscriminators.equals(that.sourceDiscriminators)
+                    && targetDiscriminators.equals(that.targetDiscriminators);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     private static class RelationMapping<EntityDiscriminator, RelationMetadata extends DatastoreRelationMetadata<RelationDiscriminator>, RelationDiscriminator> {
         private final EntityDiscriminator source;
         private final RelationTypeMetadata<RelationMetadata> relationType;
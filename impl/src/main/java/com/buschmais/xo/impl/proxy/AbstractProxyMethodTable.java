@@ -0,0 +1,167 @@
+package com.buschmais.xo.impl.proxy;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.proxy.ProxyMethod;
+import com.buschmais.xo.impl.SessionContext;
+import com.buschmais.xo.spi.interceptor.InterceptorFactory;
+import com.buschmais.xo.spi.interceptor.InvocationPlan;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Abstract base implementation of a session independent dispatch table for proxy methods.
+ * <p>A table is created once per {@link com.buschmais.xo.impl.XOManagerFactoryImpl} from the registered metadata. It assigns a slot to each
+ * method and holds a {@link ProxyMethodBinding} per slot which creates the session specific {@link ProxyMethod} on demand.</p>
+ *
+ * @param <DatastoreType> The datastore type.
+ * @param <Entity>        The entity type.
+ * @param <Relation>      The relation type.
+ */
+public abstract class AbstractProxyMethodTable<DatastoreType, Entity, Relation> {
+
+    /**
+     * Creates the {@link ProxyMethod} of a slot for a specific session.
+     *
+     * @param <DatastoreType> The datastore type.
+     * @param <Entity>        The entity type.
+     * @param <Relation>      The relation type.
+     */
+    public interface ProxyMethodBinding<DatastoreType, Entity, Relation> {
+
+        ProxyMethod<DatastoreType> bind(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext);
+
+    }
+
+    private final Map<Method, Integer> slots = new HashMap<>();
+    private final List<ProxyMethodBinding<DatastoreType, Entity, Relation>> bindings = new ArrayList<>();
+    private final List<Method> methods = new ArrayList<>();
+    private volatile AtomicReferenceArray<InvocationPlan> invocationPlans;
+
+    /**
+     * Return the slot of a method.
+     *
+     * @param method The method.
+     * @return The slot or <code>-1</code> if the method is not part of this table.
+     */
+    public int getSlot(Method method) {
+        Integer slot = slots.get(method);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Return the method of a slot.
+     *
+     * @param slot The slot.
+     * @return The method.
+     */
+    public Method getMethod(int slot) {
+        return methods.get(slot);
+    }
+
+    /**
+     * Return the number of slots.
+     *
+     * @return The number of slots.
+     */
+    public int size() {
+        return bindings.size();
+    }
+
+    /**
+     * Create the {@link ProxyMethod} of a slot for the given session.
+     *
+     * @param slot           The slot.
+     * @param sessionContext The session context.
+     * @return The {@link ProxyMethod}.
+     */
+    public ProxyMethod<DatastoreType> bind(int slot, SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext) {
+        return bindings.get(slot).bind(sessionContext);
+    }
+
+    /**
+     * Return the {@link InvocationPlan} of a slot, it is created on first access and shared by all sessions.
+     *
+     * @param slot               The slot.
+     * @param proceed            The handle which proceeds the invocation of a slot after the interceptors, it accepts the instance, the
+     *                           slot and the arguments.
+     * @param interceptorFactory The {@link InterceptorFactory} of the session creating the plan.
+     * @return The {@link InvocationPlan}.
+     */
+    public InvocationPlan getInvocationPlan(int slot, MethodHandle proceed, InterceptorFactory interceptorFactory) {
+        AtomicReferenceArray<InvocationPlan> plans = invocationPlans;
+        if (plans == null) {
+            synchronized (this) {
+                if (invocationPlans == null) {
+                    invocationPlans = new AtomicReferenceArray<>(bindings.size());
+                }
+                plans = invocationPlans;
+            }
+        }
+        InvocationPlan invocationPlan = plans.get(slot);
+        if (invocationPlan == null) {
+            MethodHandle target = MethodHandles.insertArguments(proceed, 1, slot);
+            invocationPlan = interceptorFactory.createPlan(methods.get(slot), target);
+            if (!plans.compareAndSet(slot, null, invocationPlan)) {
+                invocationPlan = plans.get(slot);
+            }
+        }
+        return invocationPlan;
+    }
+
+    /**
+     * Create a {@link ProxyMethodService} which binds this table to a session.
+     *
+     * @param sessionContext The session context.
+     * @return The {@link ProxyMethodService}.
+     */
+    public ProxyMethodService<DatastoreType> createProxyMethodService(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext) {
+        return new SessionProxyMethodService<>(this, sessionContext);
+    }
+
+    protected void addMethod(ProxyMethodBinding<DatastoreType, Entity, Relation> binding, Class<?> type, String name, Class<?>... argumentTypes) {
+        Method method;
+        try {
+            method = type.getDeclaredMethod(name, argumentTypes);
+        } catch (NoSuchMethodException e) {
+            throw new XOException("Cannot resolve method '" + name + "' (" + Arrays.asList(argumentTypes) + ")", e);
+        }
+        addProxyMethod(binding, method);
+    }
+
+    protected void addProxyMethod(ProxyMethodBinding<DatastoreType, Entity, Relation> binding, Method method) {
+        if (method != null) {
+            Integer slot = slots.get(method);
+            if (slot != null) {
+                bindings.set(slot, binding);
+            } else {
+                slots.put(method, bindings.size());
+                bindings.add(binding);
+                methods.add(method);
+            }
+        }
+    }
+
+    /**
+     * Instantiate a user provided proxy method, e.g. declared using {@link com.buschmais.xo.api.annotation.ImplementedBy}.
+     *
+     * @param proxyMethodType The proxy method type.
+     * @return The proxy method.
+     */
+    protected ProxyMethod<DatastoreType> newProxyMethod(Class<? extends ProxyMethod> proxyMethodType) {
+        try {
+            return proxyMethodType.newInstance();
+        } catch (InstantiationException e) {
+            throw new XOException("Cannot instantiate proxy method of type " + proxyMethodType.getName(), e);
+        } catch (IllegalAccessException e) {
+            throw new XOException("Unexpected exception while instantiating type " + proxyMethodType.getName(), e);
+        }
+    }
+}
@@ -23,6 +23,10 @@ public class InstanceInvocationHandler<DatastoreType> implements InvocationHandl
         return proxyMethodService.invoke(datastoreType, proxy, method, args);
     }
 
+    public ProxyMethodService<DatastoreType> getProxyMethodService() {
+        return proxyMethodService;
+    }
+
     public DatastoreType getDatastoreType() {
         return datastoreType;
     }
@@ -0,0 +1,46 @@
+package com.buschmais.xo.impl.proxy;
+
+import com.buschmais.xo.api.XOException;
+
+import java.util.Properties;
+
+/**
+ * Defines the engine which is used for creating entity and relation instances.
+ * <p>The engine is selected using the property {@link #PROPERTY} of an {@link com.buschmais.xo.api.bootstrap.XOUnit}, e.g.
+ * <code>xo.proxy.engine=generated</code>.</p>
+ */
+public enum ProxyEngine {
+
+    /**
+     * Dynamic proxies provided by {@link java.lang.reflect.Proxy} (default).
+     */
+    JDK,
+
+    /**
+     * Generated proxy classes dispatching method invocations using precomputed slots.
+     */
+    GENERATED;
+
+    /**
+     * The name of the property selecting the proxy engine.
+     */
+    public static final String PROPERTY = "xo.proxy.engine";
+
+    /**
+     * Determine the proxy engine from the given properties.
+     *
+     * @param properties The properties, may be <code>null</code>.
+     * @return The proxy engine.
+     */
+    public static ProxyEngine fromProperties(Properties properties) {
+        String value = properties != null ? properties.getProperty(PROPERTY) : null;
+        if (value == null) {
+            return JDK;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new XOException("Unsupported value '" + value + "' for property '" + PROPERTY + "'.", e);
+        }
+    }
+}
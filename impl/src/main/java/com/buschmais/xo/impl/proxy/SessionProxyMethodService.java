@@ -0,0 +1,120 @@
+package com.buschmais.xo.impl.proxy;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.proxy.ProxyMethod;
+import com.buschmais.xo.impl.SessionContext;
+import com.buschmais.xo.spi.interceptor.InterceptorFactory;
+import com.buschmais.xo.spi.interceptor.InvocationPlan;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Binds an {@link AbstractProxyMethodTable} to a session.
+ * <p>The {@link ProxyMethod}s are created lazily on their first invocation, i.e. creating a session does not depend on the size of the type
+ * model. The table of bound methods is safely published, i.e. it may be accessed by several threads if the session is shared.</p>
+ *
+ * @param <DatastoreType> The datastore type.
+ * @param <Entity>        The entity type.
+ * @param <Relation>      The relation type.
+ */
+public class SessionProxyMethodService<DatastoreType, Entity, Relation> implements ProxyMethodService<DatastoreType> {
+
+    private final AbstractProxyMethodTable<DatastoreType, Entity, Relation> proxyMethodTable;
+    private final SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext;
+    private final AtomicReferenceArray<ProxyMethod<DatastoreType>> proxyMethods;
+
+    /**
+     * Constructor.
+     *
+     * @param proxyMethodTable The shared proxy method table.
+     * @param sessionContext   The session context.
+     */
+    public SessionProxyMethodService(AbstractProxyMethodTable<DatastoreType, Entity, Relation> proxyMethodTable, SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext) {
+        this.proxyMethodTable = proxyMethodTable;
+        this.sessionContext = sessionContext;
+        this.proxyMethods = new AtomicReferenceArray<>(proxyMethodTable.size());
+    }
+
+    @Override
+    public Object invoke(DatastoreType datastoreType, Object instance, Method method, Object[] args) throws Exception {
+        int slot = proxyMethodTable.getSlot(method);
+        if (slot < 0) {
+            throw new XOException("Cannot find proxy for method '" + method.toGenericString() + "'");
+        }
+        return getProxyMethod(slot).invoke(datastoreType, instance, args);
+    }
+
+    /**
+     * Invoke the {@link ProxyMethod} of a slot, i.e. without resolving the {@link Method}.
+     *
+     * @param datastoreType The datastore type.
+     * @param instance      The instance.
+     * @param slot          The slot.
+     * @param args          The arguments.
+     * @return The result of the invocation.
+     * @throws Exception If the invocation fails.
+     */
+    public Object invoke(DatastoreType datastoreType, Object instance, int slot, Object[] args) throws Exception {
+        return getProxyMethod(slot).invoke(datastoreType, instance, args);
+    }
+
+    /**
+     * Return the {@link InvocationPlan} of a slot, it is shared by all sessions (see
+     * {@link AbstractProxyMethodTable#getInvocationPlan(int, MethodHandle, InterceptorFactory)}).
+     *
+     * @param slot    The slot.
+     * @param proceed The handle which proceeds the invocation of a slot after the interceptors, it accepts the instance, the slot and
+     *                the arguments.
+     * @return The {@link InvocationPlan} or <code>null</code> if the session has no active interceptors.
+     */
+    public InvocationPlan getInvocationPlan(int slot, MethodHandle proceed) {
+        InterceptorFactory interceptorFactory = sessionContext.getInterceptorFactory();
+        if (!interceptorFactory.hasInterceptors()) {
+            return null;
+        }
+        return proxyMethodTable.getInvocationPlan(slot, proceed, interceptorFactory);
+    }
+
+    /**
+     * Invoke a slot applying the interceptors of the session.
+     *
+     * @param invocationPlan The {@link InvocationPlan} of the slot, see {@link #getInvocationPlan(int, MethodHandle)}.
+     * @param instance       The instance.
+     * @param args           The arguments.
+     * @return The result of the invocation.
+     * @throws Throwable If the invocation fails.
+     */
+    public Object invoke(InvocationPlan invocationPlan, Object instance, Object[] args) throws Throwable {
+        return sessionContext.getInterceptorFactory().invoke(invocationPlan, instance, args);
+    }
+
+    /**
+     * Return the shared proxy method table.
+     *
+     * @return The proxy method table.
+     */
+    public AbstractProxyMethodTable<DatastoreType, Entity, Relation> getProxyMethodTable() {
+        return proxyMethodTable;
+    }
+
+    /**
+     * Return the {@link ProxyMethod} of a slot, it is bound to the session on first access.
+     * <p>If several threads bind the same slot concurrently only the first bound {@link ProxyMethod} is kept and returned to all of
+     * them.</p>
+     *
+     * @param slot The slot.
+     * @return The {@link ProxyMethod}.
+     */
+    protected ProxyMethod<DatastoreType> getProxyMethod(int slot) {
+        ProxyMethod<DatastoreType> proxyMethod = proxyMethods.get(slot);
+        if (proxyMethod == null) {
+            proxyMethod = proxyMethodTable.bind(slot, sessionContext);
+            if (!proxyMethods.compareAndSet(slot, null, proxyMethod)) {
+                proxyMethod = proxyMethods.get(slot);
+            }
+        }
+        return proxyMethod;
+    }
+}
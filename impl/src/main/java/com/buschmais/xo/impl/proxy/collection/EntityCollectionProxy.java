@@ -41,6 +41,15 @@ public class EntityCollectionProxy<Instance, Entity, Relation> extends AbstractC
         return true;
     }
 
+    @Override
+    public boolean addAll(Collection<? extends Instance> instances) {
+        if (instances.isEmpty()) {
+            return false;
+        }
+        getSessionContext().getEntityPropertyManager().createEntityReferences(getEntity(), getMetadata(), instances);
+        return true;
+    }
+
     @Override
     public boolean remove(Object o) {
         SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext = getSessionContext();
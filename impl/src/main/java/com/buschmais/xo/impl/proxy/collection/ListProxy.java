@@ -1,6 +1,7 @@
 package com.buschmais.xo.impl.proxy.collection;
 
 import java.util.AbstractSequentialList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -74,6 +75,11 @@ public class ListProxy<Instance> extends AbstractSequentialList<Instance> implem
         return collectionProxy.add(instance);
     }
 
+    @Override
+    public boolean addAll(Collection<? extends Instance> instances) {
+        return collectionProxy.addAll(instances);
+    }
+
     @Override
     public boolean remove(Object o) {
         return collectionProxy.remove(o);
@@ -1,7 +1,9 @@
 package com.buschmais.xo.impl.proxy.collection;
 
 import java.util.AbstractSet;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 public class SetProxy<T> extends AbstractSet<T> implements Set<T> {
@@ -30,6 +32,20 @@ public class SetProxy<T> extends AbstractSet<T> implements Set<T> {
         return collectionProxy.add(t);
     }
 
+    /**
+     * Add all elements which are not yet contained.
+     * <p>Only the incoming elements are tracked: the existing elements are iterated once, the iteration stops as soon as all incoming
+     * elements have been found.</p>
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        Set<T> added = new LinkedHashSet<>(c);
+        for (Iterator<T> iterator = iterator(); !added.isEmpty() && iterator.hasNext(); ) {
+            added.remove(iterator.next());
+        }
+        return collectionProxy.addAll(added);
+    }
+
     @Override
     public boolean remove(Object o) {
         return collectionProxy.remove(o);
@@ -1,6 +1,7 @@
 package com.buschmais.xo.impl.proxy.common.property;
 
 import com.buschmais.xo.impl.AbstractPropertyManager;
+import com.buschmais.xo.spi.datastore.DatastorePropertyLookup;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 
 public abstract class AbstractPrimitivePropertyGetMethod<DatastoreType, PropertyManager extends AbstractPropertyManager<DatastoreType>> extends AbstractPropertyMethod<DatastoreType, PropertyManager, PrimitivePropertyMethodMetadata> {
@@ -13,11 +14,9 @@ public abstract class AbstractPrimitivePropertyGetMethod<DatastoreType, Property
     public Object invoke(DatastoreType datastoreType, Object instance, Object[] args) {
         PrimitivePropertyMethodMetadata<?> metadata = getMetadata();
         PropertyManager propertyManager = getPropertyManager();
-        Object value;
-        if (!propertyManager.hasProperty(datastoreType, metadata)) {
+        Object value = propertyManager.getPropertyOrAbsent(datastoreType, metadata);
+        if (value == DatastorePropertyLookup.ABSENT) {
             value = null;
-        } else {
-            value = propertyManager.getProperty(datastoreType, metadata);
         }
         return convert(value, metadata.getAnnotatedMethod().getType());
     }
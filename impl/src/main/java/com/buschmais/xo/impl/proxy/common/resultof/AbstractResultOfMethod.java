@@ -6,12 +6,13 @@ import com.buschmais.xo.api.annotation.ResultOf;
 import com.buschmais.xo.api.proxy.ProxyMethod;
 import com.buschmais.xo.impl.AbstractInstanceManager;
 import com.buschmais.xo.impl.SessionContext;
-import com.buschmais.xo.impl.query.XOQueryImpl;
+import com.buschmais.xo.impl.query.QueryPlan;
 import com.buschmais.xo.spi.metadata.method.ResultOfMethodMetadata;
 
 import java.io.IOException;
-import java.lang.reflect.AnnotatedElement;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public abstract class AbstractResultOfMethod<DatastoreType, Entity, Relation> implements ProxyMethod<DatastoreType> {
 
@@ -25,14 +26,17 @@ public abstract class AbstractResultOfMethod<DatastoreType, Entity, Relation> im
 
     @Override
     public Object invoke(DatastoreType datastoreType, Object instance, Object[] args) {
-        XOQueryImpl<?, ?, AnnotatedElement, ?, ?> query = new XOQueryImpl<>(sessionContext, resultOfMethodMetadata.getQuery(), resultOfMethodMetadata.getReturnType());
-        String usingThisAs = resultOfMethodMetadata.getUsingThisAs();
-        query.withParameter(usingThisAs, getInstanceManager(sessionContext).readInstance(datastoreType));
+        QueryPlan<?> plan = sessionContext.getQueryPlanCache().get(resultOfMethodMetadata, sessionContext.getDatastoreSession().getDefaultQueryLanguage());
         List<ResultOf.Parameter> parameters = resultOfMethodMetadata.getParameters();
+        Map<String, Object> values = new HashMap<>((parameters.size() + 1) * 2);
+        values.put(resultOfMethodMetadata.getUsingThisAs(), getInstanceManager(sessionContext).readInstance(datastoreType));
         for (int i = 0; i < parameters.size(); i++) {
-            query.withParameter(parameters.get(i).value(), args[i]);
+            String name = parameters.get(i).value();
+            if (values.put(name, args[i]) != null) {
+                throw new XOException("Parameter '" + name + "' has already been assigned to value '" + args[i] + "'.");
+            }
         }
-        Query.Result<?> result = query.execute();
+        Query.Result<?> result = plan.execute(sessionContext, values);
         if (void.class.equals(resultOfMethodMetadata.getReturnType())) {
             try {
                 result.close();
@@ -0,0 +1,101 @@
+package com.buschmais.xo.impl.proxy.generated;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.proxy.InstanceInvocationHandler;
+import com.buschmais.xo.impl.proxy.SessionProxyMethodService;
+import com.buschmais.xo.spi.interceptor.InvocationPlan;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Base class of all proxy classes created by the {@link ProxyClassGenerator}.
+ * <p>The generated methods delegate to the static methods of this class passing the slot of the invoked method. The methods are static to
+ * avoid conflicts with methods declared by the implemented interfaces.</p>
+ * <p>The interceptors of the session are applied using the {@link InvocationPlan} of the slot, i.e. generated instances are not wrapped
+ * by an additional dynamic proxy. The plans are shared by all sessions of an {@link com.buschmais.xo.api.XOManagerFactory}.</p>
+ */
+public abstract class AbstractGeneratedInstance {
+
+    /**
+     * The handle to {@link #proceed(AbstractGeneratedInstance, int, Object[])}, it is the target of the invocation plans.
+     */
+    private static final MethodHandle PROCEED;
+
+    static {
+        try {
+            PROCEED = MethodHandles.lookup().findStatic(AbstractGeneratedInstance.class, "proceed",
+                    MethodType.methodType(Object.class, AbstractGeneratedInstance.class, int.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new XOException("Cannot resolve proceed method of generated instances.", e);
+        }
+    }
+
+    private final InstanceInvocationHandler<Object> invocationHandler;
+    private final SessionProxyMethodService<Object, ?, ?> proxyMethodService;
+
+    /**
+     * Constructor.
+     *
+     * @param invocationHandler The {@link InstanceInvocationHandler}, its proxy method service must be a {@link SessionProxyMethodService}.
+     */
+    protected AbstractGeneratedInstance(InstanceInvocationHandler<Object> invocationHandler) {
+        this.invocationHandler = invocationHandler;
+        this.proxyMethodService = (SessionProxyMethodService<Object, ?, ?>) invocationHandler.getProxyMethodService();
+    }
+
+    /**
+     * Return the {@link InstanceInvocationHandler} of an instance.
+     *
+     * @param instance The instance.
+     * @return The {@link InstanceInvocationHandler}.
+     */
+    public static InstanceInvocationHandler<Object> getInvocationHandler(AbstractGeneratedInstance instance) {
+        return instance.invocationHandler;
+    }
+
+    /**
+     * Invoke the proxy method of a slot applying the interceptors of the session.
+     *
+     * @param instance The instance.
+     * @param slot     The slot.
+     * @param args     The arguments, <code>null</code> for methods without parameters.
+     * @return The result of the invocation.
+     * @throws Throwable If the invocation fails.
+     */
+    protected static Object invoke(AbstractGeneratedInstance instance, int slot, Object[] args) throws Throwable {
+        InvocationPlan invocationPlan = instance.proxyMethodService.getInvocationPlan(slot, PROCEED);
+        if (invocationPlan != null) {
+            return instance.proxyMethodService.invoke(invocationPlan, instance, args);
+        }
+        return proceed(instance, slot, args);
+    }
+
+    /**
+     * Invoke the proxy method of a slot without applying interceptors.
+     *
+     * @param instance The instance.
+     * @param slot     The slot.
+     * @param args     The arguments.
+     * @return The result of the invocation.
+     * @throws Exception If the invocation fails.
+     */
+    private static Object proceed(AbstractGeneratedInstance instance, int slot, Object[] args) throws Exception {
+        Object datastoreType = instance.invocationHandler.getDatastoreType();
+        if (datastoreType == null) {
+            throw new XOException("Invalid access to an un-managed instance.");
+        }
+        return instance.proxyMethodService.invoke(datastoreType, instance, slot, args);
+    }
+
+    /**
+     * Called by generated methods which are not backed by a proxy method.
+     *
+     * @param method The method signature.
+     * @return Never returns.
+     */
+    protected static Object unresolved(String method) {
+        throw new XOException("Cannot find proxy for method '" + method + "'");
+    }
+}
@@ -0,0 +1,315 @@
+package com.buschmais.xo.impl.proxy.generated;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.proxy.AbstractProxyMethodTable;
+import com.buschmais.xo.impl.proxy.InstanceInvocationHandler;
+import com.buschmais.xo.impl.proxy.SessionProxyMethodService;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates proxy classes for entity and relation instances.
+ * <p>One class is generated per proxy method table and distinct set of implemented interfaces. Each generated method passes the slot of
+ * the method in the {@link AbstractProxyMethodTable} to {@link AbstractGeneratedInstance}, i.e. there is no lookup of a
+ * {@link Method} on invocation. Methods without parameters are invoked without allocating an argument array.</p>
+ * <p>The generator is shared by all sessions of an {@link com.buschmais.xo.api.XOManagerFactory}.</p>
+ */
+public class ProxyClassGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProxyClassGenerator.class);
+
+    private static final String PACKAGE = ProxyClassGenerator.class.getPackage().getName();
+    private static final String BASE_TYPE = Type.getInternalName(AbstractGeneratedInstance.class);
+    private static final String CONSTRUCTOR_DESCRIPTOR = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(InstanceInvocationHandler.class));
+    private static final String INVOKE_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(AbstractGeneratedInstance.class), Type.INT_TYPE, Type.getType(Object[].class));
+    private static final String UNRESOLVED_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(String.class));
+
+    /**
+     * Marker for type sets which cannot be represented by a generated class, e.g. if an interface is not public.
+     */
+    private static final Constructor<?> UNSUPPORTED = AbstractGeneratedInstance.class.getDeclaredConstructors()[0];
+
+    private final AtomicInteger classCounter = new AtomicInteger();
+    private final ProxyClassLoader proxyClassLoader;
+    private final ConcurrentMap<AbstractProxyMethodTable<?, ?, ?>, ConcurrentMap<List<Class<?>>, Constructor<?>>> constructors = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param classLoader The class loader which is used to resolve the implemented interfaces.
+     */
+    public ProxyClassGenerator(ClassLoader classLoader) {
+        this.proxyClassLoader = new ProxyClassLoader(classLoader);
+    }
+
+    /**
+     * Create an instance using a generated class.
+     *
+     * @param invocationHandler The {@link InstanceInvocationHandler}.
+     * @param types             The interfaces to implement.
+     * @param <Instance>        The instance type.
+     * @return The instance or <code>null</code> if no class can be generated for the given handler or types.
+     */
+    public <Instance> Instance createInstance(InstanceInvocationHandler<?> invocationHandler, Class<?>[] types) {
+        if (!(invocationHandler.getProxyMethodService() instanceof SessionProxyMethodService)) {
+            return null;
+        }
+        AbstractProxyMethodTable<?, ?, ?> proxyMethodTable = ((SessionProxyMethodService<?, ?, ?>) invocationHandler.getProxyMethodService()).getProxyMethodTable();
+        Constructor<?> constructor = getConstructor(proxyMethodTable, types);
+        if (constructor == UNSUPPORTED) {
+            return null;
+        }
+        try {
+            return (Instance) constructor.newInstance(invocationHandler);
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new XOException("Cannot create instance of generated type " + constructor.getDeclaringClass().getName(), e);
+        } catch (InvocationTargetException e) {
+            throw new XOException("Cannot create instance of generated type " + constructor.getDeclaringClass().getName(), e.getCause());
+        }
+    }
+
+    private Constructor<?> getConstructor(AbstractProxyMethodTable<?, ?, ?> proxyMethodTable, Class<?>[] types) {
+        ConcurrentMap<List<Class<?>>, Constructor<?>> tableConstructors = constructors.get(proxyMethodTable);
+        if (tableConstructors == null) {
+            tableConstructors = new ConcurrentHashMap<>();
+            ConcurrentMap<List<Class<?>>, Constructor<?>> existing = constructors.putIfAbsent(proxyMethodTable, tableConstructors);
+            if (existing != null) {
+                tableConstructors = existing;
+            }
+        }
+        List<Class<?>> key = Arrays.asList(types);
+        Constructor<?> constructor = tableConstructors.get(key);
+        if (constructor == null) {
+            synchronized (tableConstructors) {
+                constructor = tableConstructors.get(key);
+                if (constructor == null) {
+                    constructor = generate(proxyMethodTable, types);
+                    tableConstructors.put(key, constructor);
+                }
+            }
+        }
+        return constructor;
+    }
+
+    private Constructor<?> generate(AbstractProxyMethodTable<?, ?, ?> proxyMethodTable, Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (!type.isInterface() || !Modifier.isPublic(type.getModifiers())) {
+                LOGGER.debug("Cannot generate proxy class for {}, using dynamic proxies.", Arrays.asList(types));
+                return UNSUPPORTED;
+            }
+        }
+        String className = PACKAGE + ".Instance$" + classCounter.incrementAndGet();
+        byte[] bytecode = generateClass(className.replace('.', '/'), proxyMethodTable, types);
+        Class<?> proxyClass = proxyClassLoader.defineClass(className, bytecode);
+        LOGGER.debug("Generated proxy class {} for {}.", className, Arrays.asList(types));
+        try {
+            return proxyClass.getConstructor(InstanceInvocationHandler.class);
+        } catch (NoSuchMethodException e) {
+            throw new XOException("Cannot resolve constructor of generated type " + className, e);
+        }
+    }
+
+    private byte[] generateClass(String internalName, AbstractProxyMethodTable<?, ?, ?> proxyMethodTable, Class<?>[] types) {
+        String[] interfaces = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            interfaces[i] = Type.getInternalName(types[i]);
+        }
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V1_7, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC, internalName, null, BASE_TYPE, interfaces);
+        generateConstructor(classWriter);
+        for (Map.Entry<String, List<Method>> entry : getMethods(types).entrySet()) {
+            List<Method> candidates = entry.getValue();
+            int slot = -1;
+            for (Iterator<Method> iterator = candidates.iterator(); slot < 0 && iterator.hasNext(); ) {
+                slot = proxyMethodTable.getSlot(iterator.next());
+            }
+            generateMethod(classWriter, candidates.get(0), slot);
+        }
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * Collect all methods to implement grouped by name and descriptor, i.e. including methods from {@link Object} which are handled by
+     * proxy methods.
+     *
+     * @param types The interfaces.
+     * @return The methods.
+     */
+    private Map<String, List<Method>> getMethods(Class<?>[] types) {
+        Map<String, List<Method>> methods = new LinkedHashMap<>();
+        for (String name : Arrays.asList("hashCode", "equals", "toString")) {
+            for (Method method : Object.class.getMethods()) {
+                if (method.getName().equals(name)) {
+                    addMethod(methods, method);
+                }
+            }
+        }
+        for (Class<?> type : types) {
+            for (Method method : type.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    addMethod(methods, method);
+                }
+            }
+        }
+        return methods;
+    }
+
+    private void addMethod(Map<String, List<Method>> methods, Method method) {
+        String key = method.getName() + Type.getMethodDescriptor(method);
+        List<Method> candidates = methods.get(key);
+        if (candidates == null) {
+            candidates = new ArrayList<>(1);
+            methods.put(key, candidates);
+        }
+        candidates.add(method);
+    }
+
+    private void generateConstructor(ClassWriter classWriter) {
+        MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, BASE_TYPE, "<init>", CONSTRUCTOR_DESCRIPTOR, false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void generateMethod(ClassWriter classWriter, Method method, int slot) {
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        String[] exceptions = new String[exceptionTypes.length];
+        for (int i = 0; i < exceptionTypes.length; i++) {
+            exceptions[i] = Type.getInternalName(exceptionTypes[i]);
+        }
+        MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, method.getName(), Type.getMethodDescriptor(method), null, exceptions);
+        mv.visitCode();
+        if (slot < 0) {
+            mv.visitLdcInsn(method.toGenericString());
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, BASE_TYPE, "unresolved", UNRESOLVED_DESCRIPTOR, false);
+        } else {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitLdcInsn(slot);
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 0) {
+                mv.visitInsn(Opcodes.ACONST_NULL);
+            } else {
+                mv.visitLdcInsn(parameterTypes.length);
+                mv.visitTypeInsn(Opcodes.ANEWARRAY, Type.getInternalName(Object.class));
+                int local = 1;
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    Type parameterType = Type.getType(parameterTypes[i]);
+                    mv.visitInsn(Opcodes.DUP);
+                    mv.visitLdcInsn(i);
+                    mv.visitVarInsn(parameterType.getOpcode(Opcodes.ILOAD), local);
+                    box(mv, parameterType);
+                    mv.visitInsn(Opcodes.AASTORE);
+                    local += parameterType.getSize();
+                }
+            }
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, BASE_TYPE, "invoke", INVOKE_DESCRIPTOR, false);
+        }
+        returnValue(mv, Type.getType(method.getReturnType()));
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void box(MethodVisitor mv, Type type) {
+        if (type.getSort() == Type.OBJECT || type.getSort() == Type.ARRAY) {
+            return;
+        }
+        Type boxedType = getBoxedType(type);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, boxedType.getInternalName(), "valueOf", Type.getMethodDescriptor(boxedType, type), false);
+    }
+
+    private void returnValue(MethodVisitor mv, Type returnType) {
+        switch (returnType.getSort()) {
+            case Type.VOID:
+                mv.visitInsn(Opcodes.POP);
+                mv.visitInsn(Opcodes.RETURN);
+                break;
+            case Type.OBJECT:
+            case Type.ARRAY:
+                mv.visitTypeInsn(Opcodes.CHECKCAST, returnType.getInternalName());
+                mv.visitInsn(Opcodes.ARETURN);
+                break;
+            default:
+                Type boxedType = getBoxedType(returnType);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, boxedType.getInternalName());
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, boxedType.getInternalName(), returnType.getClassName() + "Value", Type.getMethodDescriptor(returnType), false);
+                mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+        }
+    }
+
+    private Type getBoxedType(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                return Type.getType(Boolean.class);
+            case Type.BYTE:
+                return Type.getType(Byte.class);
+            case Type.CHAR:
+                return Type.getType(Character.class);
+            case Type.SHORT:
+                return Type.getType(Short.class);
+            case Type.INT:
+                return Type.getType(Integer.class);
+            case Type.LONG:
+                return Type.getType(Long.class);
+            case Type.FLOAT:
+                return Type.getType(Float.class);
+            case Type.DOUBLE:
+                return Type.getType(Double.class);
+            default:
+                throw new XOException("Unsupported primitive type " + type);
+        }
+    }
+
+    /**
+     * The class loader defining the generated classes.
+     * <p>Classes of XO are always resolved using the class loader of XO, all other classes (i.e. the implemented interfaces) using the
+     * class loader of the XO unit.</p>
+     */
+    private static class ProxyClassLoader extends ClassLoader {
+
+        private static final String XO_PACKAGE = "com.buschmais.xo.impl.";
+
+        private ProxyClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    if (name.startsWith(XO_PACKAGE)) {
+                        type = ProxyClassGenerator.class.getClassLoader().loadClass(name);
+                    } else {
+                        type = super.loadClass(name, false);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(type);
+                }
+                return type;
+            }
+        }
+
+        private Class<?> defineClass(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.buschmais.xo.impl.proxy.relation;
+
+import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.api.proxy.ProxyMethod;
+import com.buschmais.xo.impl.MetadataProvider;
+import com.buschmais.xo.impl.proxy.AbstractProxyMethodTable;
+import com.buschmais.xo.impl.proxy.common.UnsupportedOperationMethod;
+import com.buschmais.xo.impl.proxy.common.composite.GetDelegateMethod;
+import com.buschmais.xo.impl.proxy.relation.composite.AsMethod;
+import com.buschmais.xo.impl.proxy.relation.composite.GetIdMethod;
+import com.buschmais.xo.impl.proxy.relation.object.EqualsMethod;
+import com.buschmais.xo.impl.proxy.relation.object.HashCodeMethod;
+import com.buschmais.xo.impl.proxy.relation.object.ToStringMethod;
+import com.buschmais.xo.impl.proxy.relation.property.*;
+import com.buschmais.xo.impl.proxy.relation.resultof.ResultOfMethod;
+import com.buschmais.xo.spi.metadata.method.*;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
+import com.buschmais.xo.spi.reflection.AnnotatedMethod;
+import com.buschmais.xo.spi.reflection.GetPropertyMethod;
+import com.buschmais.xo.spi.reflection.PropertyMethod;
+import com.buschmais.xo.spi.reflection.SetPropertyMethod;
+
+import java.lang.reflect.Method;
+
+/**
+ * The session independent proxy method table for relations.
+ *
+ * @param <Entity>   The entity type.
+ * @param <Relation> The relation type.
+ */
+public class RelationProxyMethodTable<Entity, Relation> extends AbstractProxyMethodTable<Relation, Entity, Relation> {
+
+    public RelationProxyMethodTable(MetadataProvider<?, ?, ?, ?> metadataProvider) {
+        for (TypeMetadata typeMetadata : metadataProvider.getRegisteredMetadata()) {
+            for (MethodMetadata methodMetadata : typeMetadata.getProperties()) {
+                AnnotatedMethod typeMethod = methodMetadata.getAnnotatedMethod();
+                if (methodMetadata instanceof UnsupportedOperationMethodMetadata) {
+                    UnsupportedOperationMethodMetadata unsupportedOperationMethodMetadata = (UnsupportedOperationMethodMetadata) methodMetadata;
+                    addProxyMethod(sessionContext -> new UnsupportedOperationMethod<>(unsupportedOperationMethodMetadata), typeMethod.getAnnotatedElement());
+                } else if (methodMetadata instanceof ImplementedByMethodMetadata) {
+                    ImplementedByMethodMetadata implementedByMethodMetadata = (ImplementedByMethodMetadata) methodMetadata;
+                    Class<? extends ProxyMethod> proxyMethodType = implementedByMethodMetadata.getProxyMethodType();
+                    addProxyMethod(sessionContext -> newProxyMethod(proxyMethodType), typeMethod.getAnnotatedElement());
+                }
+                if (methodMetadata instanceof ResultOfMethodMetadata) {
+                    ResultOfMethodMetadata<?> resultOfMethodMetadata = (ResultOfMethodMetadata<?>) methodMetadata;
+                    addProxyMethod(sessionContext -> new ResultOfMethod<>(sessionContext, resultOfMethodMetadata), typeMethod.getAnnotatedElement());
+                }
+                if (methodMetadata instanceof AbstractPropertyMethodMetadata) {
+                    PropertyMethod propertyMethod = (PropertyMethod) typeMethod;
+                    Method method = propertyMethod.getAnnotatedElement();
+                    if (methodMetadata instanceof PrimitivePropertyMethodMetadata) {
+                        PrimitivePropertyMethodMetadata metadata = (PrimitivePropertyMethodMetadata) methodMetadata;
+                        if (propertyMethod instanceof GetPropertyMethod) {
+                            addProxyMethod(sessionContext -> new PrimitivePropertyGetMethod<>(sessionContext.getRelationPropertyManager(), metadata), method);
+                        } else if (propertyMethod instanceof SetPropertyMethod) {
+                            addProxyMethod(sessionContext -> new PrimitivePropertySetMethod<>(sessionContext.getRelationPropertyManager(), metadata), method);
+                        }
+                    } else if (methodMetadata instanceof TransientPropertyMethodMetadata) {
+                        TransientPropertyMethodMetadata metadata = (TransientPropertyMethodMetadata) methodMetadata;
+                        if (propertyMethod instanceof GetPropertyMethod) {
+                            addProxyMethod(sessionContext -> new TransientPropertyGetMethod<>(sessionContext.getRelationPropertyManager(), metadata), method);
+                        } else if (propertyMethod instanceof SetPropertyMethod) {
+                            addProxyMethod(sessionContext -> new TransientPropertySetMethod<>(sessionContext.getRelationPropertyManager(), metadata), method);
+                        }
+                    } else if (methodMetadata instanceof EntityReferencePropertyMethodMetadata) {
+                        EntityReferencePropertyMethodMetadata metadata = (EntityReferencePropertyMethodMetadata) methodMetadata;
+                        if (propertyMethod instanceof GetPropertyMethod) {
+                            addProxyMethod(sessionContext -> new EntityReferencePropertyGetMethod<>(sessionContext.getRelationPropertyManager(), metadata), method);
+                        }
+                    }
+                }
+            }
+        }
+        addMethod(sessionContext -> new AsMethod<>(sessionContext), CompositeObject.class, "as", Class.class);
+        addMethod(sessionContext -> new GetIdMethod<>(sessionContext), CompositeObject.class, "getId");
+        addMethod(sessionContext -> new GetDelegateMethod<>(), CompositeObject.class, "getDelegate");
+        addMethod(sessionContext -> new HashCodeMethod<>(sessionContext), Object.class, "hashCode");
+        addMethod(sessionContext -> new EqualsMethod<>(sessionContext), Object.class, "equals", Object.class);
+        addMethod(sessionContext -> new ToStringMethod<>(sessionContext), Object.class, "toString");
+    }
+}
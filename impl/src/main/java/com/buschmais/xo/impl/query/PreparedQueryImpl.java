@@ -0,0 +1,56 @@
+package com.buschmais.xo.impl.query;
+
+import com.buschmais.xo.api.PreparedQuery;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.impl.SessionContext;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Implementation of a {@link PreparedQuery}, each execution is represented by a {@link XOQueryImpl} sharing the same {@link QueryPlan}.
+ */
+public class PreparedQueryImpl<T, QL extends Annotation, Entity, Relation> implements PreparedQuery<T> {
+
+    private final SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext;
+    private final QueryPlan<QL> plan;
+
+    /**
+     * Constructor, the query is compiled using the default query language of the datastore.
+     *
+     * @param sessionContext The session context.
+     * @param expression     The expression.
+     * @param returnType     The return type, may be <code>null</code>.
+     * @param returnTypes    The additional return types.
+     */
+    public PreparedQueryImpl(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext, Object expression, Class<?> returnType,
+                             Collection<? extends Class<?>> returnTypes) {
+        this.sessionContext = sessionContext;
+        this.plan = sessionContext.getQueryPlanCache().get(expression, null, returnType, returnTypes, sessionContext.getDatastoreSession().getDefaultQueryLanguage());
+    }
+
+    public PreparedQueryImpl(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext, Object expression, Class<?> returnType) {
+        this(sessionContext, expression, returnType, Collections.<Class<?>>emptyList());
+    }
+
+    @Override
+    public Query<T> withParameter(String name, Object value) {
+        return newQuery().withParameter(name, value);
+    }
+
+    @Override
+    public Query<T> withParameters(Map<String, Object> parameters) {
+        return newQuery().withParameters(parameters);
+    }
+
+    @Override
+    public Query.Result<T> execute() {
+        return plan.execute(sessionContext, Collections.<String, Object>emptyMap());
+    }
+
+    private Query<T> newQuery() {
+        return new XOQueryImpl<T, QL, Object, Entity, Relation>(sessionContext, plan);
+    }
+}
@@ -0,0 +1,173 @@
+package com.buschmais.xo.impl.query;
+
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOTransaction;
+import com.buschmais.xo.impl.AbstractInstanceManager;
+import com.buschmais.xo.impl.SessionContext;
+import com.buschmais.xo.impl.plugin.QueryLanguagePluginRepository;
+import com.buschmais.xo.impl.proxy.query.RowProxyMethodService;
+import com.buschmais.xo.impl.transaction.TransactionalResultIterator;
+import com.buschmais.xo.spi.annotation.QueryDefinition;
+import com.buschmais.xo.spi.datastore.DatastorePreparableQuery;
+import com.buschmais.xo.spi.datastore.DatastoreQuery;
+import com.buschmais.xo.spi.datastore.DatastoreQueryRow;
+import com.buschmais.xo.spi.datastore.DatastoreRowQuery;
+import com.buschmais.xo.spi.datastore.DatastoreSession;
+import com.buschmais.xo.spi.datastore.MapRowResultIterator;
+import com.buschmais.xo.spi.plugin.QueryLanguagePlugin;
+import com.buschmais.xo.spi.reflection.AbstractAnnotatedElement;
+import com.buschmais.xo.spi.reflection.AnnotatedType;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+
+/**
+ * A compiled query.
+ * <p>The query language, the expression and the decoding of the result are resolved once, executing a plan only requires binding the
+ * parameters. Plans are immutable and shared by all sessions of a {@link com.buschmais.xo.api.XOManagerFactory}, see
+ * {@link QueryPlanCache}.</p>
+ *
+ * @param <QL> The query language type.
+ */
+public class QueryPlan<QL extends Annotation> {
+
+    private final Class<QL> queryLanguage;
+    private final String stringExpression;
+    private final QL annotationExpression;
+    private final Class<?>[] returnTypes;
+    private final RowProxyMethodService rowProxyMethodService;
+
+    private QueryPlan(Class<QL> queryLanguage, String stringExpression, QL annotationExpression, SortedSet<Class<?>> resultTypes) {
+        this.queryLanguage = queryLanguage;
+        this.stringExpression = stringExpression;
+        this.annotationExpression = annotationExpression;
+        this.returnTypes = resultTypes.toArray(new Class<?>[resultTypes.size()]);
+        if (resultTypes.isEmpty() || resultTypes.size() > 1 || new AnnotatedType(resultTypes.first()).getByMetaAnnotation(QueryDefinition.class) != null) {
+            this.rowProxyMethodService = new RowProxyMethodService(resultTypes);
+        } else {
+            this.rowProxyMethodService = null;
+        }
+    }
+
+    /**
+     * Compile a query.
+     *
+     * @param expression    The expression, either a {@link String} or an {@link AnnotatedElement} carrying a query annotation.
+     * @param queryLanguage The query language.
+     * @param resultTypes   The result types.
+     * @return The plan.
+     */
+    static <QL extends Annotation> QueryPlan<QL> compile(Object expression, Class<? extends Annotation> queryLanguage, SortedSet<Class<?>> resultTypes) {
+        Class<QL> language = (Class<QL>) queryLanguage;
+        if (expression instanceof String) {
+            return new QueryPlan<>(language, (String) expression, null, resultTypes);
+        } else if (expression instanceof AnnotatedElement) {
+            AnnotatedElement typeExpression = (AnnotatedElement) expression;
+            AnnotatedQueryElement element = new AnnotatedQueryElement(typeExpression);
+            QL queryAnnotation = element.getByMetaAnnotation(QueryDefinition.class);
+            if (queryAnnotation == null) {
+                throw new XOException("Cannot find query annotation on element " + expression.toString());
+            }
+            return new QueryPlan<>(language, null, queryAnnotation, resultTypes);
+        }
+        throw new XOException("Expression type is not supported: " + expression);
+    }
+
+    /**
+     * Execute the plan.
+     *
+     * @param sessionContext The session context.
+     * @param parameters     The parameters, values may be instances which are translated to their datastore representation.
+     * @param <T>            The type of the elements contained in the result.
+     * @return The result.
+     */
+    public <T, Entity, Relation> Query.Result<T> execute(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext, Map<String, Object> parameters) {
+        Map<String, Object> effectiveParameters = new HashMap<>(parameters.size() * 2);
+        AbstractInstanceManager<?, Entity> entityInstanceManager = sessionContext.getEntityInstanceManager();
+        AbstractInstanceManager<?, Relation> relationInstanceManager = sessionContext.getRelationInstanceManager();
+        for (Map.Entry<String, Object> parameterEntry : parameters.entrySet()) {
+            Object value = parameterEntry.getValue();
+            if (entityInstanceManager.isInstance(value)) {
+                value = entityInstanceManager.getDatastoreType(value);
+            } else if (relationInstanceManager.isInstance(value)) {
+                value = relationInstanceManager.getDatastoreType(value);
+            }
+            effectiveParameters.put(parameterEntry.getKey(), value);
+        }
+        QueryLanguagePluginRepository queryLanguagePluginRepository = sessionContext.getPluginRepositoryManager().getPluginManager(QueryLanguagePlugin.class);
+        DatastoreQuery<QL> query = createQuery(queryLanguagePluginRepository, sessionContext.getDatastoreSession());
+        ResultIterator<DatastoreQueryRow> iterator = execute(query, effectiveParameters);
+        XOTransaction xoTransaction = sessionContext.getXOTransaction();
+        QueryResultIterableImpl<Entity, Relation, T> result = new QueryResultIterableImpl<>(sessionContext,
+                xoTransaction != null ? new TransactionalResultIterator<>(iterator, xoTransaction) : iterator, returnTypes, rowProxyMethodService);
+        return sessionContext.getInterceptorFactory().addInterceptor(result, Query.Result.class);
+    }
+
+    /**
+     * Prepare the expression without executing it if this is supported by the datastore query, see {@link DatastorePreparableQuery}.
+     *
+     * @param queryLanguagePluginRepository The query language plugin repository.
+     * @param datastoreSession              The datastore session.
+     * @return <code>true</code> if the expression has been prepared.
+     */
+    public boolean prepare(QueryLanguagePluginRepository queryLanguagePluginRepository, DatastoreSession<?, ?, ?, ?, ?, ?, ?, ?, ?> datastoreSession) {
+        DatastoreQuery<QL> query = createQuery(queryLanguagePluginRepository, datastoreSession);
+        if (!(query instanceof DatastorePreparableQuery)) {
+            return false;
+        }
+        DatastorePreparableQuery<QL> preparableQuery = (DatastorePreparableQuery<QL>) query;
+        if (stringExpression != null) {
+            preparableQuery.prepare(stringExpression);
+        } else {
+            preparableQuery.prepare(annotationExpression);
+        }
+        return true;
+    }
+
+    /**
+     * Create the datastore query, the plugin is looked up on each invocation as plugins may be registered at any time.
+     */
+    private DatastoreQuery<QL> createQuery(QueryLanguagePluginRepository queryLanguagePluginRepository, DatastoreSession<?, ?, ?, ?, ?, ?, ?, ?, ?> datastoreSession) {
+        QueryLanguagePlugin<QL> queryLanguagePlugin = (QueryLanguagePlugin<QL>) queryLanguagePluginRepository.get(queryLanguage);
+        if (queryLanguagePlugin != null) {
+            return queryLanguagePlugin.createQuery(datastoreSession);
+        }
+        return datastoreSession.createQuery(queryLanguage);
+    }
+
+    /**
+     * Execute the expression, map based results of a {@link DatastoreQuery} are adapted to {@link DatastoreQueryRow}s.
+     */
+    private ResultIterator<DatastoreQueryRow> execute(DatastoreQuery<QL> query, Map<String, Object> parameters) {
+        if (query instanceof DatastoreRowQuery) {
+            DatastoreRowQuery<QL> rowQuery = (DatastoreRowQuery<QL>) query;
+            return stringExpression != null ? rowQuery.executeRows(stringExpression, parameters) : rowQuery.executeRows(annotationExpression, parameters);
+        }
+        return new MapRowResultIterator(stringExpression != null ? query.execute(stringExpression, parameters) : query.execute(annotationExpression, parameters));
+    }
+
+    /**
+     * An annotated element.
+     */
+    private static class AnnotatedQueryElement extends AbstractAnnotatedElement<AnnotatedElement> {
+
+        /**
+         * Constructor.
+         *
+         * @param typeExpression The expression.
+         */
+        public AnnotatedQueryElement(AnnotatedElement typeExpression) {
+            super(typeExpression);
+        }
+
+        @Override
+        public String getName() {
+            return toString();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.buschmais.xo.impl.query;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.spi.metadata.method.ResultOfMethodMetadata;
+import com.google.common.cache.CacheBuilder;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches compiled {@link QueryPlan}s of a {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>Plans of {@link com.buschmais.xo.api.annotation.ResultOf} methods are kept per {@link ResultOfMethodMetadata}, plans of queries created
+ * from expressions are kept per expression, query language and result types. The maximum number of the latter is configured by the
+ * property {@link #SIZE_PROPERTY} of an {@link com.buschmais.xo.api.bootstrap.XOUnit}, e.g. <code>xo.query.cache.size=500</code>,
+ * <code>0</code> disables caching.</p>
+ */
+public class QueryPlanCache {
+
+    /**
+     * The name of the property defining the maximum number of cached plans for query expressions.
+     */
+    public static final String SIZE_PROPERTY = "xo.query.cache.size";
+
+    /**
+     * The default maximum number of cached plans for query expressions.
+     */
+    public static final int DEFAULT_SIZE = 1000;
+
+    private final ConcurrentMap<ResultOfMethodMetadata<?>, QueryPlan<?>> resultOfPlans = new ConcurrentHashMap<>();
+
+    private final com.google.common.cache.Cache<Key, QueryPlan<?>> expressionPlans;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize The maximum number of cached plans for query expressions.
+     */
+    public QueryPlanCache(int maximumSize) {
+        this.expressionPlans = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Create a cache using the given properties.
+     *
+     * @param properties The properties, may be <code>null</code>.
+     * @return The cache.
+     */
+    public static QueryPlanCache fromProperties(Properties properties) {
+        String sizeValue = properties != null ? properties.getProperty(SIZE_PROPERTY) : null;
+        int size;
+        try {
+            size = sizeValue != null ? Integer.parseInt(sizeValue.trim()) : DEFAULT_SIZE;
+        } catch (NumberFormatException e) {
+            throw new XOException("Unsupported value '" + sizeValue + "' for property '" + SIZE_PROPERTY + "'.", e);
+        }
+        if (size < 0) {
+            throw new XOException("The size of the query cache must not be negative but is " + size);
+        }
+        return new QueryPlanCache(size);
+    }
+
+    /**
+     * Return the plan for a {@link com.buschmais.xo.api.annotation.ResultOf} method, it is compiled on first access.
+     *
+     * @param resultOfMethodMetadata The method metadata.
+     * @param defaultQueryLanguage   The default query language of the datastore.
+     * @return The plan.
+     */
+    public <QL extends Annotation> QueryPlan<QL> get(ResultOfMethodMetadata<?> resultOfMethodMetadata, Class<? extends Annotation> defaultQueryLanguage) {
+        QueryPlan<?> plan = resultOfPlans.get(resultOfMethodMetadata);
+        if (plan == null) {
+            Class<?> returnType = resultOfMethodMetadata.getReturnType();
+            plan = QueryPlan.compile(resultOfMethodMetadata.getQuery(), defaultQueryLanguage,
+                    getResultTypes(returnType, Collections.<Class<?>>emptyList()));
+            QueryPlan<?> existingPlan = resultOfPlans.putIfAbsent(resultOfMethodMetadata, plan);
+            if (existingPlan != null) {
+                plan = existingPlan;
+            }
+        }
+        return (QueryPlan<QL>) plan;
+    }
+
+    /**
+     * Return the plan for a query expression, it is compiled if it is not cached.
+     *
+     * @param expression           The expression.
+     * @param queryLanguage        The query language or <code>null</code> if the default query language of the datastore shall be used.
+     * @param returnType           The return type, may be <code>null</code>.
+     * @param returnTypes          The additional return types.
+     * @param defaultQueryLanguage The default query language of the datastore.
+     * @return The plan.
+     */
+    public <QL extends Annotation> QueryPlan<QL> get(Object expression, Class<? extends Annotation> queryLanguage, Class<?> returnType,
+                                                     Collection<? extends Class<?>> returnTypes, Class<? extends Annotation> defaultQueryLanguage) {
+        Class<? extends Annotation> effectiveQueryLanguage = queryLanguage != null ? queryLanguage : defaultQueryLanguage;
+        Key key = new Key(expression, effectiveQueryLanguage, returnType, returnTypes);
+        QueryPlan<?> plan = expressionPlans.getIfPresent(key);
+        if (plan == null) {
+            plan = QueryPlan.compile(expression, effectiveQueryLanguage, getResultTypes(returnType, returnTypes));
+            expressionPlans.put(key, plan);
+        }
+        return (QueryPlan<QL>) plan;
+    }
+
+    /**
+     * Remove all cached plans.
+     */
+    public void clear() {
+        resultOfPlans.clear();
+        expressionPlans.invalidateAll();
+    }
+
+    private SortedSet<Class<?>> getResultTypes(Class<?> returnType, Collection<? extends Class<?>> returnTypes) {
+        SortedSet<Class<?>> resultTypes = new TreeSet<>(new Comparator<Class<?>>() {
+            @Override
+            public int compare(Class<?> o1, Class<?> o2) {
+                return o1.getName().compareTo(o2.getName());
+            }
+        });
+        if (returnType != null) {
+            resultTypes.add(returnType);
+        }
+        resultTypes.addAll(returnTypes);
+        return resultTypes;
+    }
+
+    /**
+     * The key of a plan for a query expression.
+     */
+    private static final class Key {
+
+        private final Object expression;
+        private final Class<? extends Annotation> queryLanguage;
+        private final Class<?> returnType;
+        private final List<Class<?>> returnTypes;
+        private final int hashCode;
+
+        private Key(Object expression, Class<? extends Annotation> queryLanguage, Class<?> returnType, Collection<? extends Class<?>> returnTypes) {
+            this.expression = expression;
+            this.queryLanguage = queryLanguage;
+            this.returnType = returnType;
+            this.returnTypes = new ArrayList<>(returnTypes);
+            this.hashCode = Arrays.hashCode(new Object[] { expression, queryLanguage, returnType, this.returnTypes });
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return expression.equals(key.expression) && (queryLanguage != null ? queryLanguage.equals(key.queryLanguage) : key.queryLanguage == null)
+                    && (returnType != null ? returnType.equals(key.returnType) : key.returnType == null) && returnTypes.equals(key.returnTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
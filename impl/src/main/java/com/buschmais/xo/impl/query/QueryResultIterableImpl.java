@@ -7,29 +7,36 @@ import com.buschmais.xo.impl.AbstractResultIterable;
 import com.buschmais.xo.impl.SessionContext;
 import com.buschmais.xo.impl.proxy.query.RowInvocationHandler;
 import com.buschmais.xo.impl.proxy.query.RowProxyMethodService;
-import com.buschmais.xo.spi.annotation.QueryDefinition;
-import com.buschmais.xo.spi.reflection.AnnotatedType;
+import com.buschmais.xo.spi.datastore.DatastoreQueryRow;
 
 import java.io.IOException;
 import java.util.*;
 
 class QueryResultIterableImpl<Entity, Relation, T> extends AbstractResultIterable<T> implements Query.Result<T> {
 
+    /**
+     * The kinds of values contained in a column.
+     */
+    private enum ValueKind {
+        ENTITY, RELATION, LIST, SET, ITERABLE, VALUE
+    }
+
     private final SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext;
-    private final ResultIterator<Map<String, Object>> iterator;
-    private final SortedSet<Class<?>> returnTypes;
+    private final ResultIterator<DatastoreQueryRow> iterator;
+    private final Class<?>[] returnTypes;
     private final RowProxyMethodService rowProxyMethodService;
 
+    /**
+     * The decoder for the columns of the current rows.
+     */
+    private ColumnDecoderImpl columnDecoder = null;
+
     QueryResultIterableImpl(SessionContext<?, Entity, ?, ?, ?, Relation, ?, ?, ?> sessionContext,
-                            ResultIterator<Map<String, Object>> iterator, SortedSet<Class<?>> returnTypes) {
+                            ResultIterator<DatastoreQueryRow> iterator, Class<?>[] returnTypes, RowProxyMethodService rowProxyMethodService) {
         this.sessionContext = sessionContext;
         this.iterator = iterator;
         this.returnTypes = returnTypes;
-        if (returnTypes.isEmpty() || returnTypes.size() > 1 || new AnnotatedType(returnTypes.first()).getByMetaAnnotation(QueryDefinition.class) != null) {
-            this.rowProxyMethodService = new RowProxyMethodService(returnTypes);
-        } else {
-            this.rowProxyMethodService = null;
-        }
+        this.rowProxyMethodService = rowProxyMethodService;
     }
 
     @Override
@@ -43,22 +50,18 @@ class QueryResultIterableImpl<Entity, Relation, T> extends AbstractResultIterabl
 
             @Override
             public T next() {
-                Map<String, Object> next = iterator.next();
-                Map<String, Object> row = new LinkedHashMap<>();
-                for (Map.Entry<String, Object> entry : next.entrySet()) {
-                    String column = entry.getKey();
-                    Object value = entry.getValue();
-                    Object decodedValue = decodeValue(value);
-                    row.put(column, decodedValue);
+                DatastoreQueryRow next = iterator.next();
+                if (columnDecoder == null || columnDecoder.columns != next.getColumns()) {
+                    columnDecoder = new ColumnDecoderImpl(next.getColumns());
                 }
                 if (rowProxyMethodService != null) {
-                    RowInvocationHandler invocationHandler = new RowInvocationHandler(row, rowProxyMethodService);
-                    return (T) sessionContext.getProxyFactory().createInstance(invocationHandler, returnTypes.toArray(new Class<?>[0]), CompositeRowObject.class);
+                    RowInvocationHandler invocationHandler = new RowInvocationHandler(new QueryRow(next, columnDecoder), rowProxyMethodService);
+                    return sessionContext.getProxyFactory().createInstance(invocationHandler, returnTypes, CompositeRowObject.class);
                 }
-                if (row.size() != 1) {
+                if (next.getColumns().size() != 1) {
                     throw new XOException("Only single columns per row can be returned.");
                 }
-                return (T) row.values().iterator().next();
+                return (T) columnDecoder.decode(0, next.get(0));
             }
 
             @Override
@@ -66,34 +69,6 @@ class QueryResultIterableImpl<Entity, Relation, T> extends AbstractResultIterabl
                 iterator.remove();
             }
 
-            private Object decodeValue(Object value) {
-                if (value == null) {
-                    return null;
-                }
-                Object decodedValue;
-                if (sessionContext.getDatastoreSession().getDatastoreEntityManager().isEntity(value)) {
-                    return sessionContext.getEntityInstanceManager().readInstance((Entity) value);
-                } else if (sessionContext.getDatastoreSession().getDatastoreRelationManager().isRelation(value)) {
-                    return sessionContext.getRelationInstanceManager().readInstance((Relation) value);
-                } else if (value instanceof List<?>) {
-                    decodedValue = decodeIterable((Iterable<?>) value, new ArrayList<>());
-                } else if (value instanceof Set<?>) {
-                    decodedValue = decodeIterable((Iterable<?>) value, new HashSet<>());
-                } else if (value instanceof Iterable<?>) {
-                    decodedValue = decodeIterable((Iterable<?>) value, new ArrayList<>());
-                } else {
-                    decodedValue = value;
-                }
-                return decodedValue;
-            }
-
-            private Collection<Object> decodeIterable(Iterable<?> iterable, Collection<Object> decodedCollection) {
-                for (Object o : iterable) {
-                    decodedCollection.add(decodeValue(o));
-                }
-                return decodedCollection;
-            }
-
             @Override
             public void close() {
                 iterator.close();
@@ -105,4 +80,217 @@ class QueryResultIterableImpl<Entity, Relation, T> extends AbstractResultIterabl
     public void close() throws IOException {
         iterator.close();
     }
+
+    private Object decodeValue(Object value) {
+        return value != null ? decodeValue(value, getKind(value)) : null;
+    }
+
+    private Object decodeValue(Object value, ValueKind kind) {
+        switch (kind) {
+        case ENTITY:
+            return sessionContext.getEntityInstanceManager().readInstance((Entity) value);
+        case RELATION:
+            return sessionContext.getRelationInstanceManager().readInstance((Relation) value);
+        case LIST:
+            return new LazyList((List<?>) value);
+        case SET:
+            return new LazySet((Set<?>) value);
+        case ITERABLE:
+            List<Object> values = new ArrayList<>();
+            for (Object o : (Iterable<?>) value) {
+                values.add(o);
+            }
+            return new LazyList(values);
+        default:
+            return value;
+        }
+    }
+
+    private ValueKind getKind(Object value) {
+        if (sessionContext.getDatastoreSession().getDatastoreEntityManager().isEntity(value)) {
+            return ValueKind.ENTITY;
+        } else if (sessionContext.getDatastoreSession().getDatastoreRelationManager().isRelation(value)) {
+            return ValueKind.RELATION;
+        } else if (value instanceof List<?>) {
+            return ValueKind.LIST;
+        } else if (value instanceof Set<?>) {
+            return ValueKind.SET;
+        } else if (value instanceof Iterable<?>) {
+            return ValueKind.ITERABLE;
+        }
+        return ValueKind.VALUE;
+    }
+
+    /**
+     * Decodes the values of columns, the kind of value is resolved once per column and value type.
+     */
+    private class ColumnDecoderImpl implements QueryRow.ColumnDecoder {
+
+        private final DatastoreQueryRow.Columns columns;
+        private final Class<?>[] types;
+        private final ValueKind[] kinds;
+
+        private ColumnDecoderImpl(DatastoreQueryRow.Columns columns) {
+            this.columns = columns;
+            this.types = new Class<?>[columns.size()];
+            this.kinds = new ValueKind[columns.size()];
+        }
+
+        @Override
+        public Object decode(int index, Object value) {
+            if (value == null) {
+                return null;
+            }
+            if (types[index] != value.getClass()) {
+                types[index] = value.getClass();
+                kinds[index] = getKind(value);
+            }
+            return decodeValue(value, kinds[index]);
+        }
+    }
+
+    /**
+     * A list in datastore representation, the elements are decoded on first access.
+     * <p>The list is mutable: the decoded elements are copied into an {@link ArrayList} on the first modification.</p>
+     */
+    private class LazyList extends AbstractList<Object> implements RandomAccess {
+
+        private final List<?> list;
+        private final Object[] values;
+        private final boolean[] decoded;
+        private List<Object> modified = null;
+
+        private LazyList(List<?> list) {
+            this.list = list instanceof RandomAccess ? list : new ArrayList<>(list);
+            this.values = new Object[list.size()];
+            this.decoded = new boolean[list.size()];
+        }
+
+        @Override
+        public Object get(int index) {
+            if (modified != null) {
+                return modified.get(index);
+            }
+            if (!decoded[index]) {
+                values[index] = decodeValue(list.get(index));
+                decoded[index] = true;
+            }
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return modified != null ? modified.size() : values.length;
+        }
+
+        @Override
+        public Object set(int index, Object element) {
+            return modify().set(index, element);
+        }
+
+        @Override
+        public void add(int index, Object element) {
+            modify().add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public Object remove(int index) {
+            Object removed = modify().remove(index);
+            modCount++;
+            return removed;
+        }
+
+        private List<Object> modify() {
+            if (modified == null) {
+                modified = new ArrayList<>(this);
+            }
+            return modified;
+        }
+    }
+
+    /**
+     * A set in datastore representation, the elements are decoded while iterating.
+     * <p>The set is mutable: the decoded elements are copied into a {@link LinkedHashSet} on the first modification.</p>
+     */
+    private class LazySet extends AbstractSet<Object> {
+
+        private final Set<?> set;
+        private Set<Object> modified = null;
+
+        private LazySet(Set<?> set) {
+            this.set = set;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            if (modified != null) {
+                return modified.iterator();
+            }
+            final Iterator<?> iterator = set.iterator();
+            return new Iterator<Object>() {
+
+                /**
+                 * The number of elements returned by {@link #next()}.
+                 */
+                private int position = 0;
+
+                /**
+                 * The iterator over the copy, it is used after the first removal.
+                 */
+                private Iterator<Object> copyIterator = null;
+
+                @Override
+                public boolean hasNext() {
+                    return copyIterator != null ? copyIterator.hasNext() : iterator.hasNext();
+                }
+
+                @Override
+                public Object next() {
+                    if (copyIterator != null) {
+                        return copyIterator.next();
+                    }
+                    Object value = decodeValue(iterator.next());
+                    position++;
+                    return value;
+                }
+
+                @Override
+                public void remove() {
+                    if (copyIterator == null) {
+                        if (position == 0) {
+                            throw new IllegalStateException("next() has not been called.");
+                        }
+                        // Continue on the copy at the current position as the original set is not modified.
+                        copyIterator = modify().iterator();
+                        for (int i = 0; i < position; i++) {
+                            copyIterator.next();
+                        }
+                    }
+                    copyIterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return modified != null ? modified.size() : set.size();
+        }
+
+        @Override
+        public boolean add(Object element) {
+            return modify().add(element);
+        }
+
+        private Set<Object> modify() {
+            if (modified == null) {
+                Set<Object> values = new LinkedHashSet<>();
+                for (Object value : set) {
+                    values.add(decodeValue(value));
+                }
+                modified = values;
+            }
+            return modified;
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.buschmais.xo.impl.query;
+
+import com.buschmais.xo.spi.datastore.DatastoreQueryRow;
+
+import java.util.*;
+
+/**
+ * An immutable {@link Map} representing a row of a query result, used as delegate of
+ * {@link com.buschmais.xo.api.Query.Result.CompositeRowObject}s.
+ * <p>The column names are shared by all rows of a result, lookups of values resolve the column index and access an array. The values
+ * are decoded from their datastore representation on first access to a column.</p>
+ * <p>Note: Like properties of instances the columns must be accessed within the transaction the query has been executed in.</p>
+ */
+class QueryRow extends AbstractMap<String, Object> {
+
+    /**
+     * Decodes the values of columns.
+     */
+    interface ColumnDecoder {
+
+        /**
+         * Decode the value of a column.
+         *
+         * @param index The column index.
+         * @param value The value in datastore representation.
+         * @return The decoded value.
+         */
+        Object decode(int index, Object value);
+    }
+
+    private final DatastoreQueryRow row;
+    private final ColumnDecoder columnDecoder;
+    private final Object[] values;
+    private final boolean[] decoded;
+
+    /**
+     * Constructor.
+     *
+     * @param row           The row in datastore representation.
+     * @param columnDecoder The decoder for the columns of the row.
+     */
+    QueryRow(DatastoreQueryRow row, ColumnDecoder columnDecoder) {
+        this.row = row;
+        this.columnDecoder = columnDecoder;
+        int size = row.getColumns().size();
+        this.values = new Object[size];
+        this.decoded = new boolean[size];
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = key instanceof String ? row.getColumns().indexOf((String) key) : -1;
+        return index >= 0 ? getValue(index) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && row.getColumns().indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int current = index++;
+                        return new SimpleImmutableEntry<>(row.getColumns().getName(current), getValue(current));
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException("Query rows cannot be modified.");
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    private Object getValue(int index) {
+        if (!decoded[index]) {
+            values[index] = columnDecoder.decode(index, row.get(index));
+            decoded[index] = true;
+        }
+        return values[index];
+    }
+}
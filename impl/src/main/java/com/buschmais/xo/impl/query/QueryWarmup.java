@@ -0,0 +1,255 @@
+package com.buschmais.xo.impl.query;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.impl.plugin.QueryLanguagePluginRepository;
+import com.buschmais.xo.spi.annotation.QueryDefinition;
+import com.buschmais.xo.spi.datastore.Datastore;
+import com.buschmais.xo.spi.datastore.DatastoreSession;
+import com.buschmais.xo.spi.datastore.DatastoreTransaction;
+import com.buschmais.xo.spi.metadata.method.MethodMetadata;
+import com.buschmais.xo.spi.metadata.method.ResultOfMethodMetadata;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prepares all queries declared by the registered types of an {@link com.buschmais.xo.api.bootstrap.XOUnit} while the
+ * {@link com.buschmais.xo.api.XOManagerFactory} is created.
+ * <p>The queries of {@link com.buschmais.xo.api.annotation.ResultOf} methods and registered query types are compiled into the
+ * {@link QueryPlanCache} and - if supported by the datastore, see {@link com.buschmais.xo.spi.datastore.DatastorePreparableQuery} -
+ * prepared in parallel to populate the plan cache of the datastore. Thus invalid queries are reported at startup instead of their
+ * first execution.</p>
+ * <p>Preparing may depend on internal APIs of the datastore (e.g. the Cypher planner of an embedded Neo4j 2.1 database). Datastores which
+ * cannot prepare queries only have them compiled, a {@link LinkageError} raised while preparing a query is reported like an invalid
+ * query instead of aborting the warm-up.</p>
+ * <p>The warm-up is enabled using the property {@link #PROPERTY} of an {@link com.buschmais.xo.api.bootstrap.XOUnit}, e.g.
+ * <code>xo.query.warmup=warn</code>.</p>
+ */
+public class QueryWarmup {
+
+    /**
+     * Defines how a warm-up is performed.
+     */
+    public enum Mode {
+
+        /**
+         * No warm-up is performed (default).
+         */
+        NONE,
+
+        /**
+         * Queries which cannot be prepared are logged as warnings.
+         */
+        WARN,
+
+        /**
+         * Queries which cannot be prepared are logged as errors and the creation of the {@link com.buschmais.xo.api.XOManagerFactory}
+         * fails.
+         */
+        FAIL;
+    }
+
+    /**
+     * The name of the property selecting the {@link Mode}.
+     */
+    public static final String PROPERTY = "xo.query.warmup";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryWarmup.class);
+
+    private final Mode mode;
+    private final Datastore<?, ?, ?, ?, ?> datastore;
+    private final QueryLanguagePluginRepository queryLanguagePluginRepository;
+    private final QueryPlanCache queryPlanCache;
+
+    /**
+     * Constructor.
+     *
+     * @param mode                          The mode.
+     * @param datastore                     The datastore.
+     * @param queryLanguagePluginRepository The query language plugin repository.
+     * @param queryPlanCache                The query plan cache.
+     */
+    public QueryWarmup(Mode mode, Datastore<?, ?, ?, ?, ?> datastore, QueryLanguagePluginRepository queryLanguagePluginRepository,
+                       QueryPlanCache queryPlanCache) {
+        this.mode = mode;
+        this.datastore = datastore;
+        this.queryLanguagePluginRepository = queryLanguagePluginRepository;
+        this.queryPlanCache = queryPlanCache;
+    }
+
+    /**
+     * Determine the warm-up mode from the given properties.
+     *
+     * @param properties The properties, may be <code>null</code>.
+     * @return The mode.
+     */
+    public static Mode getMode(Properties properties) {
+        String value = properties != null ? properties.getProperty(PROPERTY) : null;
+        if (value == null) {
+            return Mode.NONE;
+        }
+        try {
+            return Mode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new XOException("Unsupported value '" + value + "' for property '" + PROPERTY + "'.", e);
+        }
+    }
+
+    /**
+     * Compile and prepare all queries declared by the given types.
+     *
+     * @param registeredMetadata The metadata of the registered types.
+     * @throws XOException If the mode is {@link Mode#FAIL} and at least one query cannot be prepared.
+     */
+    public void run(Collection<TypeMetadata> registeredMetadata) {
+        if (Mode.NONE.equals(mode)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Class<? extends Annotation> defaultQueryLanguage = getDefaultQueryLanguage();
+        Map<String, QueryPlan<?>> plans = new LinkedHashMap<>();
+        List<String> failures = new ArrayList<>();
+        for (TypeMetadata typeMetadata : registeredMetadata) {
+            Class<?> type = typeMetadata.getAnnotatedType().getAnnotatedElement();
+            if (typeMetadata.getAnnotatedType().getByMetaAnnotation(QueryDefinition.class) != null) {
+                compile(type.getName(), type, type, defaultQueryLanguage, plans, failures);
+            }
+            for (MethodMetadata<?, ?> methodMetadata : typeMetadata.getProperties()) {
+                if (methodMetadata instanceof ResultOfMethodMetadata) {
+                    ResultOfMethodMetadata<?> resultOfMethodMetadata = (ResultOfMethodMetadata<?>) methodMetadata;
+                    compile(type.getName() + "#" + resultOfMethodMetadata.getAnnotatedMethod().getName(), resultOfMethodMetadata, null,
+                            defaultQueryLanguage, plans, failures);
+                }
+            }
+        }
+        int prepared = prepare(plans, failures);
+        for (String failure : failures) {
+            if (Mode.FAIL.equals(mode)) {
+                LOGGER.error(failure);
+            } else {
+                LOGGER.warn(failure);
+            }
+        }
+        LOGGER.info("Query warm-up compiled {} and prepared {} queries in {}ms, {} failed.", plans.size(), prepared,
+                System.currentTimeMillis() - start, failures.size());
+        if (Mode.FAIL.equals(mode) && !failures.isEmpty()) {
+            throw new XOException("Query warm-up failed for " + failures.size() + " queries: " + failures);
+        }
+    }
+
+    private Class<? extends Annotation> getDefaultQueryLanguage() {
+        DatastoreSession<?, ?, ?, ?, ?, ?, ?, ?, ?> datastoreSession = datastore.createSession();
+        try {
+            return datastoreSession.getDefaultQueryLanguage();
+        } finally {
+            datastoreSession.close();
+        }
+    }
+
+    /**
+     * Compile the query of a {@link ResultOfMethodMetadata} or a query type into the {@link QueryPlanCache}.
+     */
+    private void compile(String name, Object source, Class<?> queryType, Class<? extends Annotation> defaultQueryLanguage,
+                         Map<String, QueryPlan<?>> plans, List<String> failures) {
+        try {
+            QueryPlan<?> plan;
+            if (source instanceof ResultOfMethodMetadata) {
+                plan = queryPlanCache.get((ResultOfMethodMetadata<?>) source, defaultQueryLanguage);
+            } else {
+                plan = queryPlanCache.get(source, null, queryType, Collections.<Class<?>>emptyList(), defaultQueryLanguage);
+            }
+            plans.put(name, plan);
+        } catch (RuntimeException e) {
+            failures.add(getFailure(name, e));
+        }
+    }
+
+    /**
+     * Prepare the plans in parallel, each thread uses its own datastore session.
+     *
+     * @return The number of prepared plans.
+     */
+    private int prepare(Map<String, QueryPlan<?>> plans, List<String> failures) {
+        if (plans.isEmpty()) {
+            return 0;
+        }
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), plans.size());
+        List<List<Map.Entry<String, QueryPlan<?>>>> partitions = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            partitions.add(new ArrayList<Map.Entry<String, QueryPlan<?>>>());
+        }
+        int index = 0;
+        for (Map.Entry<String, QueryPlan<?>> entry : plans.entrySet()) {
+            partitions.get(index++ % threads).add(entry);
+        }
+        final AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "xo-query-warmup-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        List<Future<Integer>> futures = new ArrayList<>(threads);
+        final List<String> preparationFailures = Collections.synchronizedList(new ArrayList<String>());
+        for (final List<Map.Entry<String, QueryPlan<?>>> partition : partitions) {
+            futures.add(executor.submit(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    return prepare(partition, preparationFailures);
+                }
+            }));
+        }
+        executor.shutdown();
+        int prepared = 0;
+        try {
+            for (Future<Integer> future : futures) {
+                prepared += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new XOException("Interrupted during query warm-up.", e);
+        } catch (ExecutionException e) {
+            throw new XOException("Query warm-up failed.", e.getCause());
+        }
+        failures.addAll(preparationFailures);
+        return prepared;
+    }
+
+    private int prepare(List<Map.Entry<String, QueryPlan<?>>> partition, List<String> failures) {
+        int prepared = 0;
+        DatastoreSession<?, ?, ?, ?, ?, ?, ?, ?, ?> datastoreSession = datastore.createSession();
+        try {
+            DatastoreTransaction datastoreTransaction = datastoreSession.getDatastoreTransaction();
+            for (Map.Entry<String, QueryPlan<?>> entry : partition) {
+                if (datastoreTransaction != null) {
+                    datastoreTransaction.begin();
+                }
+                try {
+                    if (entry.getValue().prepare(queryLanguagePluginRepository, datastoreSession)) {
+                        prepared++;
+                    }
+                } catch (RuntimeException | LinkageError e) {
+                    failures.add(getFailure(entry.getKey(), e));
+                } finally {
+                    if (datastoreTransaction != null) {
+                        datastoreTransaction.rollback();
+                    }
+                }
+            }
+        } finally {
+            datastoreSession.close();
+        }
+        return prepared;
+    }
+
+    private String getFailure(String name, Throwable e) {
+        return "Cannot prepare query of " + name + ": " + e.getMessage();
+    }
+}
@@ -0,0 +1,70 @@
+package com.buschmais.xo.impl.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit, miss and eviction counters of a cache.
+ */
+public class CacheStatistics {
+
+    private final boolean enabled;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param enabled If <code>false</code> nothing is counted.
+     */
+    public CacheStatistics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void hit() {
+        if (enabled) {
+            hits.incrementAndGet();
+        }
+    }
+
+    public void miss() {
+        if (enabled) {
+            misses.incrementAndGet();
+        }
+    }
+
+    public void eviction() {
+        if (enabled) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Return the ratio of hits to all lookups.
+     *
+     * @return The hit ratio, <code>0</code> if no lookup has been recorded.
+     */
+    public double getHitRatio() {
+        long currentHits = hits.get();
+        long lookups = currentHits + misses.get();
+        return lookups > 0 ? (double) currentHits / lookups : 0;
+    }
+
+    public void reset() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+}
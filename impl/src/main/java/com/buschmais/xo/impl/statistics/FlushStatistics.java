@@ -0,0 +1,47 @@
+package com.buschmais.xo.impl.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the instances which have been flushed or skipped as they have not been modified.
+ */
+public class FlushStatistics {
+
+    private final boolean enabled;
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param enabled If <code>false</code> nothing is counted.
+     */
+    public FlushStatistics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void flushed() {
+        if (enabled) {
+            flushed.incrementAndGet();
+        }
+    }
+
+    public void skipped() {
+        if (enabled) {
+            skipped.incrementAndGet();
+        }
+    }
+
+    public long getFlushed() {
+        return flushed.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public void reset() {
+        flushed.set(0);
+        skipped.set(0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.buschmais.xo.impl.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Acquisition, contention and wait time counters of the locks used to synchronize concurrent access to sessions.
+ */
+public class LockStatistics {
+
+    private final boolean enabled;
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong contentions = new AtomicLong();
+    private final AtomicLong waitTime = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param enabled If <code>false</code> nothing is counted.
+     */
+    public LockStatistics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Acquire a lock, a contention and the time waited for the lock are recorded if it is not immediately available.
+     *
+     * @param lock The lock.
+     */
+    public void lock(Lock lock) {
+        if (!enabled) {
+            lock.lock();
+            return;
+        }
+        acquisitions.incrementAndGet();
+        if (!lock.tryLock()) {
+            contentions.incrementAndGet();
+            long start = System.nanoTime();
+            lock.lock();
+            waitTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.get();
+    }
+
+    public long getContentions() {
+        return contentions.get();
+    }
+
+    /**
+     * Return the accumulated time threads have been waiting for locks.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getWaitTime() {
+        return waitTime.get();
+    }
+
+    public void reset() {
+        acquisitions.set(0);
+        contentions.set(0);
+        waitTime.set(0);
+    }
+}
@@ -0,0 +1,232 @@
+package com.buschmais.xo.impl.statistics;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.spi.datastore.DatastorePlanCacheStatistics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Implementation of the {@link XOStatisticsMXBean}, the statistics are shared by all sessions of an
+ * {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>Statistics are collected and registered as MBean only if the property {@link #PROPERTY} of the
+ * {@link com.buschmais.xo.api.bootstrap.XOUnit} is set to <code>true</code>. The plan cache statistics are provided by the datastore if it
+ * implements {@link DatastorePlanCacheStatistics}, otherwise they are reported as <code>0</code>.</p>
+ */
+public class XOStatistics implements XOStatisticsMXBean {
+
+    /**
+     * The name of the property enabling statistics.
+     */
+    public static final String PROPERTY = "xo.statistics";
+
+    private final XOUnit xoUnit;
+    private final boolean enabled;
+    private final CacheStatistics entityCacheStatistics;
+    private final CacheStatistics relationCacheStatistics;
+    private final CacheStatistics secondLevelCacheStatistics;
+    private final FlushStatistics flushStatistics;
+    private final LockStatistics lockStatistics;
+    private final DatastorePlanCacheStatistics planCacheStatistics;
+    private boolean registered = false;
+
+    /**
+     * Constructor.
+     *
+     * @param xoUnit The {@link com.buschmais.xo.api.bootstrap.XOUnit}.
+     */
+    public XOStatistics(XOUnit xoUnit) {
+        this(xoUnit, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param xoUnit              The {@link com.buschmais.xo.api.bootstrap.XOUnit}.
+     * @param planCacheStatistics The plan cache statistics of the datastore, may be <code>null</code>.
+     */
+    public XOStatistics(XOUnit xoUnit, DatastorePlanCacheStatistics planCacheStatistics) {
+        this.xoUnit = xoUnit;
+        this.planCacheStatistics = planCacheStatistics;
+        this.enabled = xoUnit.getProperties() != null && Boolean.valueOf(xoUnit.getProperties().getProperty(PROPERTY));
+        this.entityCacheStatistics = new CacheStatistics(enabled);
+        this.relationCacheStatistics = new CacheStatistics(enabled);
+        this.secondLevelCacheStatistics = new CacheStatistics(enabled);
+        this.flushStatistics = new FlushStatistics(enabled);
+        this.lockStatistics = new LockStatistics(enabled);
+    }
+
+    public CacheStatistics getEntityCacheStatistics() {
+        return entityCacheStatistics;
+    }
+
+    public CacheStatistics getRelationCacheStatistics() {
+        return relationCacheStatistics;
+    }
+
+    public CacheStatistics getSecondLevelCacheStatistics() {
+        return secondLevelCacheStatistics;
+    }
+
+    public FlushStatistics getFlushStatistics() {
+        return flushStatistics;
+    }
+
+    public LockStatistics getLockStatistics() {
+        return lockStatistics;
+    }
+
+    @Override
+    public long getEntityCacheHits() {
+        return entityCacheStatistics.getHits();
+    }
+
+    @Override
+    public long getEntityCacheMisses() {
+        return entityCacheStatistics.getMisses();
+    }
+
+    @Override
+    public long getEntityCacheEvictions() {
+        return entityCacheStatistics.getEvictions();
+    }
+
+    @Override
+    public double getEntityCacheHitRatio() {
+        return entityCacheStatistics.getHitRatio();
+    }
+
+    @Override
+    public long getRelationCacheHits() {
+        return relationCacheStatistics.getHits();
+    }
+
+    @Override
+    public long getRelationCacheMisses() {
+        return relationCacheStatistics.getMisses();
+    }
+
+    @Override
+    public long getRelationCacheEvictions() {
+        return relationCacheStatistics.getEvictions();
+    }
+
+    @Override
+    public double getRelationCacheHitRatio() {
+        return relationCacheStatistics.getHitRatio();
+    }
+
+    @Override
+    public long getSecondLevelCacheHits() {
+        return secondLevelCacheStatistics.getHits();
+    }
+
+    @Override
+    public long getSecondLevelCacheMisses() {
+        return secondLevelCacheStatistics.getMisses();
+    }
+
+    @Override
+    public long getSecondLevelCacheEvictions() {
+        return secondLevelCacheStatistics.getEvictions();
+    }
+
+    @Override
+    public long getFlushedInstances() {
+        return flushStatistics.getFlushed();
+    }
+
+    @Override
+    public long getSkippedInstances() {
+        return flushStatistics.getSkipped();
+    }
+
+    @Override
+    public long getLockAcquisitions() {
+        return lockStatistics.getAcquisitions();
+    }
+
+    @Override
+    public long getLockContentions() {
+        return lockStatistics.getContentions();
+    }
+
+    @Override
+    public long getLockWaitTimeNanos() {
+        return lockStatistics.getWaitTime();
+    }
+
+    @Override
+    public long getDatastorePlanCacheHits() {
+        return planCacheStatistics != null ? planCacheStatistics.getPlanCacheHits() : 0;
+    }
+
+    @Override
+    public long getDatastorePlanCacheMisses() {
+        return planCacheStatistics != null ? planCacheStatistics.getPlanCacheMisses() : 0;
+    }
+
+    @Override
+    public long getDatastorePlanCacheFlushes() {
+        return planCacheStatistics != null ? planCacheStatistics.getPlanCacheFlushes() : 0;
+    }
+
+    @Override
+    public void reset() {
+        entityCacheStatistics.reset();
+        relationCacheStatistics.reset();
+        secondLevelCacheStatistics.reset();
+        flushStatistics.reset();
+        lockStatistics.reset();
+        if (planCacheStatistics != null) {
+            planCacheStatistics.resetPlanCacheStatistics();
+        }
+    }
+
+    /**
+     * Register the MBean if statistics are enabled.
+     */
+    public void register() {
+        if (enabled) {
+            ObjectName objectName = getObjectName();
+            try {
+                getMBeanServer().registerMBean(this, objectName);
+                registered = true;
+            } catch (JMException e) {
+                throw new XOException("Cannot register statistics MBean for object name " + objectName, e);
+            }
+        }
+    }
+
+    /**
+     * Unregister the MBean if it has been registered by {@link #register()}, i.e. an MBean registered by another factory using the same
+     * unit name is not affected.
+     */
+    public void unregister() {
+        if (registered) {
+            ObjectName objectName = getObjectName();
+            try {
+                getMBeanServer().unregisterMBean(objectName);
+                registered = false;
+            } catch (JMException e) {
+                throw new XOException("Cannot unregister statistics MBean for object name " + objectName, e);
+            }
+        }
+    }
+
+    private MBeanServer getMBeanServer() {
+        return ManagementFactory.getPlatformMBeanServer();
+    }
+
+    private ObjectName getObjectName() {
+        try {
+            return new ObjectName("com.buschmais.xo", "xo-unit", xoUnit.getName());
+        } catch (MalformedObjectNameException e) {
+            throw new XOException("Cannot create object name for XO unit " + xoUnit.getName(), e);
+        }
+    }
+}
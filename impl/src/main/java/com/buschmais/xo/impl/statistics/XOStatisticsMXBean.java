@@ -0,0 +1,48 @@
+package com.buschmais.xo.impl.statistics;
+
+/**
+ * Management interface providing runtime statistics of an {@link com.buschmais.xo.api.XOManagerFactory}.
+ */
+public interface XOStatisticsMXBean {
+
+    long getEntityCacheHits();
+
+    long getEntityCacheMisses();
+
+    long getEntityCacheEvictions();
+
+    double getEntityCacheHitRatio();
+
+    long getRelationCacheHits();
+
+    long getRelationCacheMisses();
+
+    long getRelationCacheEvictions();
+
+    double getRelationCacheHitRatio();
+
+    long getSecondLevelCacheHits();
+
+    long getSecondLevelCacheMisses();
+
+    long getSecondLevelCacheEvictions();
+
+    long getFlushedInstances();
+
+    long getSkippedInstances();
+
+    long getLockAcquisitions();
+
+    long getLockContentions();
+
+    long getLockWaitTimeNanos();
+
+    long getDatastorePlanCacheHits();
+
+    long getDatastorePlanCacheMisses();
+
+    long getDatastorePlanCacheFlushes();
+
+    void reset();
+
+}
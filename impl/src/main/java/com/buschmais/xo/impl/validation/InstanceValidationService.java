@@ -5,6 +5,7 @@ import com.buschmais.xo.impl.cache.TransactionalCache;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
 import javax.validation.ValidatorFactory;
+import javax.validation.metadata.BeanDescriptor;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -40,6 +41,32 @@ public class InstanceValidationService {
         return validator != null ? validator.validate(instance) : Collections.<ConstraintViolation<Object>>emptySet();
     }
 
+    /**
+     * Validate the given properties of an instance.
+     * <p>The instance is validated as a whole if its type declares class level constraints.</p>
+     *
+     * @param instance      The instance.
+     * @param propertyNames The names of the properties to validate.
+     * @return The constraint violations.
+     */
+    public Set<ConstraintViolation<Object>> validate(Object instance, Iterable<String> propertyNames) {
+        Validator validator = getValidator();
+        if (validator == null) {
+            return Collections.emptySet();
+        }
+        BeanDescriptor beanDescriptor = validator.getConstraintsForClass(instance.getClass());
+        if (beanDescriptor.hasConstraints()) {
+            return validator.validate(instance);
+        }
+        Set<ConstraintViolation<Object>> violations = new HashSet<>();
+        for (String propertyName : propertyNames) {
+            if (beanDescriptor.getConstraintsForProperty(propertyName) != null) {
+                violations.addAll(validator.validateProperty(instance, propertyName));
+            }
+        }
+        return violations;
+    }
+
     private Validator getValidator() {
         return validatorFactory != null ? validatorFactory.getValidator() : null;
     }
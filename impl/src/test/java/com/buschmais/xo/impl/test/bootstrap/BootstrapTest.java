@@ -37,5 +37,7 @@ public class BootstrapTest {
         assertThat(xoUnit.getConcurrencyMode(), equalTo(MULTITHREADED));
         assertThat(xoUnit.getDefaultTransactionAttribute(), equalTo(MANDATORY));
         assertThat(xoUnit.getProperties(), hasEntry(equalTo((Object) "foo"), equalTo((Object) "bar")));
+        assertThat(xoUnit.getProperties(), hasEntry(equalTo((Object) "xo.cache.read.policy"), equalTo((Object) "LRU")));
+        assertThat(xoUnit.getProperties(), hasEntry(equalTo((Object) "xo.cache.read.size"), equalTo((Object) "500")));
     }
 }
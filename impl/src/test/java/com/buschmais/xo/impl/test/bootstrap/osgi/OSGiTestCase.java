@@ -30,6 +30,7 @@ public class OSGiTestCase implements ConfigurationFactory {
                 mavenBundle("ch.qos.logback", "logback-core", "1.0.6"), //
                 mavenBundle("ch.qos.logback", "logback-classic", "1.0.6"), //
                 mavenBundle("com.google.guava", "guava", "15.0"), //
+                mavenBundle("org.ow2.asm", "asm", "9.7"), //
                 bundle("reference:file:target/classes"));
         return OptionUtils.combine(xoBundles, CoreOptions.junitBundles());
     }
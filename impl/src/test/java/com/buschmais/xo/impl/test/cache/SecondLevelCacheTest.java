@@ -0,0 +1,30 @@
+package com.buschmais.xo.impl.test.cache;
+
+import com.buschmais.xo.impl.cache.SecondLevelCache;
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class SecondLevelCacheTest {
+
+    @Test
+    public void staleStateIsDiscarded() {
+        SecondLevelCache<Long, String> cache = new SecondLevelCache<>(100, new CacheStatistics(false));
+        long generation = cache.getGeneration();
+        // another session commits a modification while the state is read from the datastore
+        cache.invalidate(Collections.singleton(1L));
+        assertThat(cache.put(1L, Collections.singleton("A"), generation), nullValue());
+        assertThat(cache.get(1L), nullValue());
+        generation = cache.getGeneration();
+        SecondLevelCache.Entry<String> entry = cache.put(1L, Collections.singleton("A"), generation);
+        assertThat(entry, notNullValue());
+        assertThat(cache.get(1L), sameInstance(entry));
+        assertThat(entry.getDiscriminators(), contains("A"));
+        cache.invalidate(Collections.singleton(1L));
+        assertThat(cache.get(1L), nullValue());
+    }
+}
@@ -0,0 +1,102 @@
+package com.buschmais.xo.impl.test.cache;
+
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.impl.cache.ReadCacheConfiguration;
+import com.buschmais.xo.impl.cache.ReadCachePolicy;
+import com.buschmais.xo.impl.cache.TransactionalCache;
+import com.buschmais.xo.impl.statistics.CacheStatistics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.buschmais.xo.impl.cache.TransactionalCache.Mode.READ;
+import static com.buschmais.xo.impl.cache.TransactionalCache.Mode.WRITE;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class TransactionalCacheTest {
+
+    private static final int COUNT = 10000;
+
+    @Test
+    public void longIds() {
+        TransactionalCache<Long> cache = new TransactionalCache<>();
+        List<Object> instances = new ArrayList<>();
+        for (long id = 0; id < COUNT; id++) {
+            Object instance = new Object();
+            instances.add(instance);
+            cache.put(id * 31, instance, id % 2 == 0 ? WRITE : READ);
+        }
+        assertThat(cache.readInstances().size(), equalTo(COUNT));
+        assertThat(cache.writtenInstances().size(), equalTo(COUNT / 2));
+        for (long id = 0; id < COUNT; id++) {
+            assertThat(cache.get(id * 31, READ), sameInstance(instances.get((int) id)));
+        }
+        for (long id = 0; id < COUNT; id += 3) {
+            cache.remove(id * 31);
+        }
+        for (long id = 0; id < COUNT; id++) {
+            Object expected = id % 3 == 0 ? null : instances.get((int) id);
+            assertThat(cache.get(id * 31, READ), equalTo(expected));
+        }
+        assertThat(cache.get(-1L, READ), nullValue());
+    }
+
+    @Test
+    public void writeOnRead() {
+        TransactionalCache<Long> cache = new TransactionalCache<>();
+        Object instance = new Object();
+        cache.put(1L, instance, READ);
+        assertThat(cache.writtenInstances().isEmpty(), equalTo(true));
+        assertThat(cache.get(1L, WRITE), sameInstance(instance));
+        assertThat(cache.writtenInstances().contains(instance), equalTo(true));
+        cache.clear();
+        assertThat(cache.writtenInstances().isEmpty(), equalTo(true));
+        assertThat(cache.get(1L, READ), sameInstance(instance));
+    }
+
+    @Test
+    public void genericIds() {
+        TransactionalCache<String> cache = new TransactionalCache<>();
+        assertThat(cache.get("a", READ), nullValue());
+        Object instance = new Object();
+        cache.put("a", instance, WRITE);
+        assertThat(cache.get("a", READ), sameInstance(instance));
+        assertThat(cache.writtenInstances().contains(instance), equalTo(true));
+        cache.remove("a");
+        assertThat(cache.get("a", READ), nullValue());
+    }
+
+    @Test
+    public void lruEviction() {
+        ReadCacheConfiguration configuration = new ReadCacheConfiguration(ReadCachePolicy.LRU, 1);
+        for (boolean longIds : new boolean[]{true, false}) {
+            TransactionalCache<Object> cache = new TransactionalCache<>(configuration, new CacheStatistics(false));
+            Object id1 = longIds ? (Object) 1L : "1";
+            Object id2 = longIds ? (Object) 2L : "2";
+            Object instance1 = new Object();
+            Object instance2 = new Object();
+            cache.put(id1, instance1, READ);
+            cache.put(id2, instance2, READ);
+            assertThat(cache.get(id1, READ), sameInstance(instance1));
+            assertThat(cache.get(id2, READ), sameInstance(instance2));
+            assertThat(cache.readInstances().size(), equalTo(2));
+            cache.remove(id1);
+            assertThat(cache.get(id1, READ), nullValue());
+            assertThat(cache.readInstances().size(), equalTo(1));
+        }
+    }
+
+    @Test
+    public void concurrencyModes() {
+        for (ConcurrencyMode concurrencyMode : ConcurrencyMode.values()) {
+            TransactionalCache<Long> cache = TransactionalCache.create(concurrencyMode, ReadCacheConfiguration.DEFAULT, new CacheStatistics(false));
+            boolean concurrent = ConcurrencyMode.READ_WRITE.equals(concurrencyMode) || ConcurrencyMode.STRIPED.equals(concurrencyMode);
+            assertThat(cache.getClass().equals(TransactionalCache.class), equalTo(!concurrent));
+            Object instance = new Object();
+            cache.put(1L, instance, WRITE);
+            assertThat(cache.get(1L, READ), sameInstance(instance));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.buschmais.xo.impl.test.instancelistener;
+
+import com.buschmais.xo.api.ChangeSet;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.annotation.*;
+import com.buschmais.xo.impl.instancelistener.InstanceListenerMethods;
+import com.buschmais.xo.impl.instancelistener.InstanceListenerService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class InstanceListenerServiceTest {
+
+    private static final List<String> EVENTS = new ArrayList<>();
+
+    private InstanceListenerMethods instanceListenerMethods;
+
+    @Before
+    public void createMethods() {
+        EVENTS.clear();
+        instanceListenerMethods = new InstanceListenerMethods(Arrays.<Class<?>>asList(Listener.class, TypedListener.class));
+    }
+
+    @Test
+    public void lifecycleMethods() {
+        InstanceListenerService instanceListenerService = new InstanceListenerService(instanceListenerMethods);
+        String instance = "instance";
+        instanceListenerService.postCreate(instance);
+        instanceListenerService.preUpdate(instance);
+        instanceListenerService.postUpdate(instance);
+        instanceListenerService.preDelete(instance);
+        instanceListenerService.postDelete(instance);
+        instanceListenerService.postLoad(instance);
+        assertThat(instanceListenerService.hasPostCommitListeners(), equalTo(true));
+        instanceListenerService.postCommit(changeSet());
+        assertThat(EVENTS, contains("postCreate", "typedPostCreate", "preUpdate", "postUpdate", "preDelete", "postDelete", "postLoad", "postCommit"));
+        EVENTS.clear();
+        instanceListenerService.postCreate(1);
+        assertThat(EVENTS, contains("postCreate"));
+    }
+
+    @Test
+    public void sharedMethods() {
+        InstanceListenerService session1 = new InstanceListenerService(instanceListenerMethods);
+        InstanceListenerService session2 = new InstanceListenerService(instanceListenerMethods);
+        session1.postLoad("a");
+        session2.postLoad("b");
+        assertThat(EVENTS, contains("postLoad", "postLoad"));
+        assertThat(Listener.INSTANCES.size(), greaterThanOrEqualTo(2));
+        assertThat(Listener.INSTANCES.get(Listener.INSTANCES.size() - 1), not(sameInstance(Listener.INSTANCES.get(Listener.INSTANCES.size() - 2))));
+    }
+
+    @Test
+    public void registeredListener() {
+        InstanceListenerService instanceListenerService = new InstanceListenerService(new InstanceListenerMethods(Collections.<Class<?>>emptyList()));
+        assertThat(instanceListenerService.hasPostCommitListeners(), equalTo(false));
+        instanceListenerService.registerInstanceListener(new TypedListener());
+        instanceListenerService.postCreate("a");
+        instanceListenerService.postCreate(1);
+        assertThat(EVENTS, contains("typedPostCreate"));
+        assertThat(instanceListenerService.hasPostCommitListeners(), equalTo(false));
+    }
+
+    @Test
+    public void exceptions() {
+        InstanceListenerService instanceListenerService = new InstanceListenerService(new InstanceListenerMethods(Arrays.<Class<?>>asList(FailingListener.class)));
+        try {
+            instanceListenerService.postCreate(new IllegalStateException());
+            fail("Expecting a " + XOException.class.getName());
+        } catch (XOException e) {
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        }
+        try {
+            instanceListenerService.postCreate(new AssertionError());
+            fail("Expecting an " + AssertionError.class.getName());
+        } catch (AssertionError e) {
+        }
+    }
+
+    @Test(expected = XOException.class)
+    public void invalidPostCommitMethod() {
+        new InstanceListenerMethods(Arrays.<Class<?>>asList(InvalidPostCommitListener.class));
+    }
+
+    private ChangeSet changeSet() {
+        return (ChangeSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ChangeSet.class}, (proxy, method, args) -> null);
+    }
+
+    public static class Listener {
+
+        private static final List<Listener> INSTANCES = new ArrayList<>();
+
+        public Listener() {
+            INSTANCES.add(this);
+        }
+
+        @PostCreate
+        public void postCreate(Object instance) {
+            EVENTS.add("postCreate");
+        }
+
+        @PreUpdate
+        public void preUpdate(Object instance) {
+            EVENTS.add("preUpdate");
+        }
+
+        @PostUpdate
+        public void postUpdate(Object instance) {
+            EVENTS.add("postUpdate");
+        }
+
+        @PreDelete
+        public void preDelete(Object instance) {
+            EVENTS.add("preDelete");
+        }
+
+        @PostDelete
+        public void postDelete(Object instance) {
+            EVENTS.add("postDelete");
+        }
+
+        @PostLoad
+        public void postLoad(Object instance) {
+            EVENTS.add("postLoad");
+        }
+
+        @PostCommit
+        public void postCommit(ChangeSet changeSet) {
+            EVENTS.add("postCommit");
+        }
+    }
+
+    public static class TypedListener {
+
+        @PostCreate
+        public void postCreate(String instance) {
+            EVENTS.add("typedPostCreate");
+        }
+    }
+
+    public static class FailingListener {
+
+        @PostCreate
+        public void postCreate(Throwable throwable) throws Throwable {
+            throw throwable;
+        }
+    }
+
+    public static class InvalidPostCommitListener {
+
+        @PostCommit
+        public void postCommit(String changeSet) {
+        }
+    }
+}
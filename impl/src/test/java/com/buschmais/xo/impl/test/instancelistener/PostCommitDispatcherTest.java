@@ -0,0 +1,77 @@
+package com.buschmais.xo.impl.test.instancelistener;
+
+import com.buschmais.xo.api.ChangeSet;
+import com.buschmais.xo.api.annotation.PostCommit;
+import com.buschmais.xo.impl.instancelistener.InstanceListenerMethods;
+import com.buschmais.xo.impl.instancelistener.InstanceListenerService;
+import com.buschmais.xo.impl.instancelistener.PostCommitDispatcher;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class PostCommitDispatcherTest {
+
+    private static final int DISPATCHES_PER_DELIVERY = 3;
+
+    private static final int NESTED_DELIVERIES = 10;
+
+    @Test(timeout = 10000)
+    public void dispatchFromListener() throws InterruptedException {
+        PostCommitDispatcher dispatcher = new PostCommitDispatcher(1, 1);
+        InstanceListenerService instanceListenerService = new InstanceListenerService(new InstanceListenerMethods(Collections.<Class<?>>emptyList()));
+        DispatchingListener listener = new DispatchingListener(dispatcher, instanceListenerService, NESTED_DELIVERIES * DISPATCHES_PER_DELIVERY + 1);
+        instanceListenerService.registerInstanceListener(listener);
+        dispatcher.dispatch(instanceListenerService, changeSet());
+        assertThat(listener.delivered.await(5, TimeUnit.SECONDS), equalTo(true));
+        dispatcher.close();
+    }
+
+    @Test
+    public void dispatchAfterClose() {
+        PostCommitDispatcher dispatcher = new PostCommitDispatcher(1, 1);
+        InstanceListenerService instanceListenerService = new InstanceListenerService(new InstanceListenerMethods(Collections.<Class<?>>emptyList()));
+        DispatchingListener listener = new DispatchingListener(dispatcher, instanceListenerService, 1);
+        instanceListenerService.registerInstanceListener(listener);
+        dispatcher.close();
+        dispatcher.dispatch(instanceListenerService, changeSet());
+        assertThat(listener.delivered.getCount(), equalTo(1L));
+    }
+
+    private static ChangeSet changeSet() {
+        return (ChangeSet) Proxy.newProxyInstance(PostCommitDispatcherTest.class.getClassLoader(), new Class<?>[]{ChangeSet.class}, (proxy, method, args) -> null);
+    }
+
+    /**
+     * Listener dispatching further change sets from the threads of the dispatcher, e.g. by committing transactions.
+     */
+    public static class DispatchingListener {
+
+        private final PostCommitDispatcher dispatcher;
+        private final InstanceListenerService instanceListenerService;
+        private final AtomicInteger deliveries = new AtomicInteger();
+        private final CountDownLatch delivered;
+
+        public DispatchingListener(PostCommitDispatcher dispatcher, InstanceListenerService instanceListenerService, int expectedDeliveries) {
+            this.dispatcher = dispatcher;
+            this.instanceListenerService = instanceListenerService;
+            this.delivered = new CountDownLatch(expectedDeliveries);
+        }
+
+        @PostCommit
+        public void postCommit(ChangeSet changeSet) {
+            if (deliveries.incrementAndGet() <= NESTED_DELIVERIES) {
+                for (int i = 0; i < DISPATCHES_PER_DELIVERY; i++) {
+                    dispatcher.dispatch(instanceListenerService, changeSet());
+                }
+            }
+            delivered.countDown();
+        }
+    }
+}
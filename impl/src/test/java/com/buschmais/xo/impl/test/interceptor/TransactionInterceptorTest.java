@@ -0,0 +1,204 @@
+package com.buschmais.xo.impl.test.interceptor;
+
+import com.buschmais.xo.api.PreparedQuery;
+import com.buschmais.xo.api.Query;
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.XOTransaction;
+import com.buschmais.xo.impl.interceptor.InvocationMetadataCache;
+import com.buschmais.xo.impl.interceptor.TransactionInterceptor;
+import com.buschmais.xo.spi.interceptor.InterceptorFactory;
+import com.buschmais.xo.spi.interceptor.InvocationContext;
+import com.buschmais.xo.spi.interceptor.InvocationPlan;
+import com.buschmais.xo.spi.interceptor.InvocationPlanCache;
+import com.buschmais.xo.spi.interceptor.MethodAwareInterceptor;
+import com.buschmais.xo.spi.interceptor.XOInterceptor;
+import com.buschmais.xo.spi.metadata.type.TypeMetadata;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.buschmais.xo.api.Transaction.TransactionAttribute.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class TransactionInterceptorTest {
+
+    public interface Service {
+
+        String read();
+
+        @Transaction(NOT_SUPPORTED)
+        String unsupported();
+    }
+
+    @Test
+    public void transactionAttributes() throws NoSuchMethodException {
+        InvocationMetadataCache invocationMetadataCache = new InvocationMetadataCache(Collections.<TypeMetadata>emptyList(), MANDATORY);
+        Method read = Service.class.getMethod("read");
+        Method unsupported = Service.class.getMethod("unsupported");
+        assertThat(invocationMetadataCache.get(read).getTransactionAttribute(), equalTo(MANDATORY));
+        assertThat(invocationMetadataCache.get(unsupported).getTransactionAttribute(), equalTo(NOT_SUPPORTED));
+        assertThat(invocationMetadataCache.get(read), sameInstance(invocationMetadataCache.get(read)));
+    }
+
+    @Test
+    public void queryExecutionIsNotReading() throws NoSuchMethodException {
+        InvocationMetadataCache invocationMetadataCache = new InvocationMetadataCache(Collections.<TypeMetadata>emptyList(), REQUIRES);
+        assertThat(invocationMetadataCache.get(XOManager.class.getMethod("createQuery", String.class)).isRead(), equalTo(true));
+        assertThat(invocationMetadataCache.get(Query.class.getMethod("withParameter", String.class, Object.class)).isRead(), equalTo(true));
+        assertThat(invocationMetadataCache.get(Query.class.getMethod("execute")).isRead(), equalTo(false));
+        assertThat(invocationMetadataCache.get(PreparedQuery.class.getMethod("execute")).isRead(), equalTo(false));
+        assertThat(invocationMetadataCache.get(Query.Result.class.getMethod("iterator")).isRead(), equalTo(true));
+        assertThat(invocationMetadataCache.get(Query.Result.class.getMethod("getSingleResult")).isRead(), equalTo(true));
+    }
+
+    @Test
+    public void planCachingAndOrder() throws Throwable {
+        List<String> events = new ArrayList<>();
+        RecordingTransaction transaction = new RecordingTransaction(events);
+        InvocationMetadataCache invocationMetadataCache = new InvocationMetadataCache(Collections.<TypeMetadata>emptyList(), REQUIRES);
+        InvocationPlanCache invocationPlanCache = new InvocationPlanCache();
+        RecordingInterceptor recordingInterceptor = new RecordingInterceptor(events);
+        InterceptorFactory interceptorFactory = new InterceptorFactory(Arrays.asList(recordingInterceptor, new TransactionInterceptor(transaction, invocationMetadataCache)), invocationPlanCache);
+        Method read = Service.class.getMethod("read");
+        Method unsupported = Service.class.getMethod("unsupported");
+        InvocationPlan plan = interceptorFactory.getPlan(read);
+        assertThat(interceptorFactory.getPlan(read), sameInstance(plan));
+        assertThat(recordingInterceptor.methods, contains(read));
+        Service service = new RecordingService(events);
+        assertThat(interceptorFactory.invoke(plan, service, null), equalTo((Object) "read"));
+        assertThat(interceptorFactory.invoke(interceptorFactory.getPlan(read), service, null), equalTo((Object) "read"));
+        assertThat(recordingInterceptor.methods, contains(read));
+        assertThat(events, contains("intercept", "begin", "read", "commit", "intercept", "begin", "read", "commit"));
+        // the invocation context is reused by subsequent invocations of the same thread
+        assertThat(recordingInterceptor.contexts.size(), equalTo(2));
+        assertThat(recordingInterceptor.contexts.get(1), sameInstance(recordingInterceptor.contexts.get(0)));
+        events.clear();
+        assertThat(interceptorFactory.invoke(interceptorFactory.getPlan(unsupported), service, null), equalTo((Object) "unsupported"));
+        assertThat(events, contains("intercept", "unsupported"));
+        // a second session shares the plans but applies its own interceptors
+        List<String> otherEvents = new ArrayList<>();
+        RecordingTransaction otherTransaction = new RecordingTransaction(otherEvents);
+        RecordingInterceptor otherRecordingInterceptor = new RecordingInterceptor(otherEvents);
+        InterceptorFactory otherInterceptorFactory = new InterceptorFactory(Arrays.asList(otherRecordingInterceptor, new TransactionInterceptor(otherTransaction, invocationMetadataCache)), invocationPlanCache);
+        assertThat(otherInterceptorFactory.getPlan(read), sameInstance(plan));
+        assertThat(otherRecordingInterceptor.methods, empty());
+        events.clear();
+        assertThat(otherInterceptorFactory.invoke(plan, new RecordingService(otherEvents), null), equalTo((Object) "read"));
+        assertThat(otherEvents, contains("intercept", "begin", "read", "commit"));
+        assertThat(events, empty());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void deprecatedInvocationContext() throws Throwable {
+        List<String> events = new ArrayList<>();
+        Method read = Service.class.getMethod("read");
+        InvocationContext invocationContext = new InvocationContext(new RecordingService(events), read, null, new XOInterceptor[]{new RecordingInterceptor(events)});
+        assertThat(invocationContext.getMethod(), equalTo(read));
+        assertThat(invocationContext.proceed(), equalTo((Object) "read"));
+        assertThat(events, contains("intercept", "read"));
+    }
+
+    private static class RecordingService implements Service {
+
+        private final List<String> events;
+
+        private RecordingService(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public String read() {
+            events.add("read");
+            return "read";
+        }
+
+        @Override
+        public String unsupported() {
+            events.add("unsupported");
+            return "unsupported";
+        }
+    }
+
+    private static class RecordingInterceptor implements MethodAwareInterceptor {
+
+        private final List<String> events;
+        private final List<Method> methods = new ArrayList<>();
+        private final List<InvocationContext> contexts = new ArrayList<>();
+
+        private RecordingInterceptor(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public Object getMethodAttribute(Method method) {
+            methods.add(method);
+            return method.getName();
+        }
+
+        @Override
+        public boolean isActive() {
+            return true;
+        }
+
+        @Override
+        public Object invoke(InvocationContext context) throws Throwable {
+            events.add("intercept");
+            return context.proceed();
+        }
+
+        @Override
+        public Object invoke(InvocationContext context, Object methodAttribute) throws Throwable {
+            assertThat(methodAttribute, equalTo((Object) context.getMethod().getName()));
+            contexts.add(context);
+            return invoke(context);
+        }
+    }
+
+    private static class RecordingTransaction implements XOTransaction {
+
+        private final List<String> events;
+        private boolean active = false;
+
+        private RecordingTransaction(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void begin() {
+            events.add("begin");
+            active = true;
+        }
+
+        @Override
+        public void commit() {
+            events.add("commit");
+            active = false;
+        }
+
+        @Override
+        public void rollback() {
+            events.add("rollback");
+            active = false;
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public void registerSynchronization(Synchronization synchronization) {
+        }
+
+        @Override
+        public void unregisterSynchronization(Synchronization synchronization) {
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.json.impl.metadata.JsonNodeMetadata;
 import com.buschmais.xo.json.impl.metadata.JsonPropertyMetadata;
 import com.buschmais.xo.spi.datastore.DatastoreEntityManager;
+import com.buschmais.xo.spi.datastore.DatastorePropertyLookup;
 import com.buschmais.xo.spi.datastore.TypeMetadataSet;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
@@ -16,12 +17,15 @@ import org.codehaus.jackson.node.ObjectNode;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
-public class JsonEntityManager implements DatastoreEntityManager<UUID, ObjectNode, JsonNodeMetadata, String, JsonPropertyMetadata> {
+public class JsonEntityManager implements DatastoreEntityManager<UUID, ObjectNode, JsonNodeMetadata, String, JsonPropertyMetadata>,
+        DatastorePropertyLookup<ObjectNode, JsonPropertyMetadata> {
 
     private static final String ID_PROPERTY = "id";
     private static final String TYPES_PROPERTY = "types";
@@ -71,6 +75,15 @@ public class JsonEntityManager implements DatastoreEntityManager<UUID, ObjectNod
         return rootNode;
     }
 
+    @Override
+    public List<ObjectNode> createEntities(TypeMetadataSet<EntityTypeMetadata<JsonNodeMetadata>> types, Set<String> discriminators, List<Map<PrimitivePropertyMethodMetadata<JsonPropertyMetadata>, Object>> examples) {
+        List<ObjectNode> entities = new ArrayList<>(examples.size());
+        for (Map<PrimitivePropertyMethodMetadata<JsonPropertyMetadata>, Object> example : examples) {
+            entities.add(createEntity(types, discriminators, example));
+        }
+        return entities;
+    }
+
     @Override
     public void deleteEntity(ObjectNode entity) {
         File file = getFile(entity);
@@ -125,6 +138,12 @@ public class JsonEntityManager implements DatastoreEntityManager<UUID, ObjectNod
         return objectNode.get(metadata.getAnnotatedMethod().getName());
     }
 
+    @Override
+    public Object getPropertyOrAbsent(ObjectNode objectNode, PrimitivePropertyMethodMetadata<JsonPropertyMetadata> metadata) {
+        JsonNode value = objectNode.get(metadata.getAnnotatedMethod().getName());
+        return value != null ? value : ABSENT;
+    }
+
     /**
      * Return the file for the given root object node.
      *
@@ -2,14 +2,18 @@ package com.buschmais.xo.json.impl;
 
 import com.buschmais.xo.json.impl.metadata.JsonPropertyMetadata;
 import com.buschmais.xo.json.impl.metadata.JsonRelationMetadata;
+import com.buschmais.xo.spi.datastore.DatastorePropertyLookup;
 import com.buschmais.xo.spi.datastore.DatastoreRelationManager;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
 import org.codehaus.jackson.node.ObjectNode;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
-public class JsonRelationManager implements DatastoreRelationManager<ObjectNode, Long, JsonRelation, JsonRelationMetadata, String, JsonPropertyMetadata> {
+public class JsonRelationManager implements DatastoreRelationManager<ObjectNode, Long, JsonRelation, JsonRelationMetadata, String, JsonPropertyMetadata>,
+        DatastorePropertyLookup<JsonRelation, JsonPropertyMetadata> {
 
     @Override
     public boolean isRelation(Object o) {
@@ -52,6 +56,15 @@ public class JsonRelationManager implements DatastoreRelationManager<ObjectNode,
         return null;
     }
 
+    @Override
+    public List<JsonRelation> createRelations(List<ObjectNode> sources, RelationTypeMetadata<JsonRelationMetadata> metadata, RelationTypeMetadata.Direction direction, List<ObjectNode> targets, List<Map<PrimitivePropertyMethodMetadata<JsonPropertyMetadata>, Object>> examples) {
+        List<JsonRelation> relations = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            relations.add(createRelation(sources.get(i), metadata, direction, targets.get(i), examples.get(i)));
+        }
+        return relations;
+    }
+
     @Override
     public void deleteRelation(JsonRelation jsonRelation) {
     }
@@ -83,4 +96,9 @@ public class JsonRelationManager implements DatastoreRelationManager<ObjectNode,
     public Object getProperty(JsonRelation jsonRelation, PrimitivePropertyMethodMetadata<JsonPropertyMetadata> metadata) {
         return null;
     }
+
+    @Override
+    public Object getPropertyOrAbsent(JsonRelation jsonRelation, PrimitivePropertyMethodMetadata<JsonPropertyMetadata> metadata) {
+        return ABSENT;
+    }
 }
@@ -10,6 +10,6 @@ abstract class AbstractRemoteDatastoreFactory implements DatastoreFactory<RestNe
 
     @Override
     public RestNeo4jDatastore createGraphDatabaseService(URI uri, Properties properties) throws MalformedURLException {
-        return new RestNeo4jDatastore(uri.toURL().toExternalForm());
+        return new RestNeo4jDatastore(uri.toURL().toExternalForm(), properties);
     }
 }
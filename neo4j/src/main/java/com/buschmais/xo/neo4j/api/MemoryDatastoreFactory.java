@@ -2,6 +2,7 @@ package com.buschmais.xo.neo4j.api;
 
 import com.buschmais.xo.neo4j.impl.datastore.EmbeddedNeo4jDatastore;
 import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
 import org.neo4j.test.TestGraphDatabaseFactory;
 
 import java.net.URI;
@@ -11,7 +12,12 @@ public class MemoryDatastoreFactory implements DatastoreFactory<EmbeddedNeo4jDat
 
     @Override
     public EmbeddedNeo4jDatastore createGraphDatabaseService(URI uri, Properties properties) {
-        GraphDatabaseService graphDatabaseService = new TestGraphDatabaseFactory().newImpermanentDatabase();
+        GraphDatabaseBuilder databaseBuilder = new TestGraphDatabaseFactory().newImpermanentDatabaseBuilder();
+        Properties neo4jProperties = Neo4jPropertyHelper.getNeo4jProperties(properties);
+        for (String name : neo4jProperties.stringPropertyNames()) {
+            databaseBuilder.setConfig(name, neo4jProperties.getProperty(name));
+        }
+        GraphDatabaseService graphDatabaseService = databaseBuilder.newGraphDatabase();
         return new EmbeddedNeo4jDatastore(graphDatabaseService);
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package com.buschmais.xo.neo4j.impl.datastore;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.IndexedPropertyMetadata;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.NodeMetadata;
 import com.buschmais.xo.neo4j.impl.datastore.metadata.PropertyMetadata;
+import com.buschmais.xo.spi.datastore.DatastorePlanCacheStatistics;
 import com.buschmais.xo.spi.metadata.method.IndexedPropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
@@ -13,6 +14,8 @@ import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.schema.ConstraintDefinition;
 import org.neo4j.graphdb.schema.ConstraintType;
 import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,18 +23,72 @@ import java.util.Collection;
 
 /**
  * Abstract base implementation for embedded graph stores.
+ * <p>The Cypher {@link CypherExecutionEngine} and therefore its plan cache is shared by all sessions. The size of the plan cache is
+ * controlled by the setting <code>query_cache_size</code> of the graph database, e.g. by the XOUnit property
+ * <code>neo4j.query_cache_size</code>. The statistics of the plan cache are recorded by a listener which is registered at the
+ * {@link Monitors} of the graph database until the datastore is closed.</p>
  */
-public abstract class AbstractEmbeddedNeo4jDatastore extends AbstractNeo4jDatastore<EmbeddedNeo4jDatastoreSession> {
+public abstract class AbstractEmbeddedNeo4jDatastore extends AbstractNeo4jDatastore<EmbeddedNeo4jDatastoreSession> implements DatastorePlanCacheStatistics {
     private static final Logger LOGGER = LoggerFactory.getLogger(EmbeddedNeo4jDatastore.class);
     protected final GraphDatabaseService graphDatabaseService;
+    private final CypherExecutionEngine executionEngine;
+    private final CypherPlanCacheStatistics planCacheStatistics = new CypherPlanCacheStatistics();
+    private final Monitors monitors;
 
     public AbstractEmbeddedNeo4jDatastore(GraphDatabaseService graphDatabaseService) {
         this.graphDatabaseService = graphDatabaseService;
+        if (graphDatabaseService instanceof GraphDatabaseAPI) {
+            monitors = ((GraphDatabaseAPI) graphDatabaseService).getDependencyResolver().resolveDependency(Monitors.class);
+            monitors.addMonitorListener(planCacheStatistics);
+        } else {
+            monitors = null;
+        }
+        this.executionEngine = new CypherExecutionEngine(graphDatabaseService);
+    }
+
+    /**
+     * Remove the listener recording the plan cache statistics, it would otherwise be kept by a graph database which outlives the
+     * datastore.
+     */
+    @Override
+    public void close() {
+        if (monitors != null) {
+            monitors.removeMonitorListener(planCacheStatistics);
+        }
     }
 
     @Override
     public EmbeddedNeo4jDatastoreSession createSession() {
-        return new EmbeddedNeo4jDatastoreSession(graphDatabaseService);
+        return new EmbeddedNeo4jDatastoreSession(graphDatabaseService, executionEngine, planCacheStatistics);
+    }
+
+    /**
+     * Return the statistics of the Cypher plan cache.
+     *
+     * @return The statistics.
+     */
+    public CypherPlanCacheStatistics getPlanCacheStatistics() {
+        return planCacheStatistics;
+    }
+
+    @Override
+    public long getPlanCacheHits() {
+        return planCacheStatistics.getHits();
+    }
+
+    @Override
+    public long getPlanCacheMisses() {
+        return planCacheStatistics.getMisses();
+    }
+
+    @Override
+    public long getPlanCacheFlushes() {
+        return planCacheStatistics.getFlushes();
+    }
+
+    @Override
+    public void resetPlanCacheStatistics() {
+        planCacheStatistics.reset();
     }
 
     @Override
@@ -0,0 +1,52 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.neo4j.api.annotation.Cypher;
+import com.buschmais.xo.spi.datastore.DatastoreQueryRow;
+import com.buschmais.xo.spi.datastore.DatastoreRowQuery;
+
+import java.util.Map;
+
+/**
+ * Abstract base implementation of a Cypher query providing the map based results on top of the column indexed rows.
+ */
+public abstract class AbstractNeo4jCypherQuery implements DatastoreRowQuery<Cypher> {
+
+    @Override
+    public ResultIterator<Map<String, Object>> execute(Cypher query, Map<String, Object> parameters) {
+        return execute(query.value(), parameters);
+    }
+
+    @Override
+    public ResultIterator<Map<String, Object>> execute(String query, Map<String, Object> parameters) {
+        final ResultIterator<DatastoreQueryRow> iterator = executeRows(query, parameters);
+        return new ResultIterator<Map<String, Object>>() {
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                return iterator.next().toMap();
+            }
+
+            @Override
+            public void remove() {
+                throw new XOException("Remove operation is not supported for query results.");
+            }
+
+            @Override
+            public void close() {
+                iterator.close();
+            }
+        };
+    }
+
+    @Override
+    public ResultIterator<DatastoreQueryRow> executeRows(Cypher query, Map<String, Object> parameters) {
+        return executeRows(query.value(), parameters);
+    }
+}
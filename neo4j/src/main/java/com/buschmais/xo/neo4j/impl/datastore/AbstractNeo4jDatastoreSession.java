@@ -28,9 +28,13 @@ public abstract class AbstractNeo4jDatastoreSession<GDS extends GraphDatabaseSer
     private final Neo4jRelationManager relationManager;
 
     public AbstractNeo4jDatastoreSession(GDS graphDatabaseService) {
+        this(graphDatabaseService, new Neo4jEntityManager(graphDatabaseService), new Neo4jRelationManager());
+    }
+
+    protected AbstractNeo4jDatastoreSession(GDS graphDatabaseService, Neo4jEntityManager entityManager, Neo4jRelationManager relationManager) {
         this.graphDatabaseService = graphDatabaseService;
-        this.entityManager = new Neo4jEntityManager(graphDatabaseService);
-        this.relationManager = new Neo4jRelationManager();
+        this.entityManager = entityManager;
+        this.relationManager = relationManager;
     }
 
     @Override
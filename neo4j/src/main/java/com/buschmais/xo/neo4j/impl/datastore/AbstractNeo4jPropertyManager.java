@@ -1,6 +1,7 @@
 package com.buschmais.xo.neo4j.impl.datastore;
 
 import com.buschmais.xo.neo4j.impl.datastore.metadata.PropertyMetadata;
+import com.buschmais.xo.spi.datastore.DatastorePropertyLookup;
 import com.buschmais.xo.spi.datastore.DatastorePropertyManager;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import org.neo4j.graphdb.PropertyContainer;
@@ -10,7 +11,7 @@ import java.util.Map;
 /**
  * Abstract implementation of a {@link DatastorePropertyManager} for Neo4j.
  */
-public abstract class AbstractNeo4jPropertyManager<Element extends PropertyContainer> implements DatastorePropertyManager<Element, PropertyMetadata> {
+public abstract class AbstractNeo4jPropertyManager<Element extends PropertyContainer> implements DatastorePropertyLookup<Element, PropertyMetadata> {
 
     @Override
     public void setProperty(Element element, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value) {
@@ -33,6 +34,11 @@ public abstract class AbstractNeo4jPropertyManager<Element extends PropertyConta
         return element.getProperty(metadata.getDatastoreMetadata().getName());
     }
 
+    @Override
+    public Object getPropertyOrAbsent(Element element, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        return element.getProperty(metadata.getDatastoreMetadata().getName(), ABSENT);
+    }
+
     protected void setProperties(Element element, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
         for (Map.Entry<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> entry : example.entrySet()) {
             Object value = entry.getValue();
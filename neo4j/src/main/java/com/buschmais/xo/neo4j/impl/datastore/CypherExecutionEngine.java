@@ -0,0 +1,86 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import org.neo4j.cypher.ExecutionEngine;
+import org.neo4j.cypher.internal.ExecutionPlan;
+import org.neo4j.cypher.internal.TransactionInfo;
+import org.neo4j.cypher.javacompat.ExecutionResult;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.kernel.impl.util.StringLogger;
+import scala.Tuple3;
+
+import java.util.Map;
+
+/**
+ * The Cypher execution engine which is shared by all sessions of an embedded datastore.
+ * <p>In addition to the execution of queries it allows planning a query without executing it, the plan is kept in the plan cache of
+ * the engine. Planning relies on the internal API of Neo4j 2.1 (see the property <code>org.neo4j_version</code> of this module), it is
+ * disabled if this API is not available at runtime, see {@link #isPlanningSupported()}.</p>
+ */
+public class CypherExecutionEngine {
+
+    private static final boolean PLANNING_SUPPORTED = isPlanningApiAvailable();
+
+    private final ExecutionEngine executionEngine;
+
+    public CypherExecutionEngine(GraphDatabaseService graphDatabaseService) {
+        this.executionEngine = new ExecutionEngine(graphDatabaseService, StringLogger.DEV_NULL);
+    }
+
+    /**
+     * Execute a query.
+     *
+     * @param query      The query.
+     * @param parameters The parameters.
+     * @return The result.
+     * @throws org.neo4j.cypher.CypherException If the query cannot be executed.
+     */
+    public ExecutionResult execute(String query, Map<String, Object> parameters) {
+        return new ExecutionResult(executionEngine.execute(query, parameters));
+    }
+
+    /**
+     * Determine if queries can be planned without executing them.
+     *
+     * @return <code>true</code> if {@link #plan(String)} is supported by the Neo4j version on the class path.
+     */
+    public boolean isPlanningSupported() {
+        return PLANNING_SUPPORTED;
+    }
+
+    /**
+     * Parse and plan a query without executing it.
+     *
+     * @param query The query.
+     * @throws org.neo4j.cypher.CypherException If the query is not valid.
+     * @throws UnsupportedOperationException    If planning is not supported, see {@link #isPlanningSupported()}.
+     */
+    public void plan(String query) {
+        if (!PLANNING_SUPPORTED) {
+            throw new UnsupportedOperationException("Planning of Cypher queries is not supported by this version of Neo4j.");
+        }
+        Tuple3<ExecutionPlan, ?, TransactionInfo> plan = executionEngine.planQuery(query);
+        TransactionInfo transactionInfo = plan._3();
+        transactionInfo.statement().close();
+        if (transactionInfo.isTopLevelTx()) {
+            transactionInfo.tx().close();
+        }
+    }
+
+    /**
+     * Verify that the internal API used by {@link #plan(String)} is available with the expected signatures.
+     */
+    private static boolean isPlanningApiAvailable() {
+        try {
+            if (!Tuple3.class.equals(ExecutionEngine.class.getMethod("planQuery", String.class).getReturnType())) {
+                return false;
+            }
+            Class<?> transactionInfo = Class.forName("org.neo4j.cypher.internal.TransactionInfo", false, ExecutionEngine.class.getClassLoader());
+            transactionInfo.getMethod("statement");
+            transactionInfo.getMethod("isTopLevelTx");
+            transactionInfo.getMethod("tx");
+            return true;
+        } catch (ClassNotFoundException | NoSuchMethodException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import com.buschmais.xo.api.XOException;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * Client for the transactional Cypher HTTP endpoint of a Neo4j server (<code>/db/data/transaction</code>).
+ * <p>The endpoint is stateless and may be shared by all sessions of a datastore, the state of a server side transaction is kept by a
+ * {@link CypherHttpTransaction}. Entities contained in results are represented using the REST format, i.e. as maps containing the
+ * URI of the entity ("self") and its properties ("data").</p>
+ * <p>The timeouts of the connections are configured by the properties {@link #CONNECT_TIMEOUT_PROPERTY} and
+ * {@link #READ_TIMEOUT_PROPERTY} of an {@link com.buschmais.xo.api.bootstrap.XOUnit}.</p>
+ */
+public class CypherHttpEndpoint {
+
+    /**
+     * The name of the property defining the connect timeout in milliseconds.
+     */
+    public static final String CONNECT_TIMEOUT_PROPERTY = "xo.neo4j.remote.connect.timeout";
+
+    /**
+     * The name of the property defining the read timeout in milliseconds.
+     */
+    public static final String READ_TIMEOUT_PROPERTY = "xo.neo4j.remote.read.timeout";
+
+    /**
+     * The default connect timeout in milliseconds.
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+
+    /**
+     * The default read timeout in milliseconds.
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 60000;
+
+    /**
+     * The error code reported by the server for a transaction which is unknown, e.g. as it has timed out.
+     */
+    private static final String UNKNOWN_TRANSACTION = "Neo.ClientError.Transaction.UnknownId";
+
+    private static final String CONTENT_TYPE = "application/json; charset=UTF-8";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String transactionUrl;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    /**
+     * Constructor using the default timeouts.
+     *
+     * @param url The URL of the REST API of the server, e.g. <code>http://localhost:7474/db/data</code>.
+     */
+    public CypherHttpEndpoint(String url) {
+        this(url, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param url            The URL of the REST API of the server, e.g. <code>http://localhost:7474/db/data</code>.
+     * @param connectTimeout The connect timeout in milliseconds.
+     * @param readTimeout    The read timeout in milliseconds.
+     */
+    public CypherHttpEndpoint(String url, int connectTimeout, int readTimeout) {
+        if (connectTimeout <= 0 || readTimeout <= 0) {
+            throw new XOException("The timeouts of the Cypher HTTP endpoint must be greater than 0 but are " + connectTimeout + "ms (connect) and "
+                    + readTimeout + "ms (read).");
+        }
+        this.transactionUrl = (url.endsWith("/") ? url : url + "/") + "transaction";
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Create an endpoint using the timeouts defined by the given properties.
+     *
+     * @param url        The URL of the REST API of the server.
+     * @param properties The properties, may be <code>null</code>.
+     * @return The endpoint.
+     */
+    public static CypherHttpEndpoint fromProperties(String url, Properties properties) {
+        int connectTimeout = getIntProperty(properties, CONNECT_TIMEOUT_PROPERTY, DEFAULT_CONNECT_TIMEOUT);
+        int readTimeout = getIntProperty(properties, READ_TIMEOUT_PROPERTY, DEFAULT_READ_TIMEOUT);
+        return new CypherHttpEndpoint(url, connectTimeout, readTimeout);
+    }
+
+    /**
+     * Begin a transaction, it is opened on the server with the first request.
+     *
+     * @return The transaction.
+     */
+    public CypherHttpTransaction begin() {
+        return new CypherHttpTransaction(this);
+    }
+
+    /**
+     * Execute a statement in its own transaction.
+     *
+     * @param statement  The statement.
+     * @param parameters The parameters.
+     * @return The result.
+     */
+    public Result execute(String statement, Map<String, Object> parameters) {
+        List<Result> results = post(transactionUrl + "/commit", Collections.singletonList(new Statement(statement, parameters))).getResults();
+        return results.get(0);
+    }
+
+    /**
+     * Return the URL of the endpoint.
+     *
+     * @return The URL.
+     */
+    String getTransactionUrl() {
+        return transactionUrl;
+    }
+
+    /**
+     * Send statements.
+     *
+     * @param url        The URL.
+     * @param statements The statements.
+     * @return The response.
+     * @throws TransportException If the request failed, the state of the server side transaction is unknown.
+     * @throws XOException        If the server reported errors for a statement, the server side transaction has been rolled back.
+     */
+    Response post(String url, List<Statement> statements) {
+        List<Map<String, Object>> statementList = new ArrayList<>(statements.size());
+        for (Statement statement : statements) {
+            Map<String, Object> statementMap = new HashMap<>();
+            statementMap.put("statement", statement.getStatement());
+            statementMap.put("parameters", statement.getParameters());
+            statementMap.put("resultDataContents", Collections.singletonList("rest"));
+            statementList.add(statementMap);
+        }
+        Map<String, Object> request = Collections.<String, Object>singletonMap("statements", statementList);
+        try {
+            HttpURLConnection connection = openConnection(url, "POST");
+            try {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", CONTENT_TYPE);
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    objectMapper.writeValue(outputStream, request);
+                }
+                Map<String, Object> response = read(connection);
+                return new Response(connection.getHeaderField("Location"), response);
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            throw new TransportException("Cannot send " + statements.size() + " statement(s) to " + url, e);
+        }
+    }
+
+    /**
+     * Rollback a transaction.
+     *
+     * @param url The URL of the transaction.
+     */
+    void delete(String url) {
+        try {
+            HttpURLConnection connection = openConnection(url, "DELETE");
+            try {
+                read(connection);
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            throw new TransportException("Cannot rollback transaction " + url, e);
+        }
+    }
+
+    private HttpURLConnection openConnection(String url, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", CONTENT_TYPE);
+        return connection;
+    }
+
+    /**
+     * Read the response of a request, the caller must disconnect the connection.
+     *
+     * @param connection The connection.
+     * @return The response.
+     * @throws IOException If the response cannot be read.
+     */
+    private Map<String, Object> read(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        if (status >= 400) {
+            // Drain the error stream, it may contain the errors reported by the server.
+            Map<String, Object> errorResponse = null;
+            try (InputStream errorStream = connection.getErrorStream()) {
+                if (errorStream != null) {
+                    errorResponse = objectMapper.readValue(errorStream, Map.class);
+                }
+            } catch (IOException e) {
+                // The body is not a valid response, report the status only.
+            }
+            if (errorResponse != null) {
+                checkErrors(connection, errorResponse);
+            }
+            throw new TransportException("Request to " + connection.getURL() + " failed with status " + status + ": " + connection.getResponseMessage(), null);
+        }
+        try (InputStream inputStream = connection.getInputStream()) {
+            Map<String, Object> response = objectMapper.readValue(inputStream, Map.class);
+            checkErrors(connection, response);
+            return response;
+        }
+    }
+
+    private void checkErrors(HttpURLConnection connection, Map<String, Object> response) {
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) response.get("errors");
+        if (errors != null && !errors.isEmpty()) {
+            StringBuilder message = new StringBuilder();
+            for (Map<String, Object> error : errors) {
+                if (UNKNOWN_TRANSACTION.equals(error.get("code"))) {
+                    throw new XOException("The server side transaction " + connection.getURL()
+                            + " does not exist anymore, it has probably been rolled back by the server after a timeout: " + error.get("message"));
+                }
+                if (message.length() > 0) {
+                    message.append(", ");
+                }
+                message.append(error.get("code")).append(": ").append(error.get("message"));
+            }
+            throw new XOException(message.toString());
+        }
+    }
+
+    private static int getIntProperty(Properties properties, String name, int defaultValue) {
+        String value = properties != null ? properties.getProperty(name) : null;
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new XOException("Unsupported value '" + value + "' for property '" + name + "'.", e);
+        }
+    }
+
+    /**
+     * Indicates that a request failed on the transport level, i.e. the server might not have received or processed it.
+     */
+    static final class TransportException extends XOException {
+
+        TransportException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * A statement and its parameters.
+     */
+    public static final class Statement {
+
+        private final String statement;
+        private final Map<String, Object> parameters;
+
+        public Statement(String statement, Map<String, Object> parameters) {
+            this.statement = statement;
+            this.parameters = parameters;
+        }
+
+        public String getStatement() {
+            return statement;
+        }
+
+        public Map<String, Object> getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public String toString() {
+            return statement;
+        }
+    }
+
+    /**
+     * The result of a statement.
+     */
+    public static final class Result {
+
+        private final List<String> columns;
+        private final List<List<Object>> rows;
+
+        private Result(List<String> columns, List<List<Object>> rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        /**
+         * Return the rows, each containing the values in the order of the columns.
+         *
+         * @return The rows.
+         */
+        public List<List<Object>> getRows() {
+            return rows;
+        }
+    }
+
+    /**
+     * A response of the server.
+     */
+    static final class Response {
+
+        private final String location;
+        private final List<Result> results;
+        private final String commitUrl;
+
+        private Response(String location, Map<String, Object> response) {
+            this.location = location;
+            this.commitUrl = (String) response.get("commit");
+            List<Map<String, Object>> resultList = (List<Map<String, Object>>) response.get("results");
+            this.results = new ArrayList<>(resultList.size());
+            for (Map<String, Object> result : resultList) {
+                List<Map<String, List<Object>>> data = (List<Map<String, List<Object>>>) result.get("data");
+                List<List<Object>> rows = new ArrayList<>(data.size());
+                for (Map<String, List<Object>> row : data) {
+                    rows.add(row.get("rest"));
+                }
+                this.results.add(new Result((List<String>) result.get("columns"), rows));
+            }
+        }
+
+        /**
+         * Return the URL of a transaction which has been opened by the request.
+         */
+        String getLocation() {
+            return location;
+        }
+
+        String getCommitUrl() {
+            return commitUrl;
+        }
+
+        List<Result> getResults() {
+            return results;
+        }
+    }
+}
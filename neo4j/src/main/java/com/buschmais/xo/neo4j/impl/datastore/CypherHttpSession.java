@@ -0,0 +1,198 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import com.buschmais.xo.api.XOException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state of a remote datastore session on the transactional Cypher HTTP endpoint, see {@link CypherHttpEndpoint}.
+ * <p>All statements of a session - queries as well as writes - are executed using this class, thus they take part in the current
+ * transaction and are discarded by its rollback. Writes which do not require a result are queued using {@link #enqueue(String, Map)}
+ * and sent with the next request. If no transaction is active each statement is executed in its own transaction.</p>
+ * <p>The snapshots of nodes (see {@link NodeSnapshotCache}) and the properties of relationships are bound to the current transaction,
+ * they are discarded if it is completed. If no transaction is active they are discarded after each write, i.e. a statement executed by
+ * {@link #enqueue(String, Map)} or {@link #executeWrite(String, Map)}, as it completes a transaction of its own.</p>
+ */
+public class CypherHttpSession {
+
+    private static final String ID = "id";
+
+    private static final String LOAD_RELATIONSHIP = "START r=relationship({" + ID + "}) RETURN r";
+
+    private final CypherHttpEndpoint endpoint;
+    private final NodeSnapshotCache nodeSnapshotCache;
+    private final Map<Long, Map<String, Object>> relationshipProperties = new HashMap<>();
+    private CypherHttpTransaction transaction = null;
+
+    /**
+     * Constructor.
+     *
+     * @param endpoint The endpoint.
+     */
+    public CypherHttpSession(CypherHttpEndpoint endpoint) {
+        this.endpoint = endpoint;
+        this.nodeSnapshotCache = new NodeSnapshotCache(endpoint);
+    }
+
+    /**
+     * Begin a transaction.
+     */
+    public void begin() {
+        if (transaction != null) {
+            throw new XOException("There is already an existing transaction.");
+        }
+        transaction = endpoint.begin();
+        setTransaction(transaction);
+    }
+
+    /**
+     * Commit the current transaction, queued statements are sent with the same request.
+     */
+    public void commit() {
+        CypherHttpTransaction completed = complete();
+        if (completed.isOpen()) {
+            completed.commit();
+        }
+    }
+
+    /**
+     * Rollback the current transaction, queued statements are discarded.
+     */
+    public void rollback() {
+        CypherHttpTransaction completed = complete();
+        if (completed.isOpen()) {
+            completed.rollback();
+        }
+    }
+
+    /**
+     * Determine if a transaction is active.
+     *
+     * @return <code>true</code> if a transaction is active.
+     */
+    public boolean isActive() {
+        return transaction != null;
+    }
+
+    /**
+     * Execute a statement, queued statements are sent with the same request.
+     *
+     * @param statement  The statement.
+     * @param parameters The parameters.
+     * @return The result.
+     */
+    public CypherHttpEndpoint.Result execute(String statement, Map<String, Object> parameters) {
+        if (transaction != null) {
+            return transaction.execute(statement, parameters);
+        }
+        return endpoint.execute(statement, parameters);
+    }
+
+    /**
+     * Execute a statement which modifies nodes or relationships, queued statements are sent with the same request.
+     * <p>If no transaction is active all snapshots are discarded after execution, the caller may register snapshots of the nodes and
+     * relationships contained in the result.</p>
+     *
+     * @param statement  The statement.
+     * @param parameters The parameters.
+     * @return The result.
+     */
+    public CypherHttpEndpoint.Result executeWrite(String statement, Map<String, Object> parameters) {
+        CypherHttpEndpoint.Result result = execute(statement, parameters);
+        if (transaction == null) {
+            clear();
+        }
+        return result;
+    }
+
+    /**
+     * Queue a statement which does not return a result, it is sent with the next request. If no transaction is active the statement is
+     * executed immediately and all snapshots are discarded.
+     *
+     * @param statement  The statement.
+     * @param parameters The parameters.
+     */
+    public void enqueue(String statement, Map<String, Object> parameters) {
+        if (transaction != null) {
+            transaction.enqueue(statement, parameters);
+        } else {
+            endpoint.execute(statement, parameters);
+            clear();
+        }
+    }
+
+    /**
+     * Return the snapshots of the nodes.
+     *
+     * @return The {@link NodeSnapshotCache}.
+     */
+    public NodeSnapshotCache getNodeSnapshotCache() {
+        return nodeSnapshotCache;
+    }
+
+    /**
+     * Return the properties of a relationship, they are loaded on first access.
+     *
+     * @param id The id of the relationship.
+     * @return The properties, the map must not be modified.
+     */
+    public Map<String, Object> getRelationshipProperties(long id) {
+        Map<String, Object> properties = relationshipProperties.get(id);
+        if (properties == null) {
+            List<List<Object>> rows = execute(LOAD_RELATIONSHIP, Collections.<String, Object>singletonMap(ID, id)).getRows();
+            if (rows.isEmpty()) {
+                throw new XOException("Relationship with id " + id + " does not exist.");
+            }
+            properties = putRelationshipProperties(id, (Map<String, Object>) ((Map<String, Object>) rows.get(0).get(0)).get("data"));
+        }
+        return properties;
+    }
+
+    /**
+     * Register the properties of a relationship, e.g. as contained in a query result.
+     *
+     * @param id         The id of the relationship.
+     * @param properties The properties in JSON representation.
+     * @return The registered properties.
+     */
+    public Map<String, Object> putRelationshipProperties(long id, Map<String, Object> properties) {
+        Map<String, Object> converted = NodeSnapshotCache.convert(properties);
+        relationshipProperties.put(id, converted);
+        return converted;
+    }
+
+    /**
+     * Discard the properties of a relationship, they are reloaded with the next access.
+     *
+     * @param id The id of the relationship.
+     */
+    public void invalidateRelationship(long id) {
+        relationshipProperties.remove(id);
+    }
+
+    /**
+     * Discard all snapshots of nodes and properties of relationships, e.g. before a query which may modify any of them.
+     */
+    public void clear() {
+        nodeSnapshotCache.clear();
+        relationshipProperties.clear();
+    }
+
+    private CypherHttpTransaction complete() {
+        if (transaction == null) {
+            throw new XOException("There is no existing transaction.");
+        }
+        CypherHttpTransaction completed = transaction;
+        transaction = null;
+        setTransaction(null);
+        return completed;
+    }
+
+    private void setTransaction(CypherHttpTransaction transaction) {
+        nodeSnapshotCache.setTransaction(transaction);
+        relationshipProperties.clear();
+    }
+}
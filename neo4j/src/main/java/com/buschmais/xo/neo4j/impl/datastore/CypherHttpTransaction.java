@@ -0,0 +1,154 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import com.buschmais.xo.api.XOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A transaction on the transactional Cypher HTTP endpoint, see {@link CypherHttpEndpoint}.
+ * <p>Statements which do not require a result may be queued using {@link #enqueue(String, java.util.Map)}, they are sent together with
+ * the next executed statement or the commit, i.e. a sequence of writes followed by a query or a commit requires only one request. The
+ * server side transaction is opened by the first request, a transaction without statements does not cause any request at all.</p>
+ * <p>If the server reports an error for a statement it rolls back the transaction, it cannot be used anymore afterwards. If a request
+ * fails on the transport level (e.g. a timeout) the server side transaction is rolled back explicitly.</p>
+ */
+public class CypherHttpTransaction {
+
+    private final CypherHttpEndpoint endpoint;
+    private final List<CypherHttpEndpoint.Statement> queue = new ArrayList<>();
+    private String location = null;
+    private String commitUrl = null;
+    private boolean open = true;
+
+    /**
+     * Constructor.
+     *
+     * @param endpoint The endpoint.
+     */
+    CypherHttpTransaction(CypherHttpEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Queue a statement, it is sent with the next request.
+     *
+     * @param statement  The statement.
+     * @param parameters The parameters.
+     */
+    public void enqueue(String statement, Map<String, Object> parameters) {
+        ensureOpen();
+        queue.add(new CypherHttpEndpoint.Statement(statement, parameters));
+    }
+
+    /**
+     * Return the number of queued statements.
+     *
+     * @return The number of queued statements.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Send all queued statements.
+     */
+    public void flush() {
+        ensureOpen();
+        if (!queue.isEmpty()) {
+            send(getUrl(), takeQueue());
+        }
+    }
+
+    /**
+     * Execute a statement, queued statements are sent with the same request.
+     *
+     * @param statement  The statement.
+     * @param parameters The parameters.
+     * @return The result of the statement.
+     */
+    public CypherHttpEndpoint.Result execute(String statement, Map<String, Object> parameters) {
+        ensureOpen();
+        List<CypherHttpEndpoint.Statement> statements = takeQueue();
+        statements.add(new CypherHttpEndpoint.Statement(statement, parameters));
+        List<CypherHttpEndpoint.Result> results = send(getUrl(), statements);
+        return results.get(results.size() - 1);
+    }
+
+    /**
+     * Commit the transaction, queued statements are sent with the same request.
+     */
+    public void commit() {
+        ensureOpen();
+        List<CypherHttpEndpoint.Statement> statements = takeQueue();
+        if (location != null || !statements.isEmpty()) {
+            send(commitUrl != null ? commitUrl : endpoint.getTransactionUrl() + "/commit", statements);
+        }
+        open = false;
+    }
+
+    /**
+     * Rollback the transaction, queued statements are discarded.
+     */
+    public void rollback() {
+        ensureOpen();
+        queue.clear();
+        open = false;
+        if (location != null) {
+            endpoint.delete(location);
+        }
+    }
+
+    /**
+     * Determine if the transaction can be used, i.e. it has neither been committed nor rolled back.
+     *
+     * @return <code>true</code> if the transaction is open.
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    private String getUrl() {
+        return location != null ? location : endpoint.getTransactionUrl();
+    }
+
+    private List<CypherHttpEndpoint.Statement> takeQueue() {
+        List<CypherHttpEndpoint.Statement> statements = new ArrayList<>(queue);
+        queue.clear();
+        return statements;
+    }
+
+    private List<CypherHttpEndpoint.Result> send(String url, List<CypherHttpEndpoint.Statement> statements) {
+        CypherHttpEndpoint.Response response;
+        try {
+            response = endpoint.post(url, statements);
+        } catch (CypherHttpEndpoint.TransportException e) {
+            open = false;
+            if (location != null) {
+                try {
+                    endpoint.delete(location);
+                } catch (XOException rollbackException) {
+                    e.addSuppressed(rollbackException);
+                }
+            }
+            throw e;
+        } catch (XOException e) {
+            open = false;
+            throw e;
+        }
+        if (location == null) {
+            location = response.getLocation();
+        }
+        if (response.getCommitUrl() != null) {
+            commitUrl = response.getCommitUrl();
+        }
+        return response.getResults();
+    }
+
+    private void ensureOpen() {
+        if (!open) {
+            throw new XOException("The transaction has already been completed.");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import org.neo4j.cypher.StringCacheMonitor;
+import org.neo4j.kernel.api.Statement;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hit, miss and flush counters of the plan cache of a Cypher {@link org.neo4j.cypher.javacompat.ExecutionEngine}.
+ * <p>The counters are updated by the engine, an instance must be registered as listener at the
+ * {@link org.neo4j.kernel.monitoring.Monitors} of the graph database.</p>
+ */
+public class CypherPlanCacheStatistics implements StringCacheMonitor {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    @Override
+    public void cacheHit(String query) {
+        hits.incrementAndGet();
+    }
+
+    @Override
+    public void cacheMiss(String query) {
+        misses.incrementAndGet();
+    }
+
+    @Override
+    public void cacheFlushDetected(Statement statement) {
+        flushes.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Return the number of detected flushes, the engine discards all plans if the schema of the database has changed.
+     *
+     * @return The number of flushes.
+     */
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    /**
+     * Return the ratio of hits to all lookups.
+     *
+     * @return The hit ratio, <code>0</code> if no lookup has been recorded.
+     */
+    public double getHitRatio() {
+        long currentHits = hits.get();
+        long lookups = currentHits + misses.get();
+        return lookups > 0 ? (double) currentHits / lookups : 0;
+    }
+
+    public void reset() {
+        hits.set(0);
+        misses.set(0);
+        flushes.set(0);
+    }
+}
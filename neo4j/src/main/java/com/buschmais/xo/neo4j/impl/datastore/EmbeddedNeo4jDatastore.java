@@ -10,6 +10,7 @@ public class EmbeddedNeo4jDatastore extends AbstractEmbeddedNeo4jDatastore {
 
     @Override
     public void close() {
+        super.close();
         graphDatabaseService.shutdown();
     }
 }
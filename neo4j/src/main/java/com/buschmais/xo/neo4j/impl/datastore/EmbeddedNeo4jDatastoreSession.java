@@ -3,9 +3,11 @@ package com.buschmais.xo.neo4j.impl.datastore;
 import com.buschmais.xo.api.ResultIterator;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.neo4j.api.annotation.Cypher;
+import com.buschmais.xo.spi.datastore.DatastorePreparableQuery;
 import com.buschmais.xo.spi.datastore.DatastoreQuery;
+import com.buschmais.xo.spi.datastore.DatastoreQueryRow;
 import com.buschmais.xo.spi.datastore.DatastoreTransaction;
-import org.neo4j.cypher.javacompat.ExecutionEngine;
+import org.neo4j.cypher.CypherException;
 import org.neo4j.cypher.javacompat.ExecutionResult;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
@@ -15,8 +17,6 @@ import org.neo4j.graphdb.Transaction;
 
 import java.lang.annotation.Annotation;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 public class EmbeddedNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession<GraphDatabaseService> {
@@ -65,12 +65,30 @@ public class EmbeddedNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession
     }
 
     private final DatastoreTransaction datastoreTransaction;
-    private final ExecutionEngine executionEngine;
-
-    public EmbeddedNeo4jDatastoreSession(GraphDatabaseService graphDatabaseService) {
+    private final CypherExecutionEngine executionEngine;
+    private final CypherPlanCacheStatistics planCacheStatistics;
+
+    /**
+     * Constructor.
+     *
+     * @param graphDatabaseService The graph database service.
+     * @param executionEngine      The Cypher execution engine shared by all sessions of the datastore.
+     * @param planCacheStatistics  The statistics of the plan cache of the execution engine.
+     */
+    public EmbeddedNeo4jDatastoreSession(GraphDatabaseService graphDatabaseService, CypherExecutionEngine executionEngine, CypherPlanCacheStatistics planCacheStatistics) {
         super(graphDatabaseService);
-        datastoreTransaction = new EmbeddedNeo4jDatastoreTransaction();
-        executionEngine = new ExecutionEngine(graphDatabaseService);
+        this.datastoreTransaction = new EmbeddedNeo4jDatastoreTransaction();
+        this.executionEngine = executionEngine;
+        this.planCacheStatistics = planCacheStatistics;
+    }
+
+    /**
+     * Return the statistics of the Cypher plan cache which is shared by all sessions of the datastore.
+     *
+     * @return The statistics.
+     */
+    public CypherPlanCacheStatistics getPlanCacheStatistics() {
+        return planCacheStatistics;
     }
 
     @Override
@@ -81,24 +99,19 @@ public class EmbeddedNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession
     @Override
     public <QL extends Annotation> DatastoreQuery<QL> createQuery(Class<QL> queryLanguage) {
         if (Cypher.class.equals(queryLanguage)) {
-            return (DatastoreQuery<QL>) new EmbeddedNeo4jCypherQuery();
+            return (DatastoreQuery<QL>) (executionEngine.isPlanningSupported() ? new PreparableEmbeddedNeo4jCypherQuery() : new EmbeddedNeo4jCypherQuery());
         }
         throw new XOException("Unsupported query language: " + queryLanguage.getName());
     }
 
-    public class EmbeddedNeo4jCypherQuery implements DatastoreQuery<Cypher> {
-
-        @Override
-        public ResultIterator<Map<String, Object>> execute(Cypher expression, Map<String, Object> parameters) {
-            return execute(expression.value(), parameters);
-        }
+    public class EmbeddedNeo4jCypherQuery extends AbstractNeo4jCypherQuery {
 
         @Override
-        public ResultIterator<Map<String, Object>> execute(String expression, Map<String, Object> parameters) {
+        public ResultIterator<DatastoreQueryRow> executeRows(String expression, Map<String, Object> parameters) {
             ExecutionResult executionResult = executionEngine.execute(expression, translateParameters(parameters));
             final ResourceIterator<Map<String, Object>> resourceIterator = executionResult.iterator();
-            final List<String> columns = executionResult.columns();
-            return new ResultIterator<Map<String, Object>>() {
+            final DatastoreQueryRow.Columns columns = new DatastoreQueryRow.Columns(executionResult.columns());
+            return new ResultIterator<DatastoreQueryRow>() {
 
                 @Override
                 public boolean hasNext() {
@@ -106,13 +119,13 @@ public class EmbeddedNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession
                 }
 
                 @Override
-                public Map<String, Object> next() {
+                public DatastoreQueryRow next() {
                     Map<String, Object> next = resourceIterator.next();
-                    Map<String, Object> result = new LinkedHashMap<>(next.size());
-                    for (String column : columns) {
-                        result.put(column, next.get(column));
+                    Object[] values = new Object[columns.size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = next.get(columns.getName(i));
                     }
-                    return result;
+                    return new DatastoreQueryRow(columns, values);
                 }
 
                 @Override
@@ -141,4 +154,24 @@ public class EmbeddedNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession
             return effectiveParameters;
         }
     }
+
+    /**
+     * A Cypher query which can be planned without being executed, it is only used if planning is supported by the execution engine.
+     */
+    public class PreparableEmbeddedNeo4jCypherQuery extends EmbeddedNeo4jCypherQuery implements DatastorePreparableQuery<Cypher> {
+
+        @Override
+        public void prepare(String expression) {
+            try {
+                executionEngine.plan(expression);
+            } catch (CypherException e) {
+                throw new XOException("Cannot prepare query '" + expression + "': " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void prepare(Cypher expression) {
+            prepare(expression.value());
+        }
+    }
 }
@@ -7,8 +7,4 @@ public class GraphDbNeo4jDatastore extends AbstractEmbeddedNeo4jDatastore {
     public GraphDbNeo4jDatastore(GraphDatabaseService graphDatabaseService) {
         super(graphDatabaseService);
     }
-
-    @Override
-    public void close() {
-    }
 }
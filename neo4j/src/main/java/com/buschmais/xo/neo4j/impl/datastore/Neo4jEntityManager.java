@@ -13,7 +13,9 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import org.neo4j.graphdb.*;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -62,6 +64,31 @@ public class Neo4jEntityManager extends AbstractNeo4jPropertyManager<Node> imple
         return node;
     }
 
+    @Override
+    public List<Node> createEntities(TypeMetadataSet<EntityTypeMetadata<NodeMetadata>> types, Set<Label> discriminators, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        Label[] labels = discriminators.toArray(new Label[discriminators.size()]);
+        List<Node> nodes = new ArrayList<>(examples.size());
+        for (Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example : examples) {
+            Node node = graphDatabaseService.createNode(labels);
+            setProperties(node, example);
+            nodes.add(node);
+        }
+        cacheLabels(nodes, discriminators);
+        return nodes;
+    }
+
+    /**
+     * Put the labels of created nodes into the label cache.
+     *
+     * @param nodes  The nodes.
+     * @param labels The labels.
+     */
+    protected void cacheLabels(List<Node> nodes, Set<Label> labels) {
+        for (Node node : nodes) {
+            labelCache.put(node.getId(), labels);
+        }
+    }
+
     @Override
     public void deleteEntity(Node entity) {
         entity.delete();
@@ -11,6 +11,8 @@ import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -46,6 +48,15 @@ public class Neo4jRelationManager extends AbstractNeo4jPropertyManager<Relations
         return relationship;
     }
 
+    @Override
+    public List<Relationship> createRelations(List<Node> sources, RelationTypeMetadata<RelationshipMetadata> metadata, RelationTypeMetadata.Direction direction, List<Node> targets, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        List<Relationship> relationships = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            relationships.add(createRelation(sources.get(i), metadata, direction, targets.get(i), examples.get(i)));
+        }
+        return relationships;
+    }
+
     @Override
     public void deleteRelation(Relationship relationship) {
         relationship.delete();
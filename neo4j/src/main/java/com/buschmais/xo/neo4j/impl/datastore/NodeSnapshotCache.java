@@ -0,0 +1,266 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import com.buschmais.xo.api.XOException;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * Keeps snapshots of the properties and labels of remote nodes, see {@link CypherHttpEndpoint}.
+ * <p>The snapshot of a node is loaded using a single request when it is accessed for the first time. Nodes contained in a query result
+ * are registered using {@link #putProperties(long, java.util.Map)}, the labels of all of them are loaded with one request as soon as the
+ * labels of one of them are required. Reads are served from the snapshot until the node is written, i.e. {@link #invalidate(long)} is
+ * called. Outside a transaction the owner must {@link #clear()} the cache after each write as the node may have been modified by others
+ * in the meantime, see {@link CypherHttpSession}.</p>
+ * <p>Snapshots are bound to a transaction: they are loaded within the transaction set by {@link #setTransaction(CypherHttpTransaction)}
+ * - or in their own transaction if there is none - and are discarded if the transaction changes.</p>
+ */
+public class NodeSnapshotCache {
+
+    private static final String IDS = "ids";
+
+    private static final String LOAD = "START n=node({" + IDS + "}) RETURN id(n), labels(n), n";
+
+    /**
+     * The snapshot of a node.
+     */
+    private static final class Snapshot {
+
+        private final Map<String, Object> properties;
+        private final Set<String> labels;
+
+        private Snapshot(Map<String, Object> properties, Set<String> labels) {
+            this.properties = properties;
+            this.labels = labels;
+        }
+    }
+
+    private final CypherHttpEndpoint endpoint;
+    private final Map<Long, Snapshot> snapshots = new HashMap<>();
+    private CypherHttpTransaction transaction = null;
+
+    /**
+     * Constructor.
+     *
+     * @param endpoint The endpoint used to load snapshots.
+     */
+    public NodeSnapshotCache(CypherHttpEndpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Set the transaction used to load snapshots, all existing snapshots are discarded.
+     *
+     * @param transaction The transaction or <code>null</code> if snapshots shall be loaded in their own transaction.
+     */
+    public void setTransaction(CypherHttpTransaction transaction) {
+        this.transaction = transaction;
+        clear();
+    }
+
+    /**
+     * Return the properties of a node.
+     *
+     * @param id The id of the node.
+     * @return The properties, the map must not be modified.
+     */
+    public Map<String, Object> getProperties(long id) {
+        Snapshot snapshot = snapshots.get(id);
+        if (snapshot == null) {
+            snapshot = load(id);
+        }
+        return snapshot.properties;
+    }
+
+    /**
+     * Return the labels of a node, the labels of all nodes registered using {@link #putProperties(long, java.util.Map)} are loaded with
+     * the same request.
+     *
+     * @param id The id of the node.
+     * @return The names of the labels, the set must not be modified.
+     */
+    public Set<String> getLabels(long id) {
+        Snapshot snapshot = snapshots.get(id);
+        if (snapshot == null || snapshot.labels == null) {
+            snapshot = load(id);
+        }
+        return snapshot.labels;
+    }
+
+    /**
+     * Register the properties of a node, e.g. as contained in a query result. Its labels are loaded on demand.
+     *
+     * @param id         The id of the node.
+     * @param properties The properties.
+     */
+    public void putProperties(long id, Map<String, Object> properties) {
+        snapshots.put(id, new Snapshot(convert(properties), null));
+    }
+
+    /**
+     * Register the properties and labels of a node, e.g. of a node which has just been created.
+     *
+     * @param id         The id of the node.
+     * @param properties The properties.
+     * @param labels     The names of the labels.
+     */
+    public void put(long id, Map<String, Object> properties, Set<String> labels) {
+        snapshots.put(id, new Snapshot(convert(properties), Collections.unmodifiableSet(new HashSet<>(labels))));
+    }
+
+    /**
+     * Discard the snapshot of a node, it is reloaded with the next access.
+     *
+     * @param id The id of the node.
+     */
+    public void invalidate(long id) {
+        snapshots.remove(id);
+    }
+
+    /**
+     * Discard all snapshots.
+     */
+    public void clear() {
+        snapshots.clear();
+    }
+
+    /**
+     * Load the snapshot of a node together with the snapshots of all nodes without labels.
+     */
+    private Snapshot load(long id) {
+        Set<Long> ids = new HashSet<>();
+        ids.add(id);
+        for (Map.Entry<Long, Snapshot> entry : snapshots.entrySet()) {
+            if (entry.getValue().labels == null) {
+                ids.add(entry.getKey());
+            }
+        }
+        Map<String, Object> parameters = Collections.<String, Object>singletonMap(IDS, new ArrayList<>(ids));
+        CypherHttpEndpoint.Result result = transaction != null ? transaction.execute(LOAD, parameters) : endpoint.execute(LOAD, parameters);
+        for (Long loadedId : ids) {
+            snapshots.remove(loadedId);
+        }
+        for (List<Object> row : result.getRows()) {
+            long nodeId = ((Number) row.get(0)).longValue();
+            Set<String> labels = new HashSet<>();
+            for (Object label : (List<?>) row.get(1)) {
+                labels.add((String) label);
+            }
+            Map<String, Object> properties = (Map<String, Object>) ((Map<String, Object>) row.get(2)).get("data");
+            snapshots.put(nodeId, new Snapshot(convert(properties), Collections.unmodifiableSet(labels)));
+        }
+        Snapshot snapshot = snapshots.get(id);
+        if (snapshot == null) {
+            throw new XOException("Node with id " + id + " does not exist.");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Convert a property value read from a snapshot to the type of the property.
+     * <p>The JSON representation does not distinguish between numeric types, e.g. a <code>long</code> value may be decoded as
+     * {@link Integer} and an <code>int[]</code> as <code>long[]</code>. Numbers and arrays are therefore converted to the declared
+     * type, all other values are returned unchanged.</p>
+     *
+     * @param value The value.
+     * @param type  The type of the property.
+     * @return The converted value.
+     */
+    public static Object toPropertyType(Object value, Class<?> type) {
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            if (long.class.equals(type) || Long.class.equals(type)) {
+                return number.longValue();
+            } else if (int.class.equals(type) || Integer.class.equals(type)) {
+                return number.intValue();
+            } else if (short.class.equals(type) || Short.class.equals(type)) {
+                return number.shortValue();
+            } else if (byte.class.equals(type) || Byte.class.equals(type)) {
+                return number.byteValue();
+            } else if (double.class.equals(type) || Double.class.equals(type)) {
+                return number.doubleValue();
+            } else if (float.class.equals(type) || Float.class.equals(type)) {
+                return number.floatValue();
+            }
+        } else if (value.getClass().isArray() && type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            int length = Array.getLength(value);
+            Object array = Array.newInstance(componentType, length);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, toPropertyType(Array.get(value, i), componentType));
+            }
+            return array;
+        }
+        return value;
+    }
+
+    /**
+     * Convert property values from their JSON representation, i.e. lists are converted to arrays.
+     *
+     * @param properties The properties.
+     * @return The converted properties, the map cannot be modified.
+     */
+    static Map<String, Object> convert(Map<String, Object> properties) {
+        Map<String, Object> converted = new HashMap<>(properties.size());
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof List) {
+                value = toArray((List<?>) value);
+            }
+            converted.put(entry.getKey(), value);
+        }
+        return Collections.unmodifiableMap(converted);
+    }
+
+    /**
+     * Convert a JSON list to an array of the narrowest type holding all elements, numbers and booleans are converted to primitive arrays.
+     * <p>An empty list carries no type information, it is converted to an empty <code>String[]</code>, see
+     * {@link #toPropertyType(Object, Class)}.</p>
+     */
+    private static Object toArray(List<?> list) {
+        Class<?> componentType = list.isEmpty() ? String.class : null;
+        for (Object element : list) {
+            componentType = getComponentType(componentType, element);
+        }
+        Object array = Array.newInstance(componentType, list.size());
+        for (int i = 0; i < list.size(); i++) {
+            // widens the elements of primitive arrays, e.g. Integer values of a long[]
+            Array.set(array, i, list.get(i));
+        }
+        return array;
+    }
+
+    /**
+     * Determine the component type of an array holding the given element and all elements of the current component type.
+     */
+    private static Class<?> getComponentType(Class<?> current, Object element) {
+        Class<?> type;
+        if (element instanceof Boolean) {
+            type = boolean.class;
+        } else if (element instanceof String) {
+            type = String.class;
+        } else if (element instanceof Integer || element instanceof Short || element instanceof Byte) {
+            type = int.class;
+        } else if (element instanceof Long) {
+            type = long.class;
+        } else if (element instanceof Number) {
+            type = double.class;
+        } else {
+            return Object.class;
+        }
+        if (current == null || current.equals(type)) {
+            return type;
+        }
+        if (isNumeric(current) && isNumeric(type)) {
+            return double.class.equals(current) || double.class.equals(type) ? double.class : long.class;
+        }
+        return Object.class;
+    }
+
+    private static boolean isNumeric(Class<?> type) {
+        return int.class.equals(type) || long.class.equals(type) || double.class.equals(type);
+    }
+}
@@ -4,13 +4,20 @@ import com.buschmais.xo.spi.metadata.type.TypeMetadata;
 import org.neo4j.rest.graphdb.RestGraphDatabase;
 
 import java.util.Collection;
+import java.util.Properties;
 
 public class RestNeo4jDatastore extends AbstractNeo4jDatastore<RestNeo4jDatastoreSession> {
 
     private final String url;
+    private final CypherHttpEndpoint cypherHttpEndpoint;
 
     public RestNeo4jDatastore(String url) {
+        this(url, null);
+    }
+
+    public RestNeo4jDatastore(String url, Properties properties) {
         this.url = url;
+        this.cypherHttpEndpoint = CypherHttpEndpoint.fromProperties(url, properties);
     }
 
     @Override
@@ -19,7 +26,7 @@ public class RestNeo4jDatastore extends AbstractNeo4jDatastore<RestNeo4jDatastor
 
     @Override
     public RestNeo4jDatastoreSession createSession() {
-        return new RestNeo4jDatastoreSession(new RestGraphDatabase(url));
+        return new RestNeo4jDatastoreSession(new RestGraphDatabase(url), cypherHttpEndpoint);
     }
 
     @Override
@@ -1,49 +1,64 @@
 package com.buschmais.xo.neo4j.impl.datastore;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import com.buschmais.xo.api.XOException;
 import org.neo4j.rest.graphdb.RestAPI;
 import org.neo4j.rest.graphdb.RestGraphDatabase;
 import org.neo4j.rest.graphdb.entity.RestEntity;
-import org.neo4j.rest.graphdb.query.RestCypherQueryEngine;
-import org.neo4j.rest.graphdb.util.QueryResult;
+import org.neo4j.rest.graphdb.entity.RestNode;
+import org.neo4j.rest.graphdb.entity.RestRelationship;
 
 import com.buschmais.xo.api.ResultIterator;
 import com.buschmais.xo.neo4j.api.annotation.Cypher;
 import com.buschmais.xo.spi.datastore.DatastoreQuery;
+import com.buschmais.xo.spi.datastore.DatastoreQueryRow;
 import com.buschmais.xo.spi.datastore.DatastoreTransaction;
 
 public class RestNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession<RestGraphDatabase> {
 
+    /**
+     * A transaction which is kept on the server using the transactional Cypher HTTP endpoint.
+     */
     private class RestNeo4jDatastoreTransaction implements DatastoreTransaction {
 
         @Override
         public void begin() {
+            cypherHttpSession.begin();
         }
 
         @Override
         public void commit() {
+            cypherHttpSession.commit();
         }
 
         @Override
         public void rollback() {
+            cypherHttpSession.rollback();
         }
 
         @Override
         public boolean isActive() {
-            return true;
+            return cypherHttpSession.isActive();
         }
     }
 
     private final DatastoreTransaction transaction;
+    private final CypherHttpSession cypherHttpSession;
 
-    public RestNeo4jDatastoreSession(RestGraphDatabase graphDatabaseService) {
-        super(graphDatabaseService);
-        transaction = new RestNeo4jDatastoreTransaction();
+    public RestNeo4jDatastoreSession(RestGraphDatabase graphDatabaseService, CypherHttpEndpoint cypherHttpEndpoint) {
+        this(graphDatabaseService, new CypherHttpSession(cypherHttpEndpoint));
+    }
+
+    private RestNeo4jDatastoreSession(RestGraphDatabase graphDatabaseService, CypherHttpSession cypherHttpSession) {
+        super(graphDatabaseService, new RestNeo4jEntityManager(graphDatabaseService, cypherHttpSession), new RestNeo4jRelationManager(graphDatabaseService, cypherHttpSession));
+        this.cypherHttpSession = cypherHttpSession;
+        this.transaction = new RestNeo4jDatastoreTransaction();
     }
 
     @Override
@@ -59,36 +74,45 @@ public class RestNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession<Res
         throw new XOException("Unsupported query language: " + queryLanguage.getName());
     }
 
-    public class RestNeo4jCypherQuery implements DatastoreQuery<Cypher> {
+    /**
+     * A Cypher query executed using the transactional HTTP endpoint.
+     * <p>As a query may modify any node or relationship all snapshots are discarded before execution, the properties of all nodes and
+     * relationships contained in the result are registered as new snapshots.</p>
+     */
+    public class RestNeo4jCypherQuery extends AbstractNeo4jCypherQuery {
 
         @Override
-        public ResultIterator<Map<String, Object>> execute(Cypher expression, Map<String, Object> parameters) {
-            return execute(expression.value(), parameters);
-        }
-
-        @Override
-        public ResultIterator<Map<String, Object>> execute(String expression, Map<String, Object> parameters) {
+        public ResultIterator<DatastoreQueryRow> executeRows(String expression, Map<String, Object> parameters) {
             Map<String, Object> effectiveParameters = translateParameters(parameters);
+            cypherHttpSession.clear();
+            CypherHttpEndpoint.Result result = cypherHttpSession.execute(expression, effectiveParameters);
+            DatastoreQueryRow.Columns columns = new DatastoreQueryRow.Columns(result.getColumns());
             RestAPI restAPI = getGraphDatabaseService().getRestAPI();
-            RestCypherQueryEngine restCypherQueryEngine = new RestCypherQueryEngine(restAPI);
-            QueryResult<Map<String, Object>> queryResult = restCypherQueryEngine.query(expression, effectiveParameters);
-
-            final Iterator<Map<String, Object>> iterator = queryResult.iterator();
-            return new ResultIterator<Map<String, Object>>() {
+            // Convert all rows immediately, the snapshots registered for the contained nodes must reflect the state after this query.
+            List<DatastoreQueryRow> convertedRows = new ArrayList<>(result.getRows().size());
+            for (List<Object> row : result.getRows()) {
+                Object[] values = new Object[columns.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = convert(row.get(i), restAPI);
+                }
+                convertedRows.add(new DatastoreQueryRow(columns, values));
+            }
+            final Iterator<DatastoreQueryRow> rows = convertedRows.iterator();
+            return new ResultIterator<DatastoreQueryRow>() {
 
                 @Override
                 public boolean hasNext() {
-                    return iterator.hasNext();
+                    return rows.hasNext();
                 }
 
                 @Override
-                public Map<String, Object> next() {
-                    return iterator.next();
+                public DatastoreQueryRow next() {
+                    return rows.next();
                 }
 
                 @Override
                 public void remove() {
-                    iterator.remove();
+                    throw new XOException("Remove operation is not supported for query results.");
                 }
 
                 @Override
@@ -97,16 +121,46 @@ public class RestNeo4jDatastoreSession extends AbstractNeo4jDatastoreSession<Res
             };
         }
 
-        private Map<String, Object> translateParameters(Map<String, Object> parameters) {
-            Map<String, Object> effectiveParameters = new HashMap<>();
-            for (Map.Entry<String, Object> parameterEntry : parameters.entrySet()) {
-                Object value = parameterEntry.getValue();
-                if (value instanceof RestEntity) {
-                    value = ((RestEntity) value).getId();
+        /**
+         * Convert a value in REST format to a {@link RestNode} or {@link RestRelationship}, collections are converted recursively.
+         */
+        private Object convert(Object value, RestAPI restAPI) {
+            if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                Object self = map.get("self");
+                if (self instanceof String && map.containsKey("data")) {
+                    if (((String) self).contains("/node/")) {
+                        RestNode node = new RestNode(map, restAPI);
+                        cypherHttpSession.getNodeSnapshotCache().putProperties(node.getId(), (Map<String, Object>) map.get("data"));
+                        return node;
+                    } else if (((String) self).contains("/relationship/")) {
+                        RestRelationship relationship = new RestRelationship(map, restAPI);
+                        cypherHttpSession.putRelationshipProperties(relationship.getId(), (Map<String, Object>) map.get("data"));
+                        return relationship;
+                    }
+                }
+                return value;
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                List<Object> converted = new ArrayList<>(list.size());
+                for (Object element : list) {
+                    converted.add(convert(element, restAPI));
                 }
-                effectiveParameters.put(parameterEntry.getKey(), value);
+                return converted;
+            }
+            return value;
+        }
+    }
+
+    private Map<String, Object> translateParameters(Map<String, Object> parameters) {
+        Map<String, Object> effectiveParameters = new HashMap<>();
+        for (Map.Entry<String, Object> parameterEntry : parameters.entrySet()) {
+            Object value = parameterEntry.getValue();
+            if (value instanceof RestEntity) {
+                value = ((RestEntity) value).getId();
             }
-            return effectiveParameters;
+            effectiveParameters.put(parameterEntry.getKey(), value);
         }
+        return effectiveParameters;
     }
 }
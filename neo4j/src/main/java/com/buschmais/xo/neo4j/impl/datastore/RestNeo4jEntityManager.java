@@ -0,0 +1,240 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.neo4j.impl.datastore.metadata.NodeMetadata;
+import com.buschmais.xo.neo4j.impl.datastore.metadata.PropertyMetadata;
+import com.buschmais.xo.spi.datastore.TypeMetadataSet;
+import com.buschmais.xo.spi.metadata.method.IndexedPropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.rest.graphdb.RestGraphDatabase;
+import org.neo4j.rest.graphdb.entity.RestNode;
+
+import java.util.*;
+
+/**
+ * Implementation of a {@link com.buschmais.xo.spi.datastore.DatastoreEntityManager} for remote Neo4j databases.
+ * <p>All reads and writes are executed as Cypher statements using the {@link CypherHttpSession}, i.e. within the current transaction.
+ * Writes which do not return a result are queued and sent with the next request.</p>
+ * <p>Entities are created in batches using a single parameterized <code>UNWIND</code> statement instead of one request per entity.</p>
+ * <p>Properties and labels are read from a {@link NodeSnapshotCache}, i.e. all of them are loaded with one request when a node is accessed
+ * for the first time instead of one request per property.</p>
+ */
+public class RestNeo4jEntityManager extends Neo4jEntityManager {
+
+    private static final String NODE = "n";
+
+    private static final String ID = "id";
+
+    private static final String ROWS = "rows";
+
+    private static final String PROPERTIES = "properties";
+
+    private static final String VALUE = "value";
+
+    private static final String MATCH_NODE = "START " + NODE + "=node({" + ID + "})";
+
+    private final RestGraphDatabase graphDatabaseService;
+
+    private final CypherHttpSession cypherHttpSession;
+
+    private final NodeSnapshotCache nodeSnapshotCache;
+
+    public RestNeo4jEntityManager(RestGraphDatabase graphDatabaseService, CypherHttpSession cypherHttpSession) {
+        super(graphDatabaseService);
+        this.graphDatabaseService = graphDatabaseService;
+        this.cypherHttpSession = cypherHttpSession;
+        this.nodeSnapshotCache = cypherHttpSession.getNodeSnapshotCache();
+    }
+
+    @Override
+    public Set<Label> getEntityDiscriminators(Node node) {
+        Set<Label> labels = new HashSet<>();
+        for (String name : nodeSnapshotCache.getLabels(node.getId())) {
+            labels.add(DynamicLabel.label(name));
+        }
+        return labels;
+    }
+
+    @Override
+    public boolean hasProperty(Node node, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        return nodeSnapshotCache.getProperties(node.getId()).containsKey(metadata.getDatastoreMetadata().getName());
+    }
+
+    @Override
+    public Object getProperty(Node node, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        Object value = nodeSnapshotCache.getProperties(node.getId()).get(metadata.getDatastoreMetadata().getName());
+        return NodeSnapshotCache.toPropertyType(value, metadata.getAnnotatedMethod().getType());
+    }
+
+    @Override
+    public Object getPropertyOrAbsent(Node node, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        Object value = getProperty(node, metadata);
+        return value != null ? value : ABSENT;
+    }
+
+    @Override
+    public void setProperty(Node node, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value) {
+        nodeSnapshotCache.invalidate(node.getId());
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(ID, node.getId());
+        parameters.put(VALUE, value);
+        cypherHttpSession.enqueue(MATCH_NODE + " SET " + NODE + ".`" + metadata.getDatastoreMetadata().getName() + "`={" + VALUE + "}", parameters);
+    }
+
+    @Override
+    public void removeProperty(Node node, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        nodeSnapshotCache.invalidate(node.getId());
+        cypherHttpSession.enqueue(MATCH_NODE + " REMOVE " + NODE + ".`" + metadata.getDatastoreMetadata().getName() + "`", getIdParameter(node));
+    }
+
+    @Override
+    public Node createEntity(TypeMetadataSet<EntityTypeMetadata<NodeMetadata>> types, Set<Label> discriminators, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
+        String statement = "CREATE (" + NODE + getLabels(discriminators) + ") SET " + NODE + "={" + PROPERTIES + "} RETURN " + NODE;
+        Map<String, Object> properties = getProperties(example);
+        List<List<Object>> rows = cypherHttpSession.executeWrite(statement, Collections.<String, Object>singletonMap(PROPERTIES, properties)).getRows();
+        Node node = new RestNode((Map<?, ?>) rows.get(0).get(0), graphDatabaseService.getRestAPI());
+        nodeSnapshotCache.put(node.getId(), properties, getLabelNames(discriminators));
+        return node;
+    }
+
+    @Override
+    public List<Node> createEntities(TypeMetadataSet<EntityTypeMetadata<NodeMetadata>> types, Set<Label> discriminators, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        String statement = "UNWIND {" + ROWS + "} AS row CREATE (" + NODE + getLabels(discriminators) + ") SET " + NODE + "=row RETURN " + NODE;
+        List<Map<String, Object>> rows = new ArrayList<>(examples.size());
+        for (Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example : examples) {
+            rows.add(getProperties(example));
+        }
+        List<List<Object>> result = cypherHttpSession.executeWrite(statement, Collections.<String, Object>singletonMap(ROWS, rows)).getRows();
+        if (result.size() != examples.size()) {
+            throw new XOException("Expected " + examples.size() + " entities to be created but got " + result.size() + ".");
+        }
+        Set<String> labelNames = getLabelNames(discriminators);
+        List<Node> nodes = new ArrayList<>(result.size());
+        for (int i = 0; i < result.size(); i++) {
+            Node node = new RestNode((Map<?, ?>) result.get(i).get(0), graphDatabaseService.getRestAPI());
+            nodeSnapshotCache.put(node.getId(), rows.get(i), labelNames);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    @Override
+    public void deleteEntity(Node entity) {
+        nodeSnapshotCache.invalidate(entity.getId());
+        cypherHttpSession.enqueue(MATCH_NODE + " DELETE " + NODE, getIdParameter(entity));
+    }
+
+    @Override
+    public ResultIterator<Node> findEntity(EntityTypeMetadata<NodeMetadata> entityTypeMetadata, Label discriminator, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> values) {
+        if (values.size() > 1) {
+            throw new XOException("Only one property value is supported for find operation");
+        }
+        Map.Entry<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> entry = values.entrySet().iterator().next();
+        PrimitivePropertyMethodMetadata<PropertyMetadata> propertyMethodMetadata = entry.getKey();
+        if (propertyMethodMetadata == null) {
+            IndexedPropertyMethodMetadata<?> indexedProperty = entityTypeMetadata.getDatastoreMetadata().getIndexedProperty();
+            if (indexedProperty == null) {
+                throw new XOException("Type " + entityTypeMetadata.getAnnotatedType().getAnnotatedElement().getName() + " has no indexed property.");
+            }
+            propertyMethodMetadata = indexedProperty.getPropertyMethodMetadata();
+        }
+        String statement = "MATCH (" + NODE + ":`" + discriminator.name() + "`) WHERE " + NODE + ".`" + propertyMethodMetadata.getDatastoreMetadata().getName()
+                + "`={" + VALUE + "} RETURN " + NODE;
+        List<List<Object>> rows = cypherHttpSession.execute(statement, Collections.<String, Object>singletonMap(VALUE, entry.getValue())).getRows();
+        List<Node> nodes = new ArrayList<>(rows.size());
+        for (List<Object> row : rows) {
+            Map<String, Object> map = (Map<String, Object>) row.get(0);
+            RestNode node = new RestNode(map, graphDatabaseService.getRestAPI());
+            nodeSnapshotCache.putProperties(node.getId(), (Map<String, Object>) map.get("data"));
+            nodes.add(node);
+        }
+        final Iterator<Node> iterator = nodes.iterator();
+        return new ResultIterator<Node>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Node next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                throw new XOException("Remove operation is not supported for find results.");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public void migrateEntity(Node entity, TypeMetadataSet<EntityTypeMetadata<NodeMetadata>> types, Set<Label> discriminators,
+                              TypeMetadataSet<EntityTypeMetadata<NodeMetadata>> targetTypes, Set<Label> targetDiscriminators) {
+        nodeSnapshotCache.invalidate(entity.getId());
+        Set<Label> labelsToRemove = new HashSet<>(discriminators);
+        labelsToRemove.removeAll(targetDiscriminators);
+        Set<Label> labelsToAdd = new HashSet<>(targetDiscriminators);
+        labelsToAdd.removeAll(discriminators);
+        StringBuilder statement = new StringBuilder(MATCH_NODE);
+        if (!labelsToRemove.isEmpty()) {
+            statement.append(" REMOVE ").append(NODE).append(getLabels(labelsToRemove));
+        }
+        if (!labelsToAdd.isEmpty()) {
+            statement.append(" SET ").append(NODE).append(getLabels(labelsToAdd));
+        }
+        if (!labelsToRemove.isEmpty() || !labelsToAdd.isEmpty()) {
+            cypherHttpSession.enqueue(statement.toString(), getIdParameter(entity));
+        }
+    }
+
+    @Override
+    public void flushEntity(Node node) {
+        nodeSnapshotCache.invalidate(node.getId());
+        super.flushEntity(node);
+    }
+
+    private Map<String, Object> getIdParameter(Node node) {
+        return Collections.<String, Object>singletonMap(ID, node.getId());
+    }
+
+    /**
+     * Return the labels in Cypher syntax, e.g. <code>:`A`:`B`</code>.
+     */
+    private String getLabels(Set<Label> labels) {
+        StringBuilder builder = new StringBuilder();
+        for (Label label : labels) {
+            builder.append(":`").append(label.name()).append('`');
+        }
+        return builder.toString();
+    }
+
+    private Set<String> getLabelNames(Set<Label> labels) {
+        Set<String> labelNames = new HashSet<>();
+        for (Label label : labels) {
+            labelNames.add(label.name());
+        }
+        return labelNames;
+    }
+
+    /**
+     * Return the properties of an example entity which are not <code>null</code>, using the names of the datastore.
+     */
+    private Map<String, Object> getProperties(Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
+        Map<String, Object> properties = new HashMap<>();
+        for (Map.Entry<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> entry : example.entrySet()) {
+            if (entry.getValue() != null) {
+                properties.put(entry.getKey().getDatastoreMetadata().getName(), entry.getValue());
+            }
+        }
+        return properties;
+    }
+}
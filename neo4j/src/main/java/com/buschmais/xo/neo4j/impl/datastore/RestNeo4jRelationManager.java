@@ -0,0 +1,192 @@
+package com.buschmais.xo.neo4j.impl.datastore;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.neo4j.impl.datastore.metadata.PropertyMetadata;
+import com.buschmais.xo.neo4j.impl.datastore.metadata.RelationshipMetadata;
+import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
+import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.rest.graphdb.RestGraphDatabase;
+import org.neo4j.rest.graphdb.entity.RestRelationship;
+
+import java.util.*;
+
+/**
+ * Implementation of a {@link com.buschmais.xo.spi.datastore.DatastoreRelationManager} for remote Neo4j databases.
+ * <p>All reads and writes are executed as Cypher statements using the {@link CypherHttpSession}, i.e. within the current transaction.
+ * Writes which do not return a result are queued and sent with the next request.</p>
+ * <p>Relations are created in batches using a single parameterized <code>UNWIND</code> statement instead of one request per relation.</p>
+ */
+public class RestNeo4jRelationManager extends Neo4jRelationManager {
+
+    private static final String RELATION = "r";
+
+    private static final String ID = "id";
+
+    private static final String ROWS = "rows";
+
+    private static final String VALUE = "value";
+
+    private static final String MATCH_RELATION = "START " + RELATION + "=relationship({" + ID + "})";
+
+    private final RestGraphDatabase graphDatabaseService;
+
+    private final CypherHttpSession cypherHttpSession;
+
+    public RestNeo4jRelationManager(RestGraphDatabase graphDatabaseService, CypherHttpSession cypherHttpSession) {
+        this.graphDatabaseService = graphDatabaseService;
+        this.cypherHttpSession = cypherHttpSession;
+    }
+
+    @Override
+    public Relationship createRelation(Node source, RelationTypeMetadata<RelationshipMetadata> metadata, RelationTypeMetadata.Direction direction, Node target, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> example) {
+        return createRelations(Collections.singletonList(source), metadata, direction, Collections.singletonList(target), Collections.singletonList(example)).get(0);
+    }
+
+    @Override
+    public List<Relationship> createRelations(List<Node> sources, RelationTypeMetadata<RelationshipMetadata> metadata, RelationTypeMetadata.Direction direction, List<Node> targets, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        String start;
+        String end;
+        switch (direction) {
+            case FROM:
+                start = "s";
+                end = "t";
+                break;
+            case TO:
+                start = "t";
+                end = "s";
+                break;
+            default:
+                throw new XOException("Unsupported direction " + direction);
+        }
+        // Neo4j 2.1 does not accept a map nested in a row as properties, therefore they are passed as row.`p.<name>` and set one by one
+        Set<String> propertyNames = new TreeSet<>();
+        List<Map<String, Object>> rows = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("s", sources.get(i).getId());
+            row.put("t", targets.get(i).getId());
+            for (Map.Entry<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> entry : examples.get(i).entrySet()) {
+                if (entry.getValue() != null) {
+                    String name = entry.getKey().getDatastoreMetadata().getName();
+                    propertyNames.add(name);
+                    row.put("p." + name, entry.getValue());
+                }
+            }
+            rows.add(row);
+        }
+        StringBuilder statement = new StringBuilder("UNWIND {").append(ROWS).append("} AS row MATCH (s),(t) WHERE id(s)=row.s AND id(t)=row.t CREATE (")
+                .append(start).append(")-[").append(RELATION).append(":`").append(metadata.getDatastoreMetadata().getDiscriminator().name()).append("`]->(")
+                .append(end).append(')');
+        String separator = " SET ";
+        for (String name : propertyNames) {
+            statement.append(separator).append(RELATION).append(".`").append(name).append("`=row.`p.").append(name).append('`');
+            separator = ", ";
+        }
+        statement.append(" RETURN ").append(RELATION);
+        List<Relationship> relationships = toRelationships(cypherHttpSession.executeWrite(statement.toString(), Collections.<String, Object>singletonMap(ROWS, rows)).getRows());
+        if (relationships.size() != sources.size()) {
+            throw new XOException("Expected " + sources.size() + " relations to be created but got " + relationships.size() + ".");
+        }
+        return relationships;
+    }
+
+    @Override
+    public void deleteRelation(Relationship relationship) {
+        cypherHttpSession.invalidateRelationship(relationship.getId());
+        cypherHttpSession.enqueue(MATCH_RELATION + " DELETE " + RELATION, getIdParameter(relationship));
+    }
+
+    @Override
+    public boolean hasSingleRelation(Node source, RelationTypeMetadata<RelationshipMetadata> metadata, RelationTypeMetadata.Direction direction) {
+        return !getRelations(source, metadata, direction, 1).isEmpty();
+    }
+
+    @Override
+    public Relationship getSingleRelation(Node source, RelationTypeMetadata<RelationshipMetadata> metadata, RelationTypeMetadata.Direction direction) {
+        List<Relationship> relationships = getRelations(source, metadata, direction, 2);
+        if (relationships.size() > 1) {
+            throw new XOException("More than one relation of type " + metadata.getDatastoreMetadata().getDiscriminator().name() + " found for node " + source.getId() + ".");
+        }
+        return relationships.isEmpty() ? null : relationships.get(0);
+    }
+
+    @Override
+    public Iterable<Relationship> getRelations(Node source, RelationTypeMetadata<RelationshipMetadata> metadata, RelationTypeMetadata.Direction direction) {
+        return getRelations(source, metadata, direction, -1);
+    }
+
+    @Override
+    public void setProperty(Relationship relationship, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata, Object value) {
+        cypherHttpSession.invalidateRelationship(relationship.getId());
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put(ID, relationship.getId());
+        parameters.put(VALUE, value);
+        cypherHttpSession.enqueue(MATCH_RELATION + " SET " + RELATION + ".`" + metadata.getDatastoreMetadata().getName() + "`={" + VALUE + "}", parameters);
+    }
+
+    @Override
+    public void removeProperty(Relationship relationship, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        cypherHttpSession.invalidateRelationship(relationship.getId());
+        cypherHttpSession.enqueue(MATCH_RELATION + " REMOVE " + RELATION + ".`" + metadata.getDatastoreMetadata().getName() + "`", getIdParameter(relationship));
+    }
+
+    @Override
+    public boolean hasProperty(Relationship relationship, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        return cypherHttpSession.getRelationshipProperties(relationship.getId()).containsKey(metadata.getDatastoreMetadata().getName());
+    }
+
+    @Override
+    public Object getProperty(Relationship relationship, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        Object value = cypherHttpSession.getRelationshipProperties(relationship.getId()).get(metadata.getDatastoreMetadata().getName());
+        return NodeSnapshotCache.toPropertyType(value, metadata.getAnnotatedMethod().getType());
+    }
+
+    @Override
+    public Object getPropertyOrAbsent(Relationship relationship, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        Object value = getProperty(relationship, metadata);
+        return value != null ? value : ABSENT;
+    }
+
+    /**
+     * Load the relations of a node.
+     *
+     * @param limit The maximum number of relations or <code>-1</code> for all relations.
+     */
+    private List<Relationship> getRelations(Node source, RelationTypeMetadata<RelationshipMetadata> metadata, RelationTypeMetadata.Direction direction, int limit) {
+        String type = "[" + RELATION + ":`" + metadata.getDatastoreMetadata().getDiscriminator().name() + "`]";
+        String pattern;
+        switch (direction) {
+            case FROM:
+                pattern = "(s)-" + type + "->()";
+                break;
+            case TO:
+                pattern = "(s)<-" + type + "-()";
+                break;
+            default:
+                throw new XOException("Unsupported direction " + direction);
+        }
+        String statement = "START s=node({" + ID + "}) MATCH " + pattern + " RETURN " + RELATION + (limit >= 0 ? " LIMIT " + limit : "");
+        return toRelationships(cypherHttpSession.execute(statement, Collections.<String, Object>singletonMap(ID, source.getId())).getRows());
+    }
+
+    /**
+     * Convert the rows of a result containing a relationship in the first column, their properties are registered in the
+     * {@link CypherHttpSession}.
+     */
+    private List<Relationship> toRelationships(List<List<Object>> rows) {
+        List<Relationship> relationships = new ArrayList<>(rows.size());
+        for (List<Object> row : rows) {
+            Map<String, Object> map = (Map<String, Object>) row.get(0);
+            RestRelationship relationship = new RestRelationship(map, graphDatabaseService.getRestAPI());
+            cypherHttpSession.putRelationshipProperties(relationship.getId(), (Map<String, Object>) map.get("data"));
+            relationships.add(relationship);
+        }
+        return relationships;
+    }
+
+    private Map<String, Object> getIdParameter(Relationship relationship) {
+        return Collections.<String, Object>singletonMap(ID, relationship.getId());
+    }
+}
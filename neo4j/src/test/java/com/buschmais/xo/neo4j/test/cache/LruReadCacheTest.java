@@ -0,0 +1,65 @@
+package com.buschmais.xo.neo4j.test.cache;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.proxy.composite.A;
+import com.buschmais.xo.neo4j.test.proxy.composite.A2B;
+import com.buschmais.xo.neo4j.test.proxy.composite.B;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.util.Collection;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class LruReadCacheTest extends AbstractNeo4jXOManagerTest {
+
+    public LruReadCacheTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        Collection<Object[]> xoUnits = xoUnits(A.class, B.class, A2B.class);
+        for (Object[] parameters : xoUnits) {
+            XOUnit xoUnit = (XOUnit) parameters[0];
+            xoUnit.getProperties().setProperty("xo.cache.read.policy", "lru");
+            xoUnit.getProperties().setProperty("xo.cache.read.size", "1");
+            xoUnit.getProperties().setProperty("xo.statistics", "true");
+        }
+        return xoUnits;
+    }
+
+    @Test
+    public void eviction() throws JMException {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        xoManager.create(A.class).setName("a1");
+        xoManager.create(A.class).setName("a2");
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("com.buschmais.xo", "xo-unit", "default");
+        mbeanServer.invoke(objectName, "reset", null, null);
+        xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a1 = xoManager.createQuery("match (a:A) where a.name='a1' return a", A.class).execute().getSingleResult();
+        assertThat(xoManager.createQuery("match (a:A) where a.name='a1' return a", A.class).execute().getSingleResult(), sameInstance(a1));
+        A a2 = xoManager.createQuery("match (a:A) where a.name='a2' return a", A.class).execute().getSingleResult();
+        assertThat(a2.getName(), equalTo("a2"));
+        A a1Reloaded = xoManager.createQuery("match (a:A) where a.name='a1' return a", A.class).execute().getSingleResult();
+        assertThat(a1Reloaded, sameInstance(a1));
+        xoManager.currentTransaction().commit();
+        assertThat((Long) mbeanServer.getAttribute(objectName, "EntityCacheEvictions"), equalTo(2L));
+        assertThat((Double) mbeanServer.getAttribute(objectName, "EntityCacheHitRatio"), equalTo(0.5));
+    }
+}
@@ -0,0 +1,114 @@
+package com.buschmais.xo.neo4j.test.cache;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.cache.composite.Code;
+import com.buschmais.xo.neo4j.test.cache.composite.Item;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.util.Collection;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class SecondLevelCacheTest extends AbstractNeo4jXOManagerTest {
+
+    private MBeanServer mbeanServer;
+    private ObjectName objectName;
+
+    public SecondLevelCacheTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        Collection<Object[]> xoUnits = xoUnits(Code.class, Item.class);
+        for (Object[] parameters : xoUnits) {
+            ((XOUnit) parameters[0]).getProperties().setProperty("xo.statistics", "true");
+        }
+        return xoUnits;
+    }
+
+    @Before
+    public void init() throws JMException {
+        mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        objectName = new ObjectName("com.buschmais.xo", "xo-unit", "default");
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        xoManager.create(Code.class).setValue("x");
+        xoManager.create(Item.class).setName("item");
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        mbeanServer.invoke(objectName, "reset", null, null);
+    }
+
+    @Test
+    public void sharedAcrossSessions() throws JMException {
+        assertThat(readCode(), equalTo("x"));
+        // miss for the types and the property, the value is read with a single access
+        assertThat((Long) mbeanServer.getAttribute(objectName, "SecondLevelCacheHits"), equalTo(0L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "SecondLevelCacheMisses"), equalTo(2L));
+        assertThat(readCode(), equalTo("x"));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "SecondLevelCacheHits"), equalTo(2L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "SecondLevelCacheMisses"), equalTo(2L));
+    }
+
+    @Test
+    public void notCacheable() throws JMException {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Item item = xoManager.createQuery("match (i:Item) return i", Item.class).execute().getSingleResult();
+        assertThat(item.getName(), equalTo("item"));
+        xoManager.currentTransaction().commit();
+        assertThat((Long) mbeanServer.getAttribute(objectName, "SecondLevelCacheHits"), equalTo(0L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "SecondLevelCacheMisses"), equalTo(0L));
+    }
+
+    @Test
+    public void invalidateOnCommit() {
+        assertThat(readCode(), equalTo("x"));
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Code code = xoManager.createQuery("match (c:Code) return c", Code.class).execute().getSingleResult();
+        assertThat(code.getValue(), equalTo("x"));
+        code.setValue("y");
+        assertThat(code.getValue(), equalTo("y"));
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        assertThat(readCode(), equalTo("y"));
+    }
+
+    @Test
+    public void invalidateOnRollback() {
+        assertThat(readCode(), equalTo("x"));
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Code code = xoManager.createQuery("match (c:Code) return c", Code.class).execute().getSingleResult();
+        code.setValue(null);
+        assertThat(code.getValue(), nullValue());
+        xoManager.currentTransaction().rollback();
+        closeXOmanager();
+        assertThat(readCode(), equalTo("x"));
+    }
+
+    private String readCode() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Code code = xoManager.createQuery("match (c:Code) return c", Code.class).execute().getSingleResult();
+        String value = code.getValue();
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        return value;
+    }
+}
@@ -0,0 +1,13 @@
+package com.buschmais.xo.neo4j.test.cache.composite;
+
+import com.buschmais.xo.api.annotation.Cacheable;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("Code")
+@Cacheable
+public interface Code {
+
+    String getValue();
+
+    void setValue(String value);
+}
@@ -0,0 +1,11 @@
+package com.buschmais.xo.neo4j.test.cache.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("Item")
+public interface Item {
+
+    String getName();
+
+    void setName(String name);
+}
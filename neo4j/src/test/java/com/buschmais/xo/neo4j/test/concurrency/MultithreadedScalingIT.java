@@ -0,0 +1,168 @@
+package com.buschmais.xo.neo4j.test.concurrency;
+
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.XOManagerFactory;
+import com.buschmais.xo.api.bootstrap.XO;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.api.Neo4jXOProvider;
+import com.buschmais.xo.neo4j.test.concurrency.composite.B;
+import com.buschmais.xo.neo4j.test.concurrency.composite.C;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Benchmark measuring the throughput of concurrent invocations on a shared session for the {@link ConcurrencyMode}s.
+ * <ul>
+ * <li>Cached reads: The getter does not require a transaction and the properties are served by the second level cache, i.e. the results
+ * show how the locking of the interceptors and caches scales.</li>
+ * <li>Transactional reads: Each invocation of the getter demarcates its own transaction and reads from the datastore, such invocations are
+ * always executed exclusively.</li>
+ * </ul>
+ * <p>Statistics are disabled to avoid their overhead, the results are logged.</p>
+ */
+public class MultithreadedScalingIT {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultithreadedScalingIT.class);
+
+    private static final int NUMBER_OF_INSTANCES = 64;
+    private static final int NUMBER_OF_CACHED_READS = 200000;
+    private static final int NUMBER_OF_TRANSACTIONAL_READS = 20000;
+    private static final int[] NUMBER_OF_THREADS = {1, 2, 4, 8};
+
+    @Test
+    public void concurrentReads() throws Exception {
+        for (ConcurrencyMode concurrencyMode : asList(ConcurrencyMode.MULTITHREADED, ConcurrencyMode.READ_WRITE, ConcurrencyMode.STRIPED)) {
+            XOUnit xoUnit = new XOUnit("scaling", "Scaling", URI.create("memory:///"), Neo4jXOProvider.class, new Class<?>[]{B.class, C.class},
+                    Collections.<Class<?>>emptyList(), ValidationMode.AUTO, concurrencyMode, Transaction.TransactionAttribute.REQUIRES, new Properties());
+            XOManagerFactory xoManagerFactory = XO.createXOManagerFactory(xoUnit);
+            try {
+                benchmark(xoManagerFactory, concurrencyMode);
+            } finally {
+                xoManagerFactory.close();
+            }
+        }
+    }
+
+    private void benchmark(XOManagerFactory xoManagerFactory, ConcurrencyMode concurrencyMode) throws Exception {
+        XOManager xoManager = xoManagerFactory.createXOManager();
+        try {
+            xoManager.currentTransaction().begin();
+            for (int i = 0; i < NUMBER_OF_INSTANCES; i++) {
+                xoManager.create(B.class).setName("B" + i);
+                xoManager.create(C.class).setName("C" + i);
+            }
+            xoManager.currentTransaction().commit();
+        } finally {
+            xoManager.close();
+        }
+        xoManager = xoManagerFactory.createXOManager();
+        try {
+            List<Reader> cachedReaders = new ArrayList<>();
+            List<Reader> transactionalReaders = new ArrayList<>();
+            xoManager.currentTransaction().begin();
+            for (final B b : xoManager.createQuery("match (b:B) return b", B.class).execute()) {
+                // Populate the second level cache
+                b.getName();
+                cachedReaders.add(new Reader() {
+                    @Override
+                    String read() {
+                        return b.getName();
+                    }
+                });
+            }
+            for (final C c : xoManager.createQuery("match (c:C) return c", C.class).execute()) {
+                transactionalReaders.add(new Reader() {
+                    @Override
+                    String read() {
+                        return c.getName();
+                    }
+                });
+            }
+            xoManager.currentTransaction().commit();
+            for (int threads : NUMBER_OF_THREADS) {
+                // The first run warms up.
+                run(cachedReaders, threads, NUMBER_OF_CACHED_READS);
+                log(concurrencyMode, "cached", threads, run(cachedReaders, threads, NUMBER_OF_CACHED_READS));
+                run(transactionalReaders, threads, NUMBER_OF_TRANSACTIONAL_READS);
+                log(concurrencyMode, "transactional", threads, run(transactionalReaders, threads, NUMBER_OF_TRANSACTIONAL_READS));
+            }
+        } finally {
+            xoManager.close();
+        }
+    }
+
+    /**
+     * Execute the given number of reads distributed over the given number of threads.
+     *
+     * @return The throughput as reads per millisecond.
+     */
+    private double run(List<Reader> readers, int threads, int reads) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(new Worker(readers, i, reads / threads)));
+            }
+            for (Future<Integer> future : futures) {
+                assertThat(future.get(), equalTo(reads / threads));
+            }
+            long stop = System.nanoTime();
+            return (reads / threads) * threads * 1000000.0 / (stop - start);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void log(ConcurrencyMode concurrencyMode, String workload, int threads, double throughput) {
+        LOGGER.info(MessageFormat.format("mode={0}, workload={1}, threads={2}, reads/ms={3,number,#.##}", concurrencyMode, workload, threads, throughput));
+    }
+
+    private abstract static class Reader {
+
+        abstract String read();
+    }
+
+    private static class Worker implements Callable<Integer> {
+
+        private final List<Reader> readers;
+        private final int offset;
+        private final int count;
+
+        private Worker(List<Reader> readers, int offset, int count) {
+            this.readers = readers;
+            this.offset = offset;
+            this.count = count;
+        }
+
+        @Override
+        public Integer call() {
+            int reads = 0;
+            for (int i = 0; i < count; i++) {
+                if (readers.get((offset + i) % readers.size()).read() != null) {
+                    reads++;
+                }
+            }
+            return reads;
+        }
+    }
+}
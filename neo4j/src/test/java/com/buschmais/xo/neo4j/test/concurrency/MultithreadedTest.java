@@ -11,6 +11,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.*;
@@ -28,7 +29,11 @@ public class MultithreadedTest extends AbstractNeo4jXOManagerTest {
 
     @Parameterized.Parameters
     public static Collection<Object[]> getXOUnits() {
-        return xoUnits(asList(A.class), Collections.<Class<?>>emptyList(), ValidationMode.AUTO, ConcurrencyMode.MULTITHREADED, Transaction.TransactionAttribute.REQUIRES);
+        Collection<Object[]> xoUnits = new ArrayList<>();
+        for (ConcurrencyMode concurrencyMode : asList(ConcurrencyMode.MULTITHREADED, ConcurrencyMode.READ_WRITE, ConcurrencyMode.STRIPED)) {
+            xoUnits.addAll(xoUnits(asList(A.class), Collections.<Class<?>>emptyList(), ValidationMode.AUTO, concurrencyMode, Transaction.TransactionAttribute.REQUIRES));
+        }
+        return xoUnits;
     }
 
     @Test
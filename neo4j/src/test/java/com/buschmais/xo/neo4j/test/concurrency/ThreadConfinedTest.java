@@ -0,0 +1,106 @@
+package com.buschmais.xo.neo4j.test.concurrency;
+
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.concurrency.composite.B;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.*;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+@RunWith(Parameterized.class)
+public class ThreadConfinedTest extends AbstractNeo4jXOManagerTest {
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    public ThreadConfinedTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return xoUnits(asList(B.class), Collections.<Class<?>>emptyList(), ValidationMode.AUTO, ConcurrencyMode.THREAD_CONFINED, Transaction.TransactionAttribute.REQUIRES);
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void confinement() throws InterruptedException {
+        XOManager xoManager = getXoManager();
+        B b = xoManager.create(B.class);
+        b.setName("main");
+        try {
+            executorService.submit(new GetName(b)).get();
+            fail("Expecting an exception.");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(XOException.class));
+            assertThat(e.getCause().getMessage(), containsString("confined to thread '" + Thread.currentThread().getName() + "'"));
+        }
+        xoManager.currentTransaction().begin();
+        assertThat(b.getName(), equalTo("main"));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void handOff() throws ExecutionException, InterruptedException {
+        final XOManager xoManager = getXoManager();
+        final B b = xoManager.create(B.class);
+        b.setName("main");
+        xoManager.release();
+        executorService.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                b.setName("worker");
+                xoManager.release();
+                return null;
+            }
+        }).get();
+        xoManager.currentTransaction().begin();
+        assertThat(b.getName(), equalTo("worker"));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test(expected = XOException.class)
+    public void releaseWithinTransaction() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        try {
+            xoManager.release();
+        } finally {
+            xoManager.currentTransaction().rollback();
+        }
+    }
+
+    private static class GetName implements Callable<String> {
+
+        private final B b;
+
+        private GetName(B b) {
+            this.b = b;
+        }
+
+        @Override
+        public String call() throws Exception {
+            return b.getName();
+        }
+    }
+}
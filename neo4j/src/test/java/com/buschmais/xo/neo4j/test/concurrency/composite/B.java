@@ -0,0 +1,16 @@
+package com.buschmais.xo.neo4j.test.concurrency.composite;
+
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.annotation.Cacheable;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("B")
+@Cacheable
+public interface B {
+
+    @Transaction(Transaction.TransactionAttribute.NOT_SUPPORTED)
+    String getName();
+
+    void setName(String name);
+
+}
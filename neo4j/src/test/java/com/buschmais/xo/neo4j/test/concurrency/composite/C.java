@@ -0,0 +1,12 @@
+package com.buschmais.xo.neo4j.test.concurrency.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("C")
+public interface C {
+
+    String getName();
+
+    void setName(String name);
+
+}
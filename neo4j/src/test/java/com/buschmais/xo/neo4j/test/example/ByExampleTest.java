@@ -13,8 +13,11 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
 
@@ -101,4 +104,35 @@ public class ByExampleTest extends AbstractNeo4jXOManagerTest {
 
     }
 
+    @Test
+    public void createAllByExamples() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        List<Example<A>> examples = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            final String value = "A" + i;
+            examples.add(example -> example.setValue(value));
+        }
+        List<A> instances = xoManager.createAll(examples, A.class);
+        assertThat(instances.size(), equalTo(2500));
+        assertThat(instances.get(1234).getValue(), equalTo("A1234"));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(xoManager.find(example -> example.setValue("A2499"), A.class).getSingleResult(), equalTo(instances.get(2499)));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void insertAllByExamples() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        List<Object> ids = xoManager.insertAll(asList((Example<A>) example -> example.setValue("A1"), example -> example.setValue("A2")), A.class);
+        assertThat(ids.size(), equalTo(2));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        A a2 = xoManager.find(example -> example.setValue("A2"), A.class).getSingleResult();
+        assertThat(xoManager.getId(a2), equalTo(ids.get(1)));
+        xoManager.currentTransaction().commit();
+    }
+
 }
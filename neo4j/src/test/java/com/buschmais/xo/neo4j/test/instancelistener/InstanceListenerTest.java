@@ -16,7 +16,9 @@ import org.junit.runners.Parameterized;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
+import static com.buschmais.xo.api.Query.Result.CompositeRowObject;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.junit.Assert.assertThat;
@@ -110,6 +112,28 @@ public class InstanceListenerTest extends AbstractNeo4jXOManagerTest {
         xoManager.currentTransaction().commit();
     }
 
+    @Test
+    public void lazyRowDecoding() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        xoManager.create(A.class);
+        xoManager.create(B.class);
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        CompositeRowObject row = xoManager.createQuery("match (a:A), (b:B) return a, collect(b) as bs").execute().getSingleResult();
+        assertThat(StaticInstanceListener.getPostLoad().isEmpty(), equalTo(true));
+        A a = row.get("a", A.class);
+        assertThat(StaticInstanceListener.getPostLoad(), equalTo(Arrays.<Object>asList(a)));
+        List<B> bs = row.get("bs", List.class);
+        assertThat(bs.size(), equalTo(1));
+        assertThat(StaticInstanceListener.getPostLoad().size(), equalTo(1));
+        B b = bs.get(0);
+        assertThat(StaticInstanceListener.getPostLoad(), equalTo(Arrays.<Object>asList(a, b)));
+        xoManager.currentTransaction().commit();
+    }
+
     @Test
     public void typedInstanceListener() {
         XOManager xoManager = getXoManager();
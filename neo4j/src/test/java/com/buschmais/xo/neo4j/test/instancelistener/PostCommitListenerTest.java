@@ -0,0 +1,114 @@
+package com.buschmais.xo.neo4j.test.instancelistener;
+
+import com.buschmais.xo.api.ChangeSet;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.annotation.PostCommit;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.instancelistener.composite.A;
+import com.buschmais.xo.neo4j.test.instancelistener.composite.A2B;
+import com.buschmais.xo.neo4j.test.instancelistener.composite.B;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class PostCommitListenerTest extends AbstractNeo4jXOManagerTest {
+
+    private PostCommitListener listener;
+
+    public PostCommitListenerTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() {
+        return xoUnits(A.class, B.class, A2B.class);
+    }
+
+    @Before
+    public void registerListener() {
+        listener = new PostCommitListener();
+        getXoManager().registerInstanceListener(listener);
+    }
+
+    @Test
+    public void changes() throws InterruptedException {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b = xoManager.create(B.class);
+        A2B a2b = xoManager.create(a, A2B.class, b);
+        Object aId = xoManager.getId(a);
+        Object bId = xoManager.getId(b);
+        Object a2bId = xoManager.getId(a2b);
+        xoManager.currentTransaction().commit();
+        ChangeSet changeSet = listener.next();
+        assertThat(getIds(changeSet.getCreated()), containsInAnyOrder(aId, bId, a2bId));
+        assertThat(changeSet.getUpdated().isEmpty(), equalTo(true));
+        assertThat(changeSet.getDeleted().isEmpty(), equalTo(true));
+        assertThat(changeSet.getCreated().iterator().next().getTypes(), hasItem(A.class));
+
+        xoManager.currentTransaction().begin();
+        b.setVersion(1);
+        xoManager.currentTransaction().commit();
+        changeSet = listener.next();
+        assertThat(changeSet.getCreated().isEmpty(), equalTo(true));
+        assertThat(getIds(changeSet.getUpdated()), contains(bId));
+
+        xoManager.currentTransaction().begin();
+        xoManager.delete(a2b);
+        xoManager.currentTransaction().commit();
+        changeSet = listener.next();
+        assertThat(getIds(changeSet.getDeleted()), contains(a2bId));
+        assertThat(changeSet.getDeleted().iterator().next().getTypes(), hasItem(A2B.class));
+    }
+
+    @Test
+    public void rollback() throws InterruptedException {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        xoManager.create(A.class);
+        xoManager.currentTransaction().rollback();
+        xoManager.currentTransaction().begin();
+        B b = xoManager.create(B.class);
+        xoManager.delete(b);
+        xoManager.currentTransaction().commit();
+        assertThat(listener.changeSets.poll(500, TimeUnit.MILLISECONDS), nullValue());
+    }
+
+    private List<Object> getIds(Collection<ChangeSet.Change> changes) {
+        List<Object> ids = new ArrayList<>();
+        for (ChangeSet.Change change : changes) {
+            ids.add(change.getId());
+        }
+        return ids;
+    }
+
+    public static class PostCommitListener {
+
+        private final BlockingQueue<ChangeSet> changeSets = new LinkedBlockingQueue<>();
+
+        @PostCommit
+        public void postCommit(ChangeSet changeSet) {
+            changeSets.add(changeSet);
+        }
+
+        private ChangeSet next() throws InterruptedException {
+            ChangeSet changeSet = changeSets.poll(10, TimeUnit.SECONDS);
+            assertThat(changeSet, notNullValue());
+            return changeSet;
+        }
+    }
+}
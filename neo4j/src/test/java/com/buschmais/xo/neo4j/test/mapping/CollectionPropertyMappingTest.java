@@ -10,12 +10,14 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.core.IsCollectionContaining.hasItem;
+import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.junit.Assert.assertThat;
 
 @RunWith(Parameterized.class)
@@ -47,6 +49,24 @@ public class CollectionPropertyMappingTest extends AbstractNeo4jXOManagerTest {
         xoManager.currentTransaction().commit();
     }
 
+    @Test
+    public void setPropertyAddAll() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b1 = xoManager.create(B.class);
+        B b2 = xoManager.create(B.class);
+        Set<B> setOfB = a.getSetOfB();
+        assertThat(setOfB.add(b1), equalTo(true));
+        assertThat(setOfB.addAll(Arrays.asList(b1, b2, b2)), equalTo(true));
+        assertThat(setOfB.addAll(Arrays.asList(b1, b2)), equalTo(false));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(setOfB.size(), equalTo(2));
+        assertThat(setOfB, hasItems(b1, b2));
+        xoManager.currentTransaction().commit();
+    }
+
     @Test
     public void mappedSetProperty() {
         XOManager xoManager = getXoManager();
@@ -80,6 +100,23 @@ public class CollectionPropertyMappingTest extends AbstractNeo4jXOManagerTest {
         xoManager.currentTransaction().commit();
     }
 
+    @Test
+    public void listPropertyAddAll() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b1 = xoManager.create(B.class);
+        B b2 = xoManager.create(B.class);
+        List<B> listOfB = a.getListOfB();
+        assertThat(listOfB.addAll(Arrays.asList(b1, b2, b1)), equalTo(true));
+        assertThat(listOfB.addAll(Arrays.<B>asList()), equalTo(false));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(listOfB.size(), equalTo(3));
+        assertThat(listOfB, hasItems(b1, b2));
+        xoManager.currentTransaction().commit();
+    }
+
     @Test
     public void mappedListProperty() {
         XOManager xoManager = getXoManager();
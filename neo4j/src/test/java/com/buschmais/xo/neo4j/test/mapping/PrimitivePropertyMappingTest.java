@@ -59,4 +59,23 @@ public class PrimitivePropertyMappingTest extends AbstractNeo4jXOManagerTest {
         assertThat(result.getColumn("v"), hasItem("mappedValue"));
         xoManager.currentTransaction().commit();
     }
+
+    @Test
+    public void arrayProperty() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.setInts(new int[]{1, 2});
+        a.setLongs(new long[]{1, 5000000000L});
+        a.setDoubles(new double[]{1.5, 2});
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        a = xoManager.createQuery("match (a:A) return a", A.class).execute().getSingleResult();
+        assertThat(a.getInts(), equalTo(new int[]{1, 2}));
+        assertThat(a.getLongs(), equalTo(new long[]{1, 5000000000L}));
+        assertThat(a.getDoubles(), equalTo(new double[]{1.5, 2}));
+        xoManager.currentTransaction().commit();
+    }
 }
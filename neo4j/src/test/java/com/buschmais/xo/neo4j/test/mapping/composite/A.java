@@ -26,6 +26,18 @@ public interface A extends Version {
 
     void setMappedString(String mapppedString);
 
+    int[] getInts();
+
+    void setInts(int[] ints);
+
+    long[] getLongs();
+
+    void setLongs(long[] longs);
+
+    double[] getDoubles();
+
+    void setDoubles(double[] doubles);
+
     B getB();
 
     void setB(B b);
@@ -0,0 +1,88 @@
+package com.buschmais.xo.neo4j.test.performance;
+
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.XOManagerFactory;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.mapping.composite.*;
+import com.buschmais.xo.neo4j.test.performance.composite.Counter;
+import com.buschmais.xo.neo4j.test.performance.composite.CountingMethod;
+import com.buschmais.xo.neo4j.test.relation.typed.composite.TreeNode;
+import com.buschmais.xo.neo4j.test.relation.typed.composite.TreeNodeRelation;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URISyntaxException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static com.buschmais.xo.api.Transaction.TransactionAttribute;
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Measures the time for creating sessions depending on the size of the registered type model and verifies that proxy methods are bound
+ * lazily, i.e. creating a session does not walk the type model.
+ */
+@RunWith(Parameterized.class)
+public class SessionCreationPerformanceIT extends AbstractNeo4jXOManagerTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionCreationPerformanceIT.class);
+
+    private static final int NUMBER_OF_WARMUP_SESSIONS = 1000;
+    private static final int NUMBER_OF_SESSIONS = 10000;
+
+    public SessionCreationPerformanceIT(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        List<Object[]> xoUnits = new ArrayList<>();
+        List<Class<?>> smallModel = asList(A.class, Counter.class);
+        List<Class<?>> largeModel = asList(A.class, Counter.class, B.class, C.class, D.class, E.class, F.class, E2F.class, G.class, H.class, TreeNode.class, TreeNodeRelation.class);
+        xoUnits.addAll(xoUnits(asList(Neo4jDatabase.MEMORY), smallModel, Collections.<Class<?>>emptyList(), ValidationMode.NONE, ConcurrencyMode.SINGLETHREADED, TransactionAttribute.NONE));
+        xoUnits.addAll(xoUnits(asList(Neo4jDatabase.MEMORY), largeModel, Collections.<Class<?>>emptyList(), ValidationMode.NONE, ConcurrencyMode.SINGLETHREADED, TransactionAttribute.NONE));
+        return xoUnits;
+    }
+
+    @Test
+    public void createSessions() {
+        XOManagerFactory xoManagerFactory = getXoManagerFactory();
+        CountingMethod.INSTANCES.set(0);
+        createSessions(xoManagerFactory, NUMBER_OF_WARMUP_SESSIONS);
+        long start = System.nanoTime();
+        createSessions(xoManagerFactory, NUMBER_OF_SESSIONS);
+        long stop = System.nanoTime();
+        double average = (stop - start) / (1000.0 * NUMBER_OF_SESSIONS);
+        LOGGER.info(MessageFormat.format("types={0}, sessions={1}, average time per session={2,number,#.##}µs", xoManagerFactory.getXOUnit().getTypes().size(), NUMBER_OF_SESSIONS, average));
+        assertThat(CountingMethod.INSTANCES.get(), equalTo(0));
+        for (int i = 1; i <= 2; i++) {
+            try (XOManager xoManager = xoManagerFactory.createXOManager()) {
+                xoManager.currentTransaction().begin();
+                Counter counter = xoManager.create(Counter.class);
+                assertThat(counter.countInstances(), equalTo(i));
+                assertThat(counter.countInstances(), equalTo(i));
+                xoManager.currentTransaction().rollback();
+            }
+        }
+    }
+
+    private void createSessions(XOManagerFactory xoManagerFactory, int count) {
+        for (int i = 0; i < count; i++) {
+            try (XOManager xoManager = xoManagerFactory.createXOManager()) {
+                xoManager.currentTransaction().begin();
+                xoManager.currentTransaction().commit();
+            }
+        }
+    }
+}
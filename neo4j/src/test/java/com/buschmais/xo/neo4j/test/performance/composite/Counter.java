@@ -0,0 +1,12 @@
+package com.buschmais.xo.neo4j.test.performance.composite;
+
+import com.buschmais.xo.api.annotation.ImplementedBy;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+@Label("Counter")
+public interface Counter {
+
+    @ImplementedBy(CountingMethod.class)
+    int countInstances();
+
+}
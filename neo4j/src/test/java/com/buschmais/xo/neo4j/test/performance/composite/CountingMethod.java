@@ -0,0 +1,24 @@
+package com.buschmais.xo.neo4j.test.performance.composite;
+
+import com.buschmais.xo.api.proxy.ProxyMethod;
+import org.neo4j.graphdb.Node;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts its instances, i.e. the number of sessions which have bound the method.
+ */
+public class CountingMethod implements ProxyMethod<Node> {
+
+    public static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    public CountingMethod() {
+        INSTANCES.incrementAndGet();
+    }
+
+    @Override
+    public Object invoke(Node entity, Object instance, Object[] args) {
+        return INSTANCES.get();
+    }
+
+}
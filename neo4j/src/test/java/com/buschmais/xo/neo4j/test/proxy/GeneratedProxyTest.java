@@ -0,0 +1,117 @@
+package com.buschmais.xo.neo4j.test.proxy;
+
+import com.buschmais.xo.api.CompositeObject;
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.proxy.composite.A;
+import com.buschmais.xo.neo4j.test.proxy.composite.A2B;
+import com.buschmais.xo.neo4j.test.proxy.composite.B;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class GeneratedProxyTest extends AbstractNeo4jXOManagerTest {
+
+    public GeneratedProxyTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        Collection<Object[]> xoUnits = xoUnits(asList(A.class, B.class, A2B.class), Collections.<Class<?>>emptyList(), ValidationMode.AUTO, ConcurrencyMode.SINGLETHREADED, Transaction.TransactionAttribute.REQUIRES);
+        for (Object[] parameters : xoUnits) {
+            ((XOUnit) parameters[0]).getProperties().setProperty("xo.proxy.engine", "generated");
+        }
+        return xoUnits;
+    }
+
+    @Test
+    public void properties() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        assertThat(Proxy.isProxyClass(a.getClass()), equalTo(false));
+        a.setName("a");
+        a.setIntValue(1);
+        a.setLongValue(2L);
+        a.setBooleanValue(true);
+        a.setDoubleValue(3.0);
+        B b = xoManager.create(B.class);
+        a.setB(b);
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A result = xoManager.createQuery("match (a:A) return a", A.class).execute().getSingleResult();
+        assertThat(result.getName(), equalTo("a"));
+        assertThat(result.getIntValue(), equalTo(1));
+        assertThat(result.getLongValue(), equalTo(2L));
+        assertThat(result.isBooleanValue(), equalTo(true));
+        assertThat(result.getDoubleValue(), equalTo(3.0));
+        assertThat(result.getB(), notNullValue());
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void relation() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b = xoManager.create(B.class);
+        A2B a2b = xoManager.create(a, A2B.class, b);
+        assertThat(Proxy.isProxyClass(a2b.getClass()), equalTo(false));
+        a2b.setWeight(5);
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(a.getA2B(), hasItem(a2b));
+        assertThat(b.getA2B(), hasItem(a2b));
+        assertThat(a2b.getA(), equalTo(a));
+        assertThat(a2b.getB(), equalTo(b));
+        assertThat(a2b.getWeight(), equalTo(5));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void objectMethods() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        CompositeObject compositeObject = (CompositeObject) a;
+        assertThat(compositeObject.getId(), notNullValue());
+        assertThat(compositeObject.as(A.class), sameInstance(a));
+        assertThat(a.equals(a), equalTo(true));
+        assertThat(a.hashCode(), equalTo(a.hashCode()));
+        assertThat(a.toString(), containsString(A.class.getSimpleName()));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void interceptors() {
+        XOManager xoManager = getXoManager();
+        assertThat(xoManager.currentTransaction().isActive(), equalTo(false));
+        A a = xoManager.create(A.class);
+        assertThat(Proxy.isProxyClass(a.getClass()), equalTo(false));
+        a.setName("a");
+        assertThat(xoManager.currentTransaction().isActive(), equalTo(false));
+        assertThat(a.getName(), equalTo("a"));
+        closeXOmanager();
+        xoManager = getXoManager();
+        A result = xoManager.createQuery("match (a:A) return a", A.class).execute().getSingleResult();
+        assertThat(Proxy.isProxyClass(result.getClass()), equalTo(false));
+        assertThat(result.getName(), equalTo("a"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.buschmais.xo.neo4j.test.proxy.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+import java.util.List;
+
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+@Label("A")
+public interface A {
+
+    String getName();
+
+    void setName(String name);
+
+    int getIntValue();
+
+    void setIntValue(int intValue);
+
+    long getLongValue();
+
+    void setLongValue(long longValue);
+
+    boolean isBooleanValue();
+
+    void setBooleanValue(boolean booleanValue);
+
+    double getDoubleValue();
+
+    void setDoubleValue(double doubleValue);
+
+    B getB();
+
+    void setB(B b);
+
+    @Outgoing
+    List<A2B> getA2B();
+}
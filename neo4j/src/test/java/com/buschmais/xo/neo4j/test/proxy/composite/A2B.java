@@ -0,0 +1,20 @@
+package com.buschmais.xo.neo4j.test.proxy.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Incoming;
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Outgoing;
+
+@Relation
+public interface A2B {
+
+    int getWeight();
+
+    void setWeight(int weight);
+
+    @Outgoing
+    A getA();
+
+    @Incoming
+    B getB();
+}
@@ -0,0 +1,18 @@
+package com.buschmais.xo.neo4j.test.proxy.composite;
+
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+import java.util.List;
+
+import static com.buschmais.xo.neo4j.api.annotation.Relation.Incoming;
+
+@Label("B")
+public interface B {
+
+    String getName();
+
+    void setName(String name);
+
+    @Incoming
+    List<A2B> getA2B();
+}
@@ -1,11 +1,13 @@
 package com.buschmais.xo.neo4j.test.query;
 
+import com.buschmais.xo.api.PreparedQuery;
 import com.buschmais.xo.api.XOException;
 import com.buschmais.xo.api.XOManager;
 import com.buschmais.xo.api.bootstrap.XOUnit;
 import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
 import com.buschmais.xo.neo4j.test.query.composite.A;
 import com.buschmais.xo.neo4j.test.query.composite.InstanceByValue;
+import com.buschmais.xo.stream.ResultStreams;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
@@ -13,14 +15,19 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.buschmais.xo.api.Query.Result;
 import static com.buschmais.xo.api.Query.Result.CompositeRowObject;
 import static com.buschmais.xo.neo4j.test.query.CustomQueryLanguagePlugin.CustomQueryLanguage;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
@@ -101,6 +108,20 @@ public class QueryTest extends AbstractNeo4jXOManagerTest {
         xoManager.currentTransaction().commit();
     }
 
+    @Test
+    public void mixedColumnTypes() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        Result<CompositeRowObject> result = xoManager.createQuery("match (a:A) where a.value='A1' return a as value union all return 'A' as value").execute();
+        List<Object> values = new ArrayList<>();
+        for (CompositeRowObject row : result) {
+            assertThat(row.getColumns(), equalTo(Arrays.asList("value")));
+            values.add(row.get("value", Object.class));
+        }
+        assertThat(values, equalTo(Arrays.<Object>asList(a1, "A")));
+        xoManager.currentTransaction().commit();
+    }
+
     @Test
     public void instanceParameter() {
         XOManager xoManager = getXoManager();
@@ -112,6 +133,26 @@ public class QueryTest extends AbstractNeo4jXOManagerTest {
     }
 
 
+    @Test
+    public void preparedQuery() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        PreparedQuery<CompositeRowObject> preparedQuery = xoManager.prepareQuery("match (a:A) where a.value={value} return a");
+        assertThat(preparedQuery.withParameter("value", "A1").execute().getSingleResult().get("a", A.class), equalTo(a1));
+        List<A> result = new ArrayList<>();
+        for (CompositeRowObject row : preparedQuery.withParameter("value", "A2").execute()) {
+            result.add(row.get("a", A.class));
+        }
+        assertThat(result, hasItems(a2_1, a2_2));
+        PreparedQuery<InstanceByValue> typedQuery = xoManager.prepareQuery(InstanceByValue.class);
+        assertThat(typedQuery.withParameter("value", "A1").execute().getSingleResult().getA(), equalTo(a1));
+        assertThat(typedQuery.withParameter("value", "A3").execute().hasResult(), equalTo(false));
+        PreparedQuery<A> instanceQuery = xoManager.prepareQuery("match (a:A) where id(a)={instance} return a", A.class);
+        assertThat(instanceQuery.withParameter("instance", a2_1).execute().getSingleResult(), equalTo(a2_1));
+        assertThat(instanceQuery.withParameter("instance", a2_2).execute().getSingleResult(), equalTo(a2_2));
+        xoManager.currentTransaction().commit();
+    }
+
     @Test
     public void optionalMatch() {
         XOManager xoManager = getXoManager();
@@ -132,6 +173,36 @@ public class QueryTest extends AbstractNeo4jXOManagerTest {
         xoManager.currentTransaction().commit();
     }
 
+    @Test
+    public void collectionColumn() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        CompositeRowObject row = xoManager.createQuery("match (a:A) where a.value='A2' return collect(a) as instances").execute().getSingleResult();
+        List<A> instances = row.get("instances", List.class);
+        assertThat(instances, hasSize(2));
+        assertThat(instances, hasItems(a2_1, a2_2));
+        // Collections contained in query results are mutable
+        instances.add(a1);
+        assertThat(instances.remove(a2_1), equalTo(true));
+        assertThat(instances, hasSize(2));
+        assertThat(instances, hasItems(a2_2, a1));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void stream() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        try (Stream<CompositeRowObject> stream = ResultStreams.stream(xoManager.createQuery("match (a:A) return a order by a.value").execute())) {
+            List<String> values = stream.map(row -> row.get("a", A.class).getValue()).collect(Collectors.toList());
+            assertThat(values, equalTo(Arrays.asList("A1", "A2", "A2")));
+        }
+        List<A> instances = ResultStreams.stream(xoManager.find(A.class, "A2")).collect(Collectors.toList());
+        assertThat(instances, hasSize(2));
+        assertThat(instances, hasItems(a2_1, a2_2));
+        xoManager.currentTransaction().commit();
+    }
+
     public interface ResultPart1 {
         A getA();
     }
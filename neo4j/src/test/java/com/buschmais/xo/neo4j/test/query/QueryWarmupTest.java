@@ -0,0 +1,86 @@
+package com.buschmais.xo.neo4j.test.query;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.XOManagerFactory;
+import com.buschmais.xo.api.bootstrap.XO;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.impl.query.QueryWarmup;
+import com.buschmais.xo.neo4j.api.annotation.Cypher;
+import com.buschmais.xo.neo4j.impl.datastore.CypherPlanCacheStatistics;
+import com.buschmais.xo.neo4j.impl.datastore.EmbeddedNeo4jDatastoreSession;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.query.composite.D;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Properties;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeThat;
+
+@RunWith(Parameterized.class)
+public class QueryWarmupTest extends AbstractNeo4jXOManagerTest {
+
+    public QueryWarmupTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        Collection<Object[]> xoUnits = xoUnits(D.class);
+        for (Object[] parameters : xoUnits) {
+            ((XOUnit) parameters[0]).getProperties().setProperty(QueryWarmup.PROPERTY, "warn");
+        }
+        return xoUnits;
+    }
+
+    @Test
+    public void resultOfQueryIsPlanned() {
+        assumeThat(getXoManagerFactory().getXOUnit().getUri().getScheme(), equalTo("memory"));
+        XOManager xoManager = getXoManager();
+        CypherPlanCacheStatistics statistics = xoManager.getDatastoreSession(EmbeddedNeo4jDatastoreSession.class).getPlanCacheStatistics();
+        xoManager.currentTransaction().begin();
+        D d = xoManager.create(D.class);
+        d.setValue("D1");
+        xoManager.currentTransaction().commit();
+        long hits = statistics.getHits();
+        long misses = statistics.getMisses();
+        xoManager.currentTransaction().begin();
+        assertThat(d.getByValue("D1").getD(), equalTo(d));
+        xoManager.currentTransaction().commit();
+        assertThat(statistics.getHits(), greaterThan(hits));
+        assertThat(statistics.getMisses(), equalTo(misses));
+    }
+
+    @Test
+    public void invalidQuery() {
+        XOUnit validUnit = getXoManagerFactory().getXOUnit();
+        assumeThat(validUnit.getUri().getScheme(), equalTo("memory"));
+        Properties properties = new Properties();
+        properties.setProperty(QueryWarmup.PROPERTY, "fail");
+        XOUnit invalidUnit = new XOUnit("invalid", "Invalid query", validUnit.getUri(), validUnit.getProvider(),
+                new HashSet<>(Arrays.asList(D.class, InvalidQuery.class)), validUnit.getInstanceListeners(), validUnit.getValidationMode(),
+                validUnit.getConcurrencyMode(), validUnit.getDefaultTransactionAttribute(), properties);
+        try {
+            XOManagerFactory xoManagerFactory = XO.createXOManagerFactory(invalidUnit);
+            xoManagerFactory.close();
+            fail("Expecting a " + XOException.class.getName());
+        } catch (XOException e) {
+            assertThat(e.getMessage().contains(InvalidQuery.class.getName()), equalTo(true));
+        }
+    }
+
+    @Cypher("match (d:D) retrun d")
+    public interface InvalidQuery {
+        D getD();
+    }
+}
@@ -0,0 +1,23 @@
+package com.buschmais.xo.neo4j.test.query.composite;
+
+import com.buschmais.xo.api.annotation.ResultOf;
+import com.buschmais.xo.neo4j.api.annotation.Cypher;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+import static com.buschmais.xo.api.annotation.ResultOf.Parameter;
+
+@Label("D")
+public interface D {
+
+    String getValue();
+
+    void setValue(String value);
+
+    @ResultOf
+    ByValue getByValue(@Parameter("value") String value);
+
+    @Cypher("match (d:D) where d.value={value} return d")
+    interface ByValue {
+        D getD();
+    }
+}
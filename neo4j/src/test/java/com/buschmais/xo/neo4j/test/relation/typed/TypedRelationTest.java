@@ -1,5 +1,6 @@
 package com.buschmais.xo.neo4j.test.relation.typed;
 
+import com.buschmais.xo.api.Link;
 import com.buschmais.xo.api.XOManager;
 import com.buschmais.xo.api.bootstrap.XOUnit;
 import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
@@ -9,9 +10,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
 import static org.junit.Assert.assertThat;
@@ -147,4 +151,51 @@ public class TypedRelationTest extends AbstractNeo4jXOManagerTest {
         assertThat(executeQuery("MATCH ()-[r]->() RETURN r").<TypedManyToManyRelation>getColumn("r"), hasItems(relationB1_2, relationB2_2));
         xoManager.currentTransaction().commit();
     }
+
+    @Test
+    public void createManyToManyRelations() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b1 = xoManager.create(B.class);
+        B b2 = xoManager.create(B.class);
+        List<Link<A, TypedManyToManyRelation, B>> links = new ArrayList<>();
+        links.add(new Link<A, TypedManyToManyRelation, B>(a, b1, relation -> relation.setVersion(1)));
+        links.add(new Link<A, TypedManyToManyRelation, B>(a, b2, relation -> relation.setVersion(2)));
+        links.add(new Link<A, TypedManyToManyRelation, B>(a, b2));
+        List<TypedManyToManyRelation> relations = xoManager.createRelations(links, TypedManyToManyRelation.class);
+        assertThat(relations, hasSize(3));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(a.getManyToMany(), hasItems(relations.get(0), relations.get(1), relations.get(2)));
+        assertThat(b1.getManyToMany(), hasItems(relations.get(0)));
+        assertThat(b2.getManyToMany(), hasItems(relations.get(1), relations.get(2)));
+        assertThat(relations.get(0).getVersion(), equalTo(1));
+        assertThat(relations.get(0).getA(), equalTo(a));
+        assertThat(relations.get(0).getB(), equalTo(b1));
+        assertThat(relations.get(1).getVersion(), equalTo(2));
+        assertThat(relations.get(1).getB(), equalTo(b2));
+        assertThat(relations.get(2).getB(), equalTo(b2));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void createOneToOneRelations() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b1 = xoManager.create(B.class);
+        B b2 = xoManager.create(B.class);
+        List<Link<A, TypedOneToOneRelation, B>> links = new ArrayList<>();
+        links.add(new Link<A, TypedOneToOneRelation, B>(a, b1));
+        links.add(new Link<A, TypedOneToOneRelation, B>(a, b2, relation -> relation.setVersion(2)));
+        List<TypedOneToOneRelation> relations = xoManager.createRelations(links, TypedOneToOneRelation.class);
+        assertThat(relations, hasSize(2));
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        assertThat(a.getOneToOne(), equalTo(relations.get(1)));
+        assertThat(relations.get(1).getVersion(), equalTo(2));
+        assertThat(relations.get(1).getB(), equalTo(b2));
+        xoManager.currentTransaction().commit();
+    }
 }
@@ -0,0 +1,154 @@
+package com.buschmais.xo.neo4j.test.remote;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.neo4j.impl.datastore.CypherHttpEndpoint;
+import com.buschmais.xo.neo4j.impl.datastore.CypherHttpTransaction;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.server.WrappingNeoServer;
+import org.neo4j.server.configuration.Configurator;
+import org.neo4j.server.configuration.ServerConfigurator;
+import org.neo4j.test.TestGraphDatabaseFactory;
+import org.neo4j.tooling.GlobalGraphOperations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.neo4j.graphdb.DynamicLabel.label;
+
+public class CypherHttpEndpointTest {
+
+    private static GraphDatabaseService graphDatabaseService;
+    private static WrappingNeoServer server;
+
+    private CypherHttpEndpoint endpoint;
+
+    @BeforeClass
+    public static void startServer() {
+        graphDatabaseService = new TestGraphDatabaseFactory().newImpermanentDatabase();
+        ServerConfigurator configurator = new ServerConfigurator((GraphDatabaseAPI) graphDatabaseService);
+        // The timeout is in seconds, the server applies a minimum of 2 seconds.
+        configurator.configuration().setProperty(Configurator.TRANSACTION_TIMEOUT, 1);
+        server = new WrappingNeoServer((GraphDatabaseAPI) graphDatabaseService, configurator);
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+        graphDatabaseService.shutdown();
+    }
+
+    @Before
+    public void createEndpoint() {
+        endpoint = new CypherHttpEndpoint("http://localhost:7474/db/data");
+        endpoint.execute("match (n:A) delete n", Collections.<String, Object>emptyMap());
+    }
+
+    @Test
+    public void commit() {
+        CypherHttpTransaction transaction = endpoint.begin();
+        transaction.enqueue("create (:A{value:{value}})", Collections.<String, Object>singletonMap("value", "A1"));
+        transaction.enqueue("create (:A{value:{value}})", Collections.<String, Object>singletonMap("value", "A2"));
+        assertThat(transaction.getQueueSize(), equalTo(2));
+        CypherHttpEndpoint.Result result = transaction.execute("match (a:A) return a.value as value order by value", Collections.<String, Object>emptyMap());
+        assertThat(transaction.getQueueSize(), equalTo(0));
+        assertThat(result.getColumns(), equalTo(Arrays.asList("value")));
+        assertThat(result.getRows(), equalTo(Arrays.asList(Arrays.<Object>asList("A1"), Arrays.<Object>asList("A2"))));
+        assertThat(countNodes(), equalTo(0));
+        transaction.enqueue("create (:A{value:{value}})", Collections.<String, Object>singletonMap("value", "A3"));
+        transaction.commit();
+        assertThat(transaction.isOpen(), equalTo(false));
+        assertThat(countNodes(), equalTo(3));
+    }
+
+    @Test
+    public void rollback() {
+        CypherHttpTransaction transaction = endpoint.begin();
+        transaction.enqueue("create (:A)", Collections.<String, Object>emptyMap());
+        transaction.flush();
+        transaction.enqueue("create (:A)", Collections.<String, Object>emptyMap());
+        transaction.rollback();
+        assertThat(transaction.isOpen(), equalTo(false));
+        assertThat(countNodes(), equalTo(0));
+    }
+
+    @Test
+    public void entityResult() {
+        CypherHttpEndpoint.Result result = endpoint.execute("create (a:A{value:'A1'}) return a", Collections.<String, Object>emptyMap());
+        List<List<Object>> rows = result.getRows();
+        assertThat(rows, hasSize(1));
+        Map<String, Object> node = (Map<String, Object>) rows.get(0).get(0);
+        assertThat((String) node.get("self"), containsString("/node/"));
+        assertThat(((Map<String, Object>) node.get("data")).get("value"), equalTo((Object) "A1"));
+    }
+
+    @Test
+    public void error() {
+        CypherHttpTransaction transaction = endpoint.begin();
+        transaction.execute("create (:A)", Collections.<String, Object>emptyMap());
+        try {
+            transaction.execute("match (a:A) retrun a", Collections.<String, Object>emptyMap());
+            fail("Expecting a " + XOException.class.getName());
+        } catch (XOException e) {
+        }
+        assertThat(transaction.isOpen(), equalTo(false));
+        assertThat(countNodes(), equalTo(0));
+    }
+
+    @Test
+    public void expiredTransaction() throws InterruptedException {
+        CypherHttpTransaction transaction = endpoint.begin();
+        transaction.execute("create (:A)", Collections.<String, Object>emptyMap());
+        Thread.sleep(4000);
+        try {
+            transaction.execute("match (a:A) return a", Collections.<String, Object>emptyMap());
+            fail("Expecting a " + XOException.class.getName());
+        } catch (XOException e) {
+            assertThat(e.getMessage(), containsString("does not exist anymore"));
+        }
+        assertThat(transaction.isOpen(), equalTo(false));
+        assertThat(countNodes(), equalTo(0));
+    }
+
+    @Test
+    public void transportError() {
+        CypherHttpEndpoint unavailableEndpoint = new CypherHttpEndpoint("http://localhost:7475/db/data", 1000, 1000);
+        CypherHttpTransaction transaction = unavailableEndpoint.begin();
+        try {
+            transaction.execute("create (:A)", Collections.<String, Object>emptyMap());
+            fail("Expecting a " + XOException.class.getName());
+        } catch (XOException e) {
+        }
+        assertThat(transaction.isOpen(), equalTo(false));
+    }
+
+    @Test(expected = XOException.class)
+    public void invalidTimeout() {
+        Properties properties = new Properties();
+        properties.setProperty(CypherHttpEndpoint.READ_TIMEOUT_PROPERTY, "1m");
+        CypherHttpEndpoint.fromProperties("http://localhost:7474/db/data", properties);
+    }
+
+    private int countNodes() {
+        try (Transaction transaction = graphDatabaseService.beginTx()) {
+            int count = 0;
+            for (Object node : GlobalGraphOperations.at(graphDatabaseService).getAllNodesWithLabel(label("A"))) {
+                count++;
+            }
+            transaction.success();
+            return count;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.buschmais.xo.neo4j.test.remote;
+
+import com.buschmais.xo.neo4j.impl.datastore.CypherHttpEndpoint;
+import com.buschmais.xo.neo4j.impl.datastore.CypherHttpSession;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.server.WrappingNeoServer;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class CypherHttpSessionTest {
+
+    private static GraphDatabaseService graphDatabaseService;
+    private static WrappingNeoServer server;
+
+    private CypherHttpEndpoint endpoint;
+    private CypherHttpSession session;
+
+    @BeforeClass
+    public static void startServer() {
+        graphDatabaseService = new TestGraphDatabaseFactory().newImpermanentDatabase();
+        server = new WrappingNeoServer((GraphDatabaseAPI) graphDatabaseService);
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+        graphDatabaseService.shutdown();
+    }
+
+    @Before
+    public void createSession() {
+        endpoint = new CypherHttpEndpoint("http://localhost:7474/db/data");
+        endpoint.execute("match (n:A) optional match (n)-[r]-() delete r, n", Collections.<String, Object>emptyMap());
+        session = new CypherHttpSession(endpoint);
+    }
+
+    @Test
+    public void rollback() {
+        session.begin();
+        long id = createNode();
+        setValue(id, "A2");
+        assertThat(session.getNodeSnapshotCache().getProperties(id).get("value"), equalTo((Object) "A2"));
+        session.rollback();
+        assertThat(countNodes(), equalTo(0L));
+    }
+
+    @Test
+    public void commit() {
+        session.begin();
+        long id = createNode();
+        setValue(id, "A2");
+        assertThat(countNodes(), equalTo(0L));
+        session.commit();
+        assertThat(session.isActive(), equalTo(false));
+        assertThat(session.getNodeSnapshotCache().getProperties(id).get("value"), equalTo((Object) "A2"));
+    }
+
+    @Test
+    public void withoutTransaction() {
+        long id = createNode();
+        setValue(id, "A2");
+        assertThat(countNodes(), equalTo(1L));
+        assertThat(session.getNodeSnapshotCache().getProperties(id).get("value"), equalTo((Object) "A2"));
+    }
+
+    @Test
+    public void writeWithoutTransaction() {
+        long id1 = createNode();
+        long id2 = createNode();
+        assertThat(session.getNodeSnapshotCache().getProperties(id1).get("value"), equalTo((Object) "A1"));
+        // modified by another client
+        endpoint.execute("start n=node({id}) set n.value='A2'", Collections.<String, Object>singletonMap("id", id1));
+        assertThat(session.getNodeSnapshotCache().getProperties(id1).get("value"), equalTo((Object) "A1"));
+        session.enqueue("start n=node({id}) set n.value='A3'", Collections.<String, Object>singletonMap("id", id2));
+        assertThat(session.getNodeSnapshotCache().getProperties(id1).get("value"), equalTo((Object) "A2"));
+        session.executeWrite("start n=node({id}) set n.value='A4'", Collections.<String, Object>singletonMap("id", id1));
+        assertThat(session.getNodeSnapshotCache().getProperties(id1).get("value"), equalTo((Object) "A4"));
+    }
+
+    @Test
+    public void relationshipProperties() {
+        session.begin();
+        List<Object> row = session.execute("create (:A)-[r:R{weight:[1,2]}]->(:A) return id(r)", Collections.<String, Object>emptyMap()).getRows().get(0);
+        long id = ((Number) row.get(0)).longValue();
+        assertThat(session.getRelationshipProperties(id).get("weight"), equalTo((Object) new int[]{1, 2}));
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", id);
+        parameters.put("value", 3);
+        session.enqueue("start r=relationship({id}) set r.weight={value}", parameters);
+        session.invalidateRelationship(id);
+        assertThat(session.getRelationshipProperties(id).get("weight"), equalTo((Object) 3));
+        session.rollback();
+        assertThat(countNodes(), equalTo(0L));
+    }
+
+    private long createNode() {
+        List<Object> row = session.execute("create (a:A{value:'A1'}) return id(a)", Collections.<String, Object>emptyMap()).getRows().get(0);
+        return ((Number) row.get(0)).longValue();
+    }
+
+    private void setValue(long id, String value) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("id", id);
+        parameters.put("value", value);
+        session.enqueue("start n=node({id}) set n.value={value}", parameters);
+        session.getNodeSnapshotCache().invalidate(id);
+    }
+
+    private long countNodes() {
+        List<Object> row = endpoint.execute("match (a:A) return count(a)", Collections.<String, Object>emptyMap()).getRows().get(0);
+        return ((Number) row.get(0)).longValue();
+    }
+}
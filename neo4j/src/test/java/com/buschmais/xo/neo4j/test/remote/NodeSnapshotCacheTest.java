@@ -0,0 +1,145 @@
+package com.buschmais.xo.neo4j.test.remote;
+
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.neo4j.impl.datastore.CypherHttpEndpoint;
+import com.buschmais.xo.neo4j.impl.datastore.CypherHttpTransaction;
+import com.buschmais.xo.neo4j.impl.datastore.NodeSnapshotCache;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.server.WrappingNeoServer;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class NodeSnapshotCacheTest {
+
+    private static GraphDatabaseService graphDatabaseService;
+    private static WrappingNeoServer server;
+
+    private CypherHttpEndpoint endpoint;
+    private NodeSnapshotCache nodeSnapshotCache;
+
+    @BeforeClass
+    public static void startServer() {
+        graphDatabaseService = new TestGraphDatabaseFactory().newImpermanentDatabase();
+        server = new WrappingNeoServer((GraphDatabaseAPI) graphDatabaseService);
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+        graphDatabaseService.shutdown();
+    }
+
+    @Before
+    public void createCache() {
+        endpoint = new CypherHttpEndpoint("http://localhost:7474/db/data");
+        endpoint.execute("match (n:A) delete n", Collections.<String, Object>emptyMap());
+        nodeSnapshotCache = new NodeSnapshotCache(endpoint);
+    }
+
+    @Test
+    public void snapshot() {
+        long id = createNode("A1");
+        assertThat(nodeSnapshotCache.getProperties(id).get("value"), equalTo((Object) "A1"));
+        assertThat(nodeSnapshotCache.getProperties(id).get("values"), equalTo((Object) new String[]{"A1", "A2"}));
+        assertThat(nodeSnapshotCache.getLabels(id), equalTo(Collections.singleton("A")));
+        setValue(id, "A2");
+        assertThat(nodeSnapshotCache.getProperties(id).get("value"), equalTo((Object) "A1"));
+        nodeSnapshotCache.invalidate(id);
+        assertThat(nodeSnapshotCache.getProperties(id).get("value"), equalTo((Object) "A2"));
+    }
+
+    @Test
+    public void queryResult() {
+        long id1 = createNode("A1");
+        long id2 = createNode("A2");
+        List<List<Object>> rows = endpoint.execute("match (a:A) return a", Collections.<String, Object>emptyMap()).getRows();
+        assertThat(rows, hasSize(2));
+        for (List<Object> row : rows) {
+            Map<String, Object> node = (Map<String, Object>) row.get(0);
+            String self = (String) node.get("self");
+            nodeSnapshotCache.putProperties(Long.valueOf(self.substring(self.lastIndexOf('/') + 1)), (Map<String, Object>) node.get("data"));
+        }
+        assertThat(nodeSnapshotCache.getProperties(id1).get("value"), equalTo((Object) "A1"));
+        setLabel(id1, "B");
+        setLabel(id2, "B");
+        assertThat(nodeSnapshotCache.getLabels(id1), containsInAnyOrder("A", "B"));
+        removeLabel(id2, "B");
+        assertThat(nodeSnapshotCache.getLabels(id2), containsInAnyOrder("A", "B"));
+    }
+
+    @Test
+    public void transaction() {
+        CypherHttpTransaction transaction = endpoint.begin();
+        nodeSnapshotCache.setTransaction(transaction);
+        List<Object> row = transaction.execute("create (a:A{value:'A1'}) return id(a)", Collections.<String, Object>emptyMap()).getRows().get(0);
+        long id = ((Number) row.get(0)).longValue();
+        assertThat(nodeSnapshotCache.getProperties(id).get("value"), equalTo((Object) "A1"));
+        transaction.rollback();
+        nodeSnapshotCache.setTransaction(null);
+        try {
+            nodeSnapshotCache.getProperties(id);
+            fail("Expecting a " + XOException.class.getName());
+        } catch (XOException e) {
+        }
+    }
+
+    @Test
+    public void arrays() {
+        long id = createNode("A1");
+        try (Transaction transaction = graphDatabaseService.beginTx()) {
+            Node node = graphDatabaseService.getNodeById(id);
+            node.setProperty("ints", new int[]{1, 2});
+            node.setProperty("longs", new long[]{1, 5000000000L});
+            node.setProperty("doubles", new double[]{1.5, 2});
+            node.setProperty("booleans", new boolean[]{true, false});
+            node.setProperty("empty", new long[0]);
+            transaction.success();
+        }
+        Map<String, Object> properties = nodeSnapshotCache.getProperties(id);
+        assertThat(properties.get("ints"), equalTo((Object) new int[]{1, 2}));
+        assertThat(properties.get("longs"), equalTo((Object) new long[]{1, 5000000000L}));
+        assertThat(properties.get("doubles"), equalTo((Object) new double[]{1.5, 2}));
+        assertThat(properties.get("booleans"), equalTo((Object) new boolean[]{true, false}));
+        assertThat(properties.get("empty"), equalTo((Object) new String[0]));
+        assertThat(NodeSnapshotCache.toPropertyType(properties.get("ints"), long[].class), equalTo((Object) new long[]{1, 2}));
+        assertThat(NodeSnapshotCache.toPropertyType(properties.get("empty"), long[].class), equalTo((Object) new long[0]));
+        assertThat(NodeSnapshotCache.toPropertyType(1, long.class), equalTo((Object) 1L));
+        assertThat(NodeSnapshotCache.toPropertyType("A1", String.class), equalTo((Object) "A1"));
+    }
+
+    private long createNode(String value) {
+        Map<String, Object> parameters = Collections.<String, Object>singletonMap("value", value);
+        List<Object> row = endpoint.execute("create (a:A{value:{value}, values:['A1','A2']}) return id(a)", parameters).getRows().get(0);
+        return ((Number) row.get(0)).longValue();
+    }
+
+    private void setValue(long id, String value) {
+        try (Transaction transaction = graphDatabaseService.beginTx()) {
+            graphDatabaseService.getNodeById(id).setProperty("value", value);
+            transaction.success();
+        }
+    }
+
+    private void setLabel(long id, String label) {
+        endpoint.execute("match (a) where id(a)={id} set a:" + label, Collections.<String, Object>singletonMap("id", id));
+    }
+
+    private void removeLabel(long id, String label) {
+        endpoint.execute("match (a) where id(a)={id} remove a:" + label, Collections.<String, Object>singletonMap("id", id));
+    }
+}
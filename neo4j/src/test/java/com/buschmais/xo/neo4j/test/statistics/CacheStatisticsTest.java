@@ -0,0 +1,87 @@
+package com.buschmais.xo.neo4j.test.statistics;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.proxy.composite.A;
+import com.buschmais.xo.neo4j.test.proxy.composite.A2B;
+import com.buschmais.xo.neo4j.test.proxy.composite.B;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.util.Collection;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class CacheStatisticsTest extends AbstractNeo4jXOManagerTest {
+
+    private MBeanServer mbeanServer;
+    private ObjectName objectName;
+
+    public CacheStatisticsTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        Collection<Object[]> xoUnits = xoUnits(A.class, B.class, A2B.class);
+        for (Object[] parameters : xoUnits) {
+            ((XOUnit) parameters[0]).getProperties().setProperty("xo.statistics", "true");
+        }
+        return xoUnits;
+    }
+
+    @Before
+    public void init() throws JMException {
+        mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        objectName = new ObjectName("com.buschmais.xo", "xo-unit", "default");
+    }
+
+    @Test
+    public void cachedInstances() throws JMException {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b = xoManager.create(B.class);
+        A2B a2b = xoManager.create(a, A2B.class, b);
+        xoManager.currentTransaction().commit();
+        mbeanServer.invoke(objectName, "reset", null, null);
+        xoManager.currentTransaction().begin();
+        assertThat(a.getA2B().iterator().next(), equalTo(a2b));
+        assertThat(a2b.getB(), equalTo(b));
+        xoManager.currentTransaction().commit();
+        assertThat((Long) mbeanServer.getAttribute(objectName, "EntityCacheHits"), greaterThan(0L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "EntityCacheMisses"), equalTo(0L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "RelationCacheHits"), greaterThan(0L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "RelationCacheMisses"), equalTo(0L));
+    }
+
+    @Test
+    public void uncachedInstances() throws JMException {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b = xoManager.create(B.class);
+        xoManager.create(a, A2B.class, b);
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        mbeanServer.invoke(objectName, "reset", null, null);
+        xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A result = xoManager.createQuery("match (a:A) return a", A.class).execute().getSingleResult();
+        assertThat(result.getA2B().iterator().next().getB(), equalTo(result.getA2B().iterator().next().getB()));
+        xoManager.currentTransaction().commit();
+        assertThat((Long) mbeanServer.getAttribute(objectName, "EntityCacheMisses"), equalTo(2L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "RelationCacheMisses"), equalTo(1L));
+    }
+}
@@ -0,0 +1,92 @@
+package com.buschmais.xo.neo4j.test.statistics;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.impl.datastore.CypherPlanCacheStatistics;
+import com.buschmais.xo.neo4j.impl.datastore.EmbeddedNeo4jDatastoreSession;
+import com.buschmais.xo.neo4j.impl.datastore.GraphDbNeo4jDatastore;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.query.composite.A;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.neo4j.cypher.javacompat.ExecutionEngine;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.util.Collection;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+@RunWith(Parameterized.class)
+public class CypherPlanCacheStatisticsTest extends AbstractNeo4jXOManagerTest {
+
+    private static final String QUERY = "match (a:A) return count(a) as count";
+
+    public CypherPlanCacheStatisticsTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        Collection<Object[]> xoUnits = xoUnits(A.class);
+        for (Object[] parameters : xoUnits) {
+            ((XOUnit) parameters[0]).getProperties().setProperty("xo.statistics", "true");
+        }
+        return xoUnits;
+    }
+
+    @Test
+    public void sharedPlanCache() throws IOException, JMException {
+        assumeThat(getXoManagerFactory().getXOUnit().getUri().getScheme(), equalTo("memory"));
+        XOManager xoManager = getXoManager();
+        CypherPlanCacheStatistics statistics = xoManager.getDatastoreSession(EmbeddedNeo4jDatastoreSession.class).getPlanCacheStatistics();
+        xoManager.currentTransaction().begin();
+        xoManager.createQuery(QUERY).execute().close();
+        xoManager.currentTransaction().commit();
+        closeXOmanager();
+        statistics.reset();
+        xoManager = getXoManager();
+        assertThat(xoManager.getDatastoreSession(EmbeddedNeo4jDatastoreSession.class).getPlanCacheStatistics(), sameInstance(statistics));
+        xoManager.currentTransaction().begin();
+        xoManager.createQuery(QUERY).execute().close();
+        xoManager.currentTransaction().commit();
+        assertThat(statistics.getHits(), greaterThan(0L));
+        assertThat(statistics.getMisses(), equalTo(0L));
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("com.buschmais.xo", "xo-unit", "default");
+        assertThat((Long) mbeanServer.getAttribute(objectName, "DatastorePlanCacheHits"), equalTo(statistics.getHits()));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "DatastorePlanCacheMisses"), equalTo(0L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "DatastorePlanCacheFlushes"), equalTo(statistics.getFlushes()));
+        mbeanServer.invoke(objectName, "reset", null, null);
+        assertThat(statistics.getHits(), equalTo(0L));
+    }
+
+    @Test
+    public void listenerRemovedOnClose() {
+        assumeThat(getXoManagerFactory().getXOUnit().getUri().getScheme(), equalTo("memory"));
+        GraphDatabaseService graphDatabaseService = new TestGraphDatabaseFactory().newImpermanentDatabase();
+        try {
+            GraphDbNeo4jDatastore datastore = new GraphDbNeo4jDatastore(graphDatabaseService);
+            ExecutionEngine executionEngine = new ExecutionEngine(graphDatabaseService);
+            executionEngine.execute("match (n) return count(n)");
+            long misses = datastore.getPlanCacheMisses();
+            assertThat(misses, greaterThan(0L));
+            datastore.close();
+            executionEngine.execute("match (n) return count(n) as c");
+            assertThat(datastore.getPlanCacheMisses(), equalTo(misses));
+        } finally {
+            graphDatabaseService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.buschmais.xo.neo4j.test.statistics;
+
+import com.buschmais.xo.api.ConcurrencyMode;
+import com.buschmais.xo.api.Transaction;
+import com.buschmais.xo.api.ValidationMode;
+import com.buschmais.xo.api.XOException;
+import com.buschmais.xo.api.XOManagerFactory;
+import com.buschmais.xo.api.bootstrap.XO;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.api.Neo4jXOProvider;
+import com.buschmais.xo.neo4j.test.proxy.composite.A;
+import com.buschmais.xo.neo4j.test.proxy.composite.A2B;
+import com.buschmais.xo.neo4j.test.proxy.composite.B;
+import org.junit.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Properties;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class FactoryInitializationTest {
+
+    private static final String NAME = "initialization";
+
+    @Test
+    public void retryAfterFailedInitialization() throws JMException {
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("com.buschmais.xo", "xo-unit", NAME);
+        Properties properties = new Properties();
+        properties.setProperty("xo.statistics", "true");
+        properties.setProperty("xo.cache.read.policy", "UNKNOWN");
+        try {
+            XO.createXOManagerFactory(xoUnit(properties));
+            fail("Expecting an " + XOException.class.getName());
+        } catch (XOException e) {
+        }
+        assertThat(mbeanServer.isRegistered(objectName), equalTo(false));
+        properties.remove("xo.cache.read.policy");
+        XOManagerFactory xoManagerFactory = XO.createXOManagerFactory(xoUnit(properties));
+        assertThat(mbeanServer.isRegistered(objectName), equalTo(true));
+        xoManagerFactory.close();
+        assertThat(mbeanServer.isRegistered(objectName), equalTo(false));
+    }
+
+    private XOUnit xoUnit(Properties properties) {
+        return new XOUnit(NAME, "Initialization", URI.create("memory:///"), Neo4jXOProvider.class, new Class<?>[]{A.class, B.class, A2B.class}, Collections.<Class<?>>emptyList(),
+                ValidationMode.AUTO, ConcurrencyMode.SINGLETHREADED, Transaction.TransactionAttribute.NONE, properties);
+    }
+}
@@ -0,0 +1,83 @@
+package com.buschmais.xo.neo4j.test.statistics;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.proxy.composite.A;
+import com.buschmais.xo.neo4j.test.proxy.composite.A2B;
+import com.buschmais.xo.neo4j.test.proxy.composite.B;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.util.Collection;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class FlushStatisticsTest extends AbstractNeo4jXOManagerTest {
+
+    private MBeanServer mbeanServer;
+    private ObjectName objectName;
+
+    public FlushStatisticsTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        Collection<Object[]> xoUnits = xoUnits(A.class, B.class, A2B.class);
+        for (Object[] parameters : xoUnits) {
+            ((XOUnit) parameters[0]).getProperties().setProperty("xo.statistics", "true");
+        }
+        return xoUnits;
+    }
+
+    @Before
+    public void init() throws JMException {
+        mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        objectName = new ObjectName("com.buschmais.xo", "xo-unit", "default");
+    }
+
+    @Test
+    public void relationTargetIsSkipped() throws JMException {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        B b = xoManager.create(B.class);
+        xoManager.currentTransaction().commit();
+        mbeanServer.invoke(objectName, "reset", null, null);
+        xoManager.currentTransaction().begin();
+        a.setB(b);
+        xoManager.currentTransaction().commit();
+        assertThat((Long) mbeanServer.getAttribute(objectName, "FlushedInstances"), equalTo(1L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "SkippedInstances"), equalTo(1L));
+        xoManager.currentTransaction().begin();
+        assertThat(a.getB(), equalTo(b));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void unmodifiedInstanceIsSkippedOnSubsequentFlush() throws JMException {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        xoManager.currentTransaction().commit();
+        mbeanServer.invoke(objectName, "reset", null, null);
+        xoManager.currentTransaction().begin();
+        a.setName("a");
+        xoManager.flush();
+        assertThat((Long) mbeanServer.getAttribute(objectName, "FlushedInstances"), equalTo(1L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "SkippedInstances"), equalTo(0L));
+        xoManager.currentTransaction().commit();
+        assertThat((Long) mbeanServer.getAttribute(objectName, "FlushedInstances"), equalTo(1L));
+        assertThat((Long) mbeanServer.getAttribute(objectName, "SkippedInstances"), equalTo(1L));
+    }
+}
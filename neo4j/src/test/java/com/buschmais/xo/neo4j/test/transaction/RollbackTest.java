@@ -0,0 +1,71 @@
+package com.buschmais.xo.neo4j.test.transaction;
+
+import com.buschmais.xo.api.XOManager;
+import com.buschmais.xo.api.bootstrap.XOUnit;
+import com.buschmais.xo.neo4j.test.AbstractNeo4jXOManagerTest;
+import com.buschmais.xo.neo4j.test.transaction.composite.A;
+import com.buschmais.xo.neo4j.test.transaction.composite.B;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.net.URISyntaxException;
+import java.util.Collection;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class RollbackTest extends AbstractNeo4jXOManagerTest {
+
+    public RollbackTest(XOUnit xoUnit) {
+        super(xoUnit);
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getXOUnits() throws URISyntaxException {
+        return xoUnits(A.class, B.class);
+    }
+
+    @Test
+    public void createdEntities() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.setValue("value1");
+        B b = xoManager.create(B.class);
+        b.setValue(1);
+        a.getListOfB().add(b);
+        xoManager.currentTransaction().rollback();
+        closeXOmanager();
+        xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        assertThat(countNodes(), equalTo(0L));
+        xoManager.currentTransaction().commit();
+    }
+
+    @Test
+    public void modifiedEntity() {
+        XOManager xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        A a = xoManager.create(A.class);
+        a.setValue("value1");
+        xoManager.currentTransaction().commit();
+        xoManager.currentTransaction().begin();
+        a.setValue("value2");
+        a.getListOfB().add(xoManager.create(B.class));
+        xoManager.currentTransaction().rollback();
+        closeXOmanager();
+        xoManager = getXoManager();
+        xoManager.currentTransaction().begin();
+        a = xoManager.find(A.class, "value1").getSingleResult();
+        assertThat(a.getValue(), equalTo("value1"));
+        assertThat(a.getListOfB().size(), equalTo(0));
+        assertThat(countNodes(), equalTo(1L));
+        xoManager.currentTransaction().commit();
+    }
+
+    private long countNodes() {
+        return executeQuery("match (n) return count(n) as c").<Number>getColumn("c").get(0).longValue();
+    }
+}
@@ -4,6 +4,7 @@ import com.buschmais.xo.api.ResultIterator;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -46,6 +47,18 @@ public interface DatastoreEntityManager<EntityId, Entity, EntityMetadata extends
      */
     Entity createEntity(TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types, Set<EntityDiscriminator> discriminators, Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object> exampleEntity);
 
+    /**
+     * Create new entities for the given types, one for each example.
+     * <p>This is the batched variant of {@link #createEntity(TypeMetadataSet, Set, Map)}, implementations may create all entities using
+     * a single datastore operation.</p>
+     *
+     * @param types          The types.
+     * @param discriminators The set of discriminators.
+     * @param examples       The example entities.
+     * @return The created entities in the order of the examples.
+     */
+    List<Entity> createEntities(TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types, Set<EntityDiscriminator> discriminators, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples);
+
     /**
      * Delete an entity.
      *
@@ -0,0 +1,35 @@
+package com.buschmais.xo.spi.datastore;
+
+/**
+ * Optional interface of a {@link Datastore} which provides statistics of the plan cache of its query engine.
+ * <p>The statistics are exposed by the statistics MBean of the {@link com.buschmais.xo.api.XOManagerFactory}.</p>
+ */
+public interface DatastorePlanCacheStatistics {
+
+    /**
+     * Return the number of queries for which a cached plan has been used.
+     *
+     * @return The number of hits.
+     */
+    long getPlanCacheHits();
+
+    /**
+     * Return the number of queries which have been planned as no cached plan has been available.
+     *
+     * @return The number of misses.
+     */
+    long getPlanCacheMisses();
+
+    /**
+     * Return the number of times the plan cache has been flushed, e.g. after the schema has changed.
+     *
+     * @return The number of flushes.
+     */
+    long getPlanCacheFlushes();
+
+    /**
+     * Reset the statistics.
+     */
+    void resetPlanCacheStatistics();
+
+}
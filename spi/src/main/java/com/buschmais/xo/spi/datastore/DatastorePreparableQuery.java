@@ -0,0 +1,29 @@
+package com.buschmais.xo.spi.datastore;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Defines a datastore query which can be prepared without being executed, e.g. to populate the plan cache of the datastore before
+ * the first execution.
+ *
+ * @param <QL> The query language type.
+ */
+public interface DatastorePreparableQuery<QL extends Annotation> extends DatastoreQuery<QL> {
+
+    /**
+     * Prepare the query using a string expression.
+     *
+     * @param query The expression.
+     * @throws com.buschmais.xo.api.XOException If the expression cannot be prepared.
+     */
+    void prepare(String query);
+
+    /**
+     * Prepare the query using an annotation expression.
+     *
+     * @param query The expression.
+     * @throws com.buschmais.xo.api.XOException If the expression cannot be prepared.
+     */
+    void prepare(QL query);
+
+}
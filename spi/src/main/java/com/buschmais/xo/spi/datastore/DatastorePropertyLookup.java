@@ -0,0 +1,29 @@
+package com.buschmais.xo.spi.datastore;
+
+import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
+
+/**
+ * Defines a {@link DatastorePropertyManager} which is able to read a primitive property with a single operation instead of calling
+ * {@link #hasProperty(Object, PrimitivePropertyMethodMetadata)} and {@link #getProperty(Object, PrimitivePropertyMethodMetadata)}.
+ * <p>XO prefers this operation if it is supported by a property manager, otherwise it falls back to the two separate calls.</p>
+ *
+ * @param <Element>          The element type.
+ * @param <PropertyMetadata> The property metadata type.
+ */
+public interface DatastorePropertyLookup<Element, PropertyMetadata> extends DatastorePropertyManager<Element, PropertyMetadata> {
+
+    /**
+     * Marker for properties which do not exist.
+     */
+    Object ABSENT = new Object();
+
+    /**
+     * Get the value of a primitive property if it exists.
+     *
+     * @param entity   The entity.
+     * @param metadata The property metadata.
+     * @return The value or {@link #ABSENT} if the property does not exist.
+     */
+    Object getPropertyOrAbsent(Element entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata);
+
+}
@@ -0,0 +1,132 @@
+package com.buschmais.xo.spi.datastore;
+
+import com.buschmais.xo.api.XOException;
+
+import java.util.*;
+
+/**
+ * A row of a query result holding the values of its columns in datastore representation.
+ * <p>The {@link Columns} are shared by all rows of a result, the values are accessed by their column index.</p>
+ */
+public final class DatastoreQueryRow {
+
+    private final Columns columns;
+    private final Object[] values;
+
+    /**
+     * Constructor.
+     *
+     * @param columns The columns.
+     * @param values  The values, ordered by the column index.
+     */
+    public DatastoreQueryRow(Columns columns, Object[] values) {
+        if (columns.size() != values.length) {
+            throw new XOException("Expecting " + columns.size() + " values for columns " + columns.getNames() + " but got " + values.length);
+        }
+        this.columns = columns;
+        this.values = values;
+    }
+
+    /**
+     * Return the columns.
+     *
+     * @return The columns.
+     */
+    public Columns getColumns() {
+        return columns;
+    }
+
+    /**
+     * Return the value of a column.
+     *
+     * @param index The column index.
+     * @return The value.
+     */
+    public Object get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Return a map containing the column names as keys and their values, ordered by the column index.
+     *
+     * @return The map.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            map.put(columns.getName(i), values[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    /**
+     * The column names of a query result.
+     */
+    public static final class Columns {
+
+        private final List<String> names;
+        private final Map<String, Integer> indices;
+
+        /**
+         * Constructor.
+         *
+         * @param names The column names.
+         */
+        public Columns(List<String> names) {
+            this.names = Collections.unmodifiableList(new ArrayList<>(names));
+            this.indices = new HashMap<>(names.size() * 2);
+            for (int i = 0; i < names.size(); i++) {
+                this.indices.put(names.get(i), i);
+            }
+        }
+
+        /**
+         * Return the column names.
+         *
+         * @return The unmodifiable list of column names.
+         */
+        public List<String> getNames() {
+            return names;
+        }
+
+        /**
+         * Return the name of a column.
+         *
+         * @param index The column index.
+         * @return The name.
+         */
+        public String getName(int index) {
+            return names.get(index);
+        }
+
+        /**
+         * Return the index of a column.
+         *
+         * @param name The column name.
+         * @return The index or <code>-1</code> if the column does not exist.
+         */
+        public int indexOf(String name) {
+            Integer index = indices.get(name);
+            return index != null ? index : -1;
+        }
+
+        /**
+         * Return the number of columns.
+         *
+         * @return The number of columns.
+         */
+        public int size() {
+            return names.size();
+        }
+
+        @Override
+        public String toString() {
+            return names.toString();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.buschmais.xo.spi.datastore;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -37,6 +38,20 @@ public interface DatastoreRelationManager<Entity, RelationId, Relation, Relation
      */
     Relation createRelation(Entity source, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction, Entity target, Map<PrimitivePropertyMethodMetadata<PrimitivePropertyMetadata>, Object> exampleEntity);
 
+    /**
+     * Create relations of the same type between pairs of entities.
+     * <p>This is the batched variant of {@link #createRelation(Object, RelationTypeMetadata, RelationTypeMetadata.Direction, Object, Map)},
+     * implementations may create all relations using a single datastore operation.</p>
+     *
+     * @param sources   The sources.
+     * @param metadata  The relation metadata.
+     * @param direction The direction.
+     * @param targets   The targets, the size must match the size of the sources.
+     * @param examples  The example relations, the size must match the size of the sources.
+     * @return The relations in the order of the sources.
+     */
+    List<Relation> createRelations(List<Entity> sources, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction, List<Entity> targets, List<Map<PrimitivePropertyMethodMetadata<PrimitivePropertyMetadata>, Object>> examples);
+
     /**
      * Delete a relation between entities.
      *
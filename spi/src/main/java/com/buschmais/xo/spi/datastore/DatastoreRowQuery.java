@@ -0,0 +1,35 @@
+package com.buschmais.xo.spi.datastore;
+
+import com.buschmais.xo.api.ResultIterator;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+/**
+ * Defines an executable datastore query which provides its results as column indexed {@link DatastoreQueryRow}s.
+ * <p>XO prefers this representation over the map based one of {@link DatastoreQuery}, as the column names are kept only once per
+ * result.</p>
+ *
+ * @param <QL> The query language type.
+ */
+public interface DatastoreRowQuery<QL extends Annotation> extends DatastoreQuery<QL> {
+
+    /**
+     * Execute the query using a string expression.
+     *
+     * @param query      The expression.
+     * @param parameters The parameters.
+     * @return The {@link com.buschmais.xo.api.ResultIterator}, each entry holding the values of a row in datastore representation.
+     */
+    ResultIterator<DatastoreQueryRow> executeRows(String query, Map<String, Object> parameters);
+
+    /**
+     * Execute the query using an annotation expression.
+     *
+     * @param query      The expression.
+     * @param parameters The parameters.
+     * @return The {@link com.buschmais.xo.api.ResultIterator}, each entry holding the values of a row in datastore representation.
+     */
+    ResultIterator<DatastoreQueryRow> executeRows(QL query, Map<String, Object> parameters);
+
+}
@@ -0,0 +1,74 @@
+package com.buschmais.xo.spi.datastore;
+
+import com.buschmais.xo.api.ResultIterator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adapts a {@link ResultIterator} providing map based rows to {@link DatastoreQueryRow}s.
+ * <p>The {@link DatastoreQueryRow.Columns} are determined from the keys of the first row and shared with all following rows having the
+ * same keys in the same order.</p>
+ */
+public class MapRowResultIterator implements ResultIterator<DatastoreQueryRow> {
+
+    private final Iterator<Map<String, Object>> iterator;
+
+    private DatastoreQueryRow.Columns columns = null;
+
+    /**
+     * Constructor.
+     *
+     * @param iterator The iterator providing map based rows. If it is a {@link ResultIterator} it will be closed by {@link #close()}.
+     */
+    public MapRowResultIterator(Iterator<Map<String, Object>> iterator) {
+        this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator.hasNext();
+    }
+
+    @Override
+    public DatastoreQueryRow next() {
+        Map<String, Object> row = iterator.next();
+        if (columns == null || !hasColumns(row)) {
+            columns = new DatastoreQueryRow.Columns(new ArrayList<>(row.keySet()));
+        }
+        Object[] values = new Object[row.size()];
+        int i = 0;
+        for (Object value : row.values()) {
+            values[i++] = value;
+        }
+        return new DatastoreQueryRow(columns, values);
+    }
+
+    @Override
+    public void remove() {
+        iterator.remove();
+    }
+
+    @Override
+    public void close() {
+        if (iterator instanceof ResultIterator) {
+            ((ResultIterator<?>) iterator).close();
+        }
+    }
+
+    private boolean hasColumns(Map<String, Object> row) {
+        List<String> names = columns.getNames();
+        if (names.size() != row.size()) {
+            return false;
+        }
+        int i = 0;
+        for (String key : row.keySet()) {
+            if (!names.get(i++).equals(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
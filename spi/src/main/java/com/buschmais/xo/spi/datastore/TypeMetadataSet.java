@@ -6,9 +6,15 @@ import java.util.*;
 
 /**
  * Represents a set of type metadata.
+ * <p>A set may be turned into an immutable representation using {@link #toImmutable()}, such instances may be shared between threads and
+ * sessions.</p>
  */
 public final class TypeMetadataSet<TypeMetadata extends DatastoreTypeMetadata<?>> extends TreeSet<TypeMetadata> {
 
+    private boolean immutable = false;
+
+    private Class<?>[] classes = null;
+
     /**
      * Constructor.
      */
@@ -16,11 +22,319 @@ public final class TypeMetadataSet<TypeMetadata extends DatastoreTypeMetadata<?>
         super((o1, o2) -> o1.getAnnotatedType().getAnnotatedElement().getName().compareTo(o2.getAnnotatedType().getAnnotatedElement().getName()));
     }
 
+    /**
+     * Return an immutable copy of this set.
+     *
+     * @return The immutable set, this instance if it is already immutable.
+     */
+    public TypeMetadataSet<TypeMetadata> toImmutable() {
+        if (immutable) {
+            return this;
+        }
+        TypeMetadataSet<TypeMetadata> immutableSet = new TypeMetadataSet<>();
+        immutableSet.addAll(this);
+        immutableSet.classes = immutableSet.getClasses();
+        immutableSet.immutable = true;
+        return immutableSet;
+    }
+
+    /**
+     * Determine if this set is immutable.
+     *
+     * @return <code>true</code> if the set is immutable.
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    /**
+     * Return the classes of the contained types.
+     * <p>For immutable sets the classes are determined once, each call returns a copy which may be modified by the caller.</p>
+     *
+     * @return The classes.
+     */
     public Class<?>[] toClasses() {
-        List<Class<?>> classes = new ArrayList<>();
+        return immutable ? classes.clone() : getClasses();
+    }
+
+    private Class<?>[] getClasses() {
+        Class<?>[] result = new Class<?>[size()];
+        int i = 0;
         for (TypeMetadata typeMetadata : this) {
-            classes.add(typeMetadata.getAnnotatedType().getAnnotatedElement());
+            result[i++] = typeMetadata.getAnnotatedType().getAnnotatedElement();
+        }
+        return result;
+    }
+
+    private void checkMutable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
+        }
+    }
+
+    @Override
+    public boolean add(TypeMetadata typeMetadata) {
+        checkMutable();
+        return super.add(typeMetadata);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends TypeMetadata> c) {
+        checkMutable();
+        return super.addAll(c);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        checkMutable();
+        return super.remove(o);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        checkMutable();
+        return super.removeAll(c);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        checkMutable();
+        return super.retainAll(c);
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        super.clear();
+    }
+
+    @Override
+    public TypeMetadata pollFirst() {
+        checkMutable();
+        return super.pollFirst();
+    }
+
+    @Override
+    public TypeMetadata pollLast() {
+        checkMutable();
+        return super.pollLast();
+    }
+
+    @Override
+    public Iterator<TypeMetadata> iterator() {
+        return immutable ? new ImmutableIterator<>(super.iterator()) : super.iterator();
+    }
+
+    @Override
+    public Iterator<TypeMetadata> descendingIterator() {
+        return immutable ? new ImmutableIterator<>(super.descendingIterator()) : super.descendingIterator();
+    }
+
+    @Override
+    public NavigableSet<TypeMetadata> descendingSet() {
+        return view(super.descendingSet());
+    }
+
+    @Override
+    public NavigableSet<TypeMetadata> subSet(TypeMetadata fromElement, boolean fromInclusive, TypeMetadata toElement, boolean toInclusive) {
+        return view(super.subSet(fromElement, fromInclusive, toElement, toInclusive));
+    }
+
+    @Override
+    public NavigableSet<TypeMetadata> headSet(TypeMetadata toElement, boolean inclusive) {
+        return view(super.headSet(toElement, inclusive));
+    }
+
+    @Override
+    public NavigableSet<TypeMetadata> tailSet(TypeMetadata fromElement, boolean inclusive) {
+        return view(super.tailSet(fromElement, inclusive));
+    }
+
+    @Override
+    public SortedSet<TypeMetadata> subSet(TypeMetadata fromElement, TypeMetadata toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<TypeMetadata> headSet(TypeMetadata toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<TypeMetadata> tailSet(TypeMetadata fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    private NavigableSet<TypeMetadata> view(NavigableSet<TypeMetadata> view) {
+        return immutable ? new ImmutableNavigableSet<>(view) : view;
+    }
+
+    /**
+     * Read-only view of a {@link NavigableSet}, all views created from it are read-only as well.
+     */
+    private static final class ImmutableNavigableSet<T> extends AbstractSet<T> implements NavigableSet<T> {
+
+        private final NavigableSet<T> delegate;
+
+        private ImmutableNavigableSet(NavigableSet<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return delegate.contains(o);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new ImmutableIterator<>(delegate.iterator());
+        }
+
+        @Override
+        public Iterator<T> descendingIterator() {
+            return new ImmutableIterator<>(delegate.descendingIterator());
+        }
+
+        @Override
+        public boolean add(T t) {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends T> c) {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
+        }
+
+        @Override
+        public T pollFirst() {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
+        }
+
+        @Override
+        public T pollLast() {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
+        }
+
+        @Override
+        public T lower(T t) {
+            return delegate.lower(t);
+        }
+
+        @Override
+        public T floor(T t) {
+            return delegate.floor(t);
+        }
+
+        @Override
+        public T ceiling(T t) {
+            return delegate.ceiling(t);
+        }
+
+        @Override
+        public T higher(T t) {
+            return delegate.higher(t);
+        }
+
+        @Override
+        public Comparator<? super T> comparator() {
+            return delegate.comparator();
+        }
+
+        @Override
+        public T first() {
+            return delegate.first();
+        }
+
+        @Override
+        public T last() {
+            return delegate.last();
+        }
+
+        @Override
+        public NavigableSet<T> descendingSet() {
+            return new ImmutableNavigableSet<>(delegate.descendingSet());
+        }
+
+        @Override
+        public NavigableSet<T> subSet(T fromElement, boolean fromInclusive, T toElement, boolean toInclusive) {
+            return new ImmutableNavigableSet<>(delegate.subSet(fromElement, fromInclusive, toElement, toInclusive));
+        }
+
+        @Override
+        public NavigableSet<T> headSet(T toElement, boolean inclusive) {
+            return new ImmutableNavigableSet<>(delegate.headSet(toElement, inclusive));
+        }
+
+        @Override
+        public NavigableSet<T> tailSet(T fromElement, boolean inclusive) {
+            return new ImmutableNavigableSet<>(delegate.tailSet(fromElement, inclusive));
+        }
+
+        @Override
+        public SortedSet<T> subSet(T fromElement, T toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<T> headSet(T toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<T> tailSet(T fromElement) {
+            return tailSet(fromElement, true);
+        }
+    }
+
+    /**
+     * Iterator which does not support removal of elements.
+     */
+    private static final class ImmutableIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> delegate;
+
+        private ImmutableIterator(Iterator<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return delegate.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("The type metadata set is immutable.");
         }
-        return classes.toArray(new Class[classes.size()]);
     }
 }
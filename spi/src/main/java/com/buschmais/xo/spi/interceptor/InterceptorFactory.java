@@ -2,7 +2,9 @@ package com.buschmais.xo.spi.interceptor;
 
 import com.buschmais.xo.api.XOException;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -11,8 +13,20 @@ import java.util.List;
 public class InterceptorFactory {
 
     private final XOInterceptor[] chain;
+    private final InvocationPlanCache invocationPlanCache;
 
     public InterceptorFactory(List<? extends XOInterceptor> chain) {
+        this(chain, new InvocationPlanCache());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param chain               The interceptors.
+     * @param invocationPlanCache The {@link InvocationPlanCache}, it may be shared with other factories using chains of the same structure.
+     */
+    public InterceptorFactory(List<? extends XOInterceptor> chain, InvocationPlanCache invocationPlanCache) {
+        this.invocationPlanCache = invocationPlanCache;
         List<XOInterceptor> effectiveChain = new ArrayList<>(chain.size());
         for (XOInterceptor xoInterceptor : chain) {
             if (xoInterceptor.isActive()) {
@@ -22,14 +36,59 @@ public class InterceptorFactory {
         this.chain = effectiveChain.toArray(new XOInterceptor[effectiveChain.size()]);
     }
 
+    /**
+     * Determine if there is at least one active interceptor.
+     *
+     * @return <code>true</code> if invocations need to be intercepted.
+     */
+    public boolean hasInterceptors() {
+        return chain.length > 0;
+    }
+
+    /**
+     * Create an {@link InvocationPlan} for a method which is invoked using the given target instead of the method itself, e.g. by
+     * classes which call the interceptors on their own instead of being wrapped using {@link #addInterceptor(Object, Class[])}.
+     * <p>The plan is not cached by this factory, it may be shared by all factories using chains of the same structure.</p>
+     *
+     * @param method The method, it is passed to the interceptors.
+     * @param target The target, see {@link InvocationPlan#InvocationPlan(Method, XOInterceptor[], MethodHandle)}.
+     * @return The {@link InvocationPlan}.
+     */
+    public InvocationPlan createPlan(Method method, MethodHandle target) {
+        return new InvocationPlan(method, chain, target);
+    }
+
     public <T> T addInterceptor(T instance, Class<?>... interfaces) {
         if (chain.length == 0) {
             return instance;
         }
-        InterceptorInvocationHandler invocationHandler = new InterceptorInvocationHandler(instance, chain);
+        InterceptorInvocationHandler invocationHandler = new InterceptorInvocationHandler(instance, this);
         return (T) Proxy.newProxyInstance(instance.getClass().getClassLoader(), interfaces, invocationHandler);
     }
 
+    /**
+     * Return the {@link InvocationPlan} for a method, it is compiled on first access.
+     *
+     * @param method The method.
+     * @return The {@link InvocationPlan}.
+     */
+    public InvocationPlan getPlan(Method method) {
+        return invocationPlanCache.get(method, chain);
+    }
+
+    /**
+     * Invoke a method on the given instance applying the interceptors of this factory.
+     *
+     * @param plan     The {@link InvocationPlan} of the method, created by this factory or a factory sharing its structure.
+     * @param instance The instance.
+     * @param args     The arguments.
+     * @return The result of the invocation.
+     * @throws Throwable If the invocation fails.
+     */
+    public Object invoke(InvocationPlan plan, Object instance, Object[] args) throws Throwable {
+        return plan.invoke(chain, instance, args);
+    }
+
     public <T> boolean hasInterceptor(T instance) {
         return Proxy.isProxyClass(instance.getClass()) && Proxy.getInvocationHandler(instance) instanceof InterceptorInvocationHandler;
     }
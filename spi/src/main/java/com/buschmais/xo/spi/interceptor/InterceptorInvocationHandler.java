@@ -6,17 +6,16 @@ import java.lang.reflect.Method;
 public class InterceptorInvocationHandler implements InvocationHandler {
 
     private final Object instance;
-    private final XOInterceptor[] chain;
+    private final InterceptorFactory interceptorFactory;
 
-    public InterceptorInvocationHandler(Object instance, XOInterceptor[] chain) {
+    public InterceptorInvocationHandler(Object instance, InterceptorFactory interceptorFactory) {
         this.instance = instance;
-        this.chain = chain;
+        this.interceptorFactory = interceptorFactory;
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        InvocationContext invocationContext = new InvocationContext(instance, method, args, chain);
-        return invocationContext.proceed();
+        return interceptorFactory.invoke(interceptorFactory.getPlan(method), instance, args);
     }
 
     public Object getInstance() {
@@ -1,39 +1,67 @@
 package com.buschmais.xo.spi.interceptor;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+/**
+ * The context of an intercepted invocation.
+ * <p>Contexts created by an {@link InvocationPlan} are reused by the invocations of the current thread, i.e. an interceptor must not keep a
+ * reference to the context after its {@link XOInterceptor#invoke(InvocationContext)} method has returned.</p>
+ */
 public class InvocationContext {
 
-    private final Object instance;
-    private final Method method;
-    private final Object[] args;
-    private final XOInterceptor[] chain;
+    private static final ThreadLocal<Pool> POOL = new ThreadLocal<Pool>() {
+        @Override
+        protected Pool initialValue() {
+            return new Pool();
+        }
+    };
+
+    private Object instance;
+    private Object[] args;
+    private InvocationPlan plan;
+    private XOInterceptor[] chain;
     private int index = 0;
 
+    /**
+     * Constructor.
+     *
+     * @param instance The instance.
+     * @param method   The method.
+     * @param args     The arguments.
+     * @param chain    The interceptors to apply.
+     * @deprecated Intercepted invocations should be executed using {@link InterceptorFactory#addInterceptor(Object, Class[])} or an
+     * {@link InvocationPlan} which reuse their contexts.
+     */
+    @Deprecated
     public InvocationContext(Object instance, Method method, Object[] args, XOInterceptor[] chain) {
+        this(instance, args, new InvocationPlan(method, chain), chain);
+    }
+
+    InvocationContext() {
+    }
+
+    private InvocationContext(Object instance, Object[] args, InvocationPlan plan, XOInterceptor[] chain) {
+        init(instance, args, plan, chain);
+    }
+
+    private void init(Object instance, Object[] args, InvocationPlan plan, XOInterceptor[] chain) {
         this.instance = instance;
-        this.method = method;
         this.args = args;
+        this.plan = plan;
         this.chain = chain;
+        this.index = 0;
     }
 
     public Object proceed() throws Throwable {
-        if (index < chain.length) {
-            XOInterceptor xoInterceptor = chain[index];
-            index++;
-            return xoInterceptor.invoke(this);
+        if (index < plan.size()) {
+            return plan.intercept(index++, chain, this);
         } else {
-            try {
-                return method.invoke(instance, args);
-            } catch (InvocationTargetException e) {
-                throw e.getTargetException();
-            }
+            return plan.proceed(instance, args);
         }
     }
 
     public Method getMethod() {
-        return method;
+        return plan.getMethod();
     }
 
     public Object[] getArguments() {
@@ -43,4 +71,38 @@ public class InvocationContext {
     public Object getInstance() {
         return instance;
     }
+
+    static Pool getPool() {
+        return POOL.get();
+    }
+
+    /**
+     * The contexts of the current thread, one per nesting level of intercepted invocations.
+     */
+    static final class Pool {
+
+        private InvocationContext[] contexts = new InvocationContext[4];
+        private int depth = 0;
+
+        InvocationContext acquire(Object instance, Object[] args, InvocationPlan plan, XOInterceptor[] chain) {
+            if (depth == contexts.length) {
+                InvocationContext[] grown = new InvocationContext[depth * 2];
+                System.arraycopy(contexts, 0, grown, 0, depth);
+                contexts = grown;
+            }
+            InvocationContext invocationContext = contexts[depth];
+            if (invocationContext == null) {
+                invocationContext = new InvocationContext();
+                contexts[depth] = invocationContext;
+            }
+            depth++;
+            invocationContext.init(instance, args, plan, chain);
+            return invocationContext;
+        }
+
+        void release(InvocationContext invocationContext) {
+            invocationContext.init(null, null, null, null);
+            depth--;
+        }
+    }
 }
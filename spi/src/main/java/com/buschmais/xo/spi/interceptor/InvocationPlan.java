@@ -0,0 +1,143 @@
+package com.buschmais.xo.spi.interceptor;
+
+import com.buschmais.xo.api.XOException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The precompiled invocation plan of a method, i.e. the positions of the interceptors to apply and the target {@link MethodHandle}.
+ * <p>A plan does not reference the interceptors themselves but their positions within the chain of an {@link InterceptorFactory}, i.e. it
+ * is independent of a session and may be shared by all sessions using chains of the same structure (see {@link InvocationPlanCache}).
+ * The attributes resolved by {@link MethodAwareInterceptor}s are kept by the plan and passed to the interceptors of the invoking session.</p>
+ */
+public class InvocationPlan {
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final MethodType TARGET_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+    private final int chainLength;
+    private final int[] positions;
+    private final Object[] attributes;
+    private final MethodHandle target;
+
+    /**
+     * Constructor.
+     *
+     * @param method The method.
+     * @param chain  The active interceptors.
+     */
+    public InvocationPlan(Method method, XOInterceptor[] chain) {
+        this(method, chain, getTarget(method));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param method The method, it is passed to the interceptors.
+     * @param chain  The active interceptors, they are only used to determine the interceptors to apply.
+     * @param target The target which is invoked after the interceptors, it must accept the instance and the arguments as
+     *               {@link Object} and <code>Object[]</code> and return an {@link Object}.
+     */
+    public InvocationPlan(Method method, XOInterceptor[] chain, MethodHandle target) {
+        this.method = method;
+        this.chainLength = chain.length;
+        List<Integer> effectivePositions = new ArrayList<>(chain.length);
+        List<Object> effectiveAttributes = new ArrayList<>(chain.length);
+        for (int i = 0; i < chain.length; i++) {
+            XOInterceptor xoInterceptor = chain[i];
+            if (xoInterceptor instanceof MethodAwareInterceptor) {
+                Object attribute = ((MethodAwareInterceptor) xoInterceptor).getMethodAttribute(method);
+                if (attribute != null) {
+                    effectivePositions.add(i);
+                    effectiveAttributes.add(attribute);
+                }
+            } else {
+                effectivePositions.add(i);
+                effectiveAttributes.add(null);
+            }
+        }
+        this.positions = new int[effectivePositions.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = effectivePositions.get(i);
+        }
+        this.attributes = effectiveAttributes.toArray();
+        this.target = target.asType(TARGET_TYPE);
+    }
+
+    private static MethodHandle getTarget(Method method) {
+        MethodHandle methodHandle;
+        try {
+            methodHandle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            method.setAccessible(true);
+            try {
+                methodHandle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException e1) {
+                throw new XOException("Cannot access method " + method, e1);
+            }
+        }
+        return methodHandle.asSpreader(Object[].class, method.getParameterTypes().length).asType(TARGET_TYPE);
+    }
+
+    /**
+     * Invoke the method on the given instance applying the interceptors of a chain.
+     * <p>The {@link InvocationContext} passed to the interceptors is reused by subsequent invocations of the current thread.</p>
+     *
+     * @param chain    The active interceptors, the chain must have the same structure as the one this plan has been created for.
+     * @param instance The instance.
+     * @param args     The arguments.
+     * @return The result of the invocation.
+     * @throws Throwable If the invocation fails.
+     */
+    public Object invoke(XOInterceptor[] chain, Object instance, Object[] args) throws Throwable {
+        if (chain.length != chainLength) {
+            throw new XOException("The invocation plan of " + method + " has been created for a different interceptor chain.");
+        }
+        if (positions.length == 0) {
+            return proceed(instance, args);
+        }
+        InvocationContext.Pool pool = InvocationContext.getPool();
+        InvocationContext invocationContext = pool.acquire(instance, args, this, chain);
+        try {
+            return invocationContext.proceed();
+        } finally {
+            pool.release(invocationContext);
+        }
+    }
+
+    Object proceed(Object instance, Object[] args) throws Throwable {
+        Object[] effectiveArgs = args != null ? args : NO_ARGS;
+        return (Object) target.invokeExact(instance, effectiveArgs);
+    }
+
+    /**
+     * Invoke the interceptor at the given index of this plan.
+     */
+    Object intercept(int index, XOInterceptor[] chain, InvocationContext invocationContext) throws Throwable {
+        XOInterceptor xoInterceptor = chain[positions[index]];
+        Object attribute = attributes[index];
+        if (attribute != null) {
+            return ((MethodAwareInterceptor) xoInterceptor).invoke(invocationContext, attribute);
+        }
+        return xoInterceptor.invoke(invocationContext);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Return the number of interceptors to apply.
+     *
+     * @return The number of interceptors.
+     */
+    public int size() {
+        return positions.length;
+    }
+}
@@ -0,0 +1,34 @@
+package com.buschmais.xo.spi.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the {@link InvocationPlan}s of methods, it is shared by all sessions of an {@link com.buschmais.xo.api.XOManagerFactory}.
+ * <p>A plan only depends on the method and the structure of the interceptor chain, i.e. all {@link InterceptorFactory}s sharing a cache
+ * must be created from chains of the same interceptor types in the same order.</p>
+ */
+public class InvocationPlanCache {
+
+    private final ConcurrentMap<Method, InvocationPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Return the {@link InvocationPlan} for a method, it is compiled on first access.
+     *
+     * @param method The method.
+     * @param chain  The active interceptors.
+     * @return The {@link InvocationPlan}.
+     */
+    public InvocationPlan get(Method method, XOInterceptor[] chain) {
+        InvocationPlan plan = plans.get(method);
+        if (plan == null) {
+            plan = new InvocationPlan(method, chain);
+            InvocationPlan existingPlan = plans.putIfAbsent(method, plan);
+            if (existingPlan != null) {
+                plan = existingPlan;
+            }
+        }
+        return plan;
+    }
+}
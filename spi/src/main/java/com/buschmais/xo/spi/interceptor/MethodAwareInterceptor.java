@@ -0,0 +1,30 @@
+package com.buschmais.xo.spi.interceptor;
+
+import java.lang.reflect.Method;
+
+/**
+ * An {@link XOInterceptor} which decides once per method if and how it needs to be applied.
+ * <p>The decision is kept by the {@link InvocationPlan} of the method which may be shared by all sessions (see
+ * {@link InvocationPlanCache}), i.e. it must not depend on the state of the session the interceptor belongs to.</p>
+ */
+public interface MethodAwareInterceptor extends XOInterceptor {
+
+    /**
+     * Resolve the attribute of a method which is passed to {@link #invoke(InvocationContext, Object)}.
+     *
+     * @param method The method.
+     * @return The attribute or <code>null</code> if invocations of the method need not be intercepted.
+     */
+    Object getMethodAttribute(Method method);
+
+    /**
+     * Intercept an invocation using the attribute of the method.
+     *
+     * @param invocationContext The invocation context.
+     * @param methodAttribute   The attribute as resolved by {@link #getMethodAttribute(Method)}.
+     * @return The result of the invocation.
+     * @throws Throwable If the invocation fails.
+     */
+    Object invoke(InvocationContext invocationContext, Object methodAttribute) throws Throwable;
+
+}
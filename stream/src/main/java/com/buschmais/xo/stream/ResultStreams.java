@@ -0,0 +1,155 @@
+package com.buschmais.xo.stream;
+
+import com.buschmais.xo.api.ResultIterable;
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.api.XOManager;
+
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Provides {@link Stream} views of {@link ResultIterable}s, e.g. {@link com.buschmais.xo.api.Query.Result}s or the results of
+ * {@link XOManager#find(Class, Object)}.
+ * <p>The streams are backed by a {@link Spliterator} which binds the {@link ResultIterator} lazily on first traversal. The iterator is
+ * closed if it is exhausted or if the stream is closed, therefore streams should be used within try-with-resources blocks if they are
+ * not consumed completely.</p>
+ * <p>Only sequential streams are provided: the elements are entities, relations or rows of a session which must not be accessed by
+ * other threads unless the {@link com.buschmais.xo.api.ConcurrencyMode} of the session allows it. If the spliterator is used for
+ * parallel processing, e.g. using {@link StreamSupport#stream(Spliterator, boolean)}, the parallel stages must neither access the
+ * returned instances nor the datastore.</p>
+ */
+public final class ResultStreams {
+
+    private ResultStreams() {
+    }
+
+    /**
+     * Return a sequential {@link Stream} of the given result.
+     *
+     * @param result The result.
+     * @param <T>    The element type.
+     * @return The stream.
+     */
+    public static <T> Stream<T> stream(ResultIterable<T> result) {
+        ResultSpliterator<T> spliterator = new ResultSpliterator<>(result);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Return a {@link Spliterator} for the given result.
+     * <p>The size is reported if the result is a {@link Collection}, the estimated size then decreases with each traversed element. The
+     * elements are reported as {@link Spliterator#ORDERED}.</p>
+     *
+     * @param result The result.
+     * @param <T>    The element type.
+     * @return The spliterator.
+     */
+    public static <T> Spliterator<T> spliterator(ResultIterable<T> result) {
+        return new ResultSpliterator<>(result);
+    }
+
+    /**
+     * A late binding {@link Spliterator} over a {@link ResultIterable}, splitting is implemented by {@link Spliterators.AbstractSpliterator}
+     * using batches of increasing size.
+     *
+     * @param <T> The element type.
+     */
+    private static final class ResultSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final ResultIterable<T> result;
+
+        private ResultIterator<T> iterator = null;
+
+        private boolean closed = false;
+
+        /**
+         * The number of remaining elements, {@link Long#MAX_VALUE} if unknown.
+         */
+        private long remaining;
+
+        private ResultSpliterator(ResultIterable<T> result) {
+            super(result instanceof Collection<?> ? ((Collection<?>) result).size() : Long.MAX_VALUE,
+                    result instanceof Collection<?> ? ORDERED | SIZED : ORDERED);
+            this.result = result;
+            this.remaining = result instanceof Collection<?> ? ((Collection<?>) result).size() : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            ResultIterator<T> resultIterator = bind();
+            if (resultIterator == null) {
+                return false;
+            }
+            if (!resultIterator.hasNext()) {
+                close();
+                return false;
+            }
+            action.accept(next(resultIterator));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            ResultIterator<T> resultIterator = bind();
+            if (resultIterator == null) {
+                return;
+            }
+            try {
+                while (resultIterator.hasNext()) {
+                    action.accept(next(resultIterator));
+                }
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Return the next element of the iterator and update the number of remaining elements.
+         *
+         * @param resultIterator The iterator.
+         * @return The element.
+         */
+        private T next(ResultIterator<T> resultIterator) {
+            T next = resultIterator.next();
+            if (remaining != Long.MAX_VALUE && remaining > 0) {
+                remaining--;
+            }
+            return next;
+        }
+
+        /**
+         * Return the iterator, it is created on first invocation.
+         *
+         * @return The iterator or <code>null</code> if the spliterator has already been closed.
+         */
+        private ResultIterator<T> bind() {
+            if (closed) {
+                return null;
+            }
+            if (iterator == null) {
+                iterator = result.iterator();
+            }
+            return iterator;
+        }
+
+        private void close() {
+            if (!closed) {
+                closed = true;
+                remaining = 0;
+                if (iterator != null) {
+                    iterator.close();
+                    iterator = null;
+                }
+            }
+        }
+    }
+}
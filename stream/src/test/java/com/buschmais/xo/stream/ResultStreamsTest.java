@@ -0,0 +1,144 @@
+package com.buschmais.xo.stream;
+
+import com.buschmais.xo.api.ResultIterable;
+import com.buschmais.xo.api.ResultIterator;
+import org.junit.Test;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ResultStreamsTest {
+
+    @Test
+    public void lateBinding() {
+        TestResult result = new TestResult("a", "b", "c");
+        Stream<String> stream = ResultStreams.stream(result);
+        assertThat(result.iterators, equalTo(0));
+        assertThat(stream.map(String::toUpperCase).collect(Collectors.toList()), contains("A", "B", "C"));
+        assertThat(result.iterators, equalTo(1));
+        assertThat(result.closed, equalTo(true));
+    }
+
+    @Test
+    public void closeWithoutExhausting() {
+        TestResult result = new TestResult("a", "b", "c");
+        try (Stream<String> stream = ResultStreams.stream(result)) {
+            assertThat(stream.findFirst().get(), equalTo("a"));
+        }
+        assertThat(result.closed, equalTo(true));
+    }
+
+    @Test
+    public void sizedResult() {
+        SizedTestResult result = new SizedTestResult(new TestResult("a", "b", "c"));
+        Spliterator<String> spliterator = ResultStreams.spliterator(result);
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED), equalTo(true));
+        assertThat(spliterator.getExactSizeIfKnown(), equalTo(3L));
+        spliterator.tryAdvance(value -> {
+        });
+        assertThat(spliterator.getExactSizeIfKnown(), equalTo(2L));
+        spliterator.forEachRemaining(value -> {
+        });
+        assertThat(spliterator.getExactSizeIfKnown(), equalTo(0L));
+        assertThat(ResultStreams.stream(new SizedTestResult(new TestResult("a", "b"))).count(), equalTo(2L));
+    }
+
+    @Test
+    public void unsizedResult() {
+        Spliterator<String> spliterator = ResultStreams.spliterator(new TestResult("a", "b"));
+        assertThat(spliterator.hasCharacteristics(Spliterator.SIZED), equalTo(false));
+        assertThat(spliterator.getExactSizeIfKnown(), equalTo(-1L));
+        spliterator.forEachRemaining(value -> {
+        });
+        assertThat(spliterator.estimateSize(), equalTo(0L));
+    }
+
+    private static class TestResult implements ResultIterable<String> {
+
+        private final List<String> values;
+        private int iterators = 0;
+        private boolean closed = false;
+
+        private TestResult(String... values) {
+            this.values = Arrays.asList(values);
+        }
+
+        @Override
+        public String getSingleResult() {
+            return values.get(0);
+        }
+
+        @Override
+        public boolean hasResult() {
+            return !values.isEmpty();
+        }
+
+        @Override
+        public ResultIterator<String> iterator() {
+            iterators++;
+            final Iterator<String> iterator = values.iterator();
+            return new ResultIterator<String>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void close() {
+                    closed = true;
+                }
+            };
+        }
+    }
+
+    /**
+     * A result which is also a {@link java.util.Collection}, i.e. its size is known.
+     */
+    private static class SizedTestResult extends AbstractCollection<String> implements ResultIterable<String> {
+
+        private final TestResult result;
+
+        private SizedTestResult(TestResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public String getSingleResult() {
+            return result.getSingleResult();
+        }
+
+        @Override
+        public boolean hasResult() {
+            return result.hasResult();
+        }
+
+        @Override
+        public ResultIterator<String> iterator() {
+            return result.iterator();
+        }
+
+        @Override
+        public int size() {
+            return result.values.size();
+        }
+    }
+}
@@ -33,14 +33,14 @@ public class TraceDatastoreSession<EntityId, Entity, EntityMetadata extends Data
     @Override
     public DatastoreEntityManager<EntityId, Entity, EntityMetadata, EntityDiscriminator, PropertyMetadata> getDatastoreEntityManager() {
         DatastoreEntityManager<EntityId, Entity, EntityMetadata, EntityDiscriminator, PropertyMetadata> delegate = this.delegate.getDatastoreEntityManager();
-        return new TraceEntityManager<>(interceptorFactory.addInterceptor(delegate, DatastoreEntityManager.class));
+        return new TraceEntityManager<>(interceptorFactory.addInterceptor(delegate, getInterfaces(delegate, DatastoreEntityManager.class)));
     }
 
     @Override
     public DatastoreRelationManager<Entity, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> getDatastoreRelationManager() {
         DatastoreRelationManager<Entity, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> delegate = this.delegate
                 .getDatastoreRelationManager();
-        return new TraceRelationManager<>(interceptorFactory.addInterceptor(delegate, DatastoreRelationManager.class));
+        return new TraceRelationManager<>(interceptorFactory.addInterceptor(delegate, getInterfaces(delegate, DatastoreRelationManager.class)));
     }
 
     @Override
@@ -57,4 +57,15 @@ public class TraceDatastoreSession<EntityId, Entity, EntityMetadata extends Data
     public void close() {
         delegate.close();
     }
+
+    /**
+     * Determine the interfaces to intercept for a property manager, i.e. including {@link DatastorePropertyLookup} if it is supported.
+     *
+     * @param delegate The property manager.
+     * @param type     The manager interface.
+     * @return The interfaces.
+     */
+    private Class<?>[] getInterfaces(DatastorePropertyManager<?, ?> delegate, Class<?> type) {
+        return delegate instanceof DatastorePropertyLookup ? new Class<?>[]{type, DatastorePropertyLookup.class} : new Class<?>[]{type};
+    }
 }
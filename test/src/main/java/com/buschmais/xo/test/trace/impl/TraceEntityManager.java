@@ -3,10 +3,12 @@ package com.buschmais.xo.test.trace.impl;
 import com.buschmais.xo.api.ResultIterator;
 import com.buschmais.xo.spi.datastore.DatastoreEntityManager;
 import com.buschmais.xo.spi.datastore.DatastoreEntityMetadata;
+import com.buschmais.xo.spi.datastore.DatastorePropertyLookup;
 import com.buschmais.xo.spi.datastore.TypeMetadataSet;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.EntityTypeMetadata;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -15,7 +17,8 @@ import java.util.Set;
  * {@link com.buschmais.xo.spi.datastore.DatastoreEntityManager} which
  * delegates to another implementation.
  */
-public class TraceEntityManager<EntityId, Entity, EntityMetadata extends DatastoreEntityMetadata<EntityDiscriminator>, EntityDiscriminator, PropertyMetadata> implements DatastoreEntityManager<EntityId, Entity, EntityMetadata, EntityDiscriminator, PropertyMetadata> {
+public class TraceEntityManager<EntityId, Entity, EntityMetadata extends DatastoreEntityMetadata<EntityDiscriminator>, EntityDiscriminator, PropertyMetadata> implements DatastoreEntityManager<EntityId, Entity, EntityMetadata, EntityDiscriminator, PropertyMetadata>,
+        DatastorePropertyLookup<Entity, PropertyMetadata> {
 
     private DatastoreEntityManager<EntityId, Entity, EntityMetadata, EntityDiscriminator, PropertyMetadata> delegate;
 
@@ -41,6 +44,11 @@ public class TraceEntityManager<EntityId, Entity, EntityMetadata extends Datasto
         return delegate.createEntity(types, entityDiscriminators, exampleEntity);
     }
 
+    @Override
+    public List<Entity> createEntities(TypeMetadataSet<EntityTypeMetadata<EntityMetadata>> types, Set<EntityDiscriminator> entityDiscriminators, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        return delegate.createEntities(types, entityDiscriminators, examples);
+    }
+
     public void deleteEntity(Entity entity) {
         delegate.deleteEntity(entity);
     }
@@ -73,4 +81,12 @@ public class TraceEntityManager<EntityId, Entity, EntityMetadata extends Datasto
     public Object getProperty(Entity entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
         return delegate.getProperty(entity, metadata);
     }
+
+    @Override
+    public Object getPropertyOrAbsent(Entity entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        if (delegate instanceof DatastorePropertyLookup) {
+            return ((DatastorePropertyLookup<Entity, PropertyMetadata>) delegate).getPropertyOrAbsent(entity, metadata);
+        }
+        return delegate.hasProperty(entity, metadata) ? delegate.getProperty(entity, metadata) : ABSENT;
+    }
 }
@@ -1,10 +1,12 @@
 package com.buschmais.xo.test.trace.impl;
 
+import com.buschmais.xo.spi.datastore.DatastorePropertyLookup;
 import com.buschmais.xo.spi.datastore.DatastoreRelationManager;
 import com.buschmais.xo.spi.datastore.DatastoreRelationMetadata;
 import com.buschmais.xo.spi.metadata.method.PrimitivePropertyMethodMetadata;
 import com.buschmais.xo.spi.metadata.type.RelationTypeMetadata;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -13,7 +15,8 @@ import java.util.Map;
  * delegates to another implementation.
  */
 public class TraceRelationManager<Entity, RelationId, Relation, RelationMetadata extends DatastoreRelationMetadata<RelationDiscriminator>, RelationDiscriminator, PropertyMetadata>
-        implements DatastoreRelationManager<Entity, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> {
+        implements DatastoreRelationManager<Entity, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata>,
+        DatastorePropertyLookup<Relation, PropertyMetadata> {
 
     private DatastoreRelationManager<Entity, RelationId, Relation, RelationMetadata, RelationDiscriminator, PropertyMetadata> delegate;
 
@@ -42,6 +45,11 @@ public class TraceRelationManager<Entity, RelationId, Relation, RelationMetadata
         return delegate.createRelation(source, metadata, direction, target, example);
     }
 
+    @Override
+    public List<Relation> createRelations(List<Entity> sources, RelationTypeMetadata<RelationMetadata> metadata, RelationTypeMetadata.Direction direction, List<Entity> targets, List<Map<PrimitivePropertyMethodMetadata<PropertyMetadata>, Object>> examples) {
+        return delegate.createRelations(sources, metadata, direction, targets, examples);
+    }
+
     @Override
     public void deleteRelation(Relation relation) {
         delegate.deleteRelation(relation);
@@ -101,4 +109,12 @@ public class TraceRelationManager<Entity, RelationId, Relation, RelationMetadata
     public Object getProperty(Relation entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
         return delegate.getProperty(entity, metadata);
     }
+
+    @Override
+    public Object getPropertyOrAbsent(Relation entity, PrimitivePropertyMethodMetadata<PropertyMetadata> metadata) {
+        if (delegate instanceof DatastorePropertyLookup) {
+            return ((DatastorePropertyLookup<Relation, PropertyMetadata>) delegate).getPropertyOrAbsent(entity, metadata);
+        }
+        return delegate.hasProperty(entity, metadata) ? delegate.getProperty(entity, metadata) : ABSENT;
+    }
 }